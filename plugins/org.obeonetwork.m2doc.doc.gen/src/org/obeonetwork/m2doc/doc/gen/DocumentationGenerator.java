@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2025 Obeo.
+ * Copyright (c) 2017, 2026 Obeo.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -34,6 +34,7 @@ import org.obeonetwork.m2doc.services.ImageServices;
 import org.obeonetwork.m2doc.services.LinkServices;
 import org.obeonetwork.m2doc.services.PaginationServices;
 import org.obeonetwork.m2doc.services.PromptServices;
+import org.obeonetwork.m2doc.services.TableServices;
 import org.obeonetwork.m2doc.sirius.services.M2DocSiriusServices;
 import org.obeonetwork.m2doc.wikitext.services.M2DocWikiTextServices;
 
@@ -56,7 +57,7 @@ public final class DocumentationGenerator {
 			ImageServices.class, LinkServices.class, PaginationServices.class, M2DocSiriusServices.class,
 			ExcelServices.class, M2DocHTMLServices.class, PromptServices.class, SWTPromptServices.class,
 			M2DocEObjectServices.class, M2DocWikiTextServices.class, DocumentServices.class, M2DocGenServices.class,
-			SemanticBrowserServices.class, GenerationResultServices.class, };
+			SemanticBrowserServices.class, GenerationResultServices.class, TableServices.class, };
 
 	/**
 	 * The constructor.
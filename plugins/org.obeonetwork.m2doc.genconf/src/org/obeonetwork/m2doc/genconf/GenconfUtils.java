@@ -744,6 +744,7 @@ public final class GenconfUtils {
 
             // launch generation
             final boolean updateFields = Boolean.valueOf(options.get(M2DocUtils.UPDATE_FIELDS_OPTION));
+            m2docEnv.setIncremental(Boolean.valueOf(options.get(M2DocUtils.INCREMENTAL_OPTION)));
             M2DocUtils.generate(m2docEnv, documentTemplate, definitions, updateFields, monitor);
 
             List<URI> generatedURIs = new ArrayList<URI>();
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.jsoup.nodes.Node;
+import org.obeonetwork.m2doc.util.LRUMap;
+
+/**
+ * Compiled style sheets of an HTML document. {@link #merge(Map) Merged} style sheets are indexed by selector with
+ * interned property names and values, and the CSS properties computed for a tag, its classes, and its inline style are
+ * memoized until the next {@link #merge(Map) merge}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class CSSCascade {
+
+    /**
+     * The maximum number of memoized computed properties.
+     */
+    private static final int CAPACITY = 4096;
+
+    /**
+     * The class attribute.
+     */
+    private static final String CLASS_ATTR = "class";
+
+    /**
+     * The style attribute.
+     */
+    private static final String STYLE_ATTR = "style";
+
+    /**
+     * The {@link M2DocCSSParser}.
+     */
+    private final M2DocCSSParser cssParser;
+
+    /**
+     * The mapping from selector to its CSS properties.
+     */
+    private final Map<String, Map<String, List<String>>> selectors = new HashMap<>();
+
+    /**
+     * The mapping from tag name, class attribute, and style attribute to the computed CSS properties in least recently
+     * used order.
+     */
+    private final Map<List<String>, Map<String, List<String>>> computedProperties = new LRUMap<>(CAPACITY);
+
+    /**
+     * The interned property names and values.
+     */
+    private final Map<String, String> strings = new HashMap<>();
+
+    /**
+     * The interned property value lists.
+     */
+    private final Map<List<String>, List<String>> values = new HashMap<>();
+
+    /**
+     * The version, incremented at each {@link #merge(Map) merge} that changes this cascade.
+     */
+    private int version;
+
+    /**
+     * The last {@link #merge(Map) merged} CSS classes.
+     */
+    private Map<String, Map<String, List<String>>> lastMerged;
+
+    /**
+     * Constructor.
+     * 
+     * @param cssParser
+     *            the {@link M2DocCSSParser}
+     */
+    public CSSCascade(M2DocCSSParser cssParser) {
+        this.cssParser = cssParser;
+    }
+
+    /**
+     * Merges the given {@link M2DocCSSParser#parseClasses(String) parsed CSS classes} into this cascade. Merging the
+     * same instance twice in a row doesn't change the cascade, so it is ignored. Merging CSS classes already in this
+     * cascade, like the style element of an HTML fragment parsed again, doesn't change the {@link #getVersion()
+     * version}.
+     * 
+     * @param cssClasses
+     *            the {@link M2DocCSSParser#parseClasses(String) parsed CSS classes}
+     */
+    public void merge(Map<String, Map<String, List<String>>> cssClasses) {
+        if (cssClasses != lastMerged) {
+            boolean changed = false;
+            for (Entry<String, Map<String, List<String>>> entry : cssClasses.entrySet()) {
+                final Map<String, List<String>> properties = selectors.computeIfAbsent(entry.getKey(),
+                        n -> new LinkedHashMap<>());
+                for (Entry<String, List<String>> property : entry.getValue().entrySet()) {
+                    final List<String> value = intern(property.getValue());
+                    changed = !value.equals(properties.put(intern(property.getKey()), value)) || changed;
+                }
+            }
+            if (changed) {
+                computedProperties.clear();
+                version++;
+            }
+            lastMerged = cssClasses;
+        }
+    }
+
+    /**
+     * Gets the version of this cascade, incremented at each {@link #merge(Map) merge} that changes this cascade. The
+     * same version always denotes the same cascade.
+     * 
+     * @return the version of this cascade
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the CSS properties for the given {@link Node}. The returned mapping is shared and must not be modified.
+     * 
+     * @param node
+     *            the {@link Node}
+     * @return the mapping of CSS key to values
+     */
+    public Map<String, List<String>> getCSSProperties(Node node) {
+        final String classAttr;
+        if (node.hasAttr(CLASS_ATTR)) {
+            classAttr = node.attr(CLASS_ATTR);
+        } else {
+            classAttr = null;
+        }
+        final String styleAttr;
+        if (node.hasAttr(STYLE_ATTR)) {
+            styleAttr = node.attr(STYLE_ATTR);
+        } else {
+            styleAttr = null;
+        }
+        final List<String> key = Arrays.asList(node.nodeName(), classAttr, styleAttr);
+
+        Map<String, List<String>> res = computedProperties.get(key);
+        if (res == null) {
+            res = computeCSSProperties(node, styleAttr);
+            computedProperties.put(key, res);
+        }
+
+        return res;
+    }
+
+    /**
+     * Computes the CSS properties for the given {@link Node}.
+     * 
+     * @param node
+     *            the {@link Node}
+     * @param styleAttr
+     *            the style attribute of the given {@link Node} if any, <code>null</code> otherwise
+     * @return the unmodifiable mapping of CSS key to values
+     */
+    private Map<String, List<String>> computeCSSProperties(Node node, String styleAttr) {
+        final Map<String, List<String>> res = new HashMap<>();
+
+        for (String selector : cssParser.getCSSClassNames(node)) {
+            final Map<String, List<String>> properties = selectors.get(selector);
+            if (properties != null) {
+                res.putAll(properties);
+            }
+        }
+        if (styleAttr != null) {
+            for (Entry<String, List<String>> property : cssParser.parseStyles(styleAttr).entrySet()) {
+                res.put(intern(property.getKey()), intern(property.getValue()));
+            }
+        }
+
+        return Collections.unmodifiableMap(res);
+    }
+
+    /**
+     * Interns the given {@link String}.
+     * 
+     * @param string
+     *            the {@link String}
+     * @return the interned {@link String}
+     */
+    private String intern(String string) {
+        return strings.computeIfAbsent(string, s -> s);
+    }
+
+    /**
+     * Interns the given {@link List} of values.
+     * 
+     * @param valueList
+     *            the {@link List} of values
+     * @return the interned unmodifiable {@link List} of values
+     */
+    private List<String> intern(List<String> valueList) {
+        final List<String> internedValues = new ArrayList<>(valueList.size());
+        for (String value : valueList) {
+            internedValues.add(intern(value));
+        }
+
+        return values.computeIfAbsent(internedValues, l -> Collections.unmodifiableList(l));
+    }
+
+}
@@ -0,0 +1,453 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits an HTML document read from a {@link Reader} into smaller HTML documents, one for each top level block of its
+ * body. The first document also contains the head of the original document. Each document can be
+ * {@link M2DocHTMLParser#parse(org.eclipse.emf.common.util.URI, String) parsed} on its own, so only the largest block
+ * needs to be kept in memory. Inline content between blocks is kept with the next block, and blocks that are not
+ * closed are kept with the following content until the nesting comes back to the body.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class HTMLBlockReader implements Closeable {
+
+    /**
+     * The end of stream.
+     */
+    private static final int EOF = -1;
+
+    /**
+     * The body tag.
+     */
+    private static final String BODY_TAG = "body";
+
+    /**
+     * The paragraph tag.
+     */
+    private static final String P_TAG = "p";
+
+    /**
+     * The html tag.
+     */
+    private static final String HTML_TAG = "html";
+
+    /**
+     * The start of documents following the first one.
+     */
+    private static final String DOCUMENT_START = "<html><head></head>";
+
+    /**
+     * The end of documents.
+     */
+    private static final String DOCUMENT_END = "</body></html>";
+
+    /**
+     * The comment start after "&lt;!".
+     */
+    private static final String COMMENT_START = "--";
+
+    /**
+     * The comment end.
+     */
+    private static final String COMMENT_END = "-->";
+
+    /**
+     * Tags without content.
+     */
+    private static final Set<String> VOID_TAGS = new HashSet<>(Arrays.asList("area", "base", "br", "col", "embed",
+            "hr", "img", "input", "link", "meta", "param", "source", "track", "wbr"));
+
+    /**
+     * Tags whose content is raw text.
+     */
+    private static final Set<String> RAW_TEXT_TAGS = new HashSet<>(Arrays.asList("script", "style", "textarea",
+            "title"));
+
+    /**
+     * Block tags that end a document once closed at the body level.
+     */
+    private static final Set<String> BLOCK_TAGS = new HashSet<>(Arrays.asList("address", "article", "aside",
+            "blockquote", "center", "div", "dl", "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6",
+            "header", "hr", "main", "nav", "ol", "p", "pre", "section", "table", "ul"));
+
+    /**
+     * The {@link PushbackReader}.
+     */
+    private final PushbackReader reader;
+
+    /**
+     * The body start tag, <code>null</code> if not read yet.
+     */
+    private String bodyTag;
+
+    /**
+     * The block start tag read at the end of the previous document if any, <code>null</code> otherwise.
+     */
+    private String pendingTag;
+
+    /**
+     * The name of the {@link #pendingTag pending tag} if any, <code>null</code> otherwise.
+     */
+    private String pendingName;
+
+    /**
+     * Tells if the end of the body has been reached.
+     */
+    private boolean ended;
+
+    /**
+     * Constructor.
+     * 
+     * @param reader
+     *            the {@link Reader} of the HTML document
+     */
+    public HTMLBlockReader(Reader reader) {
+        this.reader = new PushbackReader(reader);
+    }
+
+    /**
+     * Reads the next HTML document.
+     * 
+     * @return the next HTML document if any, <code>null</code> otherwise
+     * @throws IOException
+     *             if the HTML document can't be read
+     */
+    public String nextDocument() throws IOException {
+        String res = null;
+
+        if (!ended) {
+            final StringBuilder builder = new StringBuilder();
+            if (bodyTag == null) {
+                readHead(builder);
+            } else {
+                builder.append(DOCUMENT_START).append(bodyTag);
+            }
+            final int blockStart = builder.length();
+            if (bodyTag != null) {
+                readBlock(builder);
+            }
+            if (!isBlank(builder, blockStart) || bodyTag == null) {
+                if (bodyTag != null) {
+                    builder.append(DOCUMENT_END);
+                }
+                res = builder.toString();
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Reads the head of the document up to the body start tag included.
+     * 
+     * @param builder
+     *            the {@link StringBuilder} to append to
+     * @throws IOException
+     *             if the HTML document can't be read
+     */
+    private void readHead(StringBuilder builder) throws IOException {
+        int current = reader.read();
+        while (bodyTag == null && current != EOF) {
+            if (current == '<') {
+                final int tagStart = builder.length();
+                final String name = readTag(builder);
+                if (BODY_TAG.equals(name)) {
+                    bodyTag = builder.substring(tagStart);
+                } else if (RAW_TEXT_TAGS.contains(name) && builder.charAt(tagStart + 1) != '/') {
+                    readRawText(builder, name);
+                }
+            } else {
+                builder.append((char) current);
+            }
+            if (bodyTag == null) {
+                current = reader.read();
+            }
+        }
+        if (current == EOF) {
+            // no body tag, the whole document has been read
+            ended = true;
+        }
+    }
+
+    /**
+     * Reads the next top level block of the body.
+     * 
+     * @param builder
+     *            the {@link StringBuilder} to append to
+     * @throws IOException
+     *             if the HTML document can't be read
+     */
+    private void readBlock(StringBuilder builder) throws IOException {
+        final Deque<String> openTags = new ArrayDeque<>();
+
+        boolean blockEnded = false;
+        if (pendingTag != null) {
+            builder.append(pendingTag);
+            blockEnded = startTag(builder, pendingName, openTags);
+            pendingTag = null;
+            pendingName = null;
+        }
+        while (!blockEnded && !ended) {
+            final int current = reader.read();
+            if (current == EOF) {
+                ended = true;
+            } else if (current == '<') {
+                final int tagStart = builder.length();
+                final String name = readTag(builder);
+                if (name != null) {
+                    if (builder.charAt(tagStart + 1) == '/') {
+                        blockEnded = endTag(builder, tagStart, name, openTags);
+                    } else if (openTags.size() == 1 && P_TAG.equals(openTags.peek()) && BLOCK_TAGS.contains(name)) {
+                        // the start of a block implicitly closes the top level paragraph
+                        pendingTag = builder.substring(tagStart);
+                        pendingName = name;
+                        builder.setLength(tagStart);
+                        blockEnded = true;
+                    } else {
+                        blockEnded = startTag(builder, name, openTags);
+                    }
+                }
+            } else {
+                builder.append((char) current);
+            }
+        }
+    }
+
+    /**
+     * Handles the start tag with the given name at the end of the given {@link StringBuilder}.
+     * 
+     * @param builder
+     *            the {@link StringBuilder}
+     * @param name
+     *            the tag name
+     * @param openTags
+     *            the {@link Deque} of open tag names
+     * @return <code>true</code> if the tag ends a top level block, <code>false</code> otherwise
+     * @throws IOException
+     *             if the HTML document can't be read
+     */
+    private boolean startTag(StringBuilder builder, String name, Deque<String> openTags) throws IOException {
+        boolean res = false;
+
+        if (builder.charAt(builder.length() - 2) == '/' || VOID_TAGS.contains(name)) {
+            res = openTags.isEmpty() && BLOCK_TAGS.contains(name);
+        } else if (RAW_TEXT_TAGS.contains(name)) {
+            readRawText(builder, name);
+        } else {
+            openTags.push(name);
+        }
+
+        return res;
+    }
+
+    /**
+     * Handles the end tag with the given name at the end of the given {@link StringBuilder}. Tags opened after the
+     * matching start tag are implicitly closed.
+     * 
+     * @param builder
+     *            the {@link StringBuilder}
+     * @param tagStart
+     *            the index of the end tag in the given {@link StringBuilder}
+     * @param name
+     *            the tag name
+     * @param openTags
+     *            the {@link Deque} of open tag names
+     * @return <code>true</code> if the tag ends a top level block, <code>false</code> otherwise
+     */
+    private boolean endTag(StringBuilder builder, int tagStart, String name, Deque<String> openTags) {
+        boolean res = false;
+
+        if (openTags.contains(name)) {
+            String closed;
+            do {
+                closed = openTags.pop();
+            } while (!name.equals(closed));
+            res = openTags.isEmpty() && BLOCK_TAGS.contains(name);
+        } else if (openTags.isEmpty() && (BODY_TAG.equals(name) || HTML_TAG.equals(name))) {
+            builder.setLength(tagStart);
+            ended = true;
+        }
+
+        return res;
+    }
+
+    /**
+     * Reads a tag, a comment, or a declaration after its starting '&lt;'.
+     * 
+     * @param builder
+     *            the {@link StringBuilder} to append to
+     * @return the lower case tag name for start and end tags, <code>null</code> otherwise
+     * @throws IOException
+     *             if the HTML document can't be read
+     */
+    private String readTag(StringBuilder builder) throws IOException {
+        String res = null;
+
+        builder.append('<');
+        final int next = reader.read();
+        if (next == '!') {
+            builder.append('!');
+            readCommentOrDeclaration(builder);
+        } else if (next == '/' || Character.isLetter(next)) {
+            builder.append((char) next);
+            final StringBuilder name = new StringBuilder();
+            if (next != '/') {
+                name.append((char) next);
+            }
+            int current = reader.read();
+            while (current != EOF && (Character.isLetterOrDigit(current) || current == '-' || current == ':')) {
+                builder.append((char) current);
+                name.append((char) current);
+                current = reader.read();
+            }
+            char quote = 0;
+            while (current != EOF && (quote != 0 || current != '>')) {
+                builder.append((char) current);
+                if (quote != 0) {
+                    if (current == quote) {
+                        quote = 0;
+                    }
+                } else if (current == '"' || current == '\'') {
+                    quote = (char) current;
+                }
+                current = reader.read();
+            }
+            if (current != EOF) {
+                builder.append('>');
+            }
+            res = name.toString().toLowerCase(Locale.ENGLISH);
+        } else if (next != EOF) {
+            // not a tag
+            reader.unread(next);
+        }
+
+        return res;
+    }
+
+    /**
+     * Reads a comment or a declaration after its starting "&lt;!".
+     * 
+     * @param builder
+     *            the {@link StringBuilder} to append to
+     * @throws IOException
+     *             if the HTML document can't be read
+     */
+    private void readCommentOrDeclaration(StringBuilder builder) throws IOException {
+        final int start = builder.length();
+        int current = reader.read();
+        boolean done = false;
+        while (!done && current != EOF) {
+            builder.append((char) current);
+            if (current == '>') {
+                final boolean isComment = builder.indexOf(COMMENT_START, start) == start;
+                done = !isComment || endsWith(builder, start + COMMENT_START.length(), COMMENT_END);
+            }
+            if (!done) {
+                current = reader.read();
+            }
+        }
+    }
+
+    /**
+     * Tells if the given {@link StringBuilder} ends with the given suffix starting at or after the given index.
+     * 
+     * @param builder
+     *            the {@link StringBuilder}
+     * @param from
+     *            the index where the suffix can start
+     * @param suffix
+     *            the suffix
+     * @return <code>true</code> if the given {@link StringBuilder} ends with the given suffix starting at or after the
+     *         given index, <code>false</code> otherwise
+     */
+    private static boolean endsWith(StringBuilder builder, int from, String suffix) {
+        final int suffixStart = builder.length() - suffix.length();
+
+        return suffixStart >= from && builder.substring(suffixStart).equalsIgnoreCase(suffix);
+    }
+
+    /**
+     * Reads the raw text content of the given tag and its end tag.
+     * 
+     * @param builder
+     *            the {@link StringBuilder} to append to
+     * @param name
+     *            the tag name
+     * @throws IOException
+     *             if the HTML document can't be read
+     */
+    private void readRawText(StringBuilder builder, String name) throws IOException {
+        final String endTag = "</" + name;
+        final int start = builder.length();
+        int current = reader.read();
+        boolean done = false;
+        while (!done && current != EOF) {
+            builder.append((char) current);
+            done = endsWith(builder, start, endTag);
+            if (!done) {
+                current = reader.read();
+            }
+        }
+        if (done) {
+            current = reader.read();
+            while (current != EOF && current != '>') {
+                builder.append((char) current);
+                current = reader.read();
+            }
+            if (current != EOF) {
+                builder.append('>');
+            }
+        }
+    }
+
+    /**
+     * Tells if the given {@link StringBuilder} only contains white spaces from the given index.
+     * 
+     * @param builder
+     *            the {@link StringBuilder}
+     * @param from
+     *            the start index
+     * @return <code>true</code> if the given {@link StringBuilder} only contains white spaces from the given index,
+     *         <code>false</code> otherwise
+     */
+    private static boolean isBlank(StringBuilder builder, int from) {
+        boolean res = true;
+
+        for (int i = from; i < builder.length(); i++) {
+            if (!Character.isWhitespace(builder.charAt(i))) {
+                res = false;
+                break;
+            }
+        }
+
+        return res;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
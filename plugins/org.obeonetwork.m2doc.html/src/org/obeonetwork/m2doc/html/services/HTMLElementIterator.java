@@ -0,0 +1,171 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.services;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.obeonetwork.m2doc.element.MElement;
+
+/**
+ * An {@link Iterator} over the {@link MElement} of an HTML file. The file is opened on the first call to
+ * {@link #hasNext()}, decoded with the {@link M2DocHTMLParser#getCharset(byte[], int) charset} of its first bytes,
+ * read one {@link HTMLBlockReader top level block} at a time, and closed once all its {@link MElement} have been
+ * iterated or when {@link #close() closed}. Only one block is kept in memory, so a file whose body is a single block,
+ * like a wrapping <code>div</code> or <code>table</code>, or a file without <code>body</code> tag is read at once.
+ * Read errors are thrown as {@link UncheckedIOException}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class HTMLElementIterator implements Iterator<MElement>, Closeable {
+
+    /**
+     * The {@link URIConverter}.
+     */
+    private final URIConverter uriConverter;
+
+    /**
+     * The HTML file {@link URI}.
+     */
+    private final URI uri;
+
+    /**
+     * The {@link M2DocHTMLParser}.
+     */
+    private final M2DocHTMLParser parser;
+
+    /**
+     * The {@link HTMLBlockReader} if the file is open, <code>null</code> otherwise.
+     */
+    private HTMLBlockReader reader;
+
+    /**
+     * Tells if all the file has been read.
+     */
+    private boolean done;
+
+    /**
+     * The {@link Iterator} over the {@link MElement} of the current block.
+     */
+    private Iterator<MElement> current = Collections.emptyIterator();
+
+    /**
+     * Constructor.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param uri
+     *            the HTML file {@link URI}, also used as base {@link URI}
+     * @param parser
+     *            the {@link M2DocHTMLParser}
+     */
+    public HTMLElementIterator(URIConverter uriConverter, URI uri, M2DocHTMLParser parser) {
+        this.uriConverter = uriConverter;
+        this.uri = uri;
+        this.parser = parser;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (!current.hasNext() && !done) {
+                if (reader == null) {
+                    reader = open();
+                }
+                final String document = reader.nextDocument();
+                if (document != null) {
+                    current = parser.parse(uri, document).iterator();
+                } else {
+                    done = true;
+                    reader.close();
+                }
+            }
+        } catch (IOException e) {
+            done = true;
+            closeQuietly();
+            throw new UncheckedIOException("Can't read " + uri + ": " + e.getMessage(), e);
+        }
+
+        return current.hasNext();
+    }
+
+    /**
+     * Opens the {@link HTMLBlockReader} of the HTML file.
+     * 
+     * @return the opened {@link HTMLBlockReader}
+     * @throws IOException
+     *             if the HTML file can't be opened
+     */
+    private HTMLBlockReader open() throws IOException {
+        final HTMLBlockReader res;
+
+        final InputStream input = new BufferedInputStream(uriConverter.createInputStream(uri));
+        try {
+            input.mark(M2DocHTMLParser.CHARSET_PREFIX_LENGTH);
+            final byte[] prefix = input.readNBytes(M2DocHTMLParser.CHARSET_PREFIX_LENGTH);
+            input.reset();
+            res = new HTMLBlockReader(new InputStreamReader(input, M2DocHTMLParser.getCharset(prefix, prefix.length)));
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+
+        return res;
+    }
+
+    @Override
+    public MElement next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return current.next();
+    }
+
+    /**
+     * Closes the HTML file if opened. No more {@link MElement} are iterated after this call.
+     * 
+     * @throws IOException
+     *             if the HTML file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        done = true;
+        current = Collections.emptyIterator();
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    /**
+     * Closes the {@link #reader} ignoring errors.
+     */
+    private void closeQuietly() {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // nothing to do here, the read error is reported
+            }
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
+import org.obeonetwork.m2doc.util.LRUMap;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+/**
+ * Resources referenced by HTML fragments for the duration of a generation. Linked style sheets are read and
+ * {@link M2DocCSSParser#parseClasses(String) parsed} once per resolved {@link URI} and parsed again only if their time
+ * stamp changes. Image contents are read once per resolved {@link URI} through an {@link ImageStore}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class HTMLResourceCache {
+
+    /**
+     * The maximum number of cached style sheets.
+     */
+    private static final int CAPACITY = 64;
+
+    /**
+     * A parsed style sheet.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class Stylesheet {
+
+        /**
+         * The time stamp of the style sheet file if known, <code>null</code> otherwise.
+         */
+        private final Long timeStamp;
+
+        /**
+         * The {@link M2DocCSSParser#parseClasses(String) parsed CSS classes}.
+         */
+        private final Map<String, Map<String, List<String>>> cssClasses;
+
+        /**
+         * Constructor.
+         * 
+         * @param timeStamp
+         *            the time stamp of the style sheet file if known, <code>null</code> otherwise
+         * @param cssClasses
+         *            the {@link M2DocCSSParser#parseClasses(String) parsed CSS classes}
+         */
+        private Stylesheet(Long timeStamp, Map<String, Map<String, List<String>>> cssClasses) {
+            this.timeStamp = timeStamp;
+            this.cssClasses = cssClasses;
+        }
+
+    }
+
+    /**
+     * The {@link URIConverter}.
+     */
+    private final URIConverter uriConverter;
+
+    /**
+     * The {@link ImageStore}.
+     */
+    private final ImageStore imageStore;
+
+    /**
+     * The mapping from resolved {@link URI} to parsed style sheet in least recently used order.
+     */
+    private final Map<URI, Stylesheet> stylesheets = new LRUMap<>(CAPACITY);
+
+    /**
+     * Constructor.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param imageStore
+     *            the {@link ImageStore}
+     */
+    public HTMLResourceCache(URIConverter uriConverter, ImageStore imageStore) {
+        this.uriConverter = uriConverter;
+        this.imageStore = imageStore;
+    }
+
+    /**
+     * Gets the {@link M2DocCSSParser#parseClasses(String) parsed CSS classes} of the style sheet at the given resolved
+     * {@link URI}. The same instance is returned as long as the style sheet doesn't change.
+     * 
+     * @param uri
+     *            the resolved {@link URI}
+     * @return the {@link M2DocCSSParser#parseClasses(String) parsed CSS classes} of the style sheet at the given
+     *         resolved {@link URI}
+     * @throws IOException
+     *             if the style sheet can't be read
+     */
+    public synchronized Map<String, Map<String, List<String>>> getStylesheet(URI uri) throws IOException {
+        final Map<String, Map<String, List<String>>> res;
+
+        final Long timeStamp = M2DocUtils.getTimeStamp(uriConverter, uri);
+        final Stylesheet cached = stylesheets.get(uri);
+        if (cached != null && (cached.timeStamp == null || cached.timeStamp.equals(timeStamp))) {
+            res = cached.cssClasses;
+        } else {
+            try (InputStream is = uriConverter.createInputStream(uri)) {
+                res = Collections.unmodifiableMap(
+                        M2DocHTMLParser.CSS_PARSER.parseClasses(M2DocHTMLParser.getContent(is, "UTF-8")));
+            }
+            stylesheets.put(uri, new Stylesheet(timeStamp, res));
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the {@link MImage} for the given resolved {@link URI}.
+     * 
+     * @param uri
+     *            the resolved {@link URI}
+     * @param type
+     *            the picture {@link PictureType type}
+     * @return the {@link MImage} for the given resolved {@link URI}
+     */
+    public MImage getImage(URI uri, PictureType type) {
+        return imageStore.getImage(uriConverter, uri, type);
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2021, 2025 Obeo. 
+ *  Copyright (c) 2021, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -13,12 +13,10 @@ package org.obeonetwork.m2doc.html.services;
 
 import java.awt.Color;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -244,9 +242,19 @@ public class M2DocCSSParser extends Parser {
     private static final int ALL_FONT_MODIFIERS_MASK = 0xFFFFFFFF;
 
     /**
-     * The {@link Pattern} that parse a CSS comment.
+     * The CSS comment start.
      */
-    private static final Pattern CSS_COMMENT_PATTERN = Pattern.compile("/\\*.*?\\*/");
+    private static final String CSS_COMMENT_START = "/*";
+
+    /**
+     * The CSS comment end.
+     */
+    private static final String CSS_COMMENT_END = "*/";
+
+    /**
+     * The line terminators that can't be in a CSS comment.
+     */
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
 
     /**
      * The {@link Pattern} that parse a CSS class.
@@ -294,7 +302,7 @@ public class M2DocCSSParser extends Parser {
     public Map<String, Map<String, List<String>>> parseClasses(String cssClasses) {
         Map<String, Map<String, List<String>>> res = new LinkedHashMap<>();
 
-        final String cssNoComments = CSS_COMMENT_PATTERN.matcher(cssClasses).replaceAll("");
+        final String cssNoComments = removeComments(cssClasses);
         final String cssNoAtRule = removeAtRules(cssNoComments);
 
         final Matcher matcher = CSS_CLASS_PATTERN.matcher(cssNoAtRule);
@@ -313,6 +321,60 @@ public class M2DocCSSParser extends Parser {
         return res;
     }
 
+    /**
+     * Removes comments from the given CSS. Comments spanning several lines and unterminated comments are kept.
+     * 
+     * @param css
+     *            the CSS
+     * @return the CSS without comments
+     */
+    private String removeComments(String css) {
+        final StringBuilder res = new StringBuilder(css.length());
+
+        int index = 0;
+        int commentStart = css.indexOf(CSS_COMMENT_START);
+        while (commentStart >= 0) {
+            final int commentEnd = css.indexOf(CSS_COMMENT_END, commentStart + CSS_COMMENT_START.length());
+            if (commentEnd < 0) {
+                commentStart = -1;
+            } else if (hasLineTerminator(css, commentStart + CSS_COMMENT_START.length(), commentEnd)) {
+                commentStart = css.indexOf(CSS_COMMENT_START, commentStart + 1);
+            } else {
+                res.append(css, index, commentStart);
+                index = commentEnd + CSS_COMMENT_END.length();
+                commentStart = css.indexOf(CSS_COMMENT_START, index);
+            }
+        }
+        res.append(css, index, css.length());
+
+        return res.toString();
+    }
+
+    /**
+     * Tells if the given CSS has a line terminator between the given indices.
+     * 
+     * @param css
+     *            the CSS
+     * @param start
+     *            the start index (inclusive)
+     * @param end
+     *            the end index (exclusive)
+     * @return <code>true</code> if the given CSS has a line terminator between the given indices, <code>false</code>
+     *         otherwise
+     */
+    private boolean hasLineTerminator(String css, int start, int end) {
+        boolean res = false;
+
+        for (int i = start; i < end; i++) {
+            if (LINE_TERMINATORS.indexOf(css.charAt(i)) >= 0) {
+                res = true;
+                break;
+            }
+        }
+
+        return res;
+    }
+
     /**
      * Removes @ rules (@media, @scope, ...) form the given CSS.
      * 
@@ -344,21 +406,6 @@ public class M2DocCSSParser extends Parser {
         return res.toString();
     }
 
-    /**
-     * Merges the source CSS styles to the target CSS styles.
-     * 
-     * @param source
-     *            the source CSS styles
-     * @param target
-     *            the target CSS styles
-     */
-    public void mergeCSSStyles(final Map<String, Map<String, List<String>>> source,
-            Map<String, Map<String, List<String>>> target) {
-        for (Entry<String, Map<String, List<String>>> entry : source.entrySet()) {
-            target.computeIfAbsent(entry.getKey(), n -> new LinkedHashMap<>()).putAll(entry.getValue());
-        }
-    }
-
     /**
      * Gets the {@link List} of CSS class names for the given {@link Node}.
      * 
@@ -382,33 +429,6 @@ public class M2DocCSSParser extends Parser {
         return res;
     }
 
-    /**
-     * Gets the CSS properties for the given {@link Node} and {@link #parseClasses(String) CSS classes}.
-     * 
-     * @param node
-     *            the node
-     * @param cssClasses
-     *            the {@link #parseClasses(String) CSS classes}
-     * @return the mapping of CSS key to values
-     */
-    public Map<String, List<String>> getCSSProperties(Node node,
-            final Map<String, Map<String, List<String>>> cssClasses) {
-        final Map<String, List<String>> cssProperties = new HashMap<>();
-        final List<String> cssClasseNames = getCSSClassNames(node);
-
-        for (String cssClasseName : cssClasseNames) {
-            final Map<String, List<String>> cssClassesProperties = cssClasses.getOrDefault(cssClasseName,
-                    Collections.emptyMap());
-            cssProperties.putAll(cssClassesProperties);
-        }
-
-        if (node.hasAttr(STYLE_ATTR)) {
-            final Map<String, List<String>> cssStyleProperties = parseStyles(node.attr(STYLE_ATTR));
-            cssProperties.putAll(cssStyleProperties);
-        }
-        return cssProperties;
-    }
-
     /**
      * Parses the given CSS "style" attribute.
      * 
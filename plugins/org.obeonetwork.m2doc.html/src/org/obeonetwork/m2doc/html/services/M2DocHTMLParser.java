@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2019, 2025 Obeo. 
+ *  Copyright (c) 2019, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -18,15 +18,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigInteger;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFNumbering;
@@ -35,6 +38,7 @@ import org.eclipse.emf.ecore.resource.URIConverter;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Entities;
 import org.jsoup.nodes.Node;
 import org.jsoup.nodes.TextNode;
 import org.obeonetwork.m2doc.element.MElement;
@@ -52,6 +56,7 @@ import org.obeonetwork.m2doc.element.MTable.MRow;
 import org.obeonetwork.m2doc.element.MTable.MTableAlign;
 import org.obeonetwork.m2doc.element.MText;
 import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
 import org.obeonetwork.m2doc.element.impl.MHyperLinkImpl;
 import org.obeonetwork.m2doc.element.impl.MImageImpl;
 import org.obeonetwork.m2doc.element.impl.MListImpl;
@@ -210,6 +215,41 @@ public class M2DocHTMLParser extends Parser {
      */
     private static final String SVG_TAG = "svg";
 
+    /**
+     * The HTML comment start.
+     */
+    private static final String COMMENT_START = "<!--";
+
+    /**
+     * The HTML comment end.
+     */
+    private static final String COMMENT_END = "-->";
+
+    /**
+     * The CDATA section start.
+     */
+    private static final String CDATA_START = "<![CDATA[";
+
+    /**
+     * The CDATA section end.
+     */
+    private static final String CDATA_END = "]]>";
+
+    /**
+     * The attribute added to outermost SVG start tags before parsing to bind them to their {@link #svgs source}.
+     */
+    private static final String SVG_INDEX_ATTR = "data-m2doc-svg-index";
+
+    /**
+     * The plaintext HTML tag, its content is text until the end of the document.
+     */
+    private static final String PLAINTEXT_TAG = "plaintext";
+
+    /**
+     * The {@link Set} of tags with a text content: tags in their content are not parsed.
+     */
+    private static final Set<String> RAW_TEXT_TAGS = initializeRawTextTags();
+
     /**
      * The blockquote HTML tag.
      */
@@ -716,19 +756,45 @@ public class M2DocHTMLParser extends Parser {
     private static final Color LINK_COLOR = Color.BLUE;
 
     /**
-     * The {@link M2DocCSSParser}.
+     * The number of bytes at the start of an HTML document inspected to find its {@link Charset}.
+     */
+    public static final int CHARSET_PREFIX_LENGTH = 1024;
+
+    /**
+     * The pattern of a charset declared in a meta tag.
      */
-    private static final M2DocCSSParser CSS_PARSER = new M2DocCSSParser();
+    private static final Pattern META_CHARSET_PATTERN = Pattern
+            .compile("<meta[^>]+charset\\s*=\\s*[\"']?\\s*([^\\s\"'/>;]+)", Pattern.CASE_INSENSITIVE);
 
     /**
-     * The mapping from the CSS class name to its {@link #parse(String) CSS styles}.
+     * The UTF-8 byte order mark.
      */
-    private final Map<String, Map<String, List<String>>> cssClasses = new LinkedHashMap<String, Map<String, List<String>>>();
+    private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
 
     /**
-     * The {@link URIConverter}.
+     * The UTF-16 big endian byte order mark.
      */
-    private final URIConverter uriConverter;
+    private static final byte[] UTF_16BE_BOM = {(byte) 0xFE, (byte) 0xFF };
+
+    /**
+     * The UTF-16 little endian byte order mark.
+     */
+    private static final byte[] UTF_16LE_BOM = {(byte) 0xFF, (byte) 0xFE };
+
+    /**
+     * The {@link M2DocCSSParser} shared by all parsers and {@link HTMLResourceCache}.
+     */
+    static final M2DocCSSParser CSS_PARSER = new M2DocCSSParser();
+
+    /**
+     * The {@link CSSCascade} of merged style sheets.
+     */
+    private final CSSCascade cascade = new CSSCascade(CSS_PARSER);
+
+    /**
+     * The {@link HTMLResourceCache}.
+     */
+    private final HTMLResourceCache resources;
 
     /**
      * The destination {@link XWPFDocument}.
@@ -736,14 +802,14 @@ public class M2DocHTMLParser extends Parser {
     private final XWPFDocument destinationDocument;
 
     /**
-     * SVG list because SVG is case sensitive and is broken by JSoup HTML parser.
+     * The mapping from SVG {@link Node} to its source because SVG is case sensitive and is broken by JSoup HTML parser.
      */
-    private List<String> svgs;
+    private Map<Node, String> svgs;
 
     /**
-     * The current SVG index.
+     * Tells if the last {@link #parse(URI, String) parse} created a numbering in the destination document.
      */
-    private int svgIndex;
+    private boolean numberingCreated;
 
     /**
      * Constructor.
@@ -754,10 +820,45 @@ public class M2DocHTMLParser extends Parser {
      *            the destination XWPFDocument
      */
     public M2DocHTMLParser(URIConverter uriConverter, XWPFDocument destinationDocument) {
-        this.uriConverter = uriConverter;
+        this(new HTMLResourceCache(uriConverter,
+                new ImageStore(ImageStore.DEFAULT_CONTENTS_BUDGET, ImageStore.DEFAULT_DECODED_CAPACITY)),
+                destinationDocument);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param resources
+     *            the {@link HTMLResourceCache} used to read linked style sheets and images
+     * @param destinationDocument
+     *            the destination XWPFDocument
+     */
+    public M2DocHTMLParser(HTMLResourceCache resources, XWPFDocument destinationDocument) {
+        this.resources = resources;
         this.destinationDocument = destinationDocument;
     }
 
+    /**
+     * Initializes the {@link Set} of tags with a text content.
+     * 
+     * @return the {@link Set} of tags with a text content
+     */
+    private static Set<String> initializeRawTextTags() {
+        final Set<String> res = new HashSet<String>();
+
+        res.add("script");
+        res.add("style");
+        res.add("textarea");
+        res.add("title");
+        res.add("xmp");
+        res.add("iframe");
+        res.add("noembed");
+        res.add("noframes");
+        res.add(PLAINTEXT_TAG);
+
+        return res;
+    }
+
     /**
      * Initializes the {@link Set} of tags that can continue a list for {@link #BR_TAG} removal.
      * 
@@ -802,11 +903,11 @@ public class M2DocHTMLParser extends Parser {
         final MList res = new MListImpl();
         final MParagraph parent = new MParagraphImpl(res, null);
 
-        svgs = new ArrayList<>();
-        initializeSVGs(svgs, Jsoup.parse(htmlString, baseURI.toString(), org.jsoup.parser.Parser.xmlParser()));
-        svgIndex = 0;
+        svgs = new IdentityHashMap<>();
+        numberingCreated = false;
 
-        final Document document = Jsoup.parse(htmlString, baseURI.toString());
+        final List<String> svgSources = new ArrayList<>();
+        final Document document = Jsoup.parse(extractSVGs(htmlString, svgSources), baseURI.toString());
         document.outputSettings().syntax(org.jsoup.nodes.Document.OutputSettings.Syntax.xml);
         document.outputSettings().charset(StandardCharsets.UTF_8);
 
@@ -815,7 +916,7 @@ public class M2DocHTMLParser extends Parser {
         parseHead(baseURI, headElement);
 
         final Element bodyElement = htmlElement.getElementsByTag("body").get(0);
-        cleanHTML(bodyElement);
+        cleanHTML(bodyElement, svgSources);
         final MStyle defaultStyle = new MStyleImpl(null, -1, null, null, -1);
         if (document.body().hasAttr("bgcolor")) {
             defaultStyle.setBackgroundColor(htmlToColor(bodyElement.attr("bgcolor").toLowerCase()));
@@ -840,32 +941,58 @@ public class M2DocHTMLParser extends Parser {
     }
 
     /**
-     * Cleans the HTML code.
+     * Gets the version of the style sheets merged by previous {@link #parse(URI, String) parses}. Parsing the same
+     * HTML with the same version gives the same result. The version only changes when a parse merges new style
+     * sheets.
+     * 
+     * @return the version of the style sheets merged by previous {@link #parse(URI, String) parses}
+     */
+    public int getStylesheetVersion() {
+        return cascade.getVersion();
+    }
+
+    /**
+     * Tells if the result of the last {@link #parse(URI, String) parse} can be shared between insertions. It can't
+     * if it created a numbering in the destination document, since all insertions would continue the same numbering.
+     * 
+     * @return <code>true</code> if the result of the last {@link #parse(URI, String) parse} can be shared between
+     *         insertions, <code>false</code> otherwise
+     */
+    public boolean isShareable() {
+        return !numberingCreated;
+    }
+
+    /**
+     * Cleans the children of the given {@link Node} and binds SVG {@link Node} to their sources.
      * 
      * @param node
      *            the Node to clean
+     * @param svgSources
+     *            the {@link List} of {@link #extractSVGs(String, List) SVG sources}
      */
-    private void cleanHTML(Node node) {
+    private void cleanHTML(Node node, List<String> svgSources) {
         final List<Node> toRemove = new ArrayList<Node>();
 
-        if (node instanceof Element) {
-            if (isHidden(node)) {
-                toRemove.add(node);
-            } else {
-                List<Node> nodeList = new ArrayList<Node>();
-                for (Node child : node.childNodes()) {
-                    cleanHTML(child);
-                    if (continueBrList(child)) {
-                        nodeList.add(child);
-                    } else if (!nodeList.isEmpty()) {
-                        removeBrTags(toRemove, nodeList);
-                        nodeList = new ArrayList<Node>();
-                    }
-                }
-                if (!nodeList.isEmpty()) {
-                    removeBrTags(toRemove, nodeList);
+        List<Node> nodeList = new ArrayList<Node>();
+        for (Node child : node.childNodes()) {
+            if (child instanceof Element) {
+                if (isHidden(child)) {
+                    toRemove.add(child);
+                } else if (SVG_TAG.equals(child.nodeName())) {
+                    bindSVG(child, svgSources);
+                } else {
+                    cleanHTML(child, svgSources);
                 }
             }
+            if (continueBrList(child)) {
+                nodeList.add(child);
+            } else if (!nodeList.isEmpty()) {
+                removeBrTags(toRemove, nodeList);
+                nodeList = new ArrayList<Node>();
+            }
+        }
+        if (!nodeList.isEmpty()) {
+            removeBrTags(toRemove, nodeList);
         }
 
         for (Node remove : toRemove) {
@@ -873,6 +1000,29 @@ public class M2DocHTMLParser extends Parser {
         }
     }
 
+    /**
+     * Binds the given SVG {@link Node} to its source using its {@link #SVG_INDEX_ATTR index attribute}. The index is
+     * used rather than the document order since the HTML parser can move an SVG element, for instance out of a table.
+     * 
+     * @param node
+     *            the SVG {@link Node}
+     * @param svgSources
+     *            the {@link List} of {@link #extractSVGs(String, List) SVG sources}
+     */
+    private void bindSVG(Node node, List<String> svgSources) {
+        final String index = node.attr(SVG_INDEX_ATTR);
+        if (!index.isEmpty()) {
+            try {
+                final int svgIndex = Integer.parseInt(index);
+                if (svgIndex >= 0 && svgIndex < svgSources.size()) {
+                    svgs.put(node, svgSources.get(svgIndex));
+                }
+            } catch (NumberFormatException e) {
+                // not one of our indices, the SVG is serialized from the DOM
+            }
+        }
+    }
+
     /**
      * Tells if the {@link #BR_TAG} removal {@link List} should be continued with the given {@link Node}.
      * 
@@ -919,23 +1069,252 @@ public class M2DocHTMLParser extends Parser {
     }
 
     /**
-     * Initializes SVG to prevent JSoup's HTML parser from breaking case sensitive SVG.
+     * Extracts the source of outermost SVG elements from the given HTML {@link String} in document order. SVG is case
+     * sensitive and is broken by JSoup HTML parser, so the source is kept as written. Comments, CDATA sections,
+     * attribute values, and the content of {@link #RAW_TEXT_TAGS raw text tags} are skipped like the HTML parser does.
      * 
-     * @param svgsResults
-     *            the resulting {@link List} of SVG
-     * @param node
-     *            the current {@link Node}
-     */
-    private void initializeSVGs(List<String> svgsResults, Node node) {
-        if (node instanceof Element) {
-            if (SVG_TAG.equals(node.nodeName())) {
-                svgsResults.add(node.toString());
+     * @param htmlString
+     *            the HTML {@link String}
+     * @param svgSources
+     *            the {@link List} of outermost SVG sources to fill
+     * @return the given HTML {@link String} where each outermost SVG start tag has an {@link #SVG_INDEX_ATTR index
+     *         attribute} giving the index of its source in the given {@link List}
+     */
+    private static String extractSVGs(String htmlString, List<String> svgSources) {
+        final StringBuilder res = new StringBuilder(htmlString.length());
+
+        final int length = htmlString.length();
+        int copied = 0;
+        int depth = 0;
+        int svgStart = -1;
+        int index = htmlString.indexOf('<');
+        while (index >= 0) {
+            final int next;
+            if (htmlString.startsWith(COMMENT_START, index)) {
+                next = getEnd(htmlString, index + COMMENT_START.length(), COMMENT_END);
+            } else if (htmlString.startsWith(CDATA_START, index)) {
+                next = getEnd(htmlString, index + CDATA_START.length(), CDATA_END);
+            } else if (index + 1 < length && (htmlString.charAt(index + 1) == '!'
+                || htmlString.charAt(index + 1) == '?')) {
+                // declaration or processing instruction
+                next = getEnd(htmlString, index + 1, ">");
+            } else if (isTagName(htmlString, index + 1, SVG_TAG)) {
+                final int tagEnd = getTagEnd(htmlString, index);
+                if (depth == 0) {
+                    svgStart = index;
+                    final int nameEnd = index + 1 + SVG_TAG.length();
+                    res.append(htmlString, copied, nameEnd);
+                    res.append(' ').append(SVG_INDEX_ATTR).append("=\"").append(svgSources.size()).append('"');
+                    copied = nameEnd;
+                }
+                if (htmlString.charAt(tagEnd - 1) != '/') {
+                    depth++;
+                } else if (depth == 0) {
+                    svgSources.add(htmlString.substring(svgStart, tagEnd + 1));
+                }
+                next = tagEnd + 1;
+            } else if (index + 1 < length && htmlString.charAt(index + 1) == '/'
+                && isTagName(htmlString, index + 2, SVG_TAG)) {
+                final int tagEnd = getTagEnd(htmlString, index);
+                if (depth > 0) {
+                    depth--;
+                    if (depth == 0) {
+                        svgSources.add(htmlString.substring(svgStart, tagEnd + 1));
+                    }
+                }
+                next = tagEnd + 1;
+            } else if (index + 1 < length && isASCIILetter(htmlString.charAt(index + 1))) {
+                // other start tag, its attribute values can contain tags
+                final int tagEnd = getTagEnd(htmlString, index);
+                final String rawTextTag = getRawTextTag(htmlString, index + 1);
+                if (rawTextTag != null) {
+                    next = getRawTextEnd(htmlString, tagEnd + 1, rawTextTag);
+                } else {
+                    next = tagEnd + 1;
+                }
+            } else if (index + 2 < length && htmlString.charAt(index + 1) == '/'
+                && isASCIILetter(htmlString.charAt(index + 2))) {
+                // other end tag
+                next = getTagEnd(htmlString, index) + 1;
             } else {
-                for (Node child : node.childNodes()) {
-                    initializeSVGs(svgsResults, child);
+                next = index + 1;
+            }
+            if (next < length) {
+                index = htmlString.indexOf('<', next);
+            } else {
+                index = -1;
+            }
+        }
+        if (depth > 0) {
+            // unclosed SVG, JSoup closes it at the end of the document
+            svgSources.add(htmlString.substring(svgStart));
+        }
+        res.append(htmlString, copied, length);
+
+        return res.toString();
+    }
+
+    /**
+     * Gets the index following the given end marker.
+     * 
+     * @param htmlString
+     *            the HTML {@link String}
+     * @param index
+     *            the index to start searching from
+     * @param endMarker
+     *            the end marker
+     * @return the index following the given end marker, or the length of the given HTML {@link String} if the end
+     *         marker is not found
+     */
+    private static int getEnd(String htmlString, int index, String endMarker) {
+        final int res;
+
+        final int end = htmlString.indexOf(endMarker, index);
+        if (end >= 0) {
+            res = end + endMarker.length();
+        } else {
+            res = htmlString.length();
+        }
+
+        return res;
+    }
+
+    /**
+     * Tells if the given character is an ASCII letter, the only characters that can start a tag name.
+     * 
+     * @param c
+     *            the character
+     * @return <code>true</code> if the given character is an ASCII letter, <code>false</code> otherwise
+     */
+    private static boolean isASCIILetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Gets the {@link #RAW_TEXT_TAGS raw text tag} whose name starts at the given index.
+     * 
+     * @param htmlString
+     *            the HTML {@link String}
+     * @param index
+     *            the tag name start index
+     * @return the {@link #RAW_TEXT_TAGS raw text tag} whose name starts at the given index if any, <code>null</code>
+     *         otherwise
+     */
+    private static String getRawTextTag(String htmlString, int index) {
+        String res = null;
+
+        for (String tagName : RAW_TEXT_TAGS) {
+            if (isTagName(htmlString, index, tagName)) {
+                res = tagName;
+                break;
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the index of the end tag closing the text content of the given {@link #RAW_TEXT_TAGS raw text tag}.
+     * 
+     * @param htmlString
+     *            the HTML {@link String}
+     * @param index
+     *            the text content start index
+     * @param tagName
+     *            the {@link #RAW_TEXT_TAGS raw text tag}
+     * @return the index of the end tag closing the text content of the given {@link #RAW_TEXT_TAGS raw text tag}, or
+     *         the length of the given HTML {@link String} if the text content goes to the end of the document
+     */
+    private static int getRawTextEnd(String htmlString, int index, String tagName) {
+        int res = htmlString.length();
+
+        if (!PLAINTEXT_TAG.equals(tagName)) {
+            int endTag = htmlString.indexOf("</", index);
+            while (endTag >= 0) {
+                if (isTagName(htmlString, endTag + 2, tagName)) {
+                    res = endTag;
+                    break;
+                }
+                endTag = htmlString.indexOf("</", endTag + 2);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Normalizes the given SVG source to XML: HTML entities such as <code>&amp;nbsp;</code> are not defined in SVG.
+     * 
+     * @param svgSource
+     *            the SVG source
+     * @return the given SVG source serialized as XML
+     */
+    private static String normalizeSVG(String svgSource) {
+        final Document document = Jsoup.parse(svgSource, "", org.jsoup.parser.Parser.xmlParser());
+        document.outputSettings().syntax(org.jsoup.nodes.Document.OutputSettings.Syntax.xml);
+        document.outputSettings().escapeMode(Entities.EscapeMode.xhtml);
+        document.outputSettings().charset(StandardCharsets.UTF_8);
+        document.outputSettings().prettyPrint(false);
+
+        return document.html();
+    }
+
+    /**
+     * Tells if the given tag name starts at the given index of the given HTML {@link String}.
+     * 
+     * @param htmlString
+     *            the HTML {@link String}
+     * @param index
+     *            the index
+     * @param tagName
+     *            the lower case tag name
+     * @return <code>true</code> if the given tag name starts at the given index of the given HTML {@link String},
+     *         <code>false</code> otherwise
+     */
+    private static boolean isTagName(String htmlString, int index, String tagName) {
+        final boolean res;
+
+        final int end = index + tagName.length();
+        if (htmlString.regionMatches(true, index, tagName, 0, tagName.length())) {
+            res = end == htmlString.length() || Character.isWhitespace(htmlString.charAt(end))
+                || htmlString.charAt(end) == '>' || htmlString.charAt(end) == '/';
+        } else {
+            res = false;
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the index of the closing <code>&gt;</code> of the tag starting at the given index, ignoring quoted attribute
+     * values.
+     * 
+     * @param htmlString
+     *            the HTML {@link String}
+     * @param index
+     *            the tag start index
+     * @return the index of the closing <code>&gt;</code> of the tag starting at the given index, or the last index if
+     *         the tag is not closed
+     */
+    private static int getTagEnd(String htmlString, int index) {
+        int res = htmlString.length() - 1;
+
+        char quote = 0;
+        for (int i = index + 1; i < htmlString.length(); i++) {
+            final char current = htmlString.charAt(i);
+            if (quote != 0) {
+                if (current == quote) {
+                    quote = 0;
                 }
+            } else if (current == '"' || current == '\'') {
+                quote = current;
+            } else if (current == '>') {
+                res = i;
+                break;
             }
         }
+
+        return res;
     }
 
     /**
@@ -953,17 +1332,15 @@ public class M2DocHTMLParser extends Parser {
                 if ("link".equals(element.nodeName()) && element.hasAttr("rel")
                     && "stylesheet".equals(element.attr("rel")) && element.hasAttr(HREF_ATTR)) {
                     final URI cssURI = toURI(baseURI, element.attr(HREF_ATTR));
-                    try (InputStream is = uriConverter.createInputStream(cssURI)) {
-                        final Map<String, Map<String, List<String>>> loadedCssClasses = CSS_PARSER
-                                .parseClasses(getContent(is, "UTF-8"));
-                        CSS_PARSER.mergeCSSStyles(loadedCssClasses, cssClasses);
+                    try {
+                        cascade.merge(resources.getStylesheet(cssURI));
                     } catch (IOException e) {
                         // nothing to do here
                     }
                 } else if ("style".equals(element.nodeName()) && element.childNodeSize() >= 1) {
                     final Map<String, Map<String, List<String>>> parsedCssClasses = CSS_PARSER
                             .parseClasses(element.childNodes().get(0).toString());
-                    CSS_PARSER.mergeCSSStyles(parsedCssClasses, cssClasses);
+                    cascade.merge(parsedCssClasses);
                 }
             }
         }
@@ -1004,8 +1381,13 @@ public class M2DocHTMLParser extends Parser {
                     insertTable(parent, context, tHeader, tBody, colGroup);
                 }
             } else if (SVG_TAG.equals(node.nodeName())) {
-                final MImageImpl mImage = new MImageImpl(svgs.get(svgIndex++).getBytes(StandardCharsets.UTF_8),
-                        PictureType.SVG);
+                final String svg;
+                if (svgs.containsKey(node)) {
+                    svg = normalizeSVG(svgs.get(node));
+                } else {
+                    svg = node.outerHtml();
+                }
+                final MImageImpl mImage = new MImageImpl(svg.getBytes(StandardCharsets.UTF_8), PictureType.SVG);
                 final MList parentContents = (MList) parent.getContents();
                 parentContents.add(mImage);
             } else {
@@ -1054,7 +1436,7 @@ public class M2DocHTMLParser extends Parser {
         if (node.hasAttr("hidden")) {
             res = true;
         } else {
-            final Map<String, List<String>> cssProperties = CSS_PARSER.getCSSProperties(node, cssClasses);
+            final Map<String, List<String>> cssProperties = cascade.getCSSProperties(node);
             res = CSS_PARSER.hasCSS(cssProperties, M2DocCSSParser.CSS_DISPLAY, NONE);
         }
 
@@ -1265,7 +1647,7 @@ public class M2DocHTMLParser extends Parser {
         int index = 0;
         for (Node child : colgroup.childNodes()) {
             if ("col".equals(child.nodeName())) {
-                final Map<String, List<String>> cssProperties = CSS_PARSER.getCSSProperties(child, cssClasses);
+                final Map<String, List<String>> cssProperties = cascade.getCSSProperties(child);
                 int span = 1;
                 if (child.hasAttr(SPAN_TAG)) {
                     try {
@@ -1840,7 +2222,7 @@ public class M2DocHTMLParser extends Parser {
      *            the current {@link Context}
      */
     private void applyCSSStyle(Node node, Context context) {
-        final Map<String, List<String>> cssProperties = CSS_PARSER.getCSSProperties(node, cssClasses);
+        final Map<String, List<String>> cssProperties = cascade.getCSSProperties(node);
         if (!cssProperties.isEmpty()) {
             applyCSSStyle(cssProperties, context);
         }
@@ -1893,7 +2275,7 @@ public class M2DocHTMLParser extends Parser {
      */
     private MImage createMImage(Context context, Element element) {
         final URI imageURI = toURI(context.baseURI, element.attr("src"));
-        final MImage mImage = new MImageImpl(uriConverter, imageURI);
+        final MImage mImage = resources.getImage(imageURI, PictureType.toType(imageURI));
 
         final String width;
         if (element.hasAttr(WIDTH_ATTR)) {
@@ -2045,6 +2427,7 @@ public class M2DocHTMLParser extends Parser {
 
         context.numbering = res;
         context.numberingID = ctNum.getNumId();
+        numberingCreated = true;
     }
 
     /**
@@ -2166,6 +2549,62 @@ public class M2DocHTMLParser extends Parser {
         return res;
     }
 
+    /**
+     * Gets the {@link Charset} of the HTML document starting with the given bytes. The byte order mark is used if any,
+     * then the charset declared in a meta tag in the first {@link #CHARSET_PREFIX_LENGTH} bytes, then the platform
+     * default {@link Charset}.
+     * 
+     * @param bytes
+     *            the first bytes of the HTML document
+     * @param length
+     *            the number of bytes to inspect
+     * @return the {@link Charset} of the HTML document starting with the given bytes
+     */
+    public static Charset getCharset(byte[] bytes, int length) {
+        Charset res;
+
+        if (startsWith(bytes, length, UTF_8_BOM)) {
+            res = StandardCharsets.UTF_8;
+        } else if (startsWith(bytes, length, UTF_16BE_BOM) || startsWith(bytes, length, UTF_16LE_BOM)) {
+            res = StandardCharsets.UTF_16;
+        } else {
+            res = Charset.defaultCharset();
+            final String prefix = new String(bytes, 0, Math.min(length, CHARSET_PREFIX_LENGTH),
+                    StandardCharsets.ISO_8859_1);
+            final Matcher matcher = META_CHARSET_PATTERN.matcher(prefix);
+            if (matcher.find()) {
+                try {
+                    res = Charset.forName(matcher.group(1));
+                } catch (IllegalArgumentException e) {
+                    // unknown charset, keep the default one
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Tells if the given bytes start with the given prefix.
+     * 
+     * @param bytes
+     *            the bytes
+     * @param length
+     *            the number of bytes to inspect
+     * @param prefix
+     *            the prefix
+     * @return <code>true</code> if the given bytes start with the given prefix, <code>false</code> otherwise
+     */
+    private static boolean startsWith(byte[] bytes, int length, byte[] prefix) {
+        boolean res = length >= prefix.length;
+
+        for (int i = 0; res && i < prefix.length; i++) {
+            res = bytes[i] == prefix[i];
+        }
+
+        return res;
+    }
+
     /**
      * Gets the content of the given {@link InputStream}.
      * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2018 Obeo. 
+ *  Copyright (c) 2018, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -24,6 +24,11 @@ import org.eclipse.acceleo.annotations.api.documentation.ServiceProvider;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIConverter;
 import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MStreamedList;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
+import org.obeonetwork.m2doc.element.impl.MStreamedListImpl;
+import org.obeonetwork.m2doc.generator.GenerationResult;
+import org.obeonetwork.m2doc.services.MElementCache;
 
 //@formatter:off
 @ServiceProvider(
@@ -48,6 +53,16 @@ public class M2DocHTMLServices {
      */
     private M2DocHTMLParser parser;
 
+    /**
+     * The {@link MElementCache} of parsed HTML for the current destination document.
+     */
+    private MElementCache cache;
+
+    /**
+     * The {@link ImageStore} of the current destination document.
+     */
+    private ImageStore imageStore;
+
     /**
      * Constructor.
      * 
@@ -77,7 +92,7 @@ public class M2DocHTMLServices {
     )
     // @formatter:on
     public List<MElement> fromHTMLString(String htmlString) {
-        return parser.parse(templateURI, htmlString);
+        return parse(templateURI, htmlString);
     }
 
     // @formatter:off
@@ -96,7 +111,7 @@ public class M2DocHTMLServices {
     )
     // @formatter:on
     public List<MElement> fromHTMLBodyString(String bodyString) {
-        return parser.parse(templateURI, "<html><head/><body>" + bodyString + "</body></html>");
+        return parse(templateURI, "<html><head/><body>" + bodyString + "</body></html>");
     }
 
     // @formatter:off
@@ -116,7 +131,7 @@ public class M2DocHTMLServices {
     )
     // @formatter:on
     public List<MElement> fromHTMLString(String htmlString, String baseURI) {
-        return parser.parse(URI.createURI(baseURI, false), htmlString);
+        return parse(URI.createURI(baseURI, false), htmlString);
     }
 
     // @formatter:off
@@ -136,12 +151,12 @@ public class M2DocHTMLServices {
     )
     // @formatter:on
     public List<MElement> fromHTMLBodyString(String bodyString, String baseURI) {
-        return parser.parse(URI.createURI(baseURI, false), "<html><head/><body>" + bodyString + "</body></html>");
+        return parse(URI.createURI(baseURI, false), "<html><head/><body>" + bodyString + "</body></html>");
     }
 
     // @formatter:off
     @Documentation(
-        value = "Returns a Sequence of MElement corresponding to the given web page.",
+        value = "Returns a Sequence of MElement corresponding to the given web page. The page is decoded with the charset of its byte order mark or of its meta charset declaration, or with the platform charset if none is found.",
         params = {
             @Param(name = "uriStr", value = "The URI."),
         },
@@ -159,20 +174,99 @@ public class M2DocHTMLServices {
         final URI uri = htmlURI.resolve(templateURI);
 
         try (InputStream input = uriConverter.createInputStream(uri);) {
-            final String htmlString = new String(IOUtils.toByteArray(input));
+            final byte[] bytes = IOUtils.toByteArray(input);
+            final String htmlString = new String(bytes, M2DocHTMLParser.getCharset(bytes, bytes.length));
 
-            return parser.parse(uri, htmlString);
+            return parse(uri, htmlString);
         }
     }
 
+    // @formatter:off
+    @Documentation(
+        value = "Returns a Sequence of MElement corresponding to the given web page. The web page is read and converted one top level block at a time while being inserted, so large HTML files don't need to be kept in memory. A single top level block, for instance a div or a table wrapping the whole body, or a document without body tag is still read at once. The file is read again each time the Sequence is inserted. The file is read with the same charset as fromHTMLURI(), and read errors are reported at the insertion point.",
+        params = {
+            @Param(name = "uriStr", value = "The URI."),
+        },
+        result = "The Sequence of MElement corresponding to the given web page.",
+        examples = {
+            @Example(
+                expression = "'report.html'.fromHTMLURIStreamed()",
+                result = "The Sequence of MElement corresponding to the given web page."
+            )
+        }
+    )
+    // @formatter:on
+    public MStreamedList fromHTMLURIStreamed(String uriStr) throws IOException {
+        final URI htmlURI = URI.createURI(uriStr, false);
+        final URI uri = htmlURI.resolve(templateURI);
+
+        if (!uriConverter.exists(uri, null)) {
+            throw new IOException(uri + " doesn't exist.");
+        }
+
+        return new MStreamedListImpl(() -> new HTMLElementIterator(uriConverter, uri, parser));
+    }
+
     /**
-     * Sets the destination {@link XWPFDocument}.
+     * Sets the destination {@link XWPFDocument}. Linked resources and converted fragments are cached until the next
+     * call.
      * 
      * @param destinationDocument
      *            the destination {@link XWPFDocument}
      */
     public void setDestinationDocument(XWPFDocument destinationDocument) {
-        this.parser = new M2DocHTMLParser(uriConverter, destinationDocument);
+        this.imageStore = new ImageStore();
+        final HTMLResourceCache resources = new HTMLResourceCache(uriConverter, imageStore);
+        this.parser = new M2DocHTMLParser(resources, destinationDocument);
+        this.cache = new MElementCache();
+    }
+
+    /**
+     * Ends the generation and releases the images preparation threads.
+     */
+    public void endGeneration() {
+        if (imageStore != null) {
+            imageStore.endGeneration();
+        }
+    }
+
+    /**
+     * Adds the statistics of the current generation to the given {@link GenerationResult}.
+     * 
+     * @param result
+     *            the {@link GenerationResult}
+     */
+    void addStatistics(GenerationResult result) {
+        if (cache != null) {
+            cache.addStatistics(result, "HTML fragment cache");
+        }
+    }
+
+    /**
+     * Parses the given HTML {@link String} with the given base {@link URI}, reusing the result of a previous parse of
+     * the same HTML if any. The result is cached with the style sheets version after the parse, since it already
+     * contains the style sheets of the parsed HTML: parsing it again with this version gives the same result and
+     * doesn't change the style sheets.
+     * 
+     * @param baseURI
+     *            the base {@link URI}
+     * @param htmlString
+     *            the HTML {@link String}
+     * @return the {@link List} of parsed {@link MElement}
+     */
+    private List<MElement> parse(URI baseURI, String htmlString) {
+        List<MElement> res = cache.get(
+                MElementCache.getKey(baseURI, htmlString, String.valueOf(parser.getStylesheetVersion())));
+
+        if (res == null) {
+            res = parser.parse(baseURI, htmlString);
+            if (parser.isShareable()) {
+                res = cache.put(MElementCache.getKey(baseURI, htmlString,
+                        String.valueOf(parser.getStylesheetVersion())), res);
+            }
+        }
+
+        return res;
     }
 
 }
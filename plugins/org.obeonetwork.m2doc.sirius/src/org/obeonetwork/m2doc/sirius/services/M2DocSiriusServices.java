@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2024 Obeo.
+ * Copyright (c) 2017, 2026 Obeo.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -550,6 +550,7 @@ public class M2DocSiriusServices {
             exportDiagUnitOfWork.run();
         }
 
+        // the exported file has just been written by this thread, it is read synchronously
         res = new MImageImpl(uriConverter, URI.createFileURI(tmpFile.getAbsolutePath()));
         return res;
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2019, 2023 Obeo. 
+ *  Copyright (c) 2019, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -30,8 +30,9 @@ import org.obeonetwork.m2doc.element.MPagination;
 import org.obeonetwork.m2doc.element.MParagraph;
 import org.obeonetwork.m2doc.element.MStyle;
 import org.obeonetwork.m2doc.element.MText;
+import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
 import org.obeonetwork.m2doc.element.impl.MHyperLinkImpl;
-import org.obeonetwork.m2doc.element.impl.MImageImpl;
 import org.obeonetwork.m2doc.element.impl.MListImpl;
 import org.obeonetwork.m2doc.element.impl.MParagraphImpl;
 import org.obeonetwork.m2doc.element.impl.MStyleImpl;
@@ -216,11 +217,21 @@ public class M2DocMElementBuilder extends DocumentBuilder {
      */
     private XWPFDocument destinationDocument;
 
+    /**
+     * The {@link ImageStore} of the generation.
+     */
+    private final ImageStore imageStore;
+
     /**
      * The {@link Context} {@link Stack}.
      */
     private final Stack<Context> contexts = new Stack<Context>();
 
+    /**
+     * Tells if the current document created a numbering in the destination document.
+     */
+    private boolean numberingCreated;
+
     /**
      * Constructor.
      * 
@@ -230,8 +241,24 @@ public class M2DocMElementBuilder extends DocumentBuilder {
      *            the destination {@link XWPFDocument}
      */
     public M2DocMElementBuilder(URIConverter uriConverter, XWPFDocument destinationDocument) {
+        this(uriConverter, destinationDocument,
+                new ImageStore(ImageStore.DEFAULT_CONTENTS_BUDGET, ImageStore.DEFAULT_DECODED_CAPACITY));
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param destinationDocument
+     *            the destination {@link XWPFDocument}
+     * @param imageStore
+     *            the {@link ImageStore} of the generation
+     */
+    public M2DocMElementBuilder(URIConverter uriConverter, XWPFDocument destinationDocument, ImageStore imageStore) {
         this.uriConverter = uriConverter;
         this.destinationDocument = destinationDocument;
+        this.imageStore = imageStore;
     }
 
     /**
@@ -243,6 +270,17 @@ public class M2DocMElementBuilder extends DocumentBuilder {
         return result;
     }
 
+    /**
+     * Tells if the {@link #getResult() result} can be shared between insertions. It can't if it created a numbering in
+     * the destination document, since all insertions would continue the same numbering.
+     * 
+     * @return <code>true</code> if the {@link #getResult() result} can be shared between insertions, <code>false</code>
+     *         otherwise
+     */
+    public boolean isShareable() {
+        return !numberingCreated;
+    }
+
     public void setBaseURI(URI baseURI) {
         this.baseURI = baseURI;
     }
@@ -250,6 +288,7 @@ public class M2DocMElementBuilder extends DocumentBuilder {
     @Override
     public void beginDocument() {
         result = new MListImpl();
+        numberingCreated = false;
         final MStyle defaultStyle = new MStyleImpl(null, -1, null, null, -1);
         contexts.push(new Context(result, baseURI, null, defaultStyle, null, null, 0));
     }
@@ -391,7 +430,7 @@ public class M2DocMElementBuilder extends DocumentBuilder {
     @Override
     public void image(Attributes attributes, String url) {
         final URI imageURI = URI.createURI(url).resolve(contexts.peek().baseURI);
-        final MImage mImage = new MImageImpl(uriConverter, imageURI);
+        final MImage mImage = imageStore.getImage(uriConverter, imageURI, PictureType.toType(imageURI));
         contexts.peek().parent.add(mImage);
     }
 
@@ -416,7 +455,7 @@ public class M2DocMElementBuilder extends DocumentBuilder {
     @Override
     public void imageLink(Attributes linkAttributes, Attributes imageAttributes, String href, String imageUrl) {
         final URI imageURI = URI.createURI(imageUrl).resolve(contexts.peek().baseURI);
-        final MImage mImage = new MImageImpl(uriConverter, imageURI);
+        final MImage mImage = imageStore.getImage(uriConverter, imageURI, PictureType.toType(imageURI));
         contexts.peek().parent.add(mImage);
     }
 
@@ -476,29 +515,38 @@ public class M2DocMElementBuilder extends DocumentBuilder {
     }
 
     /**
-     * Creates a numbering for the given {@link Context}.
+     * Creates a numbering for the given {@link Context}. Builders of the same destination document can run in
+     * different threads, so numberings are created while holding the destination document lock. Only these builders
+     * take this lock: the evaluator and other services, like the HTML conversion, modify the destination document
+     * without it. Markup conversions must not run while other code modifies the numberings of the destination
+     * document.
      * 
      * @param context
      *            the {@link Context}
      */
     private void createNumbering(Context context) {
         final CTAbstractNum res;
-        final XWPFNumbering numbering = destinationDocument.createNumbering();
-        final CTNumbering ctNumbering = PaginationServices.getCTNumbering(numbering);
-        res = ctNumbering.addNewAbstractNum();
-        res.addNewMultiLevelType().setVal(STMultiLevelType.HYBRID_MULTILEVEL);
-        BigInteger id = BigInteger.valueOf(ctNumbering.sizeOfAbstractNumArray() - 1);
-        res.setAbstractNumId(id);
-        final CTNum ctNum = ctNumbering.addNewNum();
-        ctNum.setNumId(BigInteger.valueOf(ctNumbering.sizeOfNumArray()));
-        ctNum.addNewAbstractNumId().setVal(id);
+        final CTNum ctNum;
+        synchronized (destinationDocument) {
+            final XWPFNumbering numbering = destinationDocument.createNumbering();
+            final CTNumbering ctNumbering = PaginationServices.getCTNumbering(numbering);
+            res = ctNumbering.addNewAbstractNum();
+            res.addNewMultiLevelType().setVal(STMultiLevelType.HYBRID_MULTILEVEL);
+            BigInteger id = BigInteger.valueOf(ctNumbering.sizeOfAbstractNumArray() - 1);
+            res.setAbstractNumId(id);
+            ctNum = ctNumbering.addNewNum();
+            ctNum.setNumId(BigInteger.valueOf(ctNumbering.sizeOfNumArray()));
+            ctNum.addNewAbstractNumId().setVal(id);
+        }
 
         context.numbering = res;
         context.numberingID = ctNum.getNumId();
+        numberingCreated = true;
     }
 
     /**
-     * Increments the level for the given {@link CTAbstractNum}.
+     * Increments the level for the given {@link CTAbstractNum}. The level is added while holding the destination
+     * document lock, with the same limit as {@link #createNumbering(Context)}.
      * 
      * @param numbering
      *            the {@link CTAbstractNum}
@@ -516,6 +564,31 @@ public class M2DocMElementBuilder extends DocumentBuilder {
      */
     private long incrementNumberingLevel(CTAbstractNum numbering, long currentLevel, STNumberFormat.Enum type,
             long start, String symbol, boolean reversed) {
+        synchronized (destinationDocument) {
+            addNumberingLevel(numbering, currentLevel, type, start, symbol, reversed);
+        }
+
+        return currentLevel + 1;
+    }
+
+    /**
+     * Adds the given level to the given {@link CTAbstractNum} if it doesn't exist yet.
+     * 
+     * @param numbering
+     *            the {@link CTAbstractNum}
+     * @param currentLevel
+     *            the current level
+     * @param type
+     *            the {@link STNumberFormat#enumValue()}
+     * @param start
+     *            the start
+     * @param symbol
+     *            the symbol
+     * @param reversed
+     *            tell if the numbering is reversed
+     */
+    private void addNumberingLevel(CTAbstractNum numbering, long currentLevel, STNumberFormat.Enum type, long start,
+            String symbol, boolean reversed) {
         if (numbering.getLvlList().size() <= currentLevel) {
             final CTLvl level = numbering.addNewLvl();
             level.setIlvl(BigInteger.valueOf(currentLevel));
@@ -564,8 +637,6 @@ public class M2DocMElementBuilder extends DocumentBuilder {
                 // TODO reversed
             }
         }
-
-        return currentLevel + 1;
     }
 
     /**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2019 Obeo. 
+ *  Copyright (c) 2019, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -12,10 +12,12 @@
 package org.obeonetwork.m2doc.wikitext.services;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.poi.util.IOUtils;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.eclipse.acceleo.annotations.api.documentation.Documentation;
 import org.eclipse.acceleo.annotations.api.documentation.Example;
@@ -23,15 +25,8 @@ import org.eclipse.acceleo.annotations.api.documentation.Param;
 import org.eclipse.acceleo.annotations.api.documentation.ServiceProvider;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIConverter;
-import org.eclipse.mylyn.wikitext.asciidoc.AsciiDocLanguage;
-import org.eclipse.mylyn.wikitext.confluence.ConfluenceLanguage;
-import org.eclipse.mylyn.wikitext.markdown.MarkdownLanguage;
-import org.eclipse.mylyn.wikitext.mediawiki.MediaWikiLanguage;
-import org.eclipse.mylyn.wikitext.parser.MarkupParser;
-import org.eclipse.mylyn.wikitext.textile.TextileLanguage;
-import org.eclipse.mylyn.wikitext.tracwiki.TracWikiLanguage;
-import org.eclipse.mylyn.wikitext.twiki.TWikiLanguage;
 import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.generator.GenerationResult;
 
 //@formatter:off
 @ServiceProvider(
@@ -52,44 +47,14 @@ public class M2DocWikiTextServices {
     private final URI templateURI;
 
     /**
-     * The {@link M2DocMElementBuilder}.
+     * The mapping from destination {@link XWPFDocument} to the {@link WikiTextConverterPool} of its running generation.
      */
-    private M2DocMElementBuilder builder;
+    private final Map<XWPFDocument, WikiTextConverterPool> pools = new ConcurrentHashMap<>();
 
     /**
-     * The asciidoc parser.
+     * The destination {@link XWPFDocument} of the generation started by the current thread if any.
      */
-    private final MarkupParser asciiDocParser = new MarkupParser(new AsciiDocLanguage());
-
-    /**
-     * The confluence parser.
-     */
-    private final MarkupParser confluenceParser = new MarkupParser(new ConfluenceLanguage());
-
-    /**
-     * The markdown parser.
-     */
-    private final MarkupParser markdownParser = new MarkupParser(new MarkdownLanguage());
-
-    /**
-     * The mediawiki parser.
-     */
-    private final MarkupParser mediaWikiParser = new MarkupParser(new MediaWikiLanguage());
-
-    /**
-     * The textile parser.
-     */
-    private final MarkupParser textileParser = new MarkupParser(new TextileLanguage());
-
-    /**
-     * The tracwiki parser.
-     */
-    private final MarkupParser tracWikiParser = new MarkupParser(new TracWikiLanguage());
-
-    /**
-     * The twiki parser.
-     */
-    private final MarkupParser tWikiParser = new MarkupParser(new TWikiLanguage());
+    private final ThreadLocal<XWPFDocument> currentDocument = new ThreadLocal<>();
 
     /**
      * Constructor.
@@ -105,63 +70,117 @@ public class M2DocWikiTextServices {
     }
 
     /**
-     * Parses the given markup contents with the given {@link MarkupParser}.
+     * Parses the given markup contents in the given language.
      * 
-     * @param parser
-     *            the {@link MarkupParser}
+     * @param language
+     *            the language name ({@link WikiTextConverterPool#MARKDOWN}, {@link WikiTextConverterPool#ASCII_DOC},
+     *            ...)
      * @param baseURI
      *            the base {@link URI}
      * @param markupContents
      *            the markup contents
      * @return the {@link List} of parsed {@link MElement}
      */
-    protected List<MElement> parse(MarkupParser parser, URI baseURI, String markupContents) {
-        builder.setBaseURI(baseURI);
-        parser.parse(markupContents);
-
-        return builder.getResult();
+    protected List<MElement> parse(String language, URI baseURI, String markupContents) {
+        return getPool().parse(language, baseURI, markupContents);
     }
 
     /**
-     * Parses the given markup contents with at the given {@link URI}.
+     * Parses the markup contents at the given {@link URI}. The contents are streamed to the parser, their charset is
+     * detected from the byte order mark and defaults to the platform charset.
      * 
-     * @param parser
-     *            the {@link MarkupParser}
+     * @param language
+     *            the language name ({@link WikiTextConverterPool#MARKDOWN}, {@link WikiTextConverterPool#ASCII_DOC},
+     *            ...)
      * @param baseURI
      *            the base {@link URI}
-     * @param srcURI
+     * @param markupURI
      *            the source {@link URI}
      * @return the {@link List} of parsed {@link MElement}
      * @throws IOException
      *             if the source {@link URI} can't be read
      */
-    protected List<MElement> parse(MarkupParser parser, URI baseURI, URI markupURI) throws IOException {
-        builder.setBaseURI(baseURI);
-        final URI uri = markupURI.resolve(templateURI);
+    protected List<MElement> parse(String language, URI baseURI, URI markupURI) throws IOException {
+        return getPool().parse(language, baseURI, markupURI.resolve(templateURI), Charset.defaultCharset());
+    }
 
-        try (InputStream input = uriConverter.createInputStream(uri);) {
-            final String markupContents = new String(IOUtils.toByteArray(input));
-            parser.parse(markupContents);
+    /**
+     * Gets the {@link WikiTextConverterPool} of the generation calling a service. It is the generation started by the
+     * current thread, or the only running generation for other threads.
+     * 
+     * @return the {@link WikiTextConverterPool} of the generation calling a service
+     * @throws IllegalStateException
+     *             if no generation is running, or if several generations are running and none was started by the
+     *             current thread
+     */
+    private WikiTextConverterPool getPool() {
+        WikiTextConverterPool res = null;
+
+        final XWPFDocument document = currentDocument.get();
+        if (document != null) {
+            res = pools.get(document);
+        } else {
+            final Iterator<WikiTextConverterPool> it = pools.values().iterator();
+            if (it.hasNext()) {
+                res = it.next();
+                if (it.hasNext()) {
+                    throw new IllegalStateException(
+                            "Several generations are running, services must be called from their generation thread.");
+                }
+            }
+        }
+        if (res == null) {
+            throw new IllegalStateException("No generation is running.");
         }
 
-        return builder.getResult();
+        return res;
     }
 
     /**
-     * Sets the destination {@link XWPFDocument}.
+     * Sets the destination {@link XWPFDocument} and starts a generation from the current thread. An instance is
+     * created for each query environment and can run several generations at the same time, one per destination
+     * {@link XWPFDocument}. Services called from the current thread convert markup for the given destination
+     * {@link XWPFDocument}. Services called from other threads convert markup for the only running generation.
      * 
      * @param destinationDocument
      *            the destination {@link XWPFDocument}
      */
     public void setDestinationDocument(XWPFDocument destinationDocument) {
-        this.builder = new M2DocMElementBuilder(uriConverter, destinationDocument);
-        asciiDocParser.setBuilder(builder);
-        confluenceParser.setBuilder(builder);
-        markdownParser.setBuilder(builder);
-        mediaWikiParser.setBuilder(builder);
-        textileParser.setBuilder(builder);
-        tracWikiParser.setBuilder(builder);
-        tWikiParser.setBuilder(builder);
+        pools.put(destinationDocument, new WikiTextConverterPool(uriConverter, destinationDocument));
+        currentDocument.set(destinationDocument);
+    }
+
+    /**
+     * Adds the statistics of the generation of the {@link GenerationResult#getBody() destination document} to the
+     * given {@link GenerationResult}.
+     * 
+     * @param result
+     *            the {@link GenerationResult}
+     */
+    void addStatistics(GenerationResult result) {
+        final WikiTextConverterPool pool = pools.get(result.getBody());
+
+        if (pool != null) {
+            pool.getCache().addStatistics(result, "WikiText fragment cache");
+        }
+    }
+
+    /**
+     * Ends the generation of the given destination {@link XWPFDocument} and releases its
+     * {@link WikiTextConverterPool}.
+     * 
+     * @param destinationDocument
+     *            the destination {@link XWPFDocument}
+     */
+    public void endGeneration(XWPFDocument destinationDocument) {
+        final WikiTextConverterPool pool = pools.remove(destinationDocument);
+
+        if (currentDocument.get() == destinationDocument) {
+            currentDocument.remove();
+        }
+        if (pool != null) {
+            pool.endGeneration();
+        }
     }
 
     // @formatter:off
@@ -180,7 +199,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromAsciiDocString(String markupContent) {
-        return parse(asciiDocParser, templateURI, markupContent);
+        return parse(WikiTextConverterPool.ASCII_DOC, templateURI, markupContent);
     }
 
     // @formatter:off
@@ -200,7 +219,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromAsciiDocString(String markupContents, String baseURI) {
-        return parse(asciiDocParser, URI.createURI(baseURI, false), markupContents);
+        return parse(WikiTextConverterPool.ASCII_DOC, URI.createURI(baseURI, false), markupContents);
     }
 
     // @formatter:off
@@ -219,7 +238,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromAsciiDocURI(String srcURI) throws IOException {
-        return parse(asciiDocParser, templateURI, URI.createURI(srcURI, false));
+        return parse(WikiTextConverterPool.ASCII_DOC, templateURI, URI.createURI(srcURI, false));
     }
 
     // @formatter:off
@@ -238,7 +257,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromConfluenceString(String markupContent) {
-        return parse(confluenceParser, templateURI, markupContent);
+        return parse(WikiTextConverterPool.CONFLUENCE, templateURI, markupContent);
     }
 
     // @formatter:off
@@ -258,7 +277,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromConfluenceString(String markupContents, String baseURI) {
-        return parse(confluenceParser, URI.createURI(baseURI, false), markupContents);
+        return parse(WikiTextConverterPool.CONFLUENCE, URI.createURI(baseURI, false), markupContents);
     }
 
     // @formatter:off
@@ -277,7 +296,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromConfluenceURI(String srcURI) throws IOException {
-        return parse(confluenceParser, templateURI, URI.createURI(srcURI, false));
+        return parse(WikiTextConverterPool.CONFLUENCE, templateURI, URI.createURI(srcURI, false));
     }
 
     // @formatter:off
@@ -296,7 +315,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromMarkdownString(String markupContent) {
-        return parse(markdownParser, templateURI, markupContent);
+        return parse(WikiTextConverterPool.MARKDOWN, templateURI, markupContent);
     }
 
     // @formatter:off
@@ -316,7 +335,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromMarkdownString(String markupContents, String baseURI) {
-        return parse(markdownParser, URI.createURI(baseURI, false), markupContents);
+        return parse(WikiTextConverterPool.MARKDOWN, URI.createURI(baseURI, false), markupContents);
     }
 
     // @formatter:off
@@ -335,7 +354,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromMarkdownURI(String srcURI) throws IOException {
-        return parse(markdownParser, templateURI, URI.createURI(srcURI, false));
+        return parse(WikiTextConverterPool.MARKDOWN, templateURI, URI.createURI(srcURI, false));
     }
 
     // @formatter:off
@@ -354,7 +373,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromMediaWikiString(String markupContent) {
-        return parse(mediaWikiParser, templateURI, markupContent);
+        return parse(WikiTextConverterPool.MEDIA_WIKI, templateURI, markupContent);
     }
 
     // @formatter:off
@@ -374,7 +393,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromMediaWikiString(String markupContents, String baseURI) {
-        return parse(mediaWikiParser, URI.createURI(baseURI, false), markupContents);
+        return parse(WikiTextConverterPool.MEDIA_WIKI, URI.createURI(baseURI, false), markupContents);
     }
 
     // @formatter:off
@@ -393,7 +412,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromMediaWikiURI(String srcURI) throws IOException {
-        return parse(mediaWikiParser, templateURI, URI.createURI(srcURI, false));
+        return parse(WikiTextConverterPool.MEDIA_WIKI, templateURI, URI.createURI(srcURI, false));
     }
 
     // @formatter:off
@@ -412,7 +431,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTextileString(String markupContent) {
-        return parse(textileParser, templateURI, markupContent);
+        return parse(WikiTextConverterPool.TEXTILE, templateURI, markupContent);
     }
 
     // @formatter:off
@@ -432,7 +451,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTextileString(String markupContents, String baseURI) {
-        return parse(textileParser, URI.createURI(baseURI, false), markupContents);
+        return parse(WikiTextConverterPool.TEXTILE, URI.createURI(baseURI, false), markupContents);
     }
 
     // @formatter:off
@@ -451,7 +470,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTextileURI(String srcURI) throws IOException {
-        return parse(textileParser, templateURI, URI.createURI(srcURI, false));
+        return parse(WikiTextConverterPool.TEXTILE, templateURI, URI.createURI(srcURI, false));
     }
 
     // @formatter:off
@@ -470,7 +489,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTracWikiString(String markupContent) {
-        return parse(tracWikiParser, templateURI, markupContent);
+        return parse(WikiTextConverterPool.TRAC_WIKI, templateURI, markupContent);
     }
 
     // @formatter:off
@@ -490,7 +509,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTracWikiString(String markupContents, String baseURI) {
-        return parse(tracWikiParser, URI.createURI(baseURI, false), markupContents);
+        return parse(WikiTextConverterPool.TRAC_WIKI, URI.createURI(baseURI, false), markupContents);
     }
 
     // @formatter:off
@@ -509,7 +528,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTracWikiURI(String srcURI) throws IOException {
-        return parse(tracWikiParser, templateURI, URI.createURI(srcURI, false));
+        return parse(WikiTextConverterPool.TRAC_WIKI, templateURI, URI.createURI(srcURI, false));
     }
 
     // @formatter:off
@@ -528,7 +547,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTWikiString(String markupContent) {
-        return parse(tWikiParser, templateURI, markupContent);
+        return parse(WikiTextConverterPool.T_WIKI, templateURI, markupContent);
     }
 
     // @formatter:off
@@ -548,7 +567,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTWikiString(String markupContents, String baseURI) {
-        return parse(tWikiParser, URI.createURI(baseURI, false), markupContents);
+        return parse(WikiTextConverterPool.T_WIKI, URI.createURI(baseURI, false), markupContents);
     }
 
     // @formatter:off
@@ -567,7 +586,7 @@ public class M2DocWikiTextServices {
     )
     // @formatter:on
     public List<MElement> fromTWikiURI(String srcURI) throws IOException {
-        return parse(tWikiParser, templateURI, URI.createURI(srcURI, false));
+        return parse(WikiTextConverterPool.T_WIKI, templateURI, URI.createURI(srcURI, false));
     }
 
 }
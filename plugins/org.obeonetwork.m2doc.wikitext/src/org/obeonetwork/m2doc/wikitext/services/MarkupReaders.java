@@ -0,0 +1,111 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.wikitext.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Creates {@link Reader} for markup files. The charset is detected from the byte order mark if any.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public final class MarkupReaders {
+
+    /**
+     * The UTF-8 byte order mark.
+     */
+    private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    /**
+     * The UTF-16 big endian byte order mark.
+     */
+    private static final byte[] UTF_16BE_BOM = {(byte) 0xFE, (byte) 0xFF };
+
+    /**
+     * The UTF-16 little endian byte order mark.
+     */
+    private static final byte[] UTF_16LE_BOM = {(byte) 0xFF, (byte) 0xFE };
+
+    /**
+     * Constructor.
+     */
+    private MarkupReaders() {
+        // nothing to do here
+    }
+
+    /**
+     * Creates a buffered {@link Reader} for the given {@link InputStream}. The byte order mark, if any, selects the
+     * charset and is skipped.
+     * 
+     * @param input
+     *            the {@link InputStream}
+     * @param defaultCharset
+     *            the {@link Charset} to use when there is no byte order mark
+     * @return the created {@link Reader}
+     * @throws IOException
+     *             if the byte order mark can't be read
+     */
+    public static Reader createReader(InputStream input, Charset defaultCharset) throws IOException {
+        final PushbackInputStream stream = new PushbackInputStream(input, UTF_8_BOM.length);
+        final byte[] bom = new byte[UTF_8_BOM.length];
+        final int length = stream.readNBytes(bom, 0, bom.length);
+
+        final Charset charset;
+        final int bomLength;
+        if (startsWith(bom, length, UTF_8_BOM)) {
+            charset = StandardCharsets.UTF_8;
+            bomLength = UTF_8_BOM.length;
+        } else if (startsWith(bom, length, UTF_16BE_BOM)) {
+            charset = StandardCharsets.UTF_16BE;
+            bomLength = UTF_16BE_BOM.length;
+        } else if (startsWith(bom, length, UTF_16LE_BOM)) {
+            charset = StandardCharsets.UTF_16LE;
+            bomLength = UTF_16LE_BOM.length;
+        } else {
+            charset = defaultCharset;
+            bomLength = 0;
+        }
+        stream.unread(bom, bomLength, length - bomLength);
+
+        return new BufferedReader(new InputStreamReader(stream, charset));
+    }
+
+    /**
+     * Tells if the given read bytes start with the given byte order mark.
+     * 
+     * @param bytes
+     *            the read bytes
+     * @param length
+     *            the number of read bytes
+     * @param bom
+     *            the byte order mark
+     * @return <code>true</code> if the given read bytes start with the given byte order mark, <code>false</code>
+     *         otherwise
+     */
+    private static boolean startsWith(byte[] bytes, int length, byte[] bom) {
+        boolean res = length >= bom.length;
+
+        for (int i = 0; res && i < bom.length; i++) {
+            res = bytes[i] == bom[i];
+        }
+
+        return res;
+    }
+
+}
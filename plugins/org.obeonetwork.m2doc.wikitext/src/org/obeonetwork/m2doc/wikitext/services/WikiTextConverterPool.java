@@ -0,0 +1,379 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.wikitext.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.mylyn.wikitext.asciidoc.AsciiDocLanguage;
+import org.eclipse.mylyn.wikitext.confluence.ConfluenceLanguage;
+import org.eclipse.mylyn.wikitext.markdown.MarkdownLanguage;
+import org.eclipse.mylyn.wikitext.mediawiki.MediaWikiLanguage;
+import org.eclipse.mylyn.wikitext.parser.MarkupParser;
+import org.eclipse.mylyn.wikitext.parser.markup.MarkupLanguage;
+import org.eclipse.mylyn.wikitext.textile.TextileLanguage;
+import org.eclipse.mylyn.wikitext.tracwiki.TracWikiLanguage;
+import org.eclipse.mylyn.wikitext.twiki.TWikiLanguage;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
+import org.obeonetwork.m2doc.services.MElementCache;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+/**
+ * Pool of {@link MarkupParser} and {@link M2DocMElementBuilder} pairs for one destination {@link XWPFDocument}.
+ * {@link MarkupParser} and {@link M2DocMElementBuilder} are stateful, each {@link #parse(String, URI, String) parsing}
+ * borrows an idle pair (or creates a new one) so markup can be converted from several threads at the same time.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class WikiTextConverterPool {
+
+    /**
+     * The AsciiDoc language.
+     */
+    public static final String ASCII_DOC = "AsciiDoc";
+
+    /**
+     * The Confluence language.
+     */
+    public static final String CONFLUENCE = "Confluence";
+
+    /**
+     * The Markdown language.
+     */
+    public static final String MARKDOWN = "Markdown";
+
+    /**
+     * The MediaWiki language.
+     */
+    public static final String MEDIA_WIKI = "MediaWiki";
+
+    /**
+     * The Textile language.
+     */
+    public static final String TEXTILE = "Textile";
+
+    /**
+     * The TracWiki language.
+     */
+    public static final String TRAC_WIKI = "TracWiki";
+
+    /**
+     * The TWiki language.
+     */
+    public static final String T_WIKI = "TWiki";
+
+    /**
+     * The mapping from language name to its {@link MarkupLanguage} factory.
+     */
+    private static final Map<String, Supplier<MarkupLanguage>> LANGUAGES = initLanguages();
+
+    /**
+     * The separator between key parts of markup files.
+     */
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * The {@link URIConverter}.
+     */
+    private final URIConverter uriConverter;
+
+    /**
+     * The destination {@link XWPFDocument}.
+     */
+    private final XWPFDocument destinationDocument;
+
+    /**
+     * The {@link MElementCache} of parsed markup.
+     */
+    private final MElementCache cache = new MElementCache();
+
+    /**
+     * The {@link ImageStore} shared by all {@link M2DocMElementBuilder} of the generation.
+     */
+    private final ImageStore imageStore = new ImageStore();
+
+    /**
+     * The idle {@link Converter}.
+     */
+    private final Deque<Converter> idleConverters = new ArrayDeque<>();
+
+    /**
+     * Constructor.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param destinationDocument
+     *            the destination {@link XWPFDocument}
+     */
+    public WikiTextConverterPool(URIConverter uriConverter, XWPFDocument destinationDocument) {
+        this.uriConverter = uriConverter;
+        this.destinationDocument = destinationDocument;
+    }
+
+    /**
+     * Initializes the mapping from language name to its {@link MarkupLanguage} factory.
+     * 
+     * @return the mapping from language name to its {@link MarkupLanguage} factory
+     */
+    private static Map<String, Supplier<MarkupLanguage>> initLanguages() {
+        final Map<String, Supplier<MarkupLanguage>> res = new HashMap<>();
+
+        res.put(ASCII_DOC, () -> new AsciiDocLanguage());
+        res.put(CONFLUENCE, () -> new ConfluenceLanguage());
+        res.put(MARKDOWN, () -> new MarkdownLanguage());
+        res.put(MEDIA_WIKI, () -> new MediaWikiLanguage());
+        res.put(TEXTILE, () -> new TextileLanguage());
+        res.put(TRAC_WIKI, () -> new TracWikiLanguage());
+        res.put(T_WIKI, () -> new TWikiLanguage());
+
+        return res;
+    }
+
+    /**
+     * Parses the given markup contents in the given language.
+     * 
+     * @param language
+     *            the language name ({@link #MARKDOWN}, {@link #ASCII_DOC}, ...)
+     * @param baseURI
+     *            the base {@link URI}
+     * @param markupContents
+     *            the markup contents
+     * @return the {@link List} of parsed {@link MElement}
+     */
+    public List<MElement> parse(String language, URI baseURI, String markupContents) {
+        final String key = MElementCache.getKey(baseURI, markupContents, language);
+        List<MElement> res = cache.get(key);
+
+        if (res == null) {
+            final Converter converter = borrow();
+            final boolean shareable;
+            try {
+                res = converter.parse(language, baseURI, markupContents);
+                shareable = converter.builder.isShareable();
+            } finally {
+                release(converter);
+            }
+            if (shareable) {
+                res = cache.put(key, res);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Parses the markup file at the given {@link URI} in the given language. The file is streamed to the
+     * {@link MarkupParser}, its charset is detected from its byte order mark if any. Files with a known time stamp are
+     * cached until they change.
+     * 
+     * @param language
+     *            the language name ({@link #MARKDOWN}, {@link #ASCII_DOC}, ...)
+     * @param baseURI
+     *            the base {@link URI}
+     * @param markupURI
+     *            the markup file {@link URI}
+     * @param defaultCharset
+     *            the {@link Charset} to use when the file has no byte order mark
+     * @return the {@link List} of parsed {@link MElement}
+     * @throws IOException
+     *             if the markup file can't be read
+     */
+    public List<MElement> parse(String language, URI baseURI, URI markupURI, Charset defaultCharset)
+            throws IOException {
+        final Long timeStamp = M2DocUtils.getTimeStamp(uriConverter, markupURI);
+        final String key;
+        List<MElement> res;
+        if (timeStamp != null) {
+            key = MElementCache.getKey(baseURI, markupURI.toString() + SEPARATOR + timeStamp,
+                    language + SEPARATOR + defaultCharset.name());
+            res = cache.get(key);
+        } else {
+            key = null;
+            res = null;
+        }
+
+        if (res == null) {
+            final Converter converter = borrow();
+            final boolean shareable;
+            try (InputStream input = uriConverter.createInputStream(markupURI);
+                    Reader reader = MarkupReaders.createReader(input, defaultCharset)) {
+                res = converter.parse(language, baseURI, reader);
+                shareable = converter.builder.isShareable();
+            } finally {
+                release(converter);
+            }
+            if (key != null && shareable) {
+                res = cache.put(key, res);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the {@link MElementCache} of parsed markup.
+     * 
+     * @return the {@link MElementCache} of parsed markup
+     */
+    public MElementCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Ends the generation and releases the images preparation threads.
+     */
+    public void endGeneration() {
+        imageStore.endGeneration();
+    }
+
+    /**
+     * Borrows an idle {@link Converter}, a new one is created if none is idle.
+     * 
+     * @return the borrowed {@link Converter}
+     */
+    private Converter borrow() {
+        Converter res;
+
+        synchronized (idleConverters) {
+            res = idleConverters.poll();
+        }
+        if (res == null) {
+            res = new Converter(new M2DocMElementBuilder(uriConverter, destinationDocument, imageStore));
+        }
+
+        return res;
+    }
+
+    /**
+     * Releases the given {@link #borrow() borrowed} {@link Converter}.
+     * 
+     * @param converter
+     *            the {@link Converter}
+     */
+    private void release(Converter converter) {
+        synchronized (idleConverters) {
+            idleConverters.push(converter);
+        }
+    }
+
+    /**
+     * A {@link M2DocMElementBuilder} and its {@link MarkupParser} for each language. It must be used by one thread at a
+     * time.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class Converter {
+
+        /**
+         * The {@link M2DocMElementBuilder}.
+         */
+        private final M2DocMElementBuilder builder;
+
+        /**
+         * The mapping from language name to its {@link MarkupParser}.
+         */
+        private final Map<String, MarkupParser> parsers = new HashMap<>();
+
+        /**
+         * Constructor.
+         * 
+         * @param builder
+         *            the {@link M2DocMElementBuilder}
+         */
+        private Converter(M2DocMElementBuilder builder) {
+            this.builder = builder;
+        }
+
+        /**
+         * Parses the given markup contents in the given language.
+         * 
+         * @param language
+         *            the language name
+         * @param baseURI
+         *            the base {@link URI}
+         * @param markupContents
+         *            the markup contents
+         * @return the {@link List} of parsed {@link MElement}
+         */
+        private List<MElement> parse(String language, URI baseURI, String markupContents) {
+            getParser(language, baseURI).parse(markupContents);
+
+            return builder.getResult();
+        }
+
+        /**
+         * Parses the markup contents of the given {@link Reader} in the given language.
+         * 
+         * @param language
+         *            the language name
+         * @param baseURI
+         *            the base {@link URI}
+         * @param markupReader
+         *            the markup contents {@link Reader}
+         * @return the {@link List} of parsed {@link MElement}
+         * @throws IOException
+         *             if the markup contents can't be read
+         */
+        private List<MElement> parse(String language, URI baseURI, Reader markupReader) throws IOException {
+            getParser(language, baseURI).parse(markupReader);
+
+            return builder.getResult();
+        }
+
+        /**
+         * Gets the {@link MarkupParser} for the given language and sets the base {@link URI} of the builder.
+         * 
+         * @param language
+         *            the language name
+         * @param baseURI
+         *            the base {@link URI}
+         * @return the {@link MarkupParser} for the given language
+         */
+        private MarkupParser getParser(String language, URI baseURI) {
+            final MarkupParser res = parsers.computeIfAbsent(language, l -> createParser(l));
+
+            builder.setBaseURI(baseURI);
+
+            return res;
+        }
+
+        /**
+         * Creates a {@link MarkupParser} for the given language.
+         * 
+         * @param language
+         *            the language name
+         * @return the created {@link MarkupParser}
+         */
+        private MarkupParser createParser(String language) {
+            final Supplier<MarkupLanguage> factory = LANGUAGES.get(language);
+            if (factory == null) {
+                throw new IllegalArgumentException("Unknown markup language: " + language);
+            }
+
+            return new MarkupParser(factory.get(), builder);
+        }
+
+    }
+
+}
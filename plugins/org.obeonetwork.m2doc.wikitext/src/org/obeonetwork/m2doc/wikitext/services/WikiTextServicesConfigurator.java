@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2019, 2025 Obeo. 
+ *  Copyright (c) 2019, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -12,10 +12,10 @@
 package org.obeonetwork.m2doc.wikitext.services;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.eclipse.acceleo.query.runtime.IReadOnlyQueryEnvironment;
@@ -26,6 +26,7 @@ import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.obeonetwork.m2doc.generator.GenerationResult;
 import org.obeonetwork.m2doc.services.configurator.IM2DocServicesConfigurator;
 import org.obeonetwork.m2doc.util.M2DocUtils;
 
@@ -39,7 +40,7 @@ public class WikiTextServicesConfigurator implements IM2DocServicesConfigurator
     /**
      * Mapping from {@link IReadOnlyQueryEnvironment} to its instance of {@link M2DocWikiTextServices}.
      */
-    private final Map<IReadOnlyQueryEnvironment, M2DocWikiTextServices> instancies = new HashMap<IReadOnlyQueryEnvironment, M2DocWikiTextServices>();
+    private final Map<IReadOnlyQueryEnvironment, M2DocWikiTextServices> instancies = new ConcurrentHashMap<>();
 
     @Override
     public List<String> getOptions() {
@@ -77,6 +78,16 @@ public class WikiTextServicesConfigurator implements IM2DocServicesConfigurator
         instancies.get(queryEnvironment).setDestinationDocument(destinationDocument);
     }
 
+    @Override
+    public void addStatistics(IReadOnlyQueryEnvironment queryEnvironment, GenerationResult result) {
+        instancies.get(queryEnvironment).addStatistics(result);
+    }
+
+    @Override
+    public void endGeneration(IReadOnlyQueryEnvironment queryEnvironment, XWPFDocument destinationDocument) {
+        instancies.get(queryEnvironment).endGeneration(destinationDocument);
+    }
+
     @Override
     public void cleanServices(IReadOnlyQueryEnvironment queryEnvironment, ResourceSet resourceSetForModels) {
         instancies.remove(queryEnvironment);
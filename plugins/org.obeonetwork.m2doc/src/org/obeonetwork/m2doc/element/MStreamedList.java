@@ -0,0 +1,36 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.element;
+
+import java.util.Iterator;
+
+/**
+ * A {@link MList} whose {@link MElement} are computed while being inserted, so they don't need to be all kept in
+ * memory.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public interface MStreamedList extends MList {
+
+    /**
+     * Gets a new {@link Iterator} over the {@link MElement}. Each call computes the elements again, for instance by
+     * reading the file again, so the list can be inserted several times, unless a {@link java.util.List List} method
+     * has been called. Those methods compute all elements and keep them in memory. If the {@link Iterator} is
+     * {@link java.io.Closeable Closeable}, the caller must close it, even if not all elements have been iterated. It
+     * may throw an {@link java.io.UncheckedIOException UncheckedIOException} if an element can't be read, the error is
+     * then reported at the insertion point.
+     * 
+     * @return the {@link Iterator} over the {@link MElement}
+     */
+    Iterator<MElement> elementIterator();
+
+}
@@ -0,0 +1,33 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.element;
+
+import java.util.Iterator;
+
+/**
+ * A {@link MTable} whose {@link MRow rows} are computed while being inserted, so they don't need to be all kept in
+ * memory. Its {@link #getColumnsCount() columns count} is known without computing its rows.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public interface MStreamedTable extends MTable {
+
+    /**
+     * Gets a new {@link Iterator} over the {@link MRow rows}. Each call computes the rows again, so the table can be
+     * inserted several times, unless {@link #getRows()} has been called. {@link #getRows()} computes all rows and
+     * keeps them in memory. The {@link Iterator} may throw a {@link RuntimeException} if a row can't be computed.
+     * 
+     * @return the {@link Iterator} over the {@link MRow rows}
+     */
+    Iterator<MRow> rowIterator();
+
+}
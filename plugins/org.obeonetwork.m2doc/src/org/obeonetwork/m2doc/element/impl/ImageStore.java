@@ -0,0 +1,432 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.element.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.apache.poi.util.IOUtils;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.util.LRUMap;
+
+/**
+ * Stores image contents by {@link URI} and decoded {@link BufferedImage} for the duration of a generation. Contents are
+ * read once from the {@link URIConverter} and shared by all {@link MImageImpl} created for the same {@link URI}, so
+ * the same content can be inserted many times without reading it again. SVG images are rasterized once through an
+ * {@link SVGRasterCache}. Caches are bounded and evict least recently used entries. Images are opened, read, probed,
+ * and hashed or rasterized by a bounded pool of worker threads, so loading images overlaps with the evaluation of the
+ * template. The pool is created for the generation and shut down by {@link #endGeneration()}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ImageStore {
+
+    /**
+     * The default contents budget in bytes.
+     */
+    public static final long DEFAULT_CONTENTS_BUDGET = 64L * 1024L * 1024L;
+
+    /**
+     * The default maximum number of decoded {@link BufferedImage}.
+     */
+    public static final int DEFAULT_DECODED_CAPACITY = 8;
+
+    /**
+     * The maximum number of image preparation threads.
+     */
+    private static final int MAX_PREPARATION_THREADS = 4;
+
+    /**
+     * The maximum number of pending image preparations, beyond this limit images are prepared by the calling thread.
+     */
+    private static final int MAX_PENDING_PREPARATIONS = 64;
+
+    /**
+     * The idle image preparation thread keep alive time in seconds.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+
+    /**
+     * The mapping from {@link URI} to content in least recently used order.
+     */
+    private final LRUMap<URI, byte[]> contents;
+
+    /**
+     * The mapping from content to decoded {@link BufferedImage} in least recently used order. Contents are arrays, so
+     * they are compared by identity.
+     */
+    private final Map<byte[], BufferedImage> decodedImages;
+
+    /**
+     * The {@link SVGRasterCache} shared by SVG images of this store.
+     */
+    private final SVGRasterCache rasterCache;
+
+    /**
+     * Tells if the {@link #executor} is created by this store for the generation.
+     */
+    private final boolean ownsExecutor;
+
+    /**
+     * The image preparation {@link ExecutorService} if any, <code>null</code> to prepare images synchronously or if the
+     * owned {@link ExecutorService} is not created yet.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Constructor. Images are prepared by a pool of worker threads created for the generation, {@link #endGeneration()}
+     * must be called to shut it down.
+     */
+    public ImageStore() {
+        this(new SVGRasterCache());
+    }
+
+    /**
+     * Constructor. Images are prepared by a pool of worker threads created for the generation, {@link #endGeneration()}
+     * must be called to shut it down.
+     * 
+     * @param rasterCache
+     *            the {@link SVGRasterCache} shared by SVG images of this store
+     */
+    public ImageStore(SVGRasterCache rasterCache) {
+        this(DEFAULT_CONTENTS_BUDGET, DEFAULT_DECODED_CAPACITY, null, rasterCache, true);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param contentsBudget
+     *            the contents budget in bytes
+     * @param decodedCapacity
+     *            the maximum number of decoded {@link BufferedImage}
+     */
+    public ImageStore(long contentsBudget, int decodedCapacity) {
+        this(contentsBudget, decodedCapacity, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param contentsBudget
+     *            the contents budget in bytes
+     * @param decodedCapacity
+     *            the maximum number of decoded {@link BufferedImage}
+     * @param executor
+     *            the image preparation {@link ExecutorService}, <code>null</code> to prepare images synchronously
+     */
+    public ImageStore(long contentsBudget, int decodedCapacity, ExecutorService executor) {
+        this(contentsBudget, decodedCapacity, executor, new SVGRasterCache());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param contentsBudget
+     *            the contents budget in bytes
+     * @param decodedCapacity
+     *            the maximum number of decoded {@link BufferedImage}
+     * @param executor
+     *            the image preparation {@link ExecutorService}, <code>null</code> to prepare images synchronously
+     * @param rasterCache
+     *            the {@link SVGRasterCache} shared by SVG images of this store
+     */
+    public ImageStore(long contentsBudget, int decodedCapacity, ExecutorService executor,
+            SVGRasterCache rasterCache) {
+        this(contentsBudget, decodedCapacity, executor, rasterCache, false);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param contentsBudget
+     *            the contents budget in bytes
+     * @param decodedCapacity
+     *            the maximum number of decoded {@link BufferedImage}
+     * @param executor
+     *            the image preparation {@link ExecutorService}, <code>null</code> to prepare images synchronously
+     * @param rasterCache
+     *            the {@link SVGRasterCache} shared by SVG images of this store
+     * @param ownsExecutor
+     *            tells if the image preparation {@link ExecutorService} is created by this store for the generation
+     */
+    private ImageStore(long contentsBudget, int decodedCapacity, ExecutorService executor, SVGRasterCache rasterCache,
+            boolean ownsExecutor) {
+        this.decodedImages = new LRUMap<>(decodedCapacity);
+        // evicted contents are not decoded anymore
+        this.contents = new LRUMap<>(contentsBudget, content -> content.length,
+                (uri, content) -> decodedImages.remove(content));
+        this.executor = executor;
+        this.rasterCache = rasterCache;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Creates the image preparation {@link ExecutorService} of a generation. Its threads are daemons and stop when
+     * idle. Preparations rejected because the queue is full or the generation ended run on the calling thread, so
+     * their image never waits for a preparation that will not run.
+     * 
+     * @return the created {@link ExecutorService}
+     */
+    private static ExecutorService createExecutor() {
+        final int nbProcessors = Runtime.getRuntime().availableProcessors();
+        final int nbThreads = Math.max(1, Math.min(MAX_PREPARATION_THREADS, nbProcessors));
+        final ThreadPoolExecutor res = new ThreadPoolExecutor(nbThreads, nbThreads, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(MAX_PENDING_PREPARATIONS), runnable -> {
+                    final Thread thread = new Thread(runnable, "M2Doc image preparation");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, pool) -> runnable.run());
+        res.allowCoreThreadTimeOut(true);
+
+        return res;
+    }
+
+    /**
+     * Gets the image preparation {@link ExecutorService}, the owned one is created if needed.
+     * 
+     * @return the image preparation {@link ExecutorService} if any, <code>null</code> to prepare images
+     *         synchronously
+     */
+    private synchronized ExecutorService getExecutor() {
+        if (ownsExecutor && executor == null) {
+            executor = createExecutor();
+        }
+
+        return executor;
+    }
+
+    /**
+     * Ends the generation: the owned image preparation {@link ExecutorService} is shut down once pending preparations
+     * are done, and the {@link SVGRasterCache} is cleared. Images created afterward start a new pool.
+     */
+    public void endGeneration() {
+        final ExecutorService toShutdown;
+        synchronized (this) {
+            if (ownsExecutor) {
+                toShutdown = executor;
+                executor = null;
+            } else {
+                toShutdown = null;
+            }
+        }
+        if (toShutdown != null) {
+            toShutdown.shutdown();
+        }
+        rasterCache.clear();
+    }
+
+    /**
+     * Gets the {@link SVGRasterCache} shared by SVG images of this store.
+     * 
+     * @return the {@link SVGRasterCache} shared by SVG images of this store
+     */
+    public SVGRasterCache getRasterCache() {
+        return rasterCache;
+    }
+
+    /**
+     * Gets the {@link MImage} for the given {@link URI}.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param uri
+     *            the image {@link URI}
+     * @param type
+     *            the picture {@link PictureType type}
+     * @return the {@link MImage} for the given {@link URI}
+     */
+    public MImage getImage(URIConverter uriConverter, URI uri, PictureType type) {
+        MImage res;
+
+        final ExecutorService currentExecutor = getExecutor();
+        if (currentExecutor != null) {
+            final byte[] content;
+            synchronized (this) {
+                content = contents.get(uri);
+            }
+            final Callable<byte[]> contentProvider;
+            if (content != null) {
+                contentProvider = () -> content;
+            } else {
+                final Callable<byte[]> reader = MImageImpl.readContent(uriConverter, uri);
+                contentProvider = () -> putContent(uri, reader.call());
+            }
+            res = new MImageImpl(currentExecutor, contentProvider, uriConverter, uri, type, rasterCache);
+        } else {
+            try {
+                res = new MImageImpl(getContent(uriConverter, uri), uriConverter, uri, type, rasterCache);
+            } catch (IOException e) {
+                // the error will be reported when the image is inserted
+                res = new MImageImpl(uriConverter, uri, type);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the content of the given {@link URI}.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param uri
+     *            the {@link URI}
+     * @return the content of the given {@link URI}
+     * @throws IOException
+     *             if the content can't be read
+     */
+    public byte[] getContent(URIConverter uriConverter, URI uri) throws IOException {
+        byte[] res;
+        synchronized (this) {
+            res = contents.get(uri);
+        }
+
+        if (res == null) {
+            // read outside of the lock so images can be read concurrently
+            try (InputStream is = uriConverter.createInputStream(uri)) {
+                res = IOUtils.toByteArray(is);
+            }
+            res = putContent(uri, res);
+        }
+
+        return res;
+    }
+
+    /**
+     * Puts the given content for the given {@link URI} if not already present.
+     * 
+     * @param uri
+     *            the {@link URI}
+     * @param content
+     *            the content
+     * @return the stored content for the given {@link URI}
+     */
+    private synchronized byte[] putContent(URI uri, byte[] content) {
+        byte[] res = contents.get(uri);
+
+        if (res == null) {
+            res = content;
+            if (res.length <= contents.getBudget()) {
+                contents.put(uri, res);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the {@link BufferedImage} of the given {@link MImage}. Stored images are decoded once.
+     * 
+     * @param image
+     *            the {@link MImage}
+     * @return the {@link BufferedImage} of the given {@link MImage}
+     * @throws IOException
+     *             if the image can't be decoded
+     */
+    public BufferedImage getBufferedImage(MImage image) throws IOException {
+        final BufferedImage res;
+
+        // get the buffer outside of the lock since it waits for the image preparation
+        final byte[] buffer;
+        if (image instanceof MImageImpl && image.getType() != PictureType.SVG) {
+            buffer = ((MImageImpl) image).getBuffer();
+        } else {
+            buffer = null;
+        }
+        if (buffer != null) {
+            final BufferedImage decoded;
+            synchronized (this) {
+                decoded = decodedImages.get(buffer);
+            }
+            if (decoded != null) {
+                res = decoded;
+            } else {
+                res = MImageAWTImpl.getBufferedImage(image);
+                if (res != null) {
+                    putDecodedImage(buffer, res);
+                }
+            }
+        } else {
+            res = MImageAWTImpl.getBufferedImage(image);
+        }
+
+        return res;
+    }
+
+    /**
+     * Puts the given decoded {@link BufferedImage} for the given content.
+     * 
+     * @param buffer
+     *            the content
+     * @param decoded
+     *            the decoded {@link BufferedImage}
+     */
+    private synchronized void putDecodedImage(byte[] buffer, BufferedImage decoded) {
+        decodedImages.put(buffer, decoded);
+    }
+
+    /**
+     * Gets the {@link BufferedImage} of the given {@link MImage} decoding only one pixel out of the given subsampling
+     * in each direction. This avoids allocating the full resolution raster when the image will be scaled down anyway.
+     * 
+     * @param image
+     *            the {@link MImage}
+     * @param subsampling
+     *            the subsampling, greater than <code>1</code>
+     * @return the subsampled {@link BufferedImage} of the given {@link MImage} if it can be decoded with
+     *         subsampling, <code>null</code> otherwise (already decoded image, no {@link ImageReader}, ...)
+     * @throws IOException
+     *             if the image can't be decoded
+     */
+    public BufferedImage getBufferedImage(MImage image, int subsampling) throws IOException {
+        BufferedImage res = null;
+
+        if (subsampling > 1 && !(image instanceof MImageAWTImpl)) {
+            try (InputStream input = image.getInputStream();
+                    ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+                if (imageInput != null) {
+                    final Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+                    if (readers.hasNext()) {
+                        final ImageReader reader = readers.next();
+                        try {
+                            reader.setInput(imageInput, true, true);
+                            final ImageReadParam param = reader.getDefaultReadParam();
+                            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                            res = reader.read(0, param);
+                        } finally {
+                            reader.dispose();
+                        }
+                    }
+                }
+            }
+        }
+
+        return res;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2018, 2023 Obeo. 
+ *  Copyright (c) 2018, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -11,13 +11,20 @@
  *******************************************************************************/
 package org.obeonetwork.m2doc.element.impl;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
 
 import org.eclipse.emf.common.util.URI;
 import org.obeonetwork.m2doc.element.MImage;
@@ -70,6 +77,21 @@ public class MImageAWTImpl implements MImage {
      */
     private double ratio;
 
+    /**
+     * The output {@link PictureType type}: {@link PictureType#PNG PNG} or {@link PictureType#JPG JPG}.
+     */
+    private final PictureType type;
+
+    /**
+     * The compression quality between <code>0</code> and <code>1</code>, <code>-1</code> for the codec default.
+     */
+    private final float quality;
+
+    /**
+     * The encoded image, lazily computed.
+     */
+    private byte[] encoded;
+
     /**
      * Constructor with enforced image type.
      * 
@@ -79,8 +101,31 @@ public class MImageAWTImpl implements MImage {
      *            the {@link URI}
      */
     public MImageAWTImpl(BufferedImage image, URI uri) {
+        this(image, uri, PictureType.PNG, -1);
+    }
+
+    /**
+     * Constructor. The given {@link BufferedImage} must not be modified after this call since its encoding is cached.
+     * 
+     * @param image
+     *            the {@link BufferedImage}
+     * @param uri
+     *            the {@link URI}
+     * @param type
+     *            the output {@link PictureType type}: {@link PictureType#PNG PNG} or {@link PictureType#JPG JPG}
+     * @param quality
+     *            the compression quality between <code>0</code> and <code>1</code>, <code>-1</code> for the codec
+     *            default. For JPG it is the image quality, for PNG lower values give smaller files but slower encoding
+     */
+    public MImageAWTImpl(BufferedImage image, URI uri, PictureType type, float quality) {
         this.image = image;
         this.uri = uri;
+        if (type == PictureType.JPG || type == PictureType.JPEG) {
+            this.type = PictureType.JPG;
+        } else {
+            this.type = PictureType.PNG;
+        }
+        this.quality = quality;
         width = image.getWidth();
         height = image.getHeight();
         conserveRatio = true;
@@ -158,15 +203,78 @@ public class MImageAWTImpl implements MImage {
 
     @Override
     public InputStream getInputStream() throws IOException {
+        if (encoded == null) {
+            encoded = encode();
+        }
+
+        return new ByteArrayInputStream(encoded);
+    }
+
+    /**
+     * Encodes the {@link BufferedImage} to the output {@link PictureType type}.
+     * 
+     * @return the encoded image
+     * @throws IOException
+     *             if the image can't be encoded
+     */
+    private byte[] encode() throws IOException {
+        final BufferedImage toEncode;
+        final String formatName;
+        if (type == PictureType.JPG) {
+            formatName = "jpeg";
+            toEncode = removeAlpha(image);
+        } else {
+            formatName = "png";
+            toEncode = image;
+        }
+
         try (ByteArrayOutputStream output = new ByteArrayOutputStream();) {
-            ImageIO.write(image, "png", output);
-            return new ByteArrayInputStream(output.toByteArray());
+            final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+            if (!writers.hasNext()) {
+                throw new IOException("No image writer for " + formatName);
+            }
+            final ImageWriter writer = writers.next();
+            try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+                writer.setOutput(imageOutput);
+                final ImageWriteParam param = writer.getDefaultWriteParam();
+                if (quality >= 0 && param.canWriteCompressed()) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(quality);
+                }
+                writer.write(null, new IIOImage(toEncode, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+
+            return output.toByteArray();
         }
     }
 
+    /**
+     * Draws the given {@link BufferedImage} on a white opaque background if it has an alpha channel.
+     * 
+     * @param bufferedImage
+     *            the {@link BufferedImage}
+     * @return the given {@link BufferedImage} if it has no alpha channel, an opaque copy otherwise
+     */
+    private static BufferedImage removeAlpha(BufferedImage bufferedImage) {
+        final BufferedImage res;
+
+        if (bufferedImage.getColorModel().hasAlpha()) {
+            res = new BufferedImage(bufferedImage.getWidth(), bufferedImage.getHeight(), BufferedImage.TYPE_INT_RGB);
+            final Graphics2D graphics = res.createGraphics();
+            graphics.drawImage(bufferedImage, 0, 0, Color.WHITE, null);
+            graphics.dispose();
+        } else {
+            res = bufferedImage;
+        }
+
+        return res;
+    }
+
     @Override
     public PictureType getType() {
-        return PictureType.PNG;
+        return type;
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2017, 2023 Obeo. 
+ *  Copyright (c) 2017, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -19,8 +19,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import org.apache.batik.ext.awt.image.codec.png.PNGTranscoderInternalCodecWriteAdapter;
 import org.apache.batik.transcoder.TranscoderException;
@@ -29,10 +36,12 @@ import org.apache.batik.transcoder.TranscoderOutput;
 import org.apache.batik.transcoder.image.PNGTranscoder;
 import org.apache.batik.transcoder.image.resources.Messages;
 import org.apache.poi.hemf.usermodel.HemfPicture;
+import org.apache.poi.util.IOUtils;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIConverter;
 import org.obeonetwork.m2doc.element.MImage;
 import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.util.DigestUtils;
 
 /**
  * An image that can be returned by services.
@@ -126,7 +135,32 @@ public class MImageImpl implements MImage {
     /**
      * A buffer to store the image content instead of using the {@link URIConverter} and the {@link URI}.
      */
-    private final byte[] buffer;
+    private byte[] buffer;
+
+    /**
+     * The MD5 of the {@link #buffer} if computed during the preparation, <code>null</code> otherwise.
+     */
+    private String bufferMD5;
+
+    /**
+     * The pending preparation if any, <code>null</code> otherwise.
+     */
+    private Future<?> preparation;
+
+    /**
+     * The {@link SVGRasterCache} shared with other images of the generation if any, <code>null</code> otherwise.
+     */
+    private final SVGRasterCache rasterCache;
+
+    /**
+     * The SVG image rasterized at its intrinsic size if computed, <code>null</code> otherwise.
+     */
+    private byte[] raster;
+
+    /**
+     * The copied {@link MImageImpl} while its preparation is pending, <code>null</code> otherwise.
+     */
+    private MImageImpl original;
 
     /**
      * Constructor.
@@ -167,7 +201,7 @@ public class MImageImpl implements MImage {
      *            the picture {@link PictureType type}
      */
     public MImageImpl(URIConverter uriConverter, URI uri, PictureType type) {
-        this(null, uriConverter, uri, type);
+        this((byte[]) null, uriConverter, uri, type);
     }
 
     /**
@@ -183,13 +217,195 @@ public class MImageImpl implements MImage {
      *            the picture {@link PictureType type}
      */
     public MImageImpl(byte[] buffer, URIConverter uriConverter, URI uri, PictureType type) {
+        this(buffer, uriConverter, uri, type, null);
+    }
+
+    /**
+     * Constructor with enforced image type.
+     * 
+     * @param buffer
+     *            optional image buffer
+     * @param uriConverter
+     *            the {@link URIConverter uri converter} to use
+     * @param uri
+     *            the {@link URI}
+     * @param type
+     *            the picture {@link PictureType type}
+     * @param rasterCache
+     *            the {@link SVGRasterCache} shared with other images of the generation if any, <code>null</code>
+     *            otherwise
+     */
+    MImageImpl(byte[] buffer, URIConverter uriConverter, URI uri, PictureType type, SVGRasterCache rasterCache) {
         this.buffer = buffer;
         this.uriConverter = uriConverter;
         this.uri = uri;
         this.type = type;
+        this.rasterCache = rasterCache;
+        probe();
+    }
+
+    /**
+     * Constructor with enforced image type. The image content is read, probed, hashed, and rasterized for SVG, by the
+     * given {@link ExecutorService} while the generation goes on. Accessing the image waits for this preparation.
+     * 
+     * @param executor
+     *            the {@link ExecutorService} preparing the image
+     * @param uriConverter
+     *            the {@link URIConverter uri converter} to use
+     * @param uri
+     *            the {@link URI}
+     * @param type
+     *            the picture {@link PictureType type}
+     */
+    public MImageImpl(ExecutorService executor, URIConverter uriConverter, URI uri, PictureType type) {
+        this(executor, readContent(uriConverter, uri), uriConverter, uri, type, null);
+    }
+
+    /**
+     * Gets a {@link Callable} reading the content of the given {@link URI}. The stream is opened when the
+     * {@link Callable} is called, so no stream stays open while the preparation is pending.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter uri converter} to use
+     * @param uri
+     *            the {@link URI}
+     * @return the {@link Callable} reading the content
+     */
+    static Callable<byte[]> readContent(URIConverter uriConverter, URI uri) {
+        return () -> {
+            try (InputStream is = uriConverter.createInputStream(uri)) {
+                return IOUtils.toByteArray(is);
+            }
+        };
+    }
+
+    /**
+     * Constructor with enforced image type. The image content is provided, probed, hashed, and rasterized for SVG, by
+     * the given {@link ExecutorService} while the generation goes on. Accessing the image waits for this preparation.
+     * 
+     * @param executor
+     *            the {@link ExecutorService} preparing the image
+     * @param contentProvider
+     *            provides the image content, it is called by the {@link ExecutorService}, if it fails the content is
+     *            read from the {@link URI} by the thread using the image
+     * @param uriConverter
+     *            the {@link URIConverter uri converter} to use
+     * @param uri
+     *            the {@link URI}
+     * @param type
+     *            the picture {@link PictureType type}
+     * @param rasterCache
+     *            the {@link SVGRasterCache} shared with other images of the generation if any, <code>null</code>
+     *            otherwise
+     */
+    MImageImpl(ExecutorService executor, Callable<byte[]> contentProvider, URIConverter uriConverter, URI uri,
+            PictureType type, SVGRasterCache rasterCache) {
+        this.uriConverter = uriConverter;
+        this.uri = uri;
+        this.type = type;
+        this.rasterCache = rasterCache;
+        preparation = executor.submit(() -> prepare(contentProvider));
+    }
+
+    /**
+     * Copy constructor. The copy shares the content of the given {@link MImageImpl}, and waits for its pending
+     * preparation if any, but has its own size. The given {@link MImageImpl} must not be modified afterward.
+     * 
+     * @param image
+     *            the {@link MImageImpl} to copy
+     */
+    public MImageImpl(MImageImpl image) {
+        this.uriConverter = image.uriConverter;
+        this.uri = image.uri;
+        this.type = image.type;
+        this.rasterCache = image.rasterCache;
+        this.relativeWidth = image.relativeWidth;
+        this.relativeHeight = image.relativeHeight;
+        if (image.preparation != null) {
+            preparation = image.preparation;
+            original = image;
+        } else {
+            copyPrepared(image);
+        }
+    }
+
+    /**
+     * Copies the prepared content, size, and ratio of the given {@link MImageImpl}.
+     * 
+     * @param image
+     *            the {@link MImageImpl} to copy
+     */
+    private void copyPrepared(MImageImpl image) {
+        buffer = image.buffer;
+        bufferMD5 = image.bufferMD5;
+        raster = image.raster;
+        width = image.width;
+        height = image.height;
+        conserveRatio = image.conserveRatio;
+        ratio = image.ratio;
+    }
+
+    /**
+     * Prepares the image: reads its content, probes its dimension, and hashes or rasterizes it. This runs on an other
+     * thread, the {@link URIConverter} is only used through the given content provider.
+     * 
+     * @param contentProvider
+     *            provides the image content
+     */
+    private void prepare(Callable<byte[]> contentProvider) {
+        try {
+            buffer = contentProvider.call();
+            // CHECKSTYLE:OFF
+        } catch (Exception e) {
+            // CHECKSTYLE:ON
+            // the error will be reported when the image is inserted
+            buffer = null;
+        }
+        if (buffer != null) {
+            probe();
+            try {
+                if (type == PictureType.SVG) {
+                    // rasterize in advance, the raster is kept for the insertion
+                    openInputStream().close();
+                } else {
+                    bufferMD5 = DigestUtils.getMD5(buffer);
+                }
+            } catch (IOException e) {
+                // nothing to do here: this will be done again when the image is inserted
+            }
+        } else {
+            // will continue without ratio
+            ratio = -1;
+        }
+    }
+
+    /**
+     * Waits for the pending preparation if any.
+     */
+    private void waitForPreparation() {
+        if (preparation != null) {
+            try {
+                preparation.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // nothing to do here: preparation failures are handled when the image is used
+            }
+            preparation = null;
+            if (original != null) {
+                copyPrepared(original);
+                original = null;
+            }
+        }
+    }
+
+    /**
+     * Probes the image dimension.
+     */
+    private void probe() {
         if (type == PictureType.EMF) {
             try {
-                try (InputStream is = getInputStream()) {
+                try (InputStream is = createInputStream()) {
                     HemfPicture emfPicture = new HemfPicture(is);
                     final Rectangle2D bounds = emfPicture.getBounds();
                     width = (int) bounds.getWidth();
@@ -200,14 +416,9 @@ public class MImageImpl implements MImage {
                 ratio = -1;
             }
         } else {
-            try (InputStream input = getInputStream()) {
-                final BufferedImage image = ImageIO.read(input);
-                if (image != null) {
-                    width = image.getWidth();
-                    height = image.getHeight();
-                    conserveRatio = true;
-                    ratio = ((double) width) / ((double) height);
-                } else {
+            try (InputStream input = openInputStream();
+                    ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+                if (!readDimension(imageInput)) {
                     conserveRatio = false;
                     ratio = -1;
                 }
@@ -218,13 +429,48 @@ public class MImageImpl implements MImage {
         }
     }
 
+    /**
+     * Reads the image dimension from its header without decoding pixels.
+     * 
+     * @param imageInput
+     *            the {@link ImageInputStream}, can be <code>null</code>
+     * @return <code>true</code> if the dimension has been read, <code>false</code> if no {@link ImageReader} can read
+     *         the image
+     * @throws IOException
+     *             if the image header can't be read
+     */
+    private boolean readDimension(ImageInputStream imageInput) throws IOException {
+        boolean res = false;
+
+        if (imageInput != null) {
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (readers.hasNext()) {
+                final ImageReader reader = readers.next();
+                try {
+                    reader.setInput(imageInput, true, true);
+                    width = reader.getWidth(0);
+                    height = reader.getHeight(0);
+                    conserveRatio = true;
+                    ratio = ((double) width) / ((double) height);
+                    res = true;
+                } finally {
+                    reader.dispose();
+                }
+            }
+        }
+
+        return res;
+    }
+
     @Override
     public int getWidth() {
+        waitForPreparation();
         return width;
     }
 
     @Override
     public void setWidth(int width) {
+        waitForPreparation();
         this.width = width;
         if (conserveRatio) {
             height = (int) (1 / getRatio() * width);
@@ -233,11 +479,13 @@ public class MImageImpl implements MImage {
 
     @Override
     public int getHeight() {
+        waitForPreparation();
         return height;
     }
 
     @Override
     public void setHeight(int height) {
+        waitForPreparation();
         this.height = height;
         if (conserveRatio) {
             width = (int) (getRatio() * height);
@@ -266,11 +514,13 @@ public class MImageImpl implements MImage {
 
     @Override
     public boolean conserveRatio() {
+        waitForPreparation();
         return conserveRatio;
     }
 
     @Override
     public void setConserveRatio(boolean conserveRatio) {
+        waitForPreparation();
         if (conserveRatio && ratio < 0) {
             throw new IllegalStateException("Can't conserve ratio: unknown ratio");
         }
@@ -279,6 +529,7 @@ public class MImageImpl implements MImage {
 
     @Override
     public double getRatio() {
+        waitForPreparation();
         return ratio;
     }
 
@@ -289,20 +540,27 @@ public class MImageImpl implements MImage {
 
     @Override
     public InputStream getInputStream() throws IOException {
+        waitForPreparation();
+
+        return openInputStream();
+    }
+
+    /**
+     * Opens the image {@link InputStream}, SVG images are rasterized.
+     * 
+     * @return the image {@link InputStream}
+     * @throws IOException
+     *             if the {@link InputStream} can't be opened
+     */
+    private InputStream openInputStream() throws IOException {
         final InputStream res;
 
         if (getType() == PictureType.SVG) {
             // svg to png conversion.
-            final M2DocPNGTranscoder transcoder = new M2DocPNGTranscoder();
-            try (InputStream is = createInputStream(); ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-                final TranscoderInput input = new TranscoderInput(is);
-                final TranscoderOutput output = new TranscoderOutput(os);
-                transcoder.transcode(input, output);
-                res = new ByteArrayInputStream(os.toByteArray());
-            } catch (TranscoderException e) {
-                e.printStackTrace();
-                throw new IOException("SVG to PNG transcode issue", e);
+            if (raster == null) {
+                raster = rasterize(0, 0);
             }
+            res = new ByteArrayInputStream(raster);
         } else {
             res = createInputStream();
         }
@@ -310,6 +568,109 @@ public class MImageImpl implements MImage {
         return res;
     }
 
+    /**
+     * Gets the PNG content of this SVG image for the given displayed size. The image is rasterized for this size at the
+     * {@link SVGRasterCache#getTargetDPI() target DPI} if any, at its intrinsic size otherwise.
+     * 
+     * @param displayWidth
+     *            the displayed width in points
+     * @param displayHeight
+     *            the displayed height in points
+     * @return the PNG content of this SVG image for the given displayed size
+     * @throws IOException
+     *             if the SVG can't be read or transcoded
+     */
+    public byte[] getRaster(int displayWidth, int displayHeight) throws IOException {
+        waitForPreparation();
+        final byte[] res;
+
+        final int targetWidth;
+        final int targetHeight;
+        if (rasterCache != null) {
+            targetWidth = rasterCache.toPixels(displayWidth);
+            targetHeight = rasterCache.toPixels(displayHeight);
+        } else {
+            targetWidth = 0;
+            targetHeight = 0;
+        }
+        if (targetWidth > 0 && targetHeight > 0) {
+            res = rasterize(targetWidth, targetHeight);
+        } else {
+            if (raster == null) {
+                raster = rasterize(0, 0);
+            }
+            res = raster;
+        }
+
+        return res;
+    }
+
+    /**
+     * Rasterizes the SVG image to PNG, the {@link SVGRasterCache} is used if any.
+     * 
+     * @param targetWidth
+     *            the target width in pixels, <code>0</code> for the intrinsic width
+     * @param targetHeight
+     *            the target height in pixels, <code>0</code> for the intrinsic height
+     * @return the PNG content
+     * @throws IOException
+     *             if the SVG can't be read or transcoded
+     */
+    private byte[] rasterize(int targetWidth, int targetHeight) throws IOException {
+        byte[] res = null;
+
+        final byte[] svg;
+        try (InputStream is = createInputStream()) {
+            svg = IOUtils.toByteArray(is);
+        }
+        String key = null;
+        if (rasterCache != null) {
+            key = rasterCache.getKey(uri, svg, targetWidth, targetHeight);
+            res = rasterCache.get(key);
+        }
+        if (res == null) {
+            res = transcode(svg, targetWidth, targetHeight);
+            if (key != null) {
+                rasterCache.put(key, res);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Transcodes the given SVG to PNG.
+     * 
+     * @param svg
+     *            the SVG content
+     * @param targetWidth
+     *            the target width in pixels, <code>0</code> for the intrinsic width
+     * @param targetHeight
+     *            the target height in pixels, <code>0</code> for the intrinsic height
+     * @return the PNG content
+     * @throws IOException
+     *             if the SVG can't be transcoded
+     */
+    private byte[] transcode(byte[] svg, int targetWidth, int targetHeight) throws IOException {
+        final byte[] res;
+
+        final M2DocPNGTranscoder transcoder = new M2DocPNGTranscoder();
+        if (targetWidth > 0 && targetHeight > 0) {
+            transcoder.addTranscodingHint(PNGTranscoder.KEY_WIDTH, (float) targetWidth);
+            transcoder.addTranscodingHint(PNGTranscoder.KEY_HEIGHT, (float) targetHeight);
+        }
+        try (InputStream is = new ByteArrayInputStream(svg); ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            final TranscoderInput input = new TranscoderInput(is);
+            final TranscoderOutput output = new TranscoderOutput(os);
+            transcoder.transcode(input, output);
+            res = os.toByteArray();
+        } catch (TranscoderException e) {
+            throw new IOException("SVG to PNG transcode issue", e);
+        }
+
+        return res;
+    }
+
     /**
      * Creates the image {@link InputStream}.
      * 
@@ -345,7 +706,21 @@ public class MImageImpl implements MImage {
      * @return the buffer if nay, <code>null</code> otherwise
      */
     public byte[] getBuffer() {
+        waitForPreparation();
+
         return buffer;
     }
 
+    /**
+     * Gets the MD5 of the {@link #getBuffer() buffer} if computed during the preparation.
+     * 
+     * @return the MD5 of the {@link #getBuffer() buffer} if computed during the preparation, <code>null</code>
+     *         otherwise
+     */
+    public String getBufferMD5() {
+        waitForPreparation();
+
+        return bufferMD5;
+    }
+
 }
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.element.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MStreamedList;
+
+/**
+ * A {@link List} of {@link MElement} computed while being inserted in a word document.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class MStreamedListImpl extends AbstractList<MElement> implements MStreamedList {
+
+    /**
+     * The {@link Supplier} of {@link Iterator} computing the {@link MElement}.
+     */
+    private final Supplier<Iterator<MElement>> elementIterators;
+
+    /**
+     * The {@link List} of computed {@link MElement} if a {@link List} method has been called, <code>null</code>
+     * otherwise.
+     */
+    private List<MElement> elements;
+
+    /**
+     * Constructor.
+     * 
+     * @param elementIterators
+     *            the {@link Supplier} of {@link Iterator} computing the {@link MElement}, each call must return a new
+     *            {@link Iterator} starting from the first element
+     */
+    public MStreamedListImpl(Supplier<Iterator<MElement>> elementIterators) {
+        this.elementIterators = elementIterators;
+    }
+
+    @Override
+    public Iterator<MElement> elementIterator() {
+        final Iterator<MElement> res;
+
+        if (elements != null) {
+            res = elements.iterator();
+        } else {
+            res = elementIterators.get();
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the {@link List} of all {@link MElement}, computing them if needed.
+     * 
+     * @return the {@link List} of all {@link MElement}
+     */
+    private List<MElement> getElements() {
+        if (elements == null) {
+            final List<MElement> computed = new ArrayList<>();
+            final Iterator<MElement> elementIterator = elementIterators.get();
+            try {
+                while (elementIterator.hasNext()) {
+                    computed.add(elementIterator.next());
+                }
+            } finally {
+                if (elementIterator instanceof Closeable) {
+                    try {
+                        ((Closeable) elementIterator).close();
+                    } catch (IOException e) {
+                        // nothing to do here, all elements have been read
+                    }
+                }
+            }
+            elements = computed;
+        }
+
+        return elements;
+    }
+
+    @Override
+    public MElement get(int index) {
+        return getElements().get(index);
+    }
+
+    @Override
+    public int size() {
+        return getElements().size();
+    }
+
+    @Override
+    public void add(int index, MElement element) {
+        getElements().add(index, element);
+    }
+
+    @Override
+    public MElement set(int index, MElement element) {
+        return getElements().set(index, element);
+    }
+
+    @Override
+    public MElement remove(int index) {
+        return getElements().remove(index);
+    }
+
+}
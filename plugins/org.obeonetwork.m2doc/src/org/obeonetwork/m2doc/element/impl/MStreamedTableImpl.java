@@ -0,0 +1,133 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.element.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.obeonetwork.m2doc.element.MStreamedTable;
+
+/**
+ * A table whose rows are computed while being inserted in a word document.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class MStreamedTableImpl implements MStreamedTable {
+
+    /**
+     * The columns count.
+     */
+    private final int columnsCount;
+
+    /**
+     * The {@link Supplier} of {@link Iterator} computing the {@link MRow}.
+     */
+    private final Supplier<Iterator<MRow>> rowIterators;
+
+    /**
+     * The {@link List} of computed {@link MRow} if {@link #getRows()} has been called, <code>null</code> otherwise.
+     */
+    private List<MRow> rows;
+
+    /**
+     * The table label.
+     */
+    private String label;
+
+    /**
+     * The style ID of this table.
+     */
+    private String styleID;
+
+    /**
+     * The {@link MTableAlign}.
+     */
+    private MTableAlign tableAlign;
+
+    /**
+     * Constructor.
+     * 
+     * @param columnsCount
+     *            the columns count
+     * @param rowIterators
+     *            the {@link Supplier} of {@link Iterator} computing the {@link MRow}, each call must return a new
+     *            {@link Iterator} starting from the first row
+     */
+    public MStreamedTableImpl(int columnsCount, Supplier<Iterator<MRow>> rowIterators) {
+        this.columnsCount = columnsCount;
+        this.rowIterators = rowIterators;
+    }
+
+    @Override
+    public Iterator<MRow> rowIterator() {
+        final Iterator<MRow> res;
+
+        if (rows != null) {
+            res = rows.iterator();
+        } else {
+            res = rowIterators.get();
+        }
+
+        return res;
+    }
+
+    @Override
+    public List<MRow> getRows() {
+        if (rows == null) {
+            rows = new ArrayList<>();
+            final Iterator<MRow> rowIterator = rowIterators.get();
+            while (rowIterator.hasNext()) {
+                rows.add(rowIterator.next());
+            }
+        }
+
+        return rows;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return columnsCount;
+    }
+
+    @Override
+    public String getStyleID() {
+        return styleID;
+    }
+
+    @Override
+    public void setStyleID(String styleID) {
+        this.styleID = styleID;
+    }
+
+    @Override
+    public MTableAlign getTableAlign() {
+        return tableAlign;
+    }
+
+    @Override
+    public void setTableAlign(MTableAlign tableAlign) {
+        this.tableAlign = tableAlign;
+    }
+
+}
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.element.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.obeonetwork.m2doc.util.DigestUtils;
+import org.obeonetwork.m2doc.util.LRUMap;
+
+/**
+ * Cache of SVG images rasterized to PNG for the duration of a generation. Entries are keyed by the SVG {@link URI}, the
+ * SVG content hash and the target pixel size. The least recently used entries are evicted when the memory budget is
+ * exceeded, and written to the spill folder if any so they can be read back instead of being rasterized again. Spilled
+ * files are deleted when the cache is {@link #clear() cleared}. When a target DPI is set, SVG images are rasterized
+ * for their displayed size at this resolution.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class SVGRasterCache {
+
+    /**
+     * The default memory budget in bytes.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 32L * 1024L * 1024L;
+
+    /**
+     * The number of points per inch.
+     */
+    private static final float POINTS_PER_INCH = 72f;
+
+    /**
+     * The spilled file prefix.
+     */
+    private static final String SPILL_PREFIX = "m2doc-svg-";
+
+    /**
+     * The spilled file extension.
+     */
+    private static final String PNG_EXTENSION = ".png";
+
+    /**
+     * The mapping from key to rasterized image in least recently used order.
+     */
+    private final LRUMap<String, byte[]> rasters;
+
+    /**
+     * The spilled {@link File} written by this cache.
+     */
+    private final Set<File> spilledFiles = new LinkedHashSet<>();
+
+    /**
+     * The spill folder if any, <code>null</code> otherwise.
+     */
+    private final File spillFolder;
+
+    /**
+     * The target DPI, <code>0</code> to rasterize at the SVG intrinsic size.
+     */
+    private final float targetDPI;
+
+    /**
+     * Constructor.
+     */
+    public SVGRasterCache() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param memoryBudget
+     *            the memory budget in bytes
+     */
+    public SVGRasterCache(long memoryBudget) {
+        this(memoryBudget, null, 0);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param memoryBudget
+     *            the memory budget in bytes
+     * @param spillFolder
+     *            the folder where evicted images are written, <code>null</code> to disable spilling
+     * @param targetDPI
+     *            the target DPI, <code>0</code> to rasterize SVG images at their intrinsic size
+     */
+    public SVGRasterCache(long memoryBudget, File spillFolder, float targetDPI) {
+        this.rasters = new LRUMap<>(memoryBudget, raster -> raster.length, (key, raster) -> spill(key, raster));
+        this.spillFolder = spillFolder;
+        this.targetDPI = targetDPI;
+    }
+
+    /**
+     * Gets the key for the given SVG.
+     * 
+     * @param uri
+     *            the SVG {@link URI}
+     * @param svg
+     *            the SVG content
+     * @param width
+     *            the target width in pixels, <code>0</code> for the intrinsic width
+     * @param height
+     *            the target height in pixels, <code>0</code> for the intrinsic height
+     * @return the key for the given SVG
+     */
+    public String getKey(URI uri, byte[] svg, int width, int height) {
+        return DigestUtils.getMD5(svg) + '-' + width + 'x' + height + '-' + uri;
+    }
+
+    /**
+     * Gets the number of pixels for the given number of points at the {@link #getTargetDPI() target DPI}.
+     * 
+     * @param points
+     *            the number of points
+     * @return the number of pixels for the given number of points at the {@link #getTargetDPI() target DPI},
+     *         <code>0</code> if no target DPI is set
+     */
+    public int toPixels(int points) {
+        final int res;
+
+        if (targetDPI > 0) {
+            res = Math.round(points * targetDPI / POINTS_PER_INCH);
+        } else {
+            res = 0;
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the rasterized image for the given key.
+     * 
+     * @param key
+     *            the {@link #getKey(URI, byte[], int, int) key}
+     * @return the rasterized image for the given key if any, <code>null</code> otherwise
+     */
+    public synchronized byte[] get(String key) {
+        byte[] res = rasters.get(key);
+
+        if (res == null && spillFolder != null) {
+            try {
+                final File file = getSpillFile(key);
+                if (spilledFiles.contains(file) && file.isFile()) {
+                    res = Files.readAllBytes(file.toPath());
+                    put(key, res);
+                }
+            } catch (IOException e) {
+                // nothing to do here: the image will be rasterized again
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Puts the given rasterized image for the given key.
+     * 
+     * @param key
+     *            the {@link #getKey(URI, byte[], int, int) key}
+     * @param raster
+     *            the rasterized image
+     */
+    public synchronized void put(String key, byte[] raster) {
+        rasters.put(key, raster);
+    }
+
+    /**
+     * Writes the given evicted rasterized image to the spill folder if any.
+     * 
+     * @param key
+     *            the {@link #getKey(URI, byte[], int, int) key}
+     * @param raster
+     *            the rasterized image
+     */
+    private void spill(String key, byte[] raster) {
+        if (spillFolder != null) {
+            try {
+                final File file = getSpillFile(key);
+                if (spilledFiles.add(file)) {
+                    Files.write(file.toPath(), raster);
+                }
+            } catch (IOException e) {
+                // nothing to do here: the image will be rasterized again
+            }
+        }
+    }
+
+    /**
+     * Gets the spill {@link File} for the given key.
+     * 
+     * @param key
+     *            the {@link #getKey(URI, byte[], int, int) key}
+     * @return the spill {@link File} for the given key
+     */
+    private File getSpillFile(String key) {
+        final String name = DigestUtils.getMD5(key);
+
+        return new File(spillFolder, SPILL_PREFIX + name + PNG_EXTENSION);
+    }
+
+    /**
+     * Gets the memory budget in bytes.
+     * 
+     * @return the memory budget in bytes
+     */
+    public long getMemoryBudget() {
+        return rasters.getBudget();
+    }
+
+    /**
+     * Gets the spill folder.
+     * 
+     * @return the spill folder if any, <code>null</code> otherwise
+     */
+    public File getSpillFolder() {
+        return spillFolder;
+    }
+
+    /**
+     * Gets the target DPI.
+     * 
+     * @return the target DPI, <code>0</code> if SVG images are rasterized at their intrinsic size
+     */
+    public float getTargetDPI() {
+        return targetDPI;
+    }
+
+    /**
+     * Gets the current memory size in bytes.
+     * 
+     * @return the current memory size in bytes
+     */
+    public synchronized long getMemorySize() {
+        return rasters.getWeight();
+    }
+
+    /**
+     * Clears the cache and deletes spilled files.
+     */
+    public synchronized void clear() {
+        rasters.clear();
+        for (File file : spilledFiles) {
+            file.delete();
+        }
+        spilledFiles.clear();
+    }
+
+}
@@ -0,0 +1,609 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.acceleo.query.ast.Call;
+import org.eclipse.acceleo.query.ast.VarRef;
+import org.eclipse.acceleo.query.parser.AstResult;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.FeatureMap;
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
+import org.obeonetwork.m2doc.template.IConstruct;
+import org.obeonetwork.m2doc.util.DigestUtils;
+
+/**
+ * Computes fingerprints of generated fragments for incremental generation. A fingerprint is made of:
+ * <ul>
+ * <li>the template content,</li>
+ * <li>the {@link IConstruct} position in the template,</li>
+ * <li>the values of the variables read by the {@link IConstruct},</li>
+ * <li>the content of the {@link Resource} the {@link IConstruct} can read.</li>
+ * </ul>
+ * The {@link Resource} an {@link IConstruct} can read are the ones containing the {@link EObject} values of its
+ * variables, and the ones they reference, transitively. Queries navigating from an {@link EObject} to its container,
+ * its inverse references, or all instances of a type ({@link #NAVIGATION_SERVICES}) can reach any {@link Resource},
+ * so the whole models {@link ResourceSet} is covered for them. Each {@link Resource} is hashed once per generation.
+ * A fragment reading a variable that can't be hashed deterministically (an {@link EObject} outside of the models
+ * {@link ResourceSet}, or an object other than a {@link String}, a primitive wrapper, an {@link Enum} or a
+ * {@link Collection} of those) has no fingerprint and is never reused. Files read by services (images, markup, ...)
+ * and derived features computed from other {@link Resource} are not covered.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class FragmentFingerprinter {
+
+    /**
+     * The buffer size.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The separator between digested values.
+     */
+    private static final byte SEPARATOR = 0;
+
+    /**
+     * The digested value of <code>null</code>.
+     */
+    private static final String NULL = "null";
+
+    /**
+     * The digested start of a {@link Collection}.
+     */
+    private static final String COLLECTION_START = "[";
+
+    /**
+     * The digested end of a {@link Collection}.
+     */
+    private static final String COLLECTION_END = "]";
+
+    /**
+     * The names of services that can navigate to {@link EObject} not referenced from their argument.
+     */
+    private static final Set<String> NAVIGATION_SERVICES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "eContainer", "eContainerOrSelf", "eInverse", "allInstances", "eResource", "ancestors", "siblings",
+            "precedingSiblings", "followingSiblings")));
+
+    /**
+     * The {@link URIConverter}.
+     */
+    private final URIConverter uriConverter;
+
+    /**
+     * The template {@link URI}.
+     */
+    private final URI templateURI;
+
+    /**
+     * The models {@link ResourceSet}.
+     */
+    private final ResourceSet resourceSet;
+
+    /**
+     * The mapping from {@link IConstruct} to the names of the variables it reads.
+     */
+    private final Map<IConstruct, Set<String>> readVariables = new HashMap<>();
+
+    /**
+     * The {@link IConstruct} calling one of the {@link #NAVIGATION_SERVICES}.
+     */
+    private final Set<IConstruct> navigatingConstructs = new HashSet<>();
+
+    /**
+     * The mapping from {@link Resource} to its content MD5, <code>null</code> if it can't be hashed.
+     */
+    private final Map<Resource, String> resourceStamps = new HashMap<>();
+
+    /**
+     * The mapping from {@link Resource} to the other {@link Resource} of the models {@link ResourceSet} it
+     * references.
+     */
+    private final Map<Resource, Set<Resource>> referencedResources = new HashMap<>();
+
+    /**
+     * The template content MD5, lazily computed.
+     */
+    private String templateStamp;
+
+    /**
+     * The models MD5, lazily computed, <code>null</code> if the models can't be hashed.
+     */
+    private String modelStamp;
+
+    /**
+     * Tells if {@link #modelStamp} has been computed.
+     */
+    private boolean isModelStampComputed;
+
+    /**
+     * Constructor.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param templateURI
+     *            the template {@link URI}
+     * @param resourceSet
+     *            the models {@link ResourceSet}
+     */
+    public FragmentFingerprinter(URIConverter uriConverter, URI templateURI, ResourceSet resourceSet) {
+        this.uriConverter = uriConverter;
+        this.templateURI = templateURI;
+        this.resourceSet = resourceSet;
+    }
+
+    /**
+     * Gets the fingerprint of the fragment generated by the given {@link IConstruct} with the given variables.
+     * 
+     * @param construct
+     *            the {@link IConstruct}
+     * @param variables
+     *            the variables in scope
+     * @return the fingerprint of the fragment generated by the given {@link IConstruct} with the given variables if
+     *         its inputs can be hashed, <code>null</code> otherwise
+     * @throws IOException
+     *             if the template can't be read
+     */
+    public String getFingerprint(IConstruct construct, Map<String, Object> variables) throws IOException {
+        String res = null;
+
+        final MessageDigest md5 = DigestUtils.newMD5();
+        update(md5, getTemplateStamp());
+        update(md5, EcoreUtil.getURI(construct).fragment());
+        final Set<Resource> resources = new LinkedHashSet<>();
+        boolean covered = true;
+        for (String name : getReadVariables(construct)) {
+            if (variables.containsKey(name)) {
+                update(md5, name);
+                covered = digestVariable(md5, variables.get(name), resources);
+                if (!covered) {
+                    break;
+                }
+            }
+        }
+        if (covered) {
+            final String models;
+            if (navigatingConstructs.contains(construct)) {
+                models = getModelStamp();
+            } else {
+                models = getResourcesStamp(resources);
+            }
+            if (models != null) {
+                update(md5, models);
+                res = DigestUtils.toHexString(md5.digest());
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the sorted names of the variables read by the given {@link IConstruct}. Names declared inside the
+     * {@link IConstruct} may be included, this only adds unneeded variables to the fingerprint. The {@link IConstruct}
+     * is also added to {@link #navigatingConstructs} if it calls one of the {@link #NAVIGATION_SERVICES}.
+     * 
+     * @param construct
+     *            the {@link IConstruct}
+     * @return the sorted names of the variables read by the given {@link IConstruct}
+     */
+    private Set<String> getReadVariables(IConstruct construct) {
+        Set<String> res = readVariables.get(construct);
+
+        if (res == null) {
+            res = new TreeSet<>();
+            boolean navigates = addReadVariables(res, construct);
+            final Iterator<EObject> it = construct.eAllContents();
+            while (it.hasNext()) {
+                navigates = addReadVariables(res, it.next()) || navigates;
+            }
+            readVariables.put(construct, res);
+            if (navigates) {
+                navigatingConstructs.add(construct);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Adds the names of the variables read by queries of the given template {@link EObject}.
+     * 
+     * @param names
+     *            the {@link Set} of names to fill
+     * @param eObject
+     *            the template {@link EObject}
+     * @return <code>true</code> if a query calls one of the {@link #NAVIGATION_SERVICES}, <code>false</code>
+     *         otherwise
+     */
+    private boolean addReadVariables(Set<String> names, EObject eObject) {
+        boolean res = false;
+
+        for (EAttribute attribute : eObject.eClass().getEAllAttributes()) {
+            final Object value = eObject.eGet(attribute);
+            if (value instanceof AstResult && ((AstResult) value).getAst() != null) {
+                final EObject ast = ((AstResult) value).getAst();
+                res = addReadVariable(names, ast) || res;
+                final Iterator<EObject> it = ast.eAllContents();
+                while (it.hasNext()) {
+                    res = addReadVariable(names, it.next()) || res;
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Adds the name of the variable read by the given AST node if any.
+     * 
+     * @param names
+     *            the {@link Set} of names to fill
+     * @param node
+     *            the AST node
+     * @return <code>true</code> if the given AST node calls one of the {@link #NAVIGATION_SERVICES},
+     *         <code>false</code> otherwise
+     */
+    private boolean addReadVariable(Set<String> names, EObject node) {
+        boolean res = false;
+
+        if (node instanceof VarRef) {
+            names.add(((VarRef) node).getVariableName());
+        } else if (node instanceof Call) {
+            res = NAVIGATION_SERVICES.contains(((Call) node).getServiceName());
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the template content MD5.
+     * 
+     * @return the template content MD5
+     * @throws IOException
+     *             if the template can't be read
+     */
+    private String getTemplateStamp() throws IOException {
+        if (templateStamp == null) {
+            final MessageDigest md5 = DigestUtils.newMD5();
+            try (InputStream is = uriConverter.createInputStream(templateURI)) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int nbBytes;
+                do {
+                    nbBytes = is.read(buffer);
+                    if (nbBytes > 0) {
+                        md5.update(buffer, 0, nbBytes);
+                    }
+                } while (nbBytes != -1);
+            }
+            templateStamp = DigestUtils.toHexString(md5.digest());
+        }
+
+        return templateStamp;
+    }
+
+    /**
+     * Gets the models MD5. References are resolved, so {@link Resource} they load are hashed as well.
+     * 
+     * @return the models MD5 if all models can be hashed, <code>null</code> otherwise
+     */
+    private String getModelStamp() {
+        if (!isModelStampComputed) {
+            isModelStampComputed = true;
+            final Map<String, String> stamps = new TreeMap<>();
+            boolean covered = true;
+            // resolving references can add resources to the list
+            final List<Resource> resources = resourceSet.getResources();
+            for (int i = 0; covered && i < resources.size(); i++) {
+                final Resource resource = resources.get(i);
+                final String stamp = getResourceStamp(resource);
+                if (stamp != null) {
+                    stamps.put(String.valueOf(resource.getURI()), stamp);
+                } else {
+                    covered = false;
+                }
+            }
+            if (covered) {
+                modelStamp = digestStamps(stamps);
+            }
+        }
+
+        return modelStamp;
+    }
+
+    /**
+     * Gets the MD5 of the given {@link Resource} and the {@link Resource} they reference, transitively.
+     * 
+     * @param resources
+     *            the {@link Resource} read by a fragment
+     * @return the MD5 of the given {@link Resource} and the {@link Resource} they reference if they all can be
+     *         hashed, <code>null</code> otherwise
+     */
+    private String getResourcesStamp(Set<Resource> resources) {
+        String res = null;
+
+        final Map<String, String> stamps = new TreeMap<>();
+        final List<Resource> toStamp = new ArrayList<>(resources);
+        final Set<Resource> visited = new HashSet<>(resources);
+        boolean covered = true;
+        for (int i = 0; covered && i < toStamp.size(); i++) {
+            final Resource resource = toStamp.get(i);
+            final String stamp = getResourceStamp(resource);
+            if (stamp != null) {
+                stamps.put(String.valueOf(resource.getURI()), stamp);
+                for (Resource referenced : referencedResources.get(resource)) {
+                    if (visited.add(referenced)) {
+                        toStamp.add(referenced);
+                    }
+                }
+            } else {
+                covered = false;
+            }
+        }
+        if (covered) {
+            res = digestStamps(stamps);
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the MD5 of the given {@link Resource} stamps.
+     * 
+     * @param stamps
+     *            the mapping from {@link Resource} {@link URI} to its content MD5 sorted by {@link URI}
+     * @return the MD5 of the given {@link Resource} stamps
+     */
+    private String digestStamps(Map<String, String> stamps) {
+        final MessageDigest md5 = DigestUtils.newMD5();
+        for (Map.Entry<String, String> entry : stamps.entrySet()) {
+            update(md5, entry.getKey());
+            update(md5, entry.getValue());
+        }
+
+        return DigestUtils.toHexString(md5.digest());
+    }
+
+    /**
+     * Gets the MD5 of the given {@link Resource} content. It is computed once, along with the
+     * {@link #referencedResources referenced resources}.
+     * 
+     * @param resource
+     *            the {@link Resource}
+     * @return the MD5 of the given {@link Resource} content if it can be hashed, <code>null</code> otherwise
+     */
+    private String getResourceStamp(Resource resource) {
+        final String res;
+
+        if (resourceStamps.containsKey(resource)) {
+            res = resourceStamps.get(resource);
+        } else {
+            final MessageDigest md5 = DigestUtils.newMD5();
+            final Set<Resource> referenced = new LinkedHashSet<>();
+            boolean covered = true;
+            final List<EObject> eObjects = new ArrayList<>();
+            final Iterator<EObject> it = resource.getAllContents();
+            while (it.hasNext()) {
+                eObjects.add(it.next());
+            }
+            for (int i = 0; covered && i < eObjects.size(); i++) {
+                covered = digestEObject(md5, eObjects.get(i), referenced);
+            }
+            if (covered) {
+                res = DigestUtils.toHexString(md5.digest());
+            } else {
+                res = null;
+            }
+            referenced.remove(resource);
+            resourceStamps.put(resource, res);
+            referencedResources.put(resource, referenced);
+        }
+
+        return res;
+    }
+
+    /**
+     * Updates the given {@link MessageDigest} with the given {@link EObject} features. Contained {@link EObject} are
+     * digested by the {@link #getResourceStamp(Resource) resource}, derived features are computed from digested
+     * features.
+     * 
+     * @param md5
+     *            the {@link MessageDigest}
+     * @param eObject
+     *            the {@link EObject}
+     * @param referenced
+     *            the {@link Set} of referenced {@link Resource} to fill
+     * @return <code>true</code> if all features could be digested, <code>false</code> otherwise
+     */
+    private boolean digestEObject(MessageDigest md5, EObject eObject, Set<Resource> referenced) {
+        boolean res = true;
+
+        update(md5, EcoreUtil.getURI(eObject).toString());
+        update(md5, EcoreUtil.getURI(eObject.eClass()).toString());
+        for (EStructuralFeature feature : eObject.eClass().getEAllStructuralFeatures()) {
+            if (!feature.isDerived() && !(feature instanceof EReference && ((EReference) feature).isContainer())
+                && eObject.eIsSet(feature)) {
+                update(md5, feature.getName());
+                final Object value = eObject.eGet(feature);
+                if (FeatureMapUtil.isFeatureMap(feature)) {
+                    for (FeatureMap.Entry entry : (FeatureMap) value) {
+                        update(md5, entry.getEStructuralFeature().getName());
+                        res = digestFeatureElement(md5, entry.getEStructuralFeature(), entry.getValue(),
+                                referenced);
+                        if (!res) {
+                            break;
+                        }
+                    }
+                } else {
+                    res = digestFeatureValue(md5, feature, value, referenced);
+                }
+                if (!res) {
+                    break;
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Updates the given {@link MessageDigest} with the given {@link EStructuralFeature} value.
+     * 
+     * @param md5
+     *            the {@link MessageDigest}
+     * @param feature
+     *            the {@link EStructuralFeature}
+     * @param value
+     *            the value
+     * @param referenced
+     *            the {@link Set} of referenced {@link Resource} to fill
+     * @return <code>true</code> if the value could be digested, <code>false</code> otherwise
+     */
+    private boolean digestFeatureValue(MessageDigest md5, EStructuralFeature feature, Object value,
+            Set<Resource> referenced) {
+        boolean res = true;
+
+        if (feature.isMany()) {
+            update(md5, COLLECTION_START);
+            for (Object element : (Collection<?>) value) {
+                res = digestFeatureElement(md5, feature, element, referenced);
+                if (!res) {
+                    break;
+                }
+            }
+            update(md5, COLLECTION_END);
+        } else {
+            res = digestFeatureElement(md5, feature, value, referenced);
+        }
+
+        return res;
+    }
+
+    /**
+     * Updates the given {@link MessageDigest} with an element of the given {@link EStructuralFeature} value.
+     * 
+     * @param md5
+     *            the {@link MessageDigest}
+     * @param feature
+     *            the {@link EStructuralFeature}
+     * @param element
+     *            the element
+     * @param referenced
+     *            the {@link Set} of referenced {@link Resource} to fill
+     * @return <code>true</code> if the element could be digested, <code>false</code> otherwise
+     */
+    private boolean digestFeatureElement(MessageDigest md5, EStructuralFeature feature, Object element,
+            Set<Resource> referenced) {
+        boolean res = true;
+
+        if (element == null) {
+            update(md5, NULL);
+        } else if (element instanceof EObject) {
+            update(md5, EcoreUtil.getURI((EObject) element).toString());
+            final Resource resource = ((EObject) element).eResource();
+            if (resource != null && resource.getResourceSet() == resourceSet) {
+                referenced.add(resource);
+            }
+        } else if (feature.getEType() instanceof EDataType && ((EDataType) feature.getEType()).isSerializable()) {
+            update(md5, EcoreUtil.convertToString((EDataType) feature.getEType(), element));
+        } else {
+            res = false;
+        }
+
+        return res;
+    }
+
+    /**
+     * Updates the given {@link MessageDigest} with the given variable value.
+     * 
+     * @param md5
+     *            the {@link MessageDigest}
+     * @param value
+     *            the variable value
+     * @param resources
+     *            the {@link Set} of {@link Resource} containing {@link EObject} values to fill
+     * @return <code>true</code> if the value could be digested, <code>false</code> otherwise
+     */
+    private boolean digestVariable(MessageDigest md5, Object value, Set<Resource> resources) {
+        boolean res = true;
+
+        if (value == null) {
+            update(md5, NULL);
+        } else if (value instanceof EObject) {
+            final Resource resource = ((EObject) value).eResource();
+            res = resource != null && resource.getResourceSet() == resourceSet;
+            if (res) {
+                update(md5, EcoreUtil.getURI((EObject) value).toString());
+                resources.add(resource);
+            }
+        } else if (value instanceof Collection) {
+            update(md5, COLLECTION_START);
+            for (Object element : (Collection<?>) value) {
+                res = digestVariable(md5, element, resources);
+                if (!res) {
+                    break;
+                }
+            }
+            update(md5, COLLECTION_END);
+        } else if (value instanceof Enum) {
+            update(md5, ((Enum<?>) value).getDeclaringClass().getName());
+            update(md5, ((Enum<?>) value).name());
+        } else if (value instanceof String || value instanceof Number || value instanceof Boolean
+            || value instanceof Character) {
+            update(md5, value.getClass().getName());
+            update(md5, value.toString());
+        } else {
+            res = false;
+        }
+
+        return res;
+    }
+
+    /**
+     * Updates the given {@link MessageDigest} with the given {@link String}.
+     * 
+     * @param md5
+     *            the {@link MessageDigest}
+     * @param value
+     *            the {@link String}
+     */
+    private void update(MessageDigest md5, String value) {
+        md5.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        md5.update(SEPARATOR);
+    }
+
+}
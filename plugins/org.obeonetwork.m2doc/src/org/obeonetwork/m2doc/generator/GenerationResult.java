@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2017 Obeo. 
+ *  Copyright (c) 2017, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ package org.obeonetwork.m2doc.generator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -58,6 +59,11 @@ public class GenerationResult {
      */
     private final List<TemplateValidationMessage> messages = new ArrayList<>();
 
+    /**
+     * The generation statistics (cache hits, ...) in insertion order.
+     */
+    private final Map<String, Object> statistics = new LinkedHashMap<>();
+
     /**
      * The result {@link IBody}.
      */
@@ -152,6 +158,15 @@ public class GenerationResult {
         updateLevel(message.getLevel());
     }
 
+    /**
+     * Gets the generation statistics (cache hits, ...) in insertion order.
+     * 
+     * @return the mapping from statistic name to its value
+     */
+    public Map<String, Object> getStatistics() {
+        return statistics;
+    }
+
     /**
      * Gets the resulting {@link IBody}.
      * 
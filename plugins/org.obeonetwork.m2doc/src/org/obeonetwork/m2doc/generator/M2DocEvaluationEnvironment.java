@@ -15,6 +15,7 @@ import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameResolver;
 import org.eclipse.acceleo.query.services.ResourceServices;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.obeonetwork.m2doc.util.M2DocUtils;
 
 /**
  * Evaluation environemnt for M2Doc.
@@ -57,6 +58,11 @@ public class M2DocEvaluationEnvironment {
      */
     private URI destinationURI;
 
+    /**
+     * Tells if fragments of the previous generation should be reused.
+     */
+    private boolean incremental;
+
     /**
      * Constructor.
      * 
@@ -144,4 +150,26 @@ public class M2DocEvaluationEnvironment {
         return destinationURI;
     }
 
+    /**
+     * Tells if fragments of the previous generation should be reused when their fingerprint didn't change.
+     * 
+     * @return <code>true</code> if fragments of the previous generation should be reused, <code>false</code> otherwise
+     * @see M2DocUtils#INCREMENTAL_OPTION
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Sets if fragments of the previous generation should be reused when their fingerprint didn't change.
+     * 
+     * @param incremental
+     *            <code>true</code> if fragments of the previous generation should be reused, <code>false</code>
+     *            otherwise
+     * @see M2DocUtils#INCREMENTAL_OPTION
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
 }
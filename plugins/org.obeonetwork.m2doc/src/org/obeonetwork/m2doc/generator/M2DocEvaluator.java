@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2016, 2025 Obeo. 
+ *  Copyright (c) 2016, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -12,22 +12,26 @@
 package org.obeonetwork.m2doc.generator;
 
 import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.CancellationException;
 
-import org.apache.poi.ooxml.POIXMLDocumentPart.RelationPart;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.Units;
 import org.apache.poi.xwpf.usermodel.BreakType;
 import org.apache.poi.xwpf.usermodel.IBody;
@@ -45,8 +49,9 @@ import org.apache.poi.xwpf.usermodel.XWPFFootnote;
 import org.apache.poi.xwpf.usermodel.XWPFHeader;
 import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
 import org.apache.poi.xwpf.usermodel.XWPFHyperlinkRun;
-import org.apache.poi.xwpf.usermodel.XWPFNumbering;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPicture;
+import org.apache.poi.xwpf.usermodel.XWPFPictureData;
 import org.apache.poi.xwpf.usermodel.XWPFRelation;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFSDT;
@@ -56,6 +61,7 @@ import org.apache.poi.xwpf.usermodel.XWPFTableCell.XWPFVertAlign;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.impl.xb.xmlschema.SpaceAttribute.Space;
 import org.eclipse.acceleo.query.runtime.EvaluationResult;
 import org.eclipse.acceleo.query.runtime.IQueryEvaluationEngine;
 import org.eclipse.acceleo.query.runtime.impl.QueryEvaluationEngine;
@@ -77,6 +83,8 @@ import org.obeonetwork.m2doc.element.MList;
 import org.obeonetwork.m2doc.element.MPagination;
 import org.obeonetwork.m2doc.element.MParagraph;
 import org.obeonetwork.m2doc.element.MParagraph.Dir;
+import org.obeonetwork.m2doc.element.MStreamedList;
+import org.obeonetwork.m2doc.element.MStreamedTable;
 import org.obeonetwork.m2doc.element.MStyle;
 import org.obeonetwork.m2doc.element.MTable;
 import org.obeonetwork.m2doc.element.MTable.MCell;
@@ -84,11 +92,12 @@ import org.obeonetwork.m2doc.element.MTable.MCell.VAlignment;
 import org.obeonetwork.m2doc.element.MTable.MRow;
 import org.obeonetwork.m2doc.element.MTable.MTableAlign;
 import org.obeonetwork.m2doc.element.MText;
+import org.obeonetwork.m2doc.element.PictureType;
 import org.obeonetwork.m2doc.element.impl.AbosluteResizedImage;
+import org.obeonetwork.m2doc.element.impl.MImageImpl;
 import org.obeonetwork.m2doc.parser.TemplateValidationMessage;
 import org.obeonetwork.m2doc.parser.TokenType;
 import org.obeonetwork.m2doc.parser.ValidationMessageLevel;
-import org.obeonetwork.m2doc.services.PaginationServices;
 import org.obeonetwork.m2doc.template.Block;
 import org.obeonetwork.m2doc.template.Bookmark;
 import org.obeonetwork.m2doc.template.Cell;
@@ -109,17 +118,14 @@ import org.obeonetwork.m2doc.template.Template;
 import org.obeonetwork.m2doc.template.UserContent;
 import org.obeonetwork.m2doc.template.UserDoc;
 import org.obeonetwork.m2doc.template.util.TemplateSwitch;
+import org.obeonetwork.m2doc.util.DigestUtils;
 import org.obeonetwork.m2doc.util.FieldUtils;
 import org.obeonetwork.m2doc.util.M2DocUtils;
 import org.obeonetwork.m2doc.util.SequenceField;
 import org.openxmlformats.schemas.officeDocument.x2006.sharedTypes.STOnOff;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHMerge;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHdrFtr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHyperlink;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLvl;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNum;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumbering;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTOnOff;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
@@ -133,6 +139,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSimpleField;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTText;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTVMerge;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STFldCharType;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
@@ -292,6 +299,18 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
      */
     private Monitor monitor;
 
+    /**
+     * The {@link FragmentFingerprinter} if the generation is {@link M2DocEvaluationEnvironment#isIncremental()
+     * incremental}, <code>null</code> otherwise.
+     */
+    private final FragmentFingerprinter fingerprinter;
+
+    /**
+     * Mapping from {@link #getStyleKey(MStyle) style key} to the {@link CTRPr run properties} it produces on a run
+     * without properties.
+     */
+    private final Map<String, CTRPr> runProperties = new HashMap<>();
+
     /**
      * Create a new {@link M2DocEvaluator} instance given some definitions
      * and a query environment.
@@ -307,6 +326,12 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
         this.copier = m2docEnv.getCopier();
         this.evaluator = new QueryEvaluationEngine(m2docEnv.getResolver().getLookupEngine().getQueryEnvironment());
         this.monitor = monitor;
+        if (m2docEnv.isIncremental()) {
+            this.fingerprinter = new FragmentFingerprinter(m2docEnv.getResourceSetForModels().getURIConverter(),
+                    m2docEnv.getTemplateURI(), m2docEnv.getResourceSetForModels());
+        } else {
+            this.fingerprinter = null;
+        }
     }
 
     /**
@@ -682,6 +707,22 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
         return currentParagraph;
     }
 
+    /**
+     * Closes the given {@link Iterator} if it is {@link Closeable}, ignoring errors.
+     * 
+     * @param iterator
+     *            the {@link Iterator}
+     */
+    private void closeQuietly(Iterator<?> iterator) {
+        if (iterator instanceof Closeable) {
+            try {
+                ((Closeable) iterator).close();
+            } catch (IOException e) {
+                // nothing to do here, all needed elements have been read
+            }
+        }
+    }
+
     /**
      * Inserts the given {@link Object} in the given {@link XWPFRun}.
      * 
@@ -696,7 +737,21 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
     private XWPFParagraph insertObject(XWPFParagraph paragraph, Object object, XWPFRun run) {
         final XWPFParagraph res;
 
-        if (object instanceof Collection<?>) {
+        if (object instanceof MStreamedList) {
+            XWPFParagraph currentParagraph = paragraph;
+            final Iterator<MElement> it = ((MStreamedList) object).elementIterator();
+            try {
+                while (it.hasNext()) {
+                    currentParagraph = insertObject(currentParagraph, it.next(), run);
+                }
+            } catch (UncheckedIOException e) {
+                // streamed elements are read here, after the query has been evaluated
+                insertMessage(currentParagraph, ValidationMessageLevel.ERROR, e.getMessage());
+            } finally {
+                closeQuietly(it);
+            }
+            res = currentParagraph;
+        } else if (object instanceof Collection<?>) {
             XWPFParagraph currentParagraph = paragraph;
             for (Object child : (Collection<?>) object) {
                 currentParagraph = insertObject(currentParagraph, child, run);
@@ -732,10 +787,19 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
                 res = paragraph;
             }
         } else if (object instanceof MTable) {
-            if (!((MTable) object).getRows().isEmpty() && ((MTable) object).getColumnsCount() != 0) {
+            final Iterator<MRow> rowIterator = getRowIterator((MTable) object);
+            if (((MTable) object).getColumnsCount() != 0 && rowIterator.hasNext()) {
                 XWPFRun tableRun = run;
                 tableRun.getCTR().getInstrTextList().clear();
-                insertMTable(tableRun, (MTable) object);
+                try {
+                    insertMTable(tableRun, (MTable) object, rowIterator);
+                    // CHECKSTYLE:OFF
+                } catch (Exception e) {
+                    // CHECKSTYLE:ON
+                    // streamed rows are computed here, after the query has been evaluated
+                    insertMessage((XWPFParagraph) tableRun.getParent(), ValidationMessageLevel.ERROR,
+                            e.getMessage());
+                }
                 res = (XWPFParagraph) tableRun.getParent();
             } else {
                 // nothing to do here
@@ -816,6 +880,10 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
             result.addMessage(M2DocUtils.appendMessageRun(paragraph, ValidationMessageLevel.ERROR, e.getMessage()));
             res = paragraph;
         }
+        for (String styleID : copier.consumeMissingStyleIDs()) {
+            insertMessage(res, ValidationMessageLevel.WARNING,
+                    String.format("The style %s is not defined in the inserted document.", styleID));
+        }
 
         return res;
     }
@@ -1003,10 +1071,26 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
             final MImage asoluteImage = getAbsoluteSizedImage(paragraph, image);
             final int heigth = Units.toEMU(asoluteImage.getHeight());
             final int width = Units.toEMU(asoluteImage.getWidth());
-            try (InputStream imageStream = asoluteImage.getInputStream()) {
-                run.addPicture(imageStream, asoluteImage.getType().getPoiType(), asoluteImage.getURI().toString(),
-                        width, heigth);
+            final byte[] bytes;
+            final String md5;
+            if (image instanceof MImageImpl && image.getType() != PictureType.SVG
+                && ((MImageImpl) image).getBuffer() != null) {
+                // the content is already in memory, and possibly hashed during its preparation
+                bytes = ((MImageImpl) image).getBuffer();
+                md5 = ((MImageImpl) image).getBufferMD5();
+            } else if (image instanceof MImageImpl && image.getType() == PictureType.SVG) {
+                // rasterized for its displayed size
+                bytes = ((MImageImpl) image).getRaster(asoluteImage.getWidth(), asoluteImage.getHeight());
+                md5 = null;
+            } else {
+                try (InputStream imageStream = asoluteImage.getInputStream()) {
+                    bytes = IOUtils.toByteArray(imageStream);
+                }
+                md5 = null;
             }
+            final XWPFPicture picture = run.addPicture(new ByteArrayInputStream(bytes),
+                    asoluteImage.getType().getPoiType(), asoluteImage.getURI().toString(), width, heigth);
+            registerPicturePart(paragraph, picture, bytes, md5);
         } catch (InvalidFormatException e) {
             insertMessage(paragraph, ValidationMessageLevel.ERROR,
                     String.format(PICTURE_INVALID_FORMAT, image.getURI().toString(), e.getMessage()));
@@ -1016,6 +1100,37 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
         }
     }
 
+    /**
+     * Registers the {@link PackagePart} of the given {@link XWPFPicture} in the {@link RawCopier#getPartHashIndex(XWPFDocument)
+     * part index} so copied parts with the same content can reuse it, and in the
+     * {@link RawCopier#getPartNameAllocator(XWPFDocument) part name allocator} so its name is not probed again.
+     * 
+     * @param paragraph
+     *            the {@link XWPFParagraph} containing the picture
+     * @param picture
+     *            the inserted {@link XWPFPicture}
+     * @param bytes
+     *            the picture content
+     * @param md5
+     *            the picture content MD5 if known, <code>null</code> otherwise
+     */
+    @SuppressWarnings("resource")
+    private void registerPicturePart(XWPFParagraph paragraph, XWPFPicture picture, byte[] bytes, String md5) {
+        final XWPFPictureData pictureData = picture.getPictureData();
+        if (pictureData != null) {
+            final PackagePart part = pictureData.getPackagePart();
+            copier.getPartNameAllocator(paragraph.getDocument()).reserve(part.getPartName());
+            final PartHashIndex index = copier.getPartHashIndex(paragraph.getDocument());
+            final String hash;
+            if (md5 != null) {
+                hash = md5;
+            } else {
+                hash = DigestUtils.getMD5(bytes);
+            }
+            index.put(hash, bytes.length, part.getPartName().getURI());
+        }
+    }
+
     /**
      * Gets the absolute sized image from the given {@link MImage}.
      * 
@@ -1520,26 +1635,12 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
      *            the numbering level
      * @return the left indentation for the given numbering ID and level
      */
-    @SuppressWarnings("resource")
     private int getNumberingIndentLeft(Long numberingID, Long numberingLevel) {
-        int res = 0;
+        final int res;
 
         if (numberingID != null) {
-            CTAbstractNum absNum = null;
-            for (RelationPart relationPart : generatedDocument.getXWPFDocument().getRelationParts()) {
-                if (XWPFRelation.NUMBERING.getRelation().equals(relationPart.getRelationship().getRelationshipType())) {
-                    final XWPFNumbering numbering = relationPart.getDocumentPart();
-                    final CTNumbering ctNumbering = PaginationServices.getCTNumbering(numbering);
-                    absNum = getAbstractNumbering(ctNumbering, numberingID);
-                }
-                if (absNum != null) {
-                    for (CTLvl lvl : absNum.getLvlList()) {
-                        if (lvl.getIlvl().longValue() == numberingLevel.longValue()) {
-                            res = ((BigInteger) lvl.getPPr().getInd().getLeft()).intValue();
-                        }
-                    }
-                }
-            }
+            res = copier.getStyleIndex(generatedDocument.getXWPFDocument())
+                    .getIndentationLeft(BigInteger.valueOf(numberingID), BigInteger.valueOf(numberingLevel));
         } else {
             res = 0;
         }
@@ -1547,32 +1648,6 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
         return res;
     }
 
-    /**
-     * Gets the {@link CTAbstractNum} with the given numbering ID from the given {@link CTNumbering}.
-     * 
-     * @param ctNumbering
-     *            the {@link CTNumbering}
-     * @param numberingID
-     *            the numbering ID
-     * @return the {@link CTAbstractNum} with the given numbering ID from the given {@link CTNumbering} if nay, <code>null</code> otherwise
-     */
-    private CTAbstractNum getAbstractNumbering(final CTNumbering ctNumbering, Long numberingID) {
-        CTAbstractNum res = null;
-
-        for (CTNum ctNum : ctNumbering.getNumList()) {
-            if (ctNum.getNumId().longValue() == numberingID.longValue()) {
-                for (CTAbstractNum ctAbsNumering : ctNumbering.getAbstractNumList()) {
-                    if (ctAbsNumering.getAbstractNumId().equals(ctNum.getAbstractNumId().getVal())) {
-                        res = ctAbsNumering;
-                        break;
-                    }
-                }
-            }
-        }
-
-        return res;
-    }
-
     /**
      * Inserts the given {@link MTable}.
      * 
@@ -1580,8 +1655,10 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
      *            the {@link XWPFRun} to insert to
      * @param table
      *            the {@link MTable} to insert
+     * @param rowIterator
+     *            the {@link Iterator} over the {@link MRow} of the given {@link MTable}
      */
-    private void insertMTable(XWPFRun run, MTable table) {
+    private void insertMTable(XWPFRun run, MTable table, Iterator<MRow> rowIterator) {
         final XWPFTable xwpfTable;
         if (generatedDocument instanceof XWPFDocument) {
             if (table.getLabel() != null) {
@@ -1634,7 +1711,7 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
         }
 
         if (xwpfTable != null) {
-            fillTable(xwpfTable, table);
+            fillTable(xwpfTable, table, rowIterator);
             setTableAlign(xwpfTable, table);
         }
     }
@@ -1677,8 +1754,10 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
      *            The newly created word table
      * @param mTable
      *            The {@link MTable} that describes the data and styles to insert
+     * @param rowIterator
+     *            the {@link Iterator} over the {@link MRow} of the given {@link MTable}
      */
-    private void fillTable(XWPFTable xwpfTable, MTable mTable) {
+    private void fillTable(XWPFTable xwpfTable, MTable mTable, Iterator<MRow> rowIterator) {
 
         final boolean removeBorders;
         if (mTable.getStyleID() != null) {
@@ -1691,33 +1770,204 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
             removeBorders = false;
         }
 
-        // Iterate over the rows
-        for (MRow mRow : mTable.getRows()) {
-            final XWPFTableRow xwpfRow = xwpfTable.createRow();
-            while (!xwpfRow.getTableCells().isEmpty()) {
-                xwpfRow.removeCell(0);
-            }
-            xwpfRow.getCtRow().getTcList().clear();
-            setRowHeight(xwpfRow, mRow);
-
-            // Iterate over the columns
-            for (int column = 0; column < mRow.getCells().size(); column++) {
-                final MCell mCell = mRow.getCells().get(column);
-                final XWPFTableCell xwpfCell = xwpfRow.createCell();
-                // Populate cell
-                XWPFParagraph xwpfCellParagraph = xwpfCell.getParagraphs().get(0);
-                xwpfCellParagraph.setSpacingBefore(0);
-                xwpfCellParagraph.setSpacingAfter(0);
-                if (mCell != null && mCell.getHAlignment() != null) {
-                    xwpfCellParagraph.setAlignment(getHAllignment(mCell.getHAlignment()));
+        // rows with the same layout, styles and text runs as an already filled row are cloned from it
+        final Map<String, CTRow> rowPrototypes = new HashMap<>();
+        // Iterate over the rows, streamed rows are written as soon as they are computed
+        while (rowIterator.hasNext()) {
+            final MRow mRow = rowIterator.next();
+            final String rowKey = getRowKey(mRow);
+            final CTRow prototype;
+            if (rowKey != null) {
+                prototype = rowPrototypes.get(rowKey);
+            } else {
+                prototype = null;
+            }
+            if (prototype != null) {
+                // the generated XWPFTable is not read after being filled, only add the row to the CTTbl
+                final CTRow ctRow = xwpfTable.getCTTbl().addNewTr();
+                ctRow.set(prototype);
+                setRowTexts(ctRow, mRow);
+            } else {
+                final XWPFTableRow xwpfRow = fillRow(xwpfTable, mRow, removeBorders);
+                if (rowKey != null) {
+                    rowPrototypes.put(rowKey, xwpfRow.getCtRow());
                 }
-                setCellContent(xwpfCell, mCell);
-                setVMerge(xwpfCell, mCell);
-                setHMerge(xwpfCell, mCell);
-                setCellWidth(xwpfCell, mCell);
-                if (removeBorders && xwpfCell.getCTTc().getTcPr() != null
-                    && xwpfCell.getCTTc().getTcPr().isSetTcBorders()) {
-                    xwpfCell.getCTTc().getTcPr().unsetTcBorders();
+            }
+        }
+    }
+
+    /**
+     * Gets the {@link Iterator} over the {@link MRow} of the given {@link MTable}.
+     * 
+     * @param mTable
+     *            the {@link MTable}
+     * @return the {@link Iterator} over the {@link MRow} of the given {@link MTable}
+     */
+    private Iterator<MRow> getRowIterator(MTable mTable) {
+        final Iterator<MRow> res;
+
+        if (mTable instanceof MStreamedTable) {
+            res = ((MStreamedTable) mTable).rowIterator();
+        } else {
+            res = mTable.getRows().iterator();
+        }
+
+        return res;
+    }
+
+    /**
+     * Creates a new row in the given word table and fill it with the data from the given {@link MRow}.
+     * 
+     * @param xwpfTable
+     *            the word table
+     * @param mRow
+     *            the {@link MRow} that describes the data and styles to insert
+     * @param removeBorders
+     *            tells if cell borders should be removed
+     * @return the created {@link XWPFTableRow}
+     */
+    private XWPFTableRow fillRow(XWPFTable xwpfTable, MRow mRow, boolean removeBorders) {
+        final XWPFTableRow res = xwpfTable.createRow();
+        while (!res.getTableCells().isEmpty()) {
+            res.removeCell(0);
+        }
+        res.getCtRow().getTcList().clear();
+        setRowHeight(res, mRow);
+
+        // Iterate over the columns
+        for (int column = 0; column < mRow.getCells().size(); column++) {
+            final MCell mCell = mRow.getCells().get(column);
+            final XWPFTableCell xwpfCell = res.createCell();
+            // Populate cell
+            XWPFParagraph xwpfCellParagraph = xwpfCell.getParagraphs().get(0);
+            xwpfCellParagraph.setSpacingBefore(0);
+            xwpfCellParagraph.setSpacingAfter(0);
+            if (mCell != null && mCell.getHAlignment() != null) {
+                xwpfCellParagraph.setAlignment(getHAllignment(mCell.getHAlignment()));
+            }
+            setCellContent(xwpfCell, mCell);
+            setVMerge(xwpfCell, mCell);
+            setHMerge(xwpfCell, mCell);
+            setCellWidth(xwpfCell, mCell);
+            if (removeBorders && xwpfCell.getCTTc().getTcPr() != null
+                && xwpfCell.getCTTc().getTcPr().isSetTcBorders()) {
+                xwpfCell.getCTTc().getTcPr().unsetTcBorders();
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets a key identifying the generated XML of the given {@link MRow} except for its texts. Two rows with the same
+     * key only differ by the text of their single run cells.
+     * 
+     * @param mRow
+     *            the {@link MRow}
+     * @return the key identifying the generated XML of the given {@link MRow} except for its texts if the row is
+     *         regular, <code>null</code> if the row contains merged cells or contents other than single run texts
+     */
+    private String getRowKey(MRow mRow) {
+        final String res;
+
+        final StringBuilder key = new StringBuilder();
+        key.append(mRow.getHeightRule()).append('|').append(mRow.getHeight());
+        boolean regular = true;
+        final Iterator<MCell> it = mRow.getCells().iterator();
+        while (regular && it.hasNext()) {
+            final MCell mCell = it.next();
+            key.append('#');
+            if (mCell != null) {
+                regular = appendCellKey(key, mCell);
+            }
+        }
+        if (regular) {
+            res = key.toString();
+        } else {
+            res = null;
+        }
+
+        return res;
+    }
+
+    /**
+     * Appends the key identifying the generated XML of the given {@link MCell} except for its text to the given
+     * {@link StringBuilder}.
+     * 
+     * @param key
+     *            the key {@link StringBuilder}
+     * @param mCell
+     *            the {@link MCell}
+     * @return <code>true</code> if the cell is regular, <code>false</code> if it is merged or contains something
+     *         other than a single run text
+     */
+    private boolean appendCellKey(StringBuilder key, MCell mCell) {
+        final boolean res;
+
+        final MElement contents = mCell.getContents();
+        if (mCell.getVMerge() != null || mCell.getHMerge() != null) {
+            res = false;
+        } else if (contents != null && (!(contents instanceof MText) || contents instanceof MHyperLink)) {
+            res = false;
+        } else {
+            final String text;
+            if (contents != null) {
+                text = ((MText) contents).getText();
+            } else {
+                text = null;
+            }
+            if (text != null && (text.indexOf('\n') >= 0 || text.indexOf('\t') >= 0 || text.indexOf('\r') >= 0)) {
+                // new lines and tabulations split the text in several runs
+                res = false;
+            } else {
+                key.append('c').append(mCell.getHAlignment()).append('|').append(mCell.getVAlignment());
+                key.append('|').append(mCell.getWidthType()).append('|').append(mCell.getWitdh()).append('|');
+                if (mCell.getBackgroundColor() != null) {
+                    key.append(hexColor(mCell.getBackgroundColor()));
+                }
+                key.append('|');
+                if (contents == null) {
+                    key.append('n');
+                } else if (text == null) {
+                    // no run is inserted
+                    key.append('e');
+                } else {
+                    // a run is inserted even for an empty text
+                    key.append('t');
+                    final MStyle style = ((MText) contents).getStyle();
+                    if (style != null) {
+                        key.append(getStyleKey(style));
+                    }
+                }
+                res = true;
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Sets the texts of the given {@link CTRow} cloned from a row with the same {@link #getRowKey(MRow) key}.
+     * 
+     * @param ctRow
+     *            the cloned {@link CTRow}
+     * @param mRow
+     *            the {@link MRow} that describes the texts to insert
+     */
+    private void setRowTexts(CTRow ctRow, MRow mRow) {
+        for (int column = 0; column < mRow.getCells().size(); column++) {
+            final MCell mCell = mRow.getCells().get(column);
+            if (mCell != null && mCell.getContents() != null) {
+                final String text = ((MText) mCell.getContents()).getText();
+                if (text != null) {
+                    final CTText ctText = ctRow.getTcArray(column).getPArray(0).getRArray(0).getTArray(0);
+                    ctText.setStringValue(text);
+                    if (!text.isEmpty() && (Character.isWhitespace(text.charAt(0))
+                        || Character.isWhitespace(text.charAt(text.length() - 1)))) {
+                        ctText.setSpace(Space.PRESERVE);
+                    } else if (ctText.isSetSpace()) {
+                        ctText.unsetSpace();
+                    }
                 }
             }
         }
@@ -2036,6 +2286,56 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
      *            The style to apply, can be <code>null</code>
      */
     private void applyMStyle(XWPFRun run, MStyle style) {
+        if (!run.getCTR().isSetRPr()) {
+            // the resulting properties only depend on the style, copy them if already computed
+            final String key = getStyleKey(style);
+            final CTRPr properties = runProperties.get(key);
+            if (properties != null) {
+                run.getCTR().setRPr(properties);
+            } else {
+                applyMStyleProperties(run, style);
+                if (run.getCTR().isSetRPr()) {
+                    runProperties.put(key, (CTRPr) run.getCTR().getRPr().copy());
+                }
+            }
+        } else {
+            applyMStyleProperties(run, style);
+        }
+    }
+
+    /**
+     * Gets a key identifying the run properties produced by the given {@link MStyle}.
+     * 
+     * @param style
+     *            the {@link MStyle}
+     * @return the key identifying the run properties produced by the given {@link MStyle}
+     */
+    private String getStyleKey(MStyle style) {
+        final StringBuilder res = new StringBuilder();
+
+        res.append(style.getFontSize()).append('|');
+        res.append(style.getFontName()).append('|');
+        res.append(style.getFontModifiers()).append('|');
+        if (style.getForegroundColor() != null) {
+            res.append(hexColor(style.getForegroundColor()));
+        }
+        res.append('|');
+        if (style.getBackgroundColor() != null) {
+            res.append(hexColor(style.getBackgroundColor()));
+        }
+
+        return res.toString();
+    }
+
+    /**
+     * Applies the given {@link MStyle} properties to the given {@link XWPFRun}.
+     * 
+     * @param run
+     *            the {@link XWPFRun}
+     * @param style
+     *            the {@link MStyle}
+     */
+    private void applyMStyleProperties(XWPFRun run, MStyle style) {
         if (style.getFontSize() != -1) {
             run.setFontSize(style.getFontSize());
         }
@@ -2106,26 +2406,38 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
                 currentParagraph = insertQueryEvaluationMessages(currentParagraph, repetition,
                         queryResult.getDiagnostic());
             } else {
-                final List<Object> iteration = new ArrayList<>();
-                if (queryResult.getResult() instanceof Collection) {
-                    iteration.addAll((Collection<?>) queryResult.getResult());
+                final Iterator<?> iteration;
+                if (queryResult.getResult() instanceof MStreamedList) {
+                    // streamed elements are computed one at a time, they are not all kept in memory
+                    iteration = ((MStreamedList) queryResult.getResult()).elementIterator();
+                } else if (queryResult.getResult() instanceof Collection) {
+                    // copied since the body may change the collection
+                    iteration = new ArrayList<>((Collection<?>) queryResult.getResult()).iterator();
                 } else if (queryResult.getResult() != null) {
-                    iteration.add(queryResult.getResult());
+                    iteration = Collections.singleton(queryResult.getResult()).iterator();
                 } else {
                     insertMessage(currentParagraph, ValidationMessageLevel.WARNING,
                             repetition.getIterationVar() + " value is null.");
+                    iteration = Collections.emptyIterator();
                 }
+                final boolean isFragmentable = isFragmentable(repetition);
                 final Map<String, Object> newVariables = new HashMap<>(variablesStack.peek());
                 variablesStack.push(newVariables);
                 try {
                     int index = 1;
-                    for (Object val : iteration) {
+                    while (hasNext(currentParagraph, iteration)) {
+                        final Object val = iteration.next();
                         newVariables.put(repetition.getIterationVar(), val);
                         newVariables.put(repetition.getIterationVar() + M2DocValidator.INDEX_SUFFIX, index++);
-                        currentParagraph = doSwitch(repetition.getBody());
+                        if (isFragmentable) {
+                            currentParagraph = reuseFragment(currentParagraph, repetition);
+                        } else {
+                            currentParagraph = doSwitch(repetition.getBody());
+                        }
                         closingRepretition(repetition);
                     }
                 } finally {
+                    closeQuietly(iteration);
                     variablesStack.pop();
                 }
             }
@@ -2135,6 +2447,98 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
 
     }
 
+    /**
+     * Tells if the given iteration {@link Iterator} has a next value. Streamed elements are read here, after the query
+     * has been evaluated, so read errors are reported in the given {@link XWPFParagraph} and end the iteration.
+     * 
+     * @param paragraph
+     *            the {@link XWPFParagraph} where to report read errors
+     * @param iteration
+     *            the iteration {@link Iterator}
+     * @return <code>true</code> if the given iteration {@link Iterator} has a next value, <code>false</code> otherwise
+     */
+    private boolean hasNext(XWPFParagraph paragraph, Iterator<?> iteration) {
+        boolean res;
+
+        try {
+            res = iteration.hasNext();
+        } catch (UncheckedIOException e) {
+            insertMessage(paragraph, ValidationMessageLevel.ERROR, e.getMessage());
+            res = false;
+        }
+
+        return res;
+    }
+
+    /**
+     * Tells if iterations of the given {@link Repetition} can be reused from the previous generation. Only top level
+     * {@link Repetition} of the document body are fragmentable when the generation is
+     * {@link M2DocEvaluationEnvironment#isIncremental() incremental}. {@link Repetition} containing {@link Bookmark}
+     * or {@link Link} are excluded since copied fragments are not tracked by the {@link BookmarkManager}.
+     * 
+     * @param repetition
+     *            the {@link Repetition}
+     * @return <code>true</code> if iterations of the given {@link Repetition} can be reused from the previous
+     *         generation, <code>false</code> otherwise
+     */
+    private boolean isFragmentable(Repetition repetition) {
+        boolean res = fingerprinter != null && generatedDocument instanceof XWPFDocument
+            && repetition.eContainer() != null && repetition.eContainer().eContainer() instanceof DocumentTemplate
+            && ((DocumentTemplate) repetition.eContainer().eContainer()).getBody() == repetition.eContainer();
+
+        if (res) {
+            final Iterator<EObject> it = repetition.getBody().eAllContents();
+            while (it.hasNext()) {
+                final EObject eObj = it.next();
+                if (eObj instanceof Bookmark || eObj instanceof Link) {
+                    res = false;
+                    break;
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Copies the current iteration of the given {@link Repetition} from the previous generation if its fingerprint
+     * didn't change, generates its body otherwise. The fragment is surrounded by
+     * {@link UserContentManager#FRAGMENT_ID_PREFIX fragment} user content fields, so it can be reused by the next
+     * generation. Iterations without {@link FragmentFingerprinter#getFingerprint(IConstruct, Map) fingerprint} are
+     * generated without fields.
+     * 
+     * @param paragraph
+     *            the {@link XWPFParagraph} to modify
+     * @param repetition
+     *            the {@link Repetition}
+     * @return the current {@link XWPFParagraph}
+     */
+    private XWPFParagraph reuseFragment(XWPFParagraph paragraph, Repetition repetition) {
+        XWPFParagraph currentParagraph = paragraph;
+
+        String id;
+        try {
+            final String fingerprint = fingerprinter.getFingerprint(repetition, variablesStack.peek());
+            if (fingerprint != null) {
+                id = UserContentManager.FRAGMENT_ID_PREFIX + fingerprint;
+            } else {
+                id = null;
+            }
+        } catch (IOException e) {
+            id = null;
+        }
+
+        if (id != null) {
+            currentParagraph = addStartUserDocField(currentParagraph, repetition, id);
+            currentParagraph = insertUserContentBody(currentParagraph, repetition, repetition.getBody(),
+                    userContentManager.consumeFragment(id));
+        } else {
+            currentParagraph = doSwitch(repetition.getBody());
+        }
+
+        return currentParagraph;
+    }
+
     @Override
     public XWPFParagraph doSwitch(EObject eObject) {
         if (!monitor.isCanceled()) {
@@ -2210,9 +2614,30 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
         manageUserDocIdUniqueness(currentParagraph, id, userDoc);
         // Copy userdoc content
         UserContent userContent = userContentManager.consumeUserContent(id);
+
+        return insertUserContentBody(currentParagraph, userDoc, userDoc.getBody(), userContent);
+    }
+
+    /**
+     * Inserts the given {@link UserContent} if any, the given {@link Block} otherwise, followed by the end user content
+     * field.
+     * 
+     * @param paragraph
+     *            the {@link XWPFParagraph} to modify
+     * @param construct
+     *            the source {@link IConstruct}
+     * @param body
+     *            the {@link Block} to generate if there is no {@link UserContent}
+     * @param userContent
+     *            the {@link UserContent} to copy if any, <code>null</code> otherwise
+     * @return the current {@link XWPFParagraph}
+     */
+    private XWPFParagraph insertUserContentBody(XWPFParagraph paragraph, IConstruct construct, Block body,
+            UserContent userContent) {
+        XWPFParagraph currentParagraph = paragraph;
         boolean needNewParagraphBeforeEndTag = true;
         if (userContent == null) {
-            currentParagraph = doSwitch(userDoc.getBody());
+            currentParagraph = doSwitch(body);
         } else {
             try {
                 currentParagraph = copier.copyUserContent(userContent, currentParagraph);
@@ -2227,14 +2652,14 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
 
         if (currentParagraph == null) {
             currentParagraph = createNewParagraph(generatedDocument,
-                    (XWPFParagraph) userDoc.getRuns().get(0).getParent());
+                    (XWPFParagraph) construct.getRuns().get(0).getParent());
             needNewParagraphBeforeEndTag = false;
         }
 
         if (!currentParagraph.getCTP().xmlText()
                 .contains("<w:instrText>" + TokenType.ENDUSERCONTENT.getValue() + "</w:instrText>")) {
             // Tag m:enduserContent
-            currentParagraph = addEndUserContentField(currentParagraph, userDoc, needNewParagraphBeforeEndTag);
+            currentParagraph = addEndUserContentField(currentParagraph, construct, needNewParagraphBeforeEndTag);
         }
 
         return currentParagraph;
@@ -2268,19 +2693,19 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
      * 
      * @param paragraph
      *            the {@link XWPFParagraph} to modify
-     * @param userDoc
-     *            the {@link UserDoc} where add field
+     * @param construct
+     *            the {@link IConstruct} where add field
      * @param id
-     *            the {@link UserDoc} evaluated ID
+     *            the evaluated ID
      * @return the current {@link XWPFParagraph}
      */
-    private XWPFParagraph addStartUserDocField(XWPFParagraph paragraph, UserDoc userDoc, String id) {
+    private XWPFParagraph addStartUserDocField(XWPFParagraph paragraph, IConstruct construct, String id) {
         final XWPFParagraph res;
 
-        if (paragraph == null
-            || userDoc.getRuns().size() != 0 && userDoc.getRuns().get(0).getParent() != currentTemplateParagraph) {
+        if (paragraph == null || construct.getRuns().size() != 0
+            && construct.getRuns().get(0).getParent() != currentTemplateParagraph) {
             final XWPFParagraph newParagraph = createNewParagraph(generatedDocument,
-                    (XWPFParagraph) userDoc.getRuns().get(0).getParent());
+                    (XWPFParagraph) construct.getRuns().get(0).getParent());
             insertTag(newParagraph, TokenType.USERCONTENT.getValue() + " " + id);
             res = newParagraph;
         } else {
@@ -2296,13 +2721,14 @@ public class M2DocEvaluator extends TemplateSwitch<XWPFParagraph> {
      * 
      * @param paragraph
      *            the {@link XWPFParagraph} to modify
-     * @param userDoc
-     *            the {@link UserDoc} where add field
+     * @param construct
+     *            the {@link IConstruct} where add field
      * @param needNewParagraph
      *            need New Paragraph boolean
      * @return the current {@link XWPFParagraph}
      */
-    private XWPFParagraph addEndUserContentField(XWPFParagraph paragraph, UserDoc userDoc, boolean needNewParagraph) {
+    private XWPFParagraph addEndUserContentField(XWPFParagraph paragraph, IConstruct construct,
+            boolean needNewParagraph) {
         final XWPFParagraph res;
 
         if (needNewParagraph) {
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ooxml.POIXMLDocumentPart.RelationPart;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.obeonetwork.m2doc.util.DigestUtils;
+
+/**
+ * Index of {@link PackagePart} names by content MD5 for a given {@link XWPFDocument}. Parts already present in the
+ * document are grouped by size and only hashed when a candidate with the same size is looked up. Parts added during
+ * the generation are {@link #put(String, long, URI) registered} as they are created.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class PartHashIndex {
+
+    /**
+     * The size of a {@link PackagePart} when it can't be known without reading it.
+     */
+    private static final long UNKNOWN_SIZE = -1L;
+
+    /**
+     * The buffer size.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The mapping from a size to {@link PackagePart} with that size that have not been hashed yet.
+     */
+    private final Map<Long, List<PackagePart>> pendingParts = new HashMap<>();
+
+    /**
+     * The mapping from a size to the mapping from MD5 to {@link PackagePart#getPartName() part name}.
+     */
+    private final Map<Long, Map<String, URI>> sizeToMD5ToName = new HashMap<>();
+
+    /**
+     * Constructor.
+     * 
+     * @param document
+     *            the {@link XWPFDocument} to index
+     */
+    public PartHashIndex(XWPFDocument document) {
+        for (RelationPart part : document.getRelationParts()) {
+            final PackagePart packagePart = part.getDocumentPart().getPackagePart();
+            final long size = packagePart.getSize();
+            final List<PackagePart> parts = pendingParts.computeIfAbsent(size >= 0 ? size : UNKNOWN_SIZE,
+                    s -> new ArrayList<>());
+            parts.add(packagePart);
+        }
+    }
+
+    /**
+     * Gets the {@link PackagePart#getPartName() part name} of the part with the given MD5 and size.
+     * 
+     * @param md5
+     *            the MD5 of the part content
+     * @param size
+     *            the size of the part content
+     * @return the {@link PackagePart#getPartName() part name} of the part with the given MD5 and size if any,
+     *         <code>null</code> otherwise
+     */
+    public URI get(String md5, long size) {
+        hashPendingParts(UNKNOWN_SIZE);
+        hashPendingParts(size);
+
+        final Map<String, URI> md5ToName = sizeToMD5ToName.get(size);
+
+        return md5ToName != null ? md5ToName.get(md5) : null;
+    }
+
+    /**
+     * Registers the given {@link PackagePart#getPartName() part name} for the given MD5 and size.
+     * 
+     * @param md5
+     *            the MD5 of the part content
+     * @param size
+     *            the size of the part content
+     * @param partName
+     *            the {@link PackagePart#getPartName() part name}
+     */
+    public void put(String md5, long size, URI partName) {
+        sizeToMD5ToName.computeIfAbsent(size, s -> new HashMap<>()).putIfAbsent(md5, partName);
+    }
+
+    /**
+     * Hashes {@link PackagePart} with the given size that have not been hashed yet.
+     * 
+     * @param size
+     *            the size
+     */
+    private void hashPendingParts(long size) {
+        final List<PackagePart> parts = pendingParts.remove(size);
+        if (parts != null) {
+            for (PackagePart part : parts) {
+                try (InputStream is = part.getInputStream()) {
+                    final MessageDigest md5 = DigestUtils.newMD5();
+                    final long actualSize = digest(is, md5);
+                    put(DigestUtils.toHexString(md5.digest()), actualSize, part.getPartName().getURI());
+                } catch (IOException e) {
+                    // nothing to do here: worst case scenario the generated document is not optimized in size
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the given {@link MessageDigest} with the content of the given {@link InputStream}.
+     * 
+     * @param is
+     *            the {@link InputStream}
+     * @param digest
+     *            the {@link MessageDigest}
+     * @return the number of read bytes
+     * @throws IOException
+     *             if the given {@link InputStream} cant be read
+     */
+    private static long digest(InputStream is, MessageDigest digest) throws IOException {
+        long res = 0;
+
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int nbBytes;
+        do {
+            nbBytes = is.read(buffer);
+            if (nbBytes > 0) {
+                digest.update(buffer, 0, nbBytes);
+                res += nbBytes;
+            }
+        } while (nbBytes != -1);
+
+        return res;
+    }
+
+}
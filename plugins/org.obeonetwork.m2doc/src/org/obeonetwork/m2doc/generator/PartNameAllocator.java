@@ -0,0 +1,154 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.generator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+
+/**
+ * Allocates free {@link PackagePartName} in an {@link OPCPackage}. A part name is split in a prefix, an index and an
+ * extension, for instance <code>/word/media/image</code>, <code>12</code> and <code>.png</code>. The next free index is
+ * tracked for each prefix and extension, so each index is probed at most once.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class PartNameAllocator {
+
+    /**
+     * The maximum number of digits of an index.
+     */
+    private static final int MAX_INDEX_DIGITS = 9;
+
+    /**
+     * The separator between the prefix and the extension in keys.
+     */
+    private static final char KEY_SEPARATOR = '*';
+
+    /**
+     * The {@link OPCPackage}.
+     */
+    private final OPCPackage pkg;
+
+    /**
+     * The mapping from prefix and extension to the next index to probe.
+     */
+    private final Map<String, Integer> nextIndexes = new HashMap<>();
+
+    /**
+     * Constructor.
+     * 
+     * @param pkg
+     *            the {@link OPCPackage}
+     */
+    public PartNameAllocator(OPCPackage pkg) {
+        this.pkg = pkg;
+    }
+
+    /**
+     * Gets a free {@link PackagePartName} for the given wanted {@link PackagePartName}. The wanted name is returned if
+     * it is free, otherwise its index is replaced (or added) with the next free index for its prefix and extension.
+     * 
+     * @param wantedName
+     *            the wanted {@link PackagePartName}
+     * @return a free {@link PackagePartName} for the given wanted {@link PackagePartName}
+     * @throws InvalidFormatException
+     *             if a {@link PackagePartName} can't be created
+     */
+    public PackagePartName allocate(PackagePartName wantedName) throws InvalidFormatException {
+        PackagePartName res = wantedName;
+
+        if (pkg.containPart(wantedName)) {
+            final String name = wantedName.getName();
+            final int extensionIndex = getExtensionIndex(name);
+            final int digitsIndex = getDigitsIndex(name, extensionIndex);
+            final String prefix = name.substring(0, digitsIndex);
+            final String extension = name.substring(extensionIndex);
+            final String key = prefix + KEY_SEPARATOR + extension;
+
+            int index = nextIndexes.getOrDefault(key, 1);
+            do {
+                res = PackagingURIHelper.createPartName(prefix + index + extension);
+                index++;
+            } while (pkg.containPart(res));
+            nextIndexes.put(key, index);
+        } else {
+            reserve(wantedName);
+        }
+
+        return res;
+    }
+
+    /**
+     * Tells this allocator the given {@link PackagePartName} has been used by someone else, so it is not probed again.
+     * 
+     * @param partName
+     *            the used {@link PackagePartName}
+     */
+    public void reserve(PackagePartName partName) {
+        final String name = partName.getName();
+        final int extensionIndex = getExtensionIndex(name);
+        final int digitsIndex = getDigitsIndex(name, extensionIndex);
+        if (digitsIndex < extensionIndex && extensionIndex - digitsIndex <= MAX_INDEX_DIGITS) {
+            final String key = name.substring(0, digitsIndex) + KEY_SEPARATOR + name.substring(extensionIndex);
+            final int index = Integer.parseInt(name.substring(digitsIndex, extensionIndex));
+            if (nextIndexes.getOrDefault(key, 1) == index) {
+                nextIndexes.put(key, index + 1);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the extension in the given part name.
+     * 
+     * @param name
+     *            the part name
+     * @return the index of the extension in the given part name, the length of the name if there is no extension
+     */
+    private int getExtensionIndex(String name) {
+        final int res;
+
+        final int dotIndex = name.lastIndexOf('.');
+        if (dotIndex > name.lastIndexOf('/')) {
+            res = dotIndex;
+        } else {
+            res = name.length();
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the index of the trailing digits before the given extension index.
+     * 
+     * @param name
+     *            the part name
+     * @param extensionIndex
+     *            the extension index
+     * @return the index of the trailing digits before the given extension index, the extension index if there are no
+     *         such digits
+     */
+    private int getDigitsIndex(String name, int extensionIndex) {
+        int res = extensionIndex;
+
+        while (res > 0 && Character.isDigit(name.charAt(res - 1))) {
+            res--;
+        }
+
+        return res;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2016, 2025 Obeo. 
+ *  Copyright (c) 2016, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -21,12 +21,11 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
-import org.apache.poi.ooxml.POIXMLDocumentPart.RelationPart;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.openxml4j.opc.PackagePartName;
@@ -49,10 +48,10 @@ import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.XmlObject;
-import org.apache.xmlbeans.impl.common.IOUtil;
 import org.obeonetwork.m2doc.POIServices;
 import org.obeonetwork.m2doc.parser.AbstractBodyParser;
 import org.obeonetwork.m2doc.template.UserContent;
+import org.obeonetwork.m2doc.util.DigestUtils;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBookmark;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDecimalNumber;
@@ -80,134 +79,95 @@ public class RawCopier {
     private static final String RELATIONSHIPS_URI = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
 
     /**
-     * Mask.
+     * The buffer size.
      */
-    private static final int MASK_16 = 16;
+    private static final int BUFFER_SIZE = 8192;
 
     /**
-     * Mask.
+     * Need new paragraph after copy.
+     * Last Content Run And EndUserContent are not In Same Paragraph.
      */
-    private static final int MASK_0X100 = 0x100;
+    private boolean needNewParagraph = true;
 
     /**
-     * Mask.
+     * The per {@link XWPFDocument} {@link PartHashIndex}.
      */
-    private static final int MASK_0XFF = 0xff;
+    private final Map<XWPFDocument, PartHashIndex> partHashIndexes = new HashMap<>();
 
     /**
-     * The buffer size.
+     * The per {@link XWPFDocument} {@link PartNameAllocator}.
      */
-    private static final int BUFFER_SIZE = 8192;
+    private final Map<XWPFDocument, PartNameAllocator> partNameAllocators = new HashMap<>();
 
     /**
-     * Integer {@link Pattern}.
+     * The per {@link XWPFDocument} {@link StyleIndex}.
      */
-    private static final Pattern INTEGER_PATTERN = Pattern.compile("[0-9]+");
+    private final Map<XWPFDocument, StyleIndex> styleIndexes = new HashMap<>();
 
     /**
-     * Need new paragraph after copy.
-     * Last Content Run And EndUserContent are not In Same Paragraph.
+     * The IDs of styles referenced but not defined in the input document of the last
+     * {@link #copyBody(XWPFParagraph, IBody, BookmarkManager) body copy}.
      */
-    private boolean needNewParagraph = true;
+    private final Set<String> missingStyleIDs = new LinkedHashSet<>();
 
     /**
-     * The per {@link XWPFDocument} mapping form {@link PackagePart}'s MD5 to its {@link PackagePart#getPartName() name}.
+     * Gets the {@link PartHashIndex} for the given {@link XWPFDocument}.
+     * 
+     * @param document
+     *            the {@link XWPFDocument}
+     * @return the {@link PartHashIndex} for the given {@link XWPFDocument}
      */
-    private final Map<XWPFDocument, Map<String, URI>> partMD5ToName = new HashMap<>();
+    public PartHashIndex getPartHashIndex(XWPFDocument document) {
+        return partHashIndexes.computeIfAbsent(document, d -> new PartHashIndex(d));
+    }
 
     /**
-     * The mapping from a {@link XWPFDocument} to the Mapping from its style ID to the actual {@link CTStyle}.
+     * Gets the {@link PartNameAllocator} for the given {@link XWPFDocument}.
+     * 
+     * @param document
+     *            the {@link XWPFDocument}
+     * @return the {@link PartNameAllocator} for the given {@link XWPFDocument}
      */
-    private final Map<XWPFDocument, Map<String, CTStyle>> knownStyles = new HashMap<>();
+    @SuppressWarnings("resource")
+    public PartNameAllocator getPartNameAllocator(XWPFDocument document) {
+        return partNameAllocators.computeIfAbsent(document, d -> new PartNameAllocator(d.getPackage()));
+    }
 
     /**
-     * Gets the mapping form {@link PackagePart}'s MD5 to its {@link PackagePart#getPartName() name} for the given {@link XWPFDocument}.
+     * Gets the {@link StyleIndex} for the given {@link XWPFDocument}.
      * 
      * @param document
      *            the {@link XWPFDocument}
-     * @return the mapping form {@link PackagePart}'s MD5 to its {@link PackagePart#getPartName() name} for the given {@link XWPFDocument}
+     * @return the {@link StyleIndex} for the given {@link XWPFDocument}
      */
-    public Map<String, URI> getPartMD5ToName(XWPFDocument document) {
-        Map<String, URI> res = partMD5ToName.get(document);
-
-        if (res == null) {
-            res = new HashMap<>();
-            try {
-                for (RelationPart part : document.getRelationParts()) {
-                    final PackagePart packagePart = part.getDocumentPart().getPackagePart();
-                    try (InputStream is = packagePart.getInputStream()) {
-                        res.put(getMD5(is), packagePart.getPartName().getURI());
-                    }
-                }
-            } catch (NoSuchAlgorithmException e) {
-                // nothing to do here: worst case scenario the generated document is not optimized in size
-            } catch (IOException e) {
-                // nothing to do here: worst case scenario the generated document is not optimized in size
-            }
-            partMD5ToName.put(document, res);
-        }
-
-        return res;
+    public StyleIndex getStyleIndex(XWPFDocument document) {
+        return styleIndexes.computeIfAbsent(document, d -> new StyleIndex(d));
     }
 
     /**
-     * Gets the {@link Map} of known styles for the given {@link XWPFDocument}.
+     * Gets and forgets the IDs of styles referenced but not defined in the input document of the last
+     * {@link #copyBody(XWPFParagraph, IBody, BookmarkManager) body copy}. Such styles are not copied, Word then uses
+     * the default style.
      * 
-     * @param document
-     *            the {@link XWPFDocument}
-     * @return the {@link Map} of known styles for the given {@link XWPFDocument}
+     * @return the IDs of styles referenced but not defined in the input document of the last body copy
      */
-    public Map<String, CTStyle> getKnownStyles(XWPFDocument document) {
-        Map<String, CTStyle> res = knownStyles.get(document);
+    public Set<String> consumeMissingStyleIDs() {
+        final Set<String> res = new LinkedHashSet<>(missingStyleIDs);
 
-        if (res == null) {
-            res = new HashMap<>();
-            try {
-                for (CTStyle style : document.getStyle().getStyleList()) {
-                    res.put(style.getStyleId(), style);
-                }
-            } catch (XmlException e) {
-                // nothing to do here: worst case scenario the generated document is not optimized in size
-            } catch (IOException e) {
-                // nothing to do here: worst case scenario the generated document is not optimized in size
-            }
-            knownStyles.put(document, res);
-        }
+        missingStyleIDs.clear();
 
         return res;
     }
 
     /**
-     * Gets the MD5 hash of the given {@link InputStream}.
+     * Gets the {@link Map} of known styles for the given {@link XWPFDocument}.
      * 
-     * @param is
-     *            the {@link InputStream}
-     * @return the MD5 hash of the given {@link InputStream}
-     * @throws NoSuchAlgorithmException
-     *             if MD5 can't be found
-     * @throws IOException
-     *             if the given {@link InputStream} cant be read
+     * @param document
+     *            the {@link XWPFDocument}
+     * @return the {@link Map} of known styles for the given {@link XWPFDocument}
      */
-    private String getMD5(InputStream is) throws NoSuchAlgorithmException, IOException {
-        final StringBuilder res = new StringBuilder();
-
-        final MessageDigest md5 = MessageDigest.getInstance("MD5");
-
-        final byte[] buffer = new byte[BUFFER_SIZE];
-        int nbBytes;
-        do {
-            nbBytes = is.read(buffer);
-            if (nbBytes > 0) {
-                md5.update(buffer, 0, nbBytes);
-            }
-        } while (nbBytes != -1);
-
-        final byte[] digest = md5.digest();
-        for (int i = 0; i < digest.length; i++) {
-            res.append(Integer.toString((digest[i] & MASK_0XFF) + MASK_0X100, MASK_16).substring(1));
-        }
-
-        return res.toString();
+    public Map<String, CTStyle> getKnownStyles(XWPFDocument document) {
+        return getStyleIndex(document).getStyles();
     }
 
     /**
@@ -410,7 +370,8 @@ public class RawCopier {
         final BigInteger newID = BigInteger.valueOf(ouptutDocument.getNumbering().getAbstractNums().size());
         outputNum.getAbstractNum().setAbstractNumId(newID);
         BigInteger outputNumID = ouptutDocument.getNumbering().addAbstractNum(outputNum);
-        ouptutDocument.getNumbering().addNum(outputNumID);
+        final BigInteger addedNumID = ouptutDocument.getNumbering().addNum(outputNumID);
+        getStyleIndex(ouptutDocument).addNumbering(addedNumID, outputNum.getCTAbstractNum());
         return outputNumID;
     }
 
@@ -693,17 +654,24 @@ public class RawCopier {
      */
     @SuppressWarnings("resource")
     private void copyStyle(IBody inputBody, IBody outputBody, final String styleID) {
-        final Map<String, CTStyle> outputStyles = getKnownStyles(outputBody.getXWPFDocument());
-        if (!outputStyles.containsKey(styleID)) {
-            final XWPFStyle inputStyle = inputBody.getXWPFDocument().getStyles().getStyle(styleID);
-            final XWPFStyle outputStyle = new XWPFStyle((CTStyle) inputStyle.getCTStyle().copy());
-            outputBody.getXWPFDocument().getStyles().addStyle(outputStyle);
-            outputStyles.put(styleID, outputStyle.getCTStyle());
-            for (XWPFStyle usedStyle : inputBody.getXWPFDocument().getStyles().getUsedStyleList(inputStyle)) {
-                final String usedStyleID = usedStyle.getStyleId();
-                if (!outputStyles.containsKey(usedStyleID)) {
-                    copyStyle(inputBody, outputBody, usedStyleID);
+        final StyleIndex outputStyles = getStyleIndex(outputBody.getXWPFDocument());
+        if (outputStyles.getStyle(styleID) == null) {
+            final CTStyle inputStyle = getStyleIndex(inputBody.getXWPFDocument()).getStyle(styleID);
+            if (inputStyle != null) {
+                final XWPFStyle outputStyle = new XWPFStyle((CTStyle) inputStyle.copy());
+                outputBody.getXWPFDocument().getStyles().addStyle(outputStyle);
+                outputStyles.addStyle(outputStyle.getCTStyle());
+                if (inputStyle.getBasedOn() != null) {
+                    copyStyle(inputBody, outputBody, inputStyle.getBasedOn().getVal());
+                }
+                if (inputStyle.getLink() != null) {
+                    copyStyle(inputBody, outputBody, inputStyle.getLink().getVal());
                 }
+                if (inputStyle.getNext() != null) {
+                    copyStyle(inputBody, outputBody, inputStyle.getNext().getVal());
+                }
+            } else {
+                missingStyleIDs.add(styleID);
             }
         }
     }
@@ -886,25 +854,31 @@ public class RawCopier {
         final PackagePartName outputPartName = getOutputPartName(source, outputDoc);
         final PackagePart copiedPart = outputDoc.getPackage().createPart(outputPartName, source.getContentType());
 
-        final MessageDigest md5 = MessageDigest.getInstance("MD5");
+        final MessageDigest md5 = DigestUtils.newMD5();
+        long size = 0;
         try (InputStream is = source.getInputStream();
                 DigestInputStream dis = new DigestInputStream(is, md5);
                 OutputStream os = copiedPart.getOutputStream()) {
-            IOUtil.copyCompletely(dis, os);
-        }
-        final byte[] digest = md5.digest();
-        final StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < digest.length; i++) {
-            builder.append(Integer.toString((digest[i] & MASK_0XFF) + MASK_0X100, MASK_16).substring(1));
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int nbBytes;
+            do {
+                nbBytes = dis.read(buffer);
+                if (nbBytes > 0) {
+                    os.write(buffer, 0, nbBytes);
+                    size += nbBytes;
+                }
+            } while (nbBytes != -1);
         }
+        final String hash = DigestUtils.toHexString(md5.digest());
 
-        final URI existingPartURI = getPartMD5ToName(outputDoc).get(builder.toString());
+        final PartHashIndex index = getPartHashIndex(outputDoc);
+        final URI existingPartURI = index.get(hash, size);
         if (existingPartURI != null) {
             res = outputDoc.getPackage().getPart(PackagingURIHelper.createPartName(existingPartURI));
             outputDoc.getPackage().removePart(copiedPart);
         } else {
             res = copiedPart;
-            getPartMD5ToName(outputDoc).put(builder.toString(), res.getPartName().getURI());
+            index.put(hash, size, res.getPartName().getURI());
         }
 
         return res;
@@ -921,27 +895,9 @@ public class RawCopier {
      * @throws InvalidFormatException
      *             if a {@link PackagePart} can't be accessed
      */
-    @SuppressWarnings("resource")
     private PackagePartName getOutputPartName(PackagePart source, XWPFDocument outputDoc)
             throws InvalidFormatException {
-        PackagePartName possiblePartName = source.getPartName();
-        PackagePart existingPart = outputDoc.getPackage().getPart(possiblePartName);
-        int index = 1;
-        final Matcher matcher = INTEGER_PATTERN.matcher(possiblePartName.getName());
-        final boolean indexFound = matcher.find();
-        while (existingPart != null) {
-            existingPart = outputDoc.getPackage().getPart(possiblePartName);
-            if (existingPart != null) {
-                if (indexFound) {
-                    possiblePartName = PackagingURIHelper.createPartName(matcher.replaceFirst(String.valueOf(index++)));
-                } else {
-                    possiblePartName = PackagingURIHelper
-                            .createPartName(source.getPartName().getName().replace(".", index++ + "."));
-                }
-            }
-        }
-
-        return possiblePartName;
+        return getPartNameAllocator(outputDoc).allocate(source.getPartName());
     }
 
     /**
@@ -961,6 +917,7 @@ public class RawCopier {
             throws Exception {
         XWPFParagraph res = null;
 
+        missingStyleIDs.clear();
         if (body.getBodyElements().isEmpty()) {
             res = outputParagraph;
         } else {
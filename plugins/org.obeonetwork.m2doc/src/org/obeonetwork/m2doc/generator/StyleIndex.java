@@ -0,0 +1,254 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.generator;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.xmlbeans.XmlException;
+import org.obeonetwork.m2doc.services.PaginationServices;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLvl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumbering;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+
+/**
+ * Index of styles by style ID and of numbering left indentations by numbering ID and level for a given
+ * {@link XWPFDocument}. Both are built the first time they are needed. Styles and numberings copied during the
+ * generation are {@link #addStyle(CTStyle) added} as they are created. Numberings created by other means are indexed
+ * again when the number of numberings changes, and levels added to an indexed numbering are read again when the number
+ * of its levels changes. Otherwise a missing numbering or level is not looked up again.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class StyleIndex {
+
+    /**
+     * The indexed {@link XWPFDocument}.
+     */
+    private final XWPFDocument document;
+
+    /**
+     * The mapping from style ID to {@link CTStyle}, lazily built.
+     */
+    private Map<String, CTStyle> styles;
+
+    /**
+     * The mapping from numbering ID to the mapping from level to left indentation, lazily built.
+     */
+    private Map<BigInteger, Map<BigInteger, Integer>> indentations;
+
+    /**
+     * The mapping from numbering ID to its {@link CTAbstractNum}, built with {@link #indentations}.
+     */
+    private Map<BigInteger, CTAbstractNum> abstractNums;
+
+    /**
+     * The indexed {@link XWPFNumbering} if any, <code>null</code> otherwise.
+     */
+    private XWPFNumbering numbering;
+
+    /**
+     * The {@link CTNumbering} of the indexed {@link #numbering} if any, <code>null</code> otherwise.
+     */
+    private CTNumbering ctNumbering;
+
+    /**
+     * The number of {@link CTNum} when {@link #indentations} was built.
+     */
+    private int indexedNumsCount;
+
+    /**
+     * Constructor.
+     * 
+     * @param document
+     *            the {@link XWPFDocument} to index
+     */
+    public StyleIndex(XWPFDocument document) {
+        this.document = document;
+    }
+
+    /**
+     * Gets the mapping from style ID to {@link CTStyle}.
+     * 
+     * @return the mapping from style ID to {@link CTStyle}
+     */
+    public Map<String, CTStyle> getStyles() {
+        if (styles == null) {
+            styles = new HashMap<>();
+            try {
+                for (CTStyle style : document.getStyle().getStyleList()) {
+                    styles.put(style.getStyleId(), style);
+                }
+            } catch (XmlException e) {
+                // nothing to do here: worst case scenario the generated document is not optimized in size
+            } catch (IOException e) {
+                // nothing to do here: worst case scenario the generated document is not optimized in size
+            }
+        }
+
+        return styles;
+    }
+
+    /**
+     * Gets the {@link CTStyle} with the given ID.
+     * 
+     * @param styleID
+     *            the style ID
+     * @return the {@link CTStyle} with the given ID if any, <code>null</code> otherwise
+     */
+    public CTStyle getStyle(String styleID) {
+        return getStyles().get(styleID);
+    }
+
+    /**
+     * Adds the given {@link CTStyle} added to the document.
+     * 
+     * @param style
+     *            the {@link CTStyle}
+     */
+    public void addStyle(CTStyle style) {
+        getStyles().put(style.getStyleId(), style);
+    }
+
+    /**
+     * Gets the left indentation for the given numbering ID and level.
+     * 
+     * @param numberingID
+     *            the numbering ID
+     * @param level
+     *            the numbering level
+     * @return the left indentation for the given numbering ID and level if any, <code>0</code> otherwise
+     */
+    public int getIndentationLeft(BigInteger numberingID, BigInteger level) {
+        final int res;
+
+        if (indentations == null || getNumsCount() != indexedNumsCount) {
+            // numberings might have been created by services since they were indexed
+            indexNumberings();
+        }
+        Map<BigInteger, Integer> levels = indentations.get(numberingID);
+        if (levels != null && !levels.containsKey(level)) {
+            final CTAbstractNum abstractNum = abstractNums.get(numberingID);
+            if (abstractNum != null && abstractNum.sizeOfLvlArray() != levels.size()) {
+                // levels might have been added by services since the numbering was indexed
+                levels = getIndentations(abstractNum);
+                indentations.put(numberingID, levels);
+            }
+        }
+        if (levels != null && levels.containsKey(level)) {
+            res = levels.get(level);
+        } else {
+            res = 0;
+        }
+
+        return res;
+    }
+
+    /**
+     * Adds the numbering with the given ID and {@link CTAbstractNum} added to the document.
+     * 
+     * @param numberingID
+     *            the numbering ID
+     * @param abstractNum
+     *            the {@link CTAbstractNum}
+     */
+    public void addNumbering(BigInteger numberingID, CTAbstractNum abstractNum) {
+        if (indentations != null) {
+            indentations.put(numberingID, getIndentations(abstractNum));
+            abstractNums.put(numberingID, abstractNum);
+            if (getNumsCount() == indexedNumsCount + 1) {
+                // only the added numbering is new, other changes are indexed when looked up
+                indexedNumsCount++;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of {@link CTNum} in the document.
+     * 
+     * @return the number of {@link CTNum} in the document
+     */
+    private int getNumsCount() {
+        final XWPFNumbering currentNumbering = document.getNumbering();
+        if (currentNumbering != numbering) {
+            numbering = currentNumbering;
+            if (numbering != null) {
+                ctNumbering = PaginationServices.getCTNumbering(numbering);
+            } else {
+                ctNumbering = null;
+            }
+        }
+
+        final int res;
+        if (ctNumbering != null) {
+            res = ctNumbering.sizeOfNumArray();
+        } else {
+            res = 0;
+        }
+
+        return res;
+    }
+
+    /**
+     * Indexes the numberings of the document in {@link #indentations} and {@link #abstractNums}.
+     */
+    private void indexNumberings() {
+        indentations = new HashMap<>();
+        abstractNums = new HashMap<>();
+        indexedNumsCount = getNumsCount();
+
+        if (ctNumbering != null) {
+            final Map<BigInteger, CTAbstractNum> abstractNumsByID = new HashMap<>();
+            for (CTAbstractNum abstractNum : ctNumbering.getAbstractNumList()) {
+                abstractNumsByID.put(abstractNum.getAbstractNumId(), abstractNum);
+            }
+            for (CTNum num : ctNumbering.getNumList()) {
+                if (num.getAbstractNumId() != null) {
+                    final CTAbstractNum abstractNum = abstractNumsByID.get(num.getAbstractNumId().getVal());
+                    if (abstractNum != null) {
+                        indentations.put(num.getNumId(), getIndentations(abstractNum));
+                        abstractNums.put(num.getNumId(), abstractNum);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the mapping from level to left indentation for the given {@link CTAbstractNum}.
+     * 
+     * @param abstractNum
+     *            the {@link CTAbstractNum}
+     * @return the mapping from level to left indentation for the given {@link CTAbstractNum}
+     */
+    private Map<BigInteger, Integer> getIndentations(CTAbstractNum abstractNum) {
+        final Map<BigInteger, Integer> res = new HashMap<>();
+
+        for (CTLvl lvl : abstractNum.getLvlList()) {
+            if (lvl.getPPr() != null && lvl.getPPr().getInd() != null
+                && lvl.getPPr().getInd().getLeft() instanceof BigInteger) {
+                res.put(lvl.getIlvl(), ((BigInteger) lvl.getPPr().getInd().getLeft()).intValue());
+            } else {
+                res.put(lvl.getIlvl(), 0);
+            }
+        }
+
+        return res;
+    }
+
+}
@@ -0,0 +1,934 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.obeonetwork.m2doc.parser.TokenType;
+import org.obeonetwork.m2doc.template.UserContent;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+/**
+ * Extracts {@link UserContent} from a previously generated document without parsing the whole document. The main
+ * document part is scanned with StAX and only top level body elements overlapping a {@link TokenType#USERCONTENT user
+ * content} field are kept. They are written with the relations and parts they need (styles, numbering, images, ...)
+ * to a reduced document that can then be parsed with {@link M2DocUtils#parseUserContent(URIConverter, URI)}. The
+ * reduced main document is spilled to a temporary file while the package is scanned.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class UserContentExtractor {
+
+    /**
+     * The WordprocessingML namespace.
+     */
+    private static final String W_NAMESPACE = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    /**
+     * The relationships namespace used by references in parts.
+     */
+    private static final String R_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    /**
+     * The VML office namespace.
+     */
+    private static final String O_NAMESPACE = "urn:schemas-microsoft-com:office:office";
+
+    /**
+     * The package relationships namespace.
+     */
+    private static final String PACKAGE_RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    /**
+     * The document element.
+     */
+    private static final QName DOCUMENT = new QName(W_NAMESPACE, "document");
+
+    /**
+     * The body element.
+     */
+    private static final QName BODY = new QName(W_NAMESPACE, "body");
+
+    /**
+     * The field character element.
+     */
+    private static final QName FLD_CHAR = new QName(W_NAMESPACE, "fldChar");
+
+    /**
+     * The field character type attribute.
+     */
+    private static final QName FLD_CHAR_TYPE = new QName(W_NAMESPACE, "fldCharType");
+
+    /**
+     * The instruction text element.
+     */
+    private static final QName INSTR_TEXT = new QName(W_NAMESPACE, "instrText");
+
+    /**
+     * The VML relation ID attribute.
+     */
+    private static final QName RELID = new QName(O_NAMESPACE, "relid");
+
+    /**
+     * The relationship element.
+     */
+    private static final String RELATIONSHIP = "Relationship";
+
+    /**
+     * The relationships element.
+     */
+    private static final String RELATIONSHIPS = "Relationships";
+
+    /**
+     * The ID attribute.
+     */
+    private static final String ID = "Id";
+
+    /**
+     * The type attribute.
+     */
+    private static final String TYPE = "Type";
+
+    /**
+     * The target attribute.
+     */
+    private static final String TARGET = "Target";
+
+    /**
+     * The target mode attribute.
+     */
+    private static final String TARGET_MODE = "TargetMode";
+
+    /**
+     * The external target mode.
+     */
+    private static final String EXTERNAL = "External";
+
+    /**
+     * The header relationship type suffix.
+     */
+    private static final String HEADER_TYPE = "/header";
+
+    /**
+     * The footer relationship type suffix.
+     */
+    private static final String FOOTER_TYPE = "/footer";
+
+    /**
+     * The relationships folder.
+     */
+    private static final String RELS_FOLDER = "_rels/";
+
+    /**
+     * The relationships extension.
+     */
+    private static final String RELS_EXTENSION = ".rels";
+
+    /**
+     * The XML extension.
+     */
+    private static final String XML_EXTENSION = ".xml";
+
+    /**
+     * The content types entry.
+     */
+    private static final String CONTENT_TYPES = "[Content_Types].xml";
+
+    /**
+     * The package relationships entry.
+     */
+    private static final String PACKAGE_RELS = "_rels/.rels";
+
+    /**
+     * The buffer size.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * A relationship read from a <code>.rels</code> entry.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class Relationship {
+
+        /**
+         * The ID.
+         */
+        private final String id;
+
+        /**
+         * The type.
+         */
+        private final String type;
+
+        /**
+         * The target as written in the <code>.rels</code> entry.
+         */
+        private final String target;
+
+        /**
+         * Tells if the target is external.
+         */
+        private final boolean external;
+
+        /**
+         * Constructor.
+         * 
+         * @param id
+         *            the ID
+         * @param type
+         *            the type
+         * @param target
+         *            the target as written in the <code>.rels</code> entry
+         * @param external
+         *            tells if the target is external
+         */
+        private Relationship(String id, String type, String target, boolean external) {
+            this.id = id;
+            this.type = type;
+            this.target = target;
+            this.external = external;
+        }
+
+    }
+
+    /**
+     * An {@link InputStream} that doesn't close its underlying {@link InputStream}, so StAX readers don't close the
+     * {@link ZipInputStream}.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class EntryInputStream extends FilterInputStream {
+
+        /**
+         * Constructor.
+         * 
+         * @param in
+         *            the underlying {@link InputStream}
+         */
+        private EntryInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // nothing to do here: the underlying stream is closed by its owner
+        }
+
+    }
+
+    /**
+     * The {@link URIConverter}.
+     */
+    private final URIConverter uriConverter;
+
+    /**
+     * The {@link XMLInputFactory}.
+     */
+    private final XMLInputFactory inputFactory;
+
+    /**
+     * The {@link XMLOutputFactory}.
+     */
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+
+    /**
+     * The {@link XMLEventFactory}.
+     */
+    private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+    /**
+     * The mapping from a source entry name to its {@link Relationship}. The package itself is the empty name.
+     */
+    private final Map<String, List<Relationship>> relationships = new HashMap<>();
+
+    /**
+     * Entry names of parts other than the main document containing user content fields.
+     */
+    private final Set<String> partsWithUserContent = new HashSet<>();
+
+    /**
+     * Relation IDs referenced from the main document.
+     */
+    private final Set<String> referencedIDs = new HashSet<>();
+
+    /**
+     * Relation IDs referenced from extracted elements.
+     */
+    private final Set<String> extractedIDs = new HashSet<>();
+
+    /**
+     * The {@link UserContent#getId() user content IDs} in the main document.
+     */
+    private final Set<String> userContentIDs = new LinkedHashSet<>();
+
+    /**
+     * The main document entry name.
+     */
+    private String mainDocumentEntry;
+
+    /**
+     * The temporary file containing the reduced main document, so it is not held in memory.
+     */
+    private File reducedDocument;
+
+    /**
+     * Tells if an user content error was found while scanning.
+     */
+    private boolean error;
+
+    /**
+     * Constructor.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     */
+    public UserContentExtractor(URIConverter uriConverter) {
+        this.uriConverter = uriConverter;
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Extracts user contents from the given document to the given reduced document.
+     * 
+     * @param documentURI
+     *            the document {@link URI}
+     * @param reducedDocumentURI
+     *            the reduced document {@link URI}
+     * @return <code>true</code> if the reduced document has been written and contains user contents to parse,
+     *         <code>false</code> if there is no user contents to parse
+     * @throws IOException
+     *             if the document can't be read or the reduced document can't be written
+     * @throws XMLStreamException
+     *             if an XML part of the document can't be parsed
+     */
+    public boolean extract(URI documentURI, URI reducedDocumentURI) throws IOException, XMLStreamException {
+        final boolean res;
+
+        try {
+            try (InputStream is = uriConverter.createInputStream(documentURI)) {
+                scan(is);
+            }
+            if (mainDocumentEntry == null) {
+                throw new IOException("no main document part found in " + documentURI);
+            }
+
+            if (!userContentIDs.isEmpty() || !partsWithUserContent.isEmpty()) {
+                try (InputStream is = uriConverter.createInputStream(documentURI);
+                        OutputStream os = uriConverter.createOutputStream(reducedDocumentURI)) {
+                    write(is, os);
+                }
+                res = true;
+            } else {
+                res = false;
+            }
+        } finally {
+            if (reducedDocument != null) {
+                Files.deleteIfExists(reducedDocument.toPath());
+                reducedDocument = null;
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the {@link UserContent#getId() user content IDs} found in the main document.
+     * 
+     * @return the {@link UserContent#getId() user content IDs} found in the main document
+     */
+    public Set<String> getUserContentIDs() {
+        return userContentIDs;
+    }
+
+    /**
+     * Tells if an user content error was found in elements that were not extracted, for instance an
+     * {@link TokenType#ENDUSERCONTENT end user content} field without its {@link TokenType#USERCONTENT user content}
+     * field.
+     * 
+     * @return <code>true</code> if an user content error was found in elements that were not extracted,
+     *         <code>false</code> otherwise
+     */
+    public boolean hasError() {
+        return error;
+    }
+
+    /**
+     * Scans the given document {@link InputStream}.
+     * 
+     * @param is
+     *            the document {@link InputStream}
+     * @throws IOException
+     *             if the document can't be read
+     * @throws XMLStreamException
+     *             if an XML part of the document can't be parsed
+     */
+    private void scan(InputStream is) throws IOException, XMLStreamException {
+        try (ZipInputStream zis = new ZipInputStream(is)) {
+            ZipEntry entry = zis.getNextEntry();
+            while (entry != null) {
+                final String name = entry.getName();
+                if (name.endsWith(RELS_EXTENSION)) {
+                    relationships.put(getSourceEntry(name), readRelationships(new EntryInputStream(zis)));
+                } else if (name.endsWith(XML_EXTENSION) && !CONTENT_TYPES.equals(name)) {
+                    scanPart(name, new EntryInputStream(zis));
+                }
+                entry = zis.getNextEntry();
+            }
+        }
+    }
+
+    /**
+     * Gets the source entry name of the given <code>.rels</code> entry name.
+     * 
+     * @param relsEntry
+     *            the <code>.rels</code> entry name
+     * @return the source entry name of the given <code>.rels</code> entry name
+     */
+    private String getSourceEntry(String relsEntry) {
+        final String res;
+
+        final int folderIndex = relsEntry.lastIndexOf(RELS_FOLDER);
+        if (folderIndex >= 0) {
+            res = relsEntry.substring(0, folderIndex)
+                + relsEntry.substring(folderIndex + RELS_FOLDER.length(), relsEntry.length() - RELS_EXTENSION.length());
+        } else {
+            res = relsEntry.substring(0, relsEntry.length() - RELS_EXTENSION.length());
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the <code>.rels</code> entry name of the given source entry name.
+     * 
+     * @param sourceEntry
+     *            the source entry name
+     * @return the <code>.rels</code> entry name of the given source entry name
+     */
+    private String getRelsEntry(String sourceEntry) {
+        final int slashIndex = sourceEntry.lastIndexOf('/');
+
+        return sourceEntry.substring(0, slashIndex + 1) + RELS_FOLDER + sourceEntry.substring(slashIndex + 1)
+            + RELS_EXTENSION;
+    }
+
+    /**
+     * Reads {@link Relationship} from the given <code>.rels</code> {@link InputStream}.
+     * 
+     * @param is
+     *            the <code>.rels</code> {@link InputStream}
+     * @return the {@link List} of {@link Relationship}
+     * @throws XMLStreamException
+     *             if the <code>.rels</code> can't be parsed
+     */
+    private List<Relationship> readRelationships(InputStream is) throws XMLStreamException {
+        final List<Relationship> res = new ArrayList<>();
+
+        final XMLEventReader reader = inputFactory.createXMLEventReader(is);
+        try {
+            while (reader.hasNext()) {
+                final XMLEvent event = reader.nextEvent();
+                if (event.isStartElement() && RELATIONSHIP.equals(event.asStartElement().getName().getLocalPart())) {
+                    final StartElement element = event.asStartElement();
+                    final Attribute targetMode = element.getAttributeByName(new QName(TARGET_MODE));
+                    res.add(new Relationship(getValue(element, ID), getValue(element, TYPE),
+                            getValue(element, TARGET), targetMode != null && EXTERNAL.equals(targetMode.getValue())));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the value of the given unqualified attribute.
+     * 
+     * @param element
+     *            the {@link StartElement}
+     * @param name
+     *            the attribute name
+     * @return the value of the given unqualified attribute if any, <code>null</code> otherwise
+     */
+    private String getValue(StartElement element, String name) {
+        final Attribute attribute = element.getAttributeByName(new QName(name));
+
+        return attribute != null ? attribute.getValue() : null;
+    }
+
+    /**
+     * Scans the given XML part.
+     * 
+     * @param name
+     *            the entry name
+     * @param is
+     *            the part {@link InputStream}
+     * @throws IOException
+     *             if the reduced main document can't be written
+     * @throws XMLStreamException
+     *             if the part can't be parsed
+     */
+    private void scanPart(String name, InputStream is) throws IOException, XMLStreamException {
+        final XMLEventReader reader = inputFactory.createXMLEventReader(is);
+        try {
+            XMLEvent event = reader.nextEvent();
+            while (!event.isStartElement() && reader.hasNext()) {
+                event = reader.nextEvent();
+            }
+            if (event.isStartElement() && DOCUMENT.equals(event.asStartElement().getName())) {
+                mainDocumentEntry = name;
+                reduceDocument(event.asStartElement(), reader);
+            } else {
+                final FieldScanner scanner = new FieldScanner();
+                while (reader.hasNext() && !scanner.found) {
+                    scanner.scan(reader.nextEvent());
+                }
+                if (scanner.found) {
+                    partsWithUserContent.add(name);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Scans user content fields in a stream of {@link XMLEvent}.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private final class FieldScanner {
+
+        /**
+         * The instruction text of currently open fields.
+         */
+        private final Deque<StringBuilder> fields = new ArrayDeque<>();
+
+        /**
+         * Tells if we are in an instruction text element.
+         */
+        private boolean inInstrText;
+
+        /**
+         * The number of open user contents.
+         */
+        private int openUserContents;
+
+        /**
+         * Tells if a user content field has been found by the last {@link #scan(XMLEvent)} call.
+         */
+        private boolean found;
+
+        /**
+         * Scans the given {@link XMLEvent}.
+         * 
+         * @param event
+         *            the {@link XMLEvent}
+         */
+        private void scan(XMLEvent event) {
+            found = false;
+            if (event.isStartElement()) {
+                final StartElement element = event.asStartElement();
+                if (FLD_CHAR.equals(element.getName())) {
+                    final Attribute type = element.getAttributeByName(FLD_CHAR_TYPE);
+                    if (type != null && "begin".equals(type.getValue())) {
+                        fields.push(new StringBuilder());
+                    } else if (type != null && "end".equals(type.getValue()) && !fields.isEmpty()) {
+                        endField(fields.pop().toString().trim());
+                    }
+                } else if (INSTR_TEXT.equals(element.getName())) {
+                    inInstrText = true;
+                }
+            } else if (event.isEndElement()) {
+                if (INSTR_TEXT.equals(event.asEndElement().getName())) {
+                    inInstrText = false;
+                }
+            } else if (event.isCharacters() && inInstrText && !fields.isEmpty()) {
+                fields.peek().append(event.asCharacters().getData());
+            }
+        }
+
+        /**
+         * Ends a field with the given instruction.
+         * 
+         * @param instruction
+         *            the field instruction
+         */
+        private void endField(String instruction) {
+            final String type = getType(instruction);
+            if (TokenType.USERCONTENT.getValue().equals(type)) {
+                final String id = instruction.substring(type.length()).trim();
+                if (!id.isEmpty()) {
+                    userContentIDs.add(id);
+                }
+                openUserContents++;
+                found = true;
+            } else if (TokenType.ENDUSERCONTENT.getValue().equals(type)) {
+                if (openUserContents > 0) {
+                    openUserContents--;
+                } else {
+                    error = true;
+                }
+                found = true;
+            }
+        }
+
+        /**
+         * Gets the M2Doc tag type of the given field instruction.
+         * 
+         * @param instruction
+         *            the field instruction
+         * @return the M2Doc tag type of the given field instruction if any, <code>null</code> otherwise
+         */
+        private String getType(String instruction) {
+            final String res;
+
+            if (instruction.startsWith(M2DocUtils.M)) {
+                int index = M2DocUtils.M.length();
+                while (index < instruction.length() && Character.isLetterOrDigit(instruction.charAt(index))) {
+                    index++;
+                }
+                res = instruction.substring(0, index);
+            } else {
+                res = null;
+            }
+
+            return res;
+        }
+
+    }
+
+    /**
+     * Reduces the main document to the top level body elements overlapping a user content.
+     * 
+     * @param documentElement
+     *            the document {@link StartElement}
+     * @param reader
+     *            the {@link XMLEventReader} positioned after the document {@link StartElement}
+     * @throws IOException
+     *             if the reduced document can't be written
+     * @throws XMLStreamException
+     *             if the main document can't be parsed or the reduced document can't be written
+     */
+    private void reduceDocument(StartElement documentElement, XMLEventReader reader)
+            throws IOException, XMLStreamException {
+        reducedDocument = File.createTempFile("m2doc-userContent", ".xml");
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(reducedDocument))) {
+            reduceDocument(documentElement, reader, os);
+        }
+    }
+
+    /**
+     * Reduces the main document to the top level body elements overlapping a user content.
+     * 
+     * @param documentElement
+     *            the document {@link StartElement}
+     * @param reader
+     *            the {@link XMLEventReader} positioned after the document {@link StartElement}
+     * @param os
+     *            the reduced document {@link OutputStream}
+     * @throws XMLStreamException
+     *             if the main document can't be parsed or the reduced document can't be written
+     */
+    private void reduceDocument(StartElement documentElement, XMLEventReader reader, OutputStream os)
+            throws XMLStreamException {
+        final XMLEventWriter writer = outputFactory.createXMLEventWriter(os, "UTF-8");
+        try {
+            writer.add(eventFactory.createStartDocument("UTF-8", "1.0", true));
+            writer.add(documentElement);
+            final FieldScanner scanner = new FieldScanner();
+            int depth = 0;
+            boolean inBody = false;
+            final List<XMLEvent> element = new ArrayList<>();
+            final Set<String> elementIDs = new HashSet<>();
+            boolean keepElement = false;
+            while (reader.hasNext()) {
+                final XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                    if (depth == 1 && BODY.equals(event.asStartElement().getName())) {
+                        inBody = true;
+                        writer.add(event);
+                    } else if (inBody && depth >= 2) {
+                        if (depth == 2) {
+                            keepElement = scanner.openUserContents > 0;
+                        }
+                        collectReferences(event.asStartElement(), elementIDs);
+                        element.add(event);
+                    } else {
+                        collectReferences(event.asStartElement(), referencedIDs);
+                    }
+                } else if (event.isEndElement()) {
+                    if (inBody && depth >= 2) {
+                        element.add(event);
+                        if (depth == 2) {
+                            keepElement = keepElement || scanner.openUserContents > 0;
+                            if (keepElement) {
+                                for (XMLEvent elementEvent : element) {
+                                    writer.add(elementEvent);
+                                }
+                                extractedIDs.addAll(elementIDs);
+                            }
+                            referencedIDs.addAll(elementIDs);
+                            element.clear();
+                            elementIDs.clear();
+                        }
+                    } else if (depth == 1 && inBody) {
+                        inBody = false;
+                        writer.add(event);
+                    } else if (depth == 0) {
+                        writer.add(event);
+                    }
+                    depth--;
+                } else if (inBody && depth >= 2) {
+                    element.add(event);
+                }
+                if (inBody && depth >= 2) {
+                    scanner.scan(event);
+                    keepElement = keepElement || scanner.found;
+                }
+            }
+            writer.add(eventFactory.createEndDocument());
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Collects relation IDs referenced by the given {@link StartElement}.
+     * 
+     * @param element
+     *            the {@link StartElement}
+     * @param ids
+     *            the {@link Set} of relation IDs to fill
+     */
+    private void collectReferences(StartElement element, Set<String> ids) {
+        final Iterator<?> it = element.getAttributes();
+        while (it.hasNext()) {
+            final Attribute attribute = (Attribute) it.next();
+            if (R_NAMESPACE.equals(attribute.getName().getNamespaceURI()) || RELID.equals(attribute.getName())) {
+                ids.add(attribute.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes the reduced document to the given {@link OutputStream}.
+     * 
+     * @param is
+     *            the document {@link InputStream}
+     * @param os
+     *            the reduced document {@link OutputStream}
+     * @throws IOException
+     *             if the document can't be read or the reduced document can't be written
+     * @throws XMLStreamException
+     *             if the main document relationships can't be written
+     */
+    private void write(InputStream is, OutputStream os) throws IOException, XMLStreamException {
+        final Set<String> entries = getReducedEntries();
+        final String mainDocumentRels = getRelsEntry(mainDocumentEntry);
+        try (ZipInputStream zis = new ZipInputStream(is); ZipOutputStream zos = new ZipOutputStream(os)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            ZipEntry entry = zis.getNextEntry();
+            while (entry != null) {
+                final String name = entry.getName();
+                if (!mainDocumentEntry.equals(name) && !mainDocumentRels.equals(name) && entries.contains(name)) {
+                    zos.putNextEntry(new ZipEntry(name));
+                    int nbBytes;
+                    do {
+                        nbBytes = zis.read(buffer);
+                        if (nbBytes > 0) {
+                            zos.write(buffer, 0, nbBytes);
+                        }
+                    } while (nbBytes != -1);
+                    zos.closeEntry();
+                }
+                entry = zis.getNextEntry();
+            }
+
+            zos.putNextEntry(new ZipEntry(mainDocumentEntry));
+            Files.copy(reducedDocument.toPath(), zos);
+            zos.closeEntry();
+
+            if (relationships.containsKey(mainDocumentEntry)) {
+                zos.putNextEntry(new ZipEntry(mainDocumentRels));
+                writeRelationships(zos, getReducedRelationships());
+                zos.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Gets the entry names of the reduced document.
+     * 
+     * @return the entry names of the reduced document
+     */
+    private Set<String> getReducedEntries() {
+        final Set<String> res = new HashSet<>();
+
+        res.add(CONTENT_TYPES);
+        res.add(PACKAGE_RELS);
+        final Deque<String> toVisit = new ArrayDeque<>();
+        toVisit.add("");
+        while (!toVisit.isEmpty()) {
+            final String source = toVisit.pop();
+            final List<Relationship> sourceRelationships;
+            if (mainDocumentEntry.equals(source)) {
+                sourceRelationships = getReducedRelationships();
+            } else {
+                sourceRelationships = relationships.getOrDefault(source, new ArrayList<>());
+            }
+            if (!source.isEmpty() && relationships.containsKey(source)) {
+                res.add(getRelsEntry(source));
+            }
+            for (Relationship relationship : sourceRelationships) {
+                if (!relationship.external) {
+                    final String target = resolve(source, relationship.target);
+                    if (target != null && res.add(target)) {
+                        toVisit.add(target);
+                    }
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the main document {@link Relationship} needed by the reduced document.
+     * 
+     * @return the main document {@link Relationship} needed by the reduced document
+     */
+    private List<Relationship> getReducedRelationships() {
+        final List<Relationship> res = new ArrayList<>();
+
+        for (Relationship relationship : relationships.getOrDefault(mainDocumentEntry, new ArrayList<>())) {
+            final boolean keep;
+            if (extractedIDs.contains(relationship.id)) {
+                keep = true;
+            } else if (relationship.type != null
+                && (relationship.type.endsWith(HEADER_TYPE) || relationship.type.endsWith(FOOTER_TYPE))) {
+                keep = !relationship.external
+                    && partsWithUserContent.contains(resolve(mainDocumentEntry, relationship.target));
+            } else {
+                // parts like styles and numbering are used without explicit reference
+                keep = !referencedIDs.contains(relationship.id);
+            }
+            if (keep) {
+                res.add(relationship);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Resolves the given relationship target against the given source entry name.
+     * 
+     * @param source
+     *            the source entry name
+     * @param target
+     *            the relationship target
+     * @return the resolved entry name if any, <code>null</code> otherwise
+     */
+    private String resolve(String source, String target) {
+        String res;
+
+        if (target != null) {
+            try {
+                final String path = new java.net.URI("/" + source).resolve(new java.net.URI(target)).getPath();
+                res = path.startsWith("/") ? path.substring(1) : path;
+            } catch (URISyntaxException e) {
+                res = null;
+            }
+        } else {
+            res = null;
+        }
+
+        return res;
+    }
+
+    /**
+     * Writes the given {@link Relationship} to the given {@link OutputStream}.
+     * 
+     * @param os
+     *            the {@link OutputStream}
+     * @param relationshipsToWrite
+     *            the {@link Relationship} to write
+     * @throws XMLStreamException
+     *             if the relationships can't be written
+     */
+    private void writeRelationships(OutputStream os, List<Relationship> relationshipsToWrite)
+            throws XMLStreamException {
+        final XMLStreamWriter writer = outputFactory.createXMLStreamWriter(os, "UTF-8");
+        try {
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement(RELATIONSHIPS);
+            writer.writeDefaultNamespace(PACKAGE_RELATIONSHIPS_NAMESPACE);
+            for (Relationship relationship : relationshipsToWrite) {
+                writer.writeEmptyElement(RELATIONSHIP);
+                writer.writeAttribute(ID, relationship.id);
+                writer.writeAttribute(TYPE, relationship.type);
+                writer.writeAttribute(TARGET, relationship.target);
+                if (relationship.external) {
+                    writer.writeAttribute(TARGET_MODE, EXTERNAL);
+                }
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+}
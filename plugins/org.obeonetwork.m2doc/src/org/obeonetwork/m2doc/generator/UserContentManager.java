@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2016, 2025 Obeo. 
+ *  Copyright (c) 2016, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.obeonetwork.m2doc.generator;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -21,10 +23,13 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
@@ -33,7 +38,6 @@ import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.URIConverter;
-import org.obeonetwork.m2doc.POIServices;
 import org.obeonetwork.m2doc.parser.TemplateValidationMessage;
 import org.obeonetwork.m2doc.parser.ValidationMessageLevel;
 import org.obeonetwork.m2doc.template.DocumentTemplate;
@@ -56,6 +60,11 @@ public class UserContentManager {
      */
     public static final String USERDOC_COPY_ERROR = "userdoc copy error : ";
 
+    /**
+     * The prefix of {@link UserContent#getId() user content ID} used for fragments of incremental generation.
+     */
+    public static final String FRAGMENT_ID_PREFIX = "m2doc.fragment.";
+
     /**
      * Buffer size.
      */
@@ -124,13 +133,26 @@ public class UserContentManager {
         mapIdUserContent = new HashMap<>();
         if (uriConverter != null && destinationURI != null
             && uriConverter.exists(destinationURI, Collections.EMPTY_MAP)) {
-            // Copy file
+            // Extract user contents to a reduced memory copy
             uriConverter.getURIHandlers().add(0, uriHandler);
-            final URI memoryCopy = memoryCopy(destinationURI);
-            if (memoryCopy != null) {
+            try {
+                final URI memoryCopy = URI.createURI(
+                        MemoryURIHandler.PROTOCOL + "://resources/" + destinationURI.lastSegment(), false);
+                final UserContentExtractor extractor = new UserContentExtractor(uriConverter);
+                boolean needParsing;
                 try {
+                    needParsing = extractor.extract(destinationURI, memoryCopy);
+                } catch (IOException | XMLStreamException e) {
+                    // fall back to a full copy of the destination document
+                    needParsing = copy(destinationURI, memoryCopy);
+                }
+                // same rule as parsing the whole document: user content errors can only come from elements with a
+                // user content field or inside a user content. The extractor reports unbalanced end fields and keeps
+                // all other such elements in the reduced document, where they are parsed.
+                copyToLostDocument = extractor.hasError();
+                if (needParsing) {
                     userDocDocument = M2DocUtils.parseUserContent(uriConverter, memoryCopy);
-                    copyToLostDocument = hasError(userDocDocument);
+                    copyToLostDocument = copyToLostDocument || hasError(userDocDocument);
                     final TreeIterator<EObject> iter = userDocDocument.eAllContents();
                     while (iter.hasNext()) {
                         EObject eObject = iter.next();
@@ -139,16 +161,16 @@ public class UserContentManager {
                             storeUserContent(mapIdUserContent, userContent);
                         }
                     }
-                    // CHECKSTYLE:OFF
-                } catch (Exception e) {
-                    // CHECKSTYLE:ON
-                    // In this case, we do nothing.
-                    // The old output doc is not a docx document and it will be overwrite at current generation.
-                    // And we have nothing to extract from a no docx file.
-                } finally {
-                    uriConverter.getURIHandlers().remove(uriHandler);
-                    uriHandler.clear();
                 }
+                // CHECKSTYLE:OFF
+            } catch (Exception e) {
+                // CHECKSTYLE:ON
+                // In this case, we do nothing.
+                // The old output doc is not a docx document and it will be overwrite at current generation.
+                // And we have nothing to extract from a no docx file.
+            } finally {
+                uriConverter.getURIHandlers().remove(uriHandler);
+                uriHandler.clear();
             }
         }
     }
@@ -227,25 +249,6 @@ public class UserContentManager {
         return res;
     }
 
-    /**
-     * Copy file in temporary file in same folder than original file.
-     * 
-     * @param source
-     *            source file
-     * @return source copy File
-     */
-    private URI memoryCopy(URI source) {
-        final URI res;
-
-        final URI uri = URI.createURI(MemoryURIHandler.PROTOCOL + "://resources/" + source.lastSegment(), false);
-        if (copy(source, uri)) {
-            res = uri;
-        } else {
-            res = null;
-        }
-        return res;
-    }
-
     /**
      * Dispose.
      * 
@@ -286,6 +289,36 @@ public class UserContentManager {
         return res;
     }
 
+    /**
+     * Consumes the fragment with the given {@link UserContent#getId() ID}. {@link UserContent} nested in the fragment
+     * are consumed as well since they are copied with it.
+     * 
+     * @param id
+     *            the fragment {@link UserContent#getId() ID}
+     * @return the consumed fragment if any, <code>null</code> otherwise
+     */
+    public UserContent consumeFragment(String id) {
+        final UserContent res = consumeUserContent(id);
+
+        if (res != null) {
+            final Iterator<EObject> it = res.eAllContents();
+            while (it.hasNext()) {
+                final EObject eObj = it.next();
+                if (eObj instanceof UserContent && ((UserContent) eObj).getId() != null) {
+                    final List<UserContent> userContents = mapIdUserContent.get(((UserContent) eObj).getId());
+                    if (userContents != null) {
+                        userContents.remove(eObj);
+                        if (userContents.isEmpty()) {
+                            mapIdUserContent.remove(((UserContent) eObj).getId());
+                        }
+                    }
+                }
+            }
+        }
+
+        return res;
+    }
+
     /**
      * Gets the {@link List} of duplicated {@link UserContent#getId() user content ID}.
      * 
@@ -296,7 +329,7 @@ public class UserContentManager {
 
         if (mapIdUserContent != null) {
             for (Entry<String, List<UserContent>> entry : mapIdUserContent.entrySet()) {
-                if (entry.getValue().size() > 1) {
+                if (entry.getValue().size() > 1 && !entry.getKey().startsWith(FRAGMENT_ID_PREFIX)) {
                     res.add(entry.getKey());
                 }
             }
@@ -324,42 +357,43 @@ public class UserContentManager {
             launchParsing();
         }
 
-        try (InputStream is = uriConverter.createInputStream(templateURI);
-                OPCPackage oPackage = OPCPackage.open(is);
-                XWPFDocument destinationDocument = new XWPFDocument(oPackage);) {
-            if (copyToLostDocument) {
-                final URI lostDocumentURI = getLostDocumentURI(destinationURI);
-                result.setLostDocumentURI(lostDocumentURI);
-                copy(destinationURI, lostDocumentURI);
+        byte[] skeleton = null;
+        if (copyToLostDocument) {
+            final URI lostDocumentURI = getLostDocumentURI(destinationURI);
+            result.setLostDocumentURI(lostDocumentURI);
+            copy(destinationURI, lostDocumentURI);
+            skeleton = createSkeleton();
+            try (XWPFDocument destinationDocument = new XWPFDocument(new ByteArrayInputStream(skeleton))) {
                 XWPFParagraph currentGeneratedParagraph = destinationDocument.createParagraph();
                 result.addMessage(M2DocUtils.appendMessageRun(currentGeneratedParagraph, ValidationMessageLevel.WARNING,
                         "backup document created"));
             }
         }
 
+        // lost files are serialized in memory and written at the end in one batch: an existing lost file is read
+        // and extended, so it must not be truncated before its new content is fully serialized
+        final Map<URI, byte[]> lostFiles = new LinkedHashMap<>();
+        // fragments that have not been reused are regenerated, they are not lost
+        mapIdUserContent.keySet().removeIf(id -> id.startsWith(FRAGMENT_ID_PREFIX));
         for (Entry<String, List<UserContent>> entry : mapIdUserContent.entrySet()) {
             final URI lostUserContentURI = getLostUserContentURI(destinationURI, entry.getKey());
             result.getLostUserContents().put(entry.getKey(), lostUserContentURI);
-            final boolean isNewUserContentLoss;
-            final URI inputURI;
+            final InputStream inputStream;
             if (uriConverter.exists(lostUserContentURI, Collections.EMPTY_MAP)) {
-                inputURI = lostUserContentURI;
-                isNewUserContentLoss = false;
+                inputStream = uriConverter.createInputStream(lostUserContentURI);
             } else {
-                inputURI = templateURI;
-                isNewUserContentLoss = true;
+                if (skeleton == null) {
+                    skeleton = createSkeleton();
+                }
+                inputStream = new ByteArrayInputStream(skeleton);
+            }
+            final XWPFDocument lostDocument;
+            try (InputStream is = inputStream) {
+                lostDocument = new XWPFDocument(is);
             }
 
-            try (InputStream is = uriConverter.createInputStream(inputURI);
-                    OPCPackage oPackage = OPCPackage.open(is);
-                    XWPFDocument destinationDocument = new XWPFDocument(oPackage);) {
-                if (isNewUserContentLoss) {
-                    // clear the document
-                    int size = destinationDocument.getBodyElements().size();
-                    for (int i = 0; i < size; i++) {
-                        destinationDocument.removeBodyElement(0);
-                    }
-                }
+            try (XWPFDocument destinationDocument = lostDocument;
+                    ByteArrayOutputStream os = new ByteArrayOutputStream();) {
                 XWPFParagraph currentGeneratedParagraph = destinationDocument.createParagraph();
                 result.addMessage(M2DocUtils.appendMessageRun(currentGeneratedParagraph, ValidationMessageLevel.WARNING,
                         format.format(new Date()) + " - Lost user content " + entry.getKey()));
@@ -377,11 +411,44 @@ public class UserContentManager {
                     }
                 }
 
-                POIServices.getInstance().saveFile(uriConverter, destinationDocument, lostUserContentURI);
+                destinationDocument.write(os);
+                lostFiles.put(lostUserContentURI, os.toByteArray());
+            }
+        }
+
+        for (Entry<URI, byte[]> entry : lostFiles.entrySet()) {
+            try (OutputStream os = uriConverter.createOutputStream(entry.getKey())) {
+                os.write(entry.getValue());
             }
         }
     }
 
+    /**
+     * Creates the skeleton of lost files: the template without its body elements. It is serialized in memory so each
+     * lost file can be created from it without reading the template again.
+     * 
+     * @return the serialized skeleton
+     * @throws IOException
+     *             if the template can't be read
+     * @throws InvalidFormatException
+     *             if the template can't be read
+     */
+    private byte[] createSkeleton() throws IOException, InvalidFormatException {
+        try (InputStream is = uriConverter.createInputStream(templateURI);
+                OPCPackage oPackage = OPCPackage.open(is);
+                XWPFDocument skeletonDocument = new XWPFDocument(oPackage);
+                ByteArrayOutputStream os = new ByteArrayOutputStream();) {
+            // clear the document
+            int size = skeletonDocument.getBodyElements().size();
+            for (int i = 0; i < size; i++) {
+                skeletonDocument.removeBodyElement(0);
+            }
+            skeletonDocument.write(os);
+
+            return os.toByteArray();
+        }
+    }
+
     /**
      * Gets the lost {@link UserContent} {@link URI} for the given destination {@link URI} and {@link UserContent#getId() user content ID}.
      * 
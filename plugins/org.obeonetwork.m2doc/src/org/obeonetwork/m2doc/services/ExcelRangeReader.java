@@ -0,0 +1,505 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.eclipse.emf.common.util.URI;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.MTable.MRow;
+import org.obeonetwork.m2doc.element.impl.MTableImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MRowImpl;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads a range of cells from an Excel .xlsx {@link OPCPackage} without loading the workbook in memory. Only the
+ * requested sheet is parsed and the parsing stops after the last row of the range. Cached formula results are used, if
+ * a formula in the range has no cached result {@link #read(String, CellAddress, CellAddress) read} returns
+ * <code>null</code> and the workbook must be loaded to evaluate it.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ExcelRangeReader {
+
+    /**
+     * Thrown to stop the parsing of the sheet.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class StopParsingException extends SAXException {
+
+        /**
+         * The serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+    }
+
+    /**
+     * Reads the date system of the workbook.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class WorkbookHandler extends DefaultHandler {
+
+        /**
+         * Tells if the workbook uses the 1904 date system.
+         */
+        private boolean date1904;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                throws SAXException {
+            if ("workbookPr".equals(localName)) {
+                final String value = attributes.getValue("date1904");
+                date1904 = "1".equals(value) || "true".equals(value);
+                throw new StopParsingException();
+            } else if ("sheets".equals(localName)) {
+                // workbookPr is always before sheets
+                throw new StopParsingException();
+            }
+        }
+
+    }
+
+    /**
+     * Reads the range from the sheet.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private final class SheetHandler extends DefaultHandler {
+
+        /**
+         * The top left cell of the range.
+         */
+        private final CellAddress start;
+
+        /**
+         * The bottom right cell of the range.
+         */
+        private final CellAddress end;
+
+        /**
+         * The read {@link MTable}.
+         */
+        private final MTable table = new MTableImpl();
+
+        /**
+         * The current {@link MRow} if in range, <code>null</code> otherwise.
+         */
+        private MRow currentRow;
+
+        /**
+         * The current row index.
+         */
+        private int rowIndex = -1;
+
+        /**
+         * The current column index.
+         */
+        private int columnIndex = -1;
+
+        /**
+         * The next column to add to the current row.
+         */
+        private int nextColumnIndex;
+
+        /**
+         * The current cell type attribute.
+         */
+        private String cellType;
+
+        /**
+         * The current cell style index.
+         */
+        private int cellStyleIndex;
+
+        /**
+         * Tells if the current cell has a formula.
+         */
+        private boolean hasFormula;
+
+        /**
+         * The current cell value if any, <code>null</code> otherwise.
+         */
+        private StringBuilder value;
+
+        /**
+         * Tells if characters should be collected in {@link #value}.
+         */
+        private boolean collecting;
+
+        /**
+         * Tells if a formula without cached result has been found in the range.
+         */
+        private boolean evaluationRequired;
+
+        /**
+         * Constructor.
+         * 
+         * @param start
+         *            the top left cell of the range
+         * @param end
+         *            the bottom right cell of the range
+         */
+        private SheetHandler(CellAddress start, CellAddress end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                throws SAXException {
+            if ("row".equals(localName)) {
+                startRow(attributes.getValue("r"));
+            } else if (currentRow != null) {
+                if ("c".equals(localName)) {
+                    startCell(attributes);
+                } else if ("f".equals(localName)) {
+                    hasFormula = true;
+                } else if ("v".equals(localName) || "t".equals(localName) && "inlineStr".equals(cellType)) {
+                    if (value == null) {
+                        value = new StringBuilder();
+                    }
+                    collecting = true;
+                }
+            }
+        }
+
+        /**
+         * Starts a row.
+         * 
+         * @param reference
+         *            the row reference, 1 based, if any, <code>null</code> otherwise
+         * @throws StopParsingException
+         *             if the row is after the range
+         */
+        private void startRow(String reference) throws StopParsingException {
+            if (reference != null) {
+                rowIndex = Integer.parseInt(reference) - 1;
+            } else {
+                rowIndex++;
+            }
+            columnIndex = -1;
+            if (rowIndex > end.getRow()) {
+                throw new StopParsingException();
+            } else if (rowIndex >= start.getRow()) {
+                addEmptyRows(rowIndex);
+                currentRow = new MRowImpl();
+                nextColumnIndex = start.getColumn();
+            }
+        }
+
+        /**
+         * Starts a cell.
+         * 
+         * @param attributes
+         *            the cell {@link Attributes}
+         */
+        private void startCell(Attributes attributes) {
+            final String reference = attributes.getValue("r");
+            if (reference != null) {
+                columnIndex = new CellReference(reference).getCol();
+            } else {
+                columnIndex++;
+            }
+            cellType = attributes.getValue("t");
+            final String style = attributes.getValue("s");
+            if (style != null) {
+                cellStyleIndex = Integer.parseInt(style);
+            } else {
+                cellStyleIndex = 0;
+            }
+            hasFormula = false;
+            value = null;
+        }
+
+        @Override
+        public void characters(char[] ch, int offset, int length) throws SAXException {
+            if (collecting) {
+                value.append(ch, offset, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if ("v".equals(localName) || "t".equals(localName)) {
+                collecting = false;
+            } else if (currentRow != null) {
+                if ("c".equals(localName)) {
+                    endCell();
+                } else if ("row".equals(localName)) {
+                    addEmptyCells(end.getColumn() + 1);
+                    table.getRows().add(currentRow);
+                    currentRow = null;
+                }
+            }
+        }
+
+        /**
+         * Ends a cell.
+         * 
+         * @throws StopParsingException
+         *             if the cell needs to be evaluated
+         */
+        private void endCell() throws StopParsingException {
+            if (columnIndex >= start.getColumn() && columnIndex <= end.getColumn()) {
+                if (hasFormula && (value == null || value.length() == 0)) {
+                    evaluationRequired = true;
+                    throw new StopParsingException();
+                }
+                addEmptyCells(columnIndex);
+                final XSSFCellStyle style = styles.getStyleAt(cellStyleIndex);
+                currentRow.getCells().add(ExcelServices.createCell(format(style), style, styleCache));
+                nextColumnIndex = columnIndex + 1;
+            }
+        }
+
+        /**
+         * Formats the current cell value.
+         * 
+         * @param style
+         *            the cell {@link XSSFCellStyle}
+         * @return the formatted value
+         */
+        private String format(XSSFCellStyle style) {
+            final String res;
+
+            if (value == null || value.length() == 0) {
+                res = "";
+            } else if ("s".equals(cellType)) {
+                res = sharedStrings.getItemAt(Integer.parseInt(value.toString().trim())).getString();
+            } else if ("b".equals(cellType)) {
+                if ("1".equals(value.toString().trim())) {
+                    res = "TRUE";
+                } else {
+                    res = "FALSE";
+                }
+            } else if ("inlineStr".equals(cellType) || "str".equals(cellType) || "e".equals(cellType)) {
+                res = value.toString();
+            } else if ("d".equals(cellType)) {
+                // ISO 8601 date: formatted as its serial number like XSSFCell.getNumericCellValue() does
+                final double date = DateUtil.getExcelDate(DateUtil.parseDateTime(value.toString().trim()),
+                        date1904);
+                res = formatNumber(date, style);
+            } else {
+                res = formatNumber(Double.parseDouble(value.toString()), style);
+            }
+
+            return res;
+        }
+
+        /**
+         * Formats the given numeric value with the given {@link XSSFCellStyle}.
+         * 
+         * @param number
+         *            the numeric value
+         * @param style
+         *            the cell {@link XSSFCellStyle}
+         * @return the formatted value
+         */
+        private String formatNumber(double number, XSSFCellStyle style) {
+            final String res;
+
+            if (style != null && style.getDataFormatString() != null) {
+                res = dataFormatter.formatRawCellContents(number, style.getDataFormat(), style.getDataFormatString(),
+                        date1904);
+            } else {
+                res = dataFormatter.formatRawCellContents(number, 0, "General", date1904);
+            }
+
+            return res;
+        }
+
+        /**
+         * Adds empty cells to the current row up to the given column index.
+         * 
+         * @param toColumnIndex
+         *            the column index, excluded
+         */
+        private void addEmptyCells(int toColumnIndex) {
+            while (nextColumnIndex < toColumnIndex) {
+                currentRow.getCells().add(ExcelServices.createEmptyCell());
+                nextColumnIndex++;
+            }
+        }
+
+        /**
+         * Adds empty rows up to the given row index.
+         * 
+         * @param toRowIndex
+         *            the row index, excluded
+         */
+        private void addEmptyRows(int toRowIndex) {
+            final int length = end.getColumn() - start.getColumn() + 1;
+            while (start.getRow() + table.getRows().size() < toRowIndex) {
+                table.getRows().add(ExcelServices.createEmptyRow(length));
+            }
+        }
+
+    }
+
+    /**
+     * The package {@link URI}.
+     */
+    private final URI uri;
+
+    /**
+     * The {@link XSSFReader}.
+     */
+    private final XSSFReader reader;
+
+    /**
+     * The {@link DataFormatter}.
+     */
+    private final DataFormatter dataFormatter;
+
+    /**
+     * The shared strings.
+     */
+    private final ReadOnlySharedStringsTable sharedStrings;
+
+    /**
+     * The {@link StylesTable}.
+     */
+    private final StylesTable styles;
+
+    /**
+     * The {@link ExcelStyleCache}.
+     */
+    private final ExcelStyleCache styleCache = new ExcelStyleCache();
+
+    /**
+     * Tells if the workbook uses the 1904 date system.
+     */
+    private final boolean date1904;
+
+    /**
+     * Constructor.
+     * 
+     * @param pkg
+     *            the Excel .xlsx {@link OPCPackage}
+     * @param uri
+     *            the package {@link URI}
+     * @param locale
+     *            the {@link Locale} used to format values
+     * @throws IOException
+     *             if the package can't be read
+     */
+    public ExcelRangeReader(OPCPackage pkg, URI uri, Locale locale) throws IOException {
+        this.uri = uri;
+        try {
+            reader = new XSSFReader(pkg);
+            sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            styles = reader.getStylesTable();
+            final WorkbookHandler workbookHandler = new WorkbookHandler();
+            try (InputStream is = reader.getWorkbookData()) {
+                parse(is, workbookHandler);
+            }
+            date1904 = workbookHandler.date1904;
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException(e);
+        }
+        dataFormatter = new DataFormatter(locale);
+    }
+
+    /**
+     * Reads the given range.
+     * 
+     * @param sheetName
+     *            the sheet name
+     * @param start
+     *            the top left cell of the range
+     * @param end
+     *            the bottom right cell of the range
+     * @return the read {@link MTable} if no formula needs to be evaluated, <code>null</code> otherwise
+     * @throws IOException
+     *             if the sheet can't be read
+     */
+    public MTable read(String sheetName, CellAddress start, CellAddress end) throws IOException {
+        final MTable res;
+
+        try {
+            final XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
+            InputStream sheetData = null;
+            while (sheetData == null && it.hasNext()) {
+                final InputStream is = it.next();
+                if (sheetName.equals(it.getSheetName())) {
+                    sheetData = is;
+                } else {
+                    is.close();
+                }
+            }
+            if (sheetData == null) {
+                throw new IllegalArgumentException(String.format("The sheet %s doesn't exist in %s.", sheetName, uri));
+            }
+            final SheetHandler handler = new SheetHandler(start, end);
+            try (InputStream is = sheetData) {
+                parse(is, handler);
+            }
+            if (handler.evaluationRequired) {
+                res = null;
+            } else {
+                handler.addEmptyRows(end.getRow() + 1);
+                res = handler.table;
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException(e);
+        }
+
+        return res;
+    }
+
+    /**
+     * Parses the given {@link InputStream} with the given {@link DefaultHandler}.
+     * 
+     * @param is
+     *            the {@link InputStream}
+     * @param handler
+     *            the {@link DefaultHandler}
+     * @throws IOException
+     *             if the {@link InputStream} can't be read
+     * @throws SAXException
+     *             if the XML is not valid
+     */
+    private void parse(InputStream is, DefaultHandler handler) throws IOException, SAXException {
+        try {
+            final XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(handler);
+            xmlReader.parse(new InputSource(is));
+        } catch (StopParsingException e) {
+            // the handler has read what it needs
+        } catch (ParserConfigurationException e) {
+            throw new SAXException(e);
+        }
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2018 Obeo. 
+ *  Copyright (c) 2018, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -11,17 +11,26 @@
  *******************************************************************************/
 package org.obeonetwork.m2doc.services;
 
-import java.awt.Color;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.util.CellAddress;
 import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
-import org.apache.poi.xssf.usermodel.XSSFColor;
-import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFFormulaEvaluator;
 import org.apache.poi.xssf.usermodel.XSSFRow;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
@@ -30,18 +39,18 @@ import org.eclipse.acceleo.annotations.api.documentation.Documentation;
 import org.eclipse.acceleo.annotations.api.documentation.Example;
 import org.eclipse.acceleo.annotations.api.documentation.Param;
 import org.eclipse.acceleo.annotations.api.documentation.ServiceProvider;
+import org.eclipse.emf.common.CommonPlugin;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIConverter;
 import org.obeonetwork.m2doc.element.MElement;
-import org.obeonetwork.m2doc.element.MStyle;
 import org.obeonetwork.m2doc.element.MTable;
 import org.obeonetwork.m2doc.element.MTable.MCell;
 import org.obeonetwork.m2doc.element.MTable.MRow;
-import org.obeonetwork.m2doc.element.impl.MStyleImpl;
 import org.obeonetwork.m2doc.element.impl.MTableImpl;
 import org.obeonetwork.m2doc.element.impl.MTableImpl.MCellImpl;
 import org.obeonetwork.m2doc.element.impl.MTableImpl.MRowImpl;
 import org.obeonetwork.m2doc.element.impl.MTextImpl;
+import org.obeonetwork.m2doc.util.LRUMap;
 
 //@formatter:off
 @ServiceProvider(
@@ -52,9 +61,80 @@ value = "Services available for Excel. See [document examples](https://github.co
 public class ExcelServices {
 
     /**
-     * The mask for unsigned values.
+     * An opened {@link XSSFWorkbook} and its {@link FormulaEvaluator}.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class CachedWorkbook {
+
+        /**
+         * The {@link XSSFWorkbook}.
+         */
+        private final XSSFWorkbook workbook;
+
+        /**
+         * The {@link FormulaEvaluator}.
+         */
+        private final FormulaEvaluator evaluator;
+
+        /**
+         * The {@link ExcelStyleCache}.
+         */
+        private final ExcelStyleCache styleCache = new ExcelStyleCache();
+
+        /**
+         * The time stamp of the file when it was opened if known, <code>null</code> otherwise.
+         */
+        private final Long timeStamp;
+
+        /**
+         * The {@link ExcelServices#estimateMemorySize(XSSFWorkbook) estimated memory size} in bytes.
+         */
+        private final long size;
+
+        /**
+         * Constructor.
+         * 
+         * @param workbook
+         *            the {@link XSSFWorkbook}
+         * @param timeStamp
+         *            the time stamp of the file when it was opened if known, <code>null</code> otherwise
+         */
+        private CachedWorkbook(XSSFWorkbook workbook, Long timeStamp) {
+            this.workbook = workbook;
+            this.evaluator = new XSSFFormulaEvaluator(workbook);
+            this.timeStamp = timeStamp;
+            this.size = estimateMemorySize(workbook);
+        }
+
+    }
+
+    /**
+     * The default budget of opened workbooks in {@link #estimateMemorySize(XSSFWorkbook) estimated} bytes of memory.
+     */
+    public static final long DEFAULT_WORKBOOKS_BUDGET = 256L * 1024L * 1024L;
+
+    /**
+     * The estimated memory size of a parsed cell in bytes.
+     */
+    public static final long CELL_MEMORY_SIZE = 1024L;
+
+    /**
+     * The estimated memory size of a parsed shared string in bytes.
+     */
+    public static final long SHARED_STRING_MEMORY_SIZE = 512L;
+
+    /**
+     * The options requesting the time stamp and length of a file.
      */
-    private static final int MASK = 0xFF;
+    private static final Map<String, Set<String>> ATTRIBUTES_OPTIONS = Collections.singletonMap(
+            URIConverter.OPTION_REQUESTED_ATTRIBUTES,
+            new HashSet<>(Arrays.asList(URIConverter.ATTRIBUTE_TIME_STAMP, URIConverter.ATTRIBUTE_LENGTH)));
+
+    /**
+     * The mapping from resolved {@link URI} to opened workbook in least recently used order.
+     */
+    private final LRUMap<URI, CachedWorkbook> workbooks;
 
     /**
      * The URI converter to use.
@@ -75,8 +155,24 @@ public class ExcelServices {
      *            the template {@link URI}
      */
     public ExcelServices(URIConverter uriConverter, URI templateURI) {
+        this(uriConverter, templateURI, DEFAULT_WORKBOOKS_BUDGET);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter uri converter} to use.
+     * @param templateURI
+     *            the template {@link URI}
+     * @param workbooksBudget
+     *            the budget of opened workbooks in {@link #estimateMemorySize(XSSFWorkbook) estimated} bytes of
+     *            memory, <code>0</code> to disable the cache
+     */
+    public ExcelServices(URIConverter uriConverter, URI templateURI, long workbooksBudget) {
         this.uriConverter = uriConverter;
         this.templateURI = templateURI;
+        this.workbooks = new LRUMap<>(workbooksBudget, cached -> cached.size, (uri, cached) -> close(cached));
     }
 
     // @formatter:off
@@ -117,26 +213,109 @@ public class ExcelServices {
     // @formatter:on
     public MTable asTable(String uriStr, String sheetName, String topLeftCellAdress, String bottomRightCellAdress,
             String languageTag) throws IOException {
-        final MTable res = new MTableImpl();
+        MTable res;
 
         final URI xlsxURI = URI.createURI(uriStr, false);
-        final URI uri = xlsxURI.resolve(templateURI);
+        final URI uri;
+        if (templateURI != null) {
+            uri = xlsxURI.resolve(templateURI);
+        } else {
+            uri = xlsxURI;
+        }
+        final Locale locale;
+        if (languageTag != null) {
+            locale = Locale.forLanguageTag(languageTag);
+        } else {
+            locale = Locale.getDefault();
+        }
+        final CellAddress start = new CellAddress(topLeftCellAdress);
+        final CellAddress end = new CellAddress(bottomRightCellAdress);
+
+        final Map<String, ?> attributes = uriConverter.getAttributes(uri, ATTRIBUTES_OPTIONS);
+        if (isCached(uri, attributes)) {
+            res = null;
+        } else {
+            // stream the range, the workbook is only loaded if a formula needs to be evaluated
+            removeWorkbook(uri);
+            res = readRange(uri, sheetName, start, end, locale);
+        }
+        if (res == null) {
+            res = asTable(getWorkbook(uri, attributes), uri, sheetName, start, end, locale);
+        }
+
+        return res;
+    }
+
+    /**
+     * Reads the given range without loading the workbook.
+     * 
+     * @param uri
+     *            the resolved {@link URI}
+     * @param sheetName
+     *            the sheet name
+     * @param start
+     *            the top left cell of the range
+     * @param end
+     *            the bottom right cell of the range
+     * @param locale
+     *            the {@link Locale} used to format values
+     * @return the read {@link MTable} if no formula needs to be evaluated, <code>null</code> otherwise
+     * @throws IOException
+     *             if the range can't be read
+     */
+    private MTable readRange(URI uri, String sheetName, CellAddress start, CellAddress end, Locale locale)
+            throws IOException {
+        final MTable res;
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook(uriConverter.createInputStream(uri));) {
-            final FormulaEvaluator evaluator = new XSSFFormulaEvaluator(workbook);
-            final XSSFSheet sheet = workbook.getSheet(sheetName);
+        final URI localURI = CommonPlugin.asLocalURI(uriConverter.normalize(uri));
+        if (localURI.isFile() && new File(localURI.toFileString()).isFile()) {
+            // only the needed entries are read from the zip file
+            try (OPCPackage pkg = OPCPackage.open(new File(localURI.toFileString()), PackageAccess.READ)) {
+                res = new ExcelRangeReader(pkg, uri, locale).read(sheetName, start, end);
+            } catch (InvalidFormatException e) {
+                throw new IOException(e);
+            }
+        } else {
+            try (InputStream is = uriConverter.createInputStream(uri); OPCPackage pkg = OPCPackage.open(is)) {
+                res = new ExcelRangeReader(pkg, uri, locale).read(sheetName, start, end);
+            } catch (InvalidFormatException e) {
+                throw new IOException(e);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Reads the given range from the given workbook.
+     * 
+     * @param cachedWorkbook
+     *            the opened workbook
+     * @param uri
+     *            the resolved {@link URI}
+     * @param sheetName
+     *            the sheet name
+     * @param start
+     *            the top left cell of the range
+     * @param end
+     *            the bottom right cell of the range
+     * @param locale
+     *            the {@link Locale} used to format values
+     * @return the read {@link MTable}
+     * @throws IOException
+     *             if the workbook can't be closed
+     */
+    private MTable asTable(CachedWorkbook cachedWorkbook, URI uri, String sheetName, CellAddress start,
+            CellAddress end, Locale locale) throws IOException {
+        final MTable res = new MTableImpl();
+
+        try {
+            final FormulaEvaluator evaluator = cachedWorkbook.evaluator;
+            final XSSFSheet sheet = cachedWorkbook.workbook.getSheet(sheetName);
             if (sheet == null) {
                 throw new IllegalArgumentException(String.format("The sheet %s doesn't exist in %s.", sheetName, uri));
             } else {
-                final Locale locale;
-                if (languageTag != null) {
-                    locale = Locale.forLanguageTag(languageTag);
-                } else {
-                    locale = Locale.getDefault();
-                }
                 final DataFormatter dataFormatter = new DataFormatter(locale);
-                final CellAddress start = new CellAddress(topLeftCellAdress);
-                final CellAddress end = new CellAddress(bottomRightCellAdress);
                 int rowIndex = start.getRow();
                 while (rowIndex <= end.getRow()) {
                     final XSSFRow row = sheet.getRow(rowIndex++);
@@ -146,12 +325,9 @@ public class ExcelServices {
                         while (cellIndex <= end.getColumn()) {
                             final XSSFCell cell = row.getCell(cellIndex++);
                             if (cell != null) {
-                                final MStyle style = getStyle(cell);
-                                final MElement text = new MTextImpl(dataFormatter.formatCellValue(cell, evaluator),
-                                        style);
-                                final Color background = getColor(cell.getCellStyle().getFillForegroundColorColor());
-                                final MCell mCell = new MCellImpl(text, background);
-                                mRow.getCells().add(mCell);
+                                final String text = dataFormatter.formatCellValue(cell, evaluator);
+                                final XSSFCellStyle style = cell.getCellStyle();
+                                mRow.getCells().add(createCell(text, style, cachedWorkbook.styleCache));
                             } else {
                                 mRow.getCells().add(createEmptyCell());
                             }
@@ -164,19 +340,163 @@ public class ExcelServices {
                 }
 
             }
+        } finally {
+            if (!workbooks.containsKey(uri)) {
+                // not cached
+                cachedWorkbook.workbook.close();
+            }
         }
 
         return res;
     }
 
+    /**
+     * Tells if the workbook for the given resolved {@link URI} is opened and its file didn't change.
+     * 
+     * @param uri
+     *            the resolved {@link URI}
+     * @param attributes
+     *            the file attributes
+     * @return <code>true</code> if the workbook for the given resolved {@link URI} is opened and its file didn't
+     *         change, <code>false</code> otherwise
+     */
+    private boolean isCached(URI uri, Map<String, ?> attributes) {
+        final Long timeStamp = (Long) attributes.get(URIConverter.ATTRIBUTE_TIME_STAMP);
+        final CachedWorkbook cached = workbooks.get(uri);
+
+        return cached != null && timeStamp != null && timeStamp.equals(cached.timeStamp);
+    }
+
+    /**
+     * Tells if a workbook with the given file attributes can be cached. The parsed workbook is always larger than its
+     * file, so files larger than the budget are not cached.
+     * 
+     * @param attributes
+     *            the file attributes
+     * @return <code>true</code> if a workbook with the given file attributes can be cached, <code>false</code>
+     *         otherwise
+     */
+    private boolean isCacheable(Map<String, ?> attributes) {
+        final Long timeStamp = (Long) attributes.get(URIConverter.ATTRIBUTE_TIME_STAMP);
+        final Long length = (Long) attributes.get(URIConverter.ATTRIBUTE_LENGTH);
+
+        return timeStamp != null && length != null && length <= workbooks.getBudget();
+    }
+
+    /**
+     * Estimates the memory size of the given parsed {@link XSSFWorkbook}. The estimation counts the physical cells of
+     * all sheets and the shared strings, it is a rough order of magnitude of the XML object model kept by POI.
+     * 
+     * @param workbook
+     *            the {@link XSSFWorkbook}
+     * @return the estimated memory size of the given parsed {@link XSSFWorkbook} in bytes
+     */
+    public static long estimateMemorySize(XSSFWorkbook workbook) {
+        long cells = 0;
+        for (Sheet sheet : workbook) {
+            for (Row row : sheet) {
+                cells += row.getPhysicalNumberOfCells();
+            }
+        }
+        final long sharedStrings;
+        if (workbook.getSharedStringSource() != null) {
+            sharedStrings = workbook.getSharedStringSource().getUniqueCount();
+        } else {
+            sharedStrings = 0;
+        }
+
+        return cells * CELL_MEMORY_SIZE + sharedStrings * SHARED_STRING_MEMORY_SIZE;
+    }
+
+    /**
+     * Gets the current opened workbooks size in {@link #estimateMemorySize(XSSFWorkbook) estimated} bytes of memory.
+     * 
+     * @return the current opened workbooks size in estimated bytes of memory
+     */
+    public long getWorkbooksSize() {
+        return workbooks.getWeight();
+    }
+
+    /**
+     * Gets the opened workbook for the given resolved {@link URI}. Workbooks are opened once and kept until the file
+     * changes, they are evicted or {@link #clean() cleaned}.
+     * 
+     * @param uri
+     *            the resolved {@link URI}
+     * @param attributes
+     *            the file attributes
+     * @return the opened workbook for the given resolved {@link URI}
+     * @throws IOException
+     *             if the workbook can't be opened
+     */
+    private CachedWorkbook getWorkbook(URI uri, Map<String, ?> attributes) throws IOException {
+        final CachedWorkbook res;
+
+        if (isCached(uri, attributes)) {
+            res = workbooks.get(uri);
+        } else {
+            // the file has changed or its time stamp is unknown
+            removeWorkbook(uri);
+            final Long timeStamp = (Long) attributes.get(URIConverter.ATTRIBUTE_TIME_STAMP);
+            try (InputStream is = uriConverter.createInputStream(uri)) {
+                res = new CachedWorkbook(new XSSFWorkbook(is), timeStamp);
+            }
+            if (isCacheable(attributes) && res.size <= workbooks.getBudget()) {
+                // least recently used workbooks are closed until the budget is met
+                workbooks.put(uri, res);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Removes and closes the workbook for the given resolved {@link URI}.
+     * 
+     * @param uri
+     *            the resolved {@link URI}
+     * @throws IOException
+     *             if the workbook can't be closed
+     */
+    private void removeWorkbook(URI uri) throws IOException {
+        final CachedWorkbook removed = workbooks.remove(uri);
+        if (removed != null) {
+            removed.workbook.close();
+        }
+    }
+
+    /**
+     * Closes the given {@link CachedWorkbook}.
+     * 
+     * @param cachedWorkbook
+     *            the {@link CachedWorkbook}
+     */
+    private static void close(CachedWorkbook cachedWorkbook) {
+        try {
+            cachedWorkbook.workbook.close();
+        } catch (IOException e) {
+            // nothing to do here: the workbook is read only
+        }
+    }
+
+    /**
+     * Closes all opened workbooks.
+     */
+    public void clean() {
+        for (CachedWorkbook cachedWorkbook : workbooks.values()) {
+            close(cachedWorkbook);
+        }
+        workbooks.clear();
+    }
+
     /**
      * Creates an {@link MRow} of the given length populated with {@link #createEmptyCell() empty cells}.
      * 
-     * @param lenght
+     * @param length
      *            the length of the {@link MRow}
      * @return the created {@link MRow}
      */
-    private MRow createEmptyRow(int length) {
+    static MRow createEmptyRow(int length) {
         final MRow res = new MRowImpl();
 
         for (int i = 0; i < length; i++) {
@@ -186,55 +506,34 @@ public class ExcelServices {
         return res;
     }
 
-    private MCellImpl createEmptyCell() {
-        return new MCellImpl(new MTextImpl("", null), null);
-    }
-
     /**
-     * Gets the {@link MStyle} of the given {@link XSSFCell}.
+     * Creates an empty {@link MCell}.
      * 
-     * @param cellthe
-     *            {@link XSSFCell}
-     * @return the {@link MStyle} of the given {@link XSSFCell}
+     * @return the created {@link MCell}
      */
-    private MStyle getStyle(XSSFCell cell) {
-        final XSSFCellStyle style = cell.getCellStyle();
-        final XSSFFont font = style.getFont();
-        int modifiers = 0;
-        if (font.getBold()) {
-            modifiers |= MStyle.FONT_BOLD;
-        }
-        if (font.getItalic()) {
-            modifiers |= MStyle.FONT_ITALIC;
-        }
-        if (font.getStrikeout()) {
-            modifiers |= MStyle.FONT_STRIKE_THROUGH;
-        }
-        if (font.getUnderline() != 0) {
-            modifiers |= MStyle.FONT_UNDERLINE;
-        }
-        return new MStyleImpl(font.getFontName(), font.getFontHeightInPoints(), getColor(font.getXSSFColor()), null,
-                modifiers);
+    static MCell createEmptyCell() {
+        return new MCellImpl(new MTextImpl("", null), null);
     }
 
     /**
-     * Gets the {@link Color} form the given {@link XSSFColor}.
+     * Creates a {@link MCell} with the given text and {@link XSSFCellStyle}.
      * 
-     * @param color
-     *            the {@link XSSFColor}
-     * @return the {@link Color} form the given {@link XSSFColor}
-     */
-    private Color getColor(XSSFColor color) {
-        final Color res;
-
-        if (color != null && color.getRGB() != null) {
-            final byte[] rgb = color.getRGB();
-            final int r = rgb[0] & MASK;
-            final int g = rgb[1] & MASK;
-            final int b = rgb[2] & MASK;
-            res = new Color(r, g, b);
+     * @param text
+     *            the formatted cell value
+     * @param style
+     *            the {@link XSSFCellStyle}, can be <code>null</code>
+     * @param styleCache
+     *            the {@link ExcelStyleCache} of the workbook
+     * @return the created {@link MCell}
+     */
+    static MCell createCell(String text, XSSFCellStyle style, ExcelStyleCache styleCache) {
+        final MCell res;
+
+        if (style != null) {
+            final MElement mText = new MTextImpl(text, styleCache.getStyle(style));
+            res = new MCellImpl(mText, styleCache.getBackground(style));
         } else {
-            res = null;
+            res = new MCellImpl(new MTextImpl(text, null), null);
         }
 
         return res;
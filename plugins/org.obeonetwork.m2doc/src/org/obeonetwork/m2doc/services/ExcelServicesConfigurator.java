@@ -0,0 +1,93 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.services;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.eclipse.acceleo.query.runtime.IReadOnlyQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.IService;
+import org.eclipse.acceleo.query.runtime.ServiceUtils;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.obeonetwork.m2doc.services.configurator.IM2DocServicesConfigurator;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+/**
+ * {@link ExcelServices} configurator. It gives each query environment its own {@link ExcelServices} so opened
+ * workbooks are shared between calls and {@link ExcelServices#clean() closed} when the services are cleaned.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ExcelServicesConfigurator implements IM2DocServicesConfigurator {
+
+    /**
+     * Mapping from {@link IReadOnlyQueryEnvironment} to its instance of {@link ExcelServices}.
+     */
+    private final Map<IReadOnlyQueryEnvironment, ExcelServices> instancies = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> getOptions() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Map<String, String> getInitializedOptions(Map<String, String> options) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, String> getInitializedOptions(Map<String, String> options, EObject eObj) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, List<Diagnostic>> validate(IReadOnlyQueryEnvironment queryEnvironment,
+            Map<String, String> options) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Set<IService<?>> getServices(IReadOnlyQueryEnvironment queryEnvironment, ResourceSet resourceSetForModels,
+            Map<String, String> options, boolean forWorkspace) {
+        final String templateURI = options.get(M2DocUtils.TEMPLATE_URI_OPTION);
+        final ExcelServices instance;
+        if (templateURI != null) {
+            instance = new ExcelServices(resourceSetForModels.getURIConverter(), URI.createURI(templateURI));
+        } else {
+            instance = new ExcelServices(resourceSetForModels.getURIConverter(), null);
+        }
+        instancies.put(queryEnvironment, instance);
+
+        return ServiceUtils.getServices(queryEnvironment, instance);
+    }
+
+    @Override
+    public void startGeneration(IReadOnlyQueryEnvironment queryEnvironment, XWPFDocument destinationDocument) {
+        // nothing to do here
+    }
+
+    @Override
+    public void cleanServices(IReadOnlyQueryEnvironment queryEnvironment, ResourceSet resourceSetForModels) {
+        final ExcelServices instance = instancies.remove(queryEnvironment);
+        if (instance != null) {
+            instance.clean();
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.services;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.obeonetwork.m2doc.element.MStyle;
+import org.obeonetwork.m2doc.element.impl.MStyleImpl;
+
+/**
+ * Interns the {@link MStyle} and background {@link Color} of {@link XSSFCellStyle} by style index, so all cells of a
+ * workbook sharing a cell style also share the same instances. An instance must only be used for a single workbook.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ExcelStyleCache {
+
+    /**
+     * The mask for unsigned values.
+     */
+    private static final int MASK = 0xFF;
+
+    /**
+     * The mapping from {@link XSSFCellStyle#getIndex() style index} to {@link MStyle}.
+     */
+    private final Map<Short, MStyle> styles = new HashMap<>();
+
+    /**
+     * The mapping from {@link XSSFCellStyle#getIndex() style index} to background {@link Color}.
+     */
+    private final Map<Short, Color> backgrounds = new HashMap<>();
+
+    /**
+     * Gets the {@link MStyle} of the given {@link XSSFCellStyle}.
+     * 
+     * @param style
+     *            the {@link XSSFCellStyle}
+     * @return the {@link MStyle} of the given {@link XSSFCellStyle}
+     */
+    public MStyle getStyle(XSSFCellStyle style) {
+        return styles.computeIfAbsent(style.getIndex(), index -> createStyle(style));
+    }
+
+    /**
+     * Gets the background {@link Color} of the given {@link XSSFCellStyle}.
+     * 
+     * @param style
+     *            the {@link XSSFCellStyle}
+     * @return the background {@link Color} of the given {@link XSSFCellStyle} if any, <code>null</code> otherwise
+     */
+    public Color getBackground(XSSFCellStyle style) {
+        final Color res;
+
+        final Short index = style.getIndex();
+        if (backgrounds.containsKey(index)) {
+            res = backgrounds.get(index);
+        } else {
+            res = getColor(style.getFillForegroundColorColor());
+            backgrounds.put(index, res);
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the number of interned {@link MStyle}.
+     * 
+     * @return the number of interned {@link MStyle}
+     */
+    public int size() {
+        return styles.size();
+    }
+
+    /**
+     * Creates the {@link MStyle} of the given {@link XSSFCellStyle}.
+     * 
+     * @param style
+     *            the {@link XSSFCellStyle}
+     * @return the created {@link MStyle}
+     */
+    private MStyle createStyle(XSSFCellStyle style) {
+        final XSSFFont font = style.getFont();
+        int modifiers = 0;
+        if (font.getBold()) {
+            modifiers |= MStyle.FONT_BOLD;
+        }
+        if (font.getItalic()) {
+            modifiers |= MStyle.FONT_ITALIC;
+        }
+        if (font.getStrikeout()) {
+            modifiers |= MStyle.FONT_STRIKE_THROUGH;
+        }
+        if (font.getUnderline() != 0) {
+            modifiers |= MStyle.FONT_UNDERLINE;
+        }
+        return new MStyleImpl(font.getFontName(), font.getFontHeightInPoints(), getColor(font.getXSSFColor()), null,
+                modifiers);
+    }
+
+    /**
+     * Gets the {@link Color} form the given {@link XSSFColor}.
+     * 
+     * @param color
+     *            the {@link XSSFColor}
+     * @return the {@link Color} form the given {@link XSSFColor}
+     */
+    private Color getColor(XSSFColor color) {
+        final Color res;
+
+        if (color != null && color.getRGB() != null) {
+            final byte[] rgb = color.getRGB();
+            final int r = rgb[0] & MASK;
+            final int g = rgb[1] & MASK;
+            final int b = rgb[2] & MASK;
+            res = new Color(r, g, b);
+        } else {
+            res = null;
+        }
+
+        return res;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2016, 2024 Obeo. 
+ *  Copyright (c) 2016, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -33,8 +33,8 @@ import org.obeonetwork.m2doc.element.MTable;
 import org.obeonetwork.m2doc.element.MTable.MCell;
 import org.obeonetwork.m2doc.element.MTable.MRow;
 import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
 import org.obeonetwork.m2doc.element.impl.MImageAWTImpl;
-import org.obeonetwork.m2doc.element.impl.MImageImpl;
 
 //@formatter:off
 @ServiceProvider(
@@ -44,6 +44,11 @@ import org.obeonetwork.m2doc.element.impl.MImageImpl;
 @SuppressWarnings({"checkstyle:javadocmethod", "checkstyle:javadoctype" })
 public class ImageServices {
 
+    /**
+     * One half.
+     */
+    private static final double HALF = 0.5;
+
     /**
      * The URI converter to use.
      */
@@ -54,6 +59,11 @@ public class ImageServices {
      */
     private final URI templateURI;
 
+    /**
+     * The {@link ImageStore} shared by images created by this instance.
+     */
+    private final ImageStore imageStore;
+
     /**
      * Constructor.
      * 
@@ -63,8 +73,30 @@ public class ImageServices {
      *            the template {@link URI}
      */
     public ImageServices(URIConverter uriConverter, URI templateURI) {
+        this(uriConverter, templateURI, new ImageStore());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter uri converter} to use.
+     * @param templateURI
+     *            the template {@link URI}
+     * @param imageStore
+     *            the {@link ImageStore} shared by images created by this instance
+     */
+    public ImageServices(URIConverter uriConverter, URI templateURI, ImageStore imageStore) {
         this.uriConverter = uriConverter;
         this.templateURI = templateURI;
+        this.imageStore = imageStore;
+    }
+
+    /**
+     * Ends the generation: the image preparation threads are shut down.
+     */
+    public void endGeneration() {
+        imageStore.endGeneration();
     }
 
     // @formatter:off
@@ -132,7 +164,7 @@ public class ImageServices {
         if (uriStr != null && type != null) {
             final URI imageURI = URI.createURI(uriStr, true);
             final URI uri = imageURI.resolve(templateURI);
-            res = new MImageImpl(uriConverter, uri, type);
+            res = imageStore.getImage(uriConverter, uri, type);
         } else {
             res = null;
         }
@@ -339,15 +371,31 @@ public class ImageServices {
         final MImage res;
 
         if (image != null && factor != null) {
-            final BufferedImage bufferedImage = MImageAWTImpl.getBufferedImage(image);
+            int subsampling = getSubsampling(factor);
+            BufferedImage bufferedImage = null;
+            if (subsampling > 1) {
+                bufferedImage = imageStore.getBufferedImage(image, subsampling);
+            }
+            if (bufferedImage == null) {
+                subsampling = 1;
+                bufferedImage = imageStore.getBufferedImage(image);
+            }
 
-            final BufferedImage resized = new BufferedImage((int) (bufferedImage.getWidth() * factor),
-                    (int) (bufferedImage.getHeight() * factor), bufferedImage.getType());
+            final int width = Math.max(1, (int) (bufferedImage.getWidth() * subsampling * factor));
+            final int height = Math.max(1, (int) (bufferedImage.getHeight() * subsampling * factor));
+            BufferedImage current = bufferedImage;
+            // progressive downscale: bilinear filtering only blends neighbor pixels
+            while (current.getWidth() / 2 >= 2 * width && current.getHeight() / 2 >= 2 * height) {
+                current = scale(current, current.getWidth() / 2, current.getHeight() / 2, HALF, HALF);
+            }
 
-            final AffineTransform zoomTransfort = AffineTransform.getScaleInstance(factor, factor);
-            final AffineTransformOp retaillerImage = new AffineTransformOp(zoomTransfort,
-                    AffineTransformOp.TYPE_BILINEAR);
-            retaillerImage.filter(bufferedImage, resized);
+            final BufferedImage resized;
+            if (current == bufferedImage && subsampling == 1) {
+                resized = scale(current, width, height, factor, factor);
+            } else {
+                resized = scale(current, width, height, (double) width / current.getWidth(),
+                        (double) height / current.getHeight());
+            }
 
             res = new MImageAWTImpl(resized, image.getURI());
         } else {
@@ -357,6 +405,59 @@ public class ImageServices {
         return res;
     }
 
+    /**
+     * Gets the subsampling to use when decoding an image that will be resized by the given factor. Whole powers of two
+     * are skipped while decoding as long as the remaining factor is at most one half, so the final bilinear filtering
+     * still has enough pixels to blend.
+     * 
+     * @param factor
+     *            the resize factor
+     * @return the subsampling to use when decoding an image that will be resized by the given factor
+     */
+    private int getSubsampling(double factor) {
+        int res = 1;
+
+        if (factor > 0) {
+            while (res * 2 * factor <= HALF) {
+                res = res * 2;
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Scales the given {@link BufferedImage} with bilinear filtering. The scaled image has the same type, or
+     * {@link BufferedImage#TYPE_INT_ARGB} if the type is {@link BufferedImage#TYPE_CUSTOM custom}.
+     * 
+     * @param image
+     *            the {@link BufferedImage}
+     * @param width
+     *            the scaled width
+     * @param height
+     *            the scaled height
+     * @param scaleX
+     *            the horizontal scale factor
+     * @param scaleY
+     *            the vertical scale factor
+     * @return the scaled {@link BufferedImage}
+     */
+    private BufferedImage scale(BufferedImage image, int width, int height, double scaleX, double scaleY) {
+        final int type;
+        if (image.getType() != BufferedImage.TYPE_CUSTOM) {
+            type = image.getType();
+        } else {
+            type = BufferedImage.TYPE_INT_ARGB;
+        }
+        final BufferedImage res = new BufferedImage(width, height, type);
+
+        final AffineTransform zoomTransfort = AffineTransform.getScaleInstance(scaleX, scaleY);
+        final AffineTransformOp retaillerImage = new AffineTransformOp(zoomTransfort, AffineTransformOp.TYPE_BILINEAR);
+        retaillerImage.filter(image, res);
+
+        return res;
+    }
+
     // @formatter:off
     @Documentation(
         value = "Rotates the Image by the given angle in degres.",
@@ -374,7 +475,7 @@ public class ImageServices {
         final MImage res;
 
         if (image != null && angle != null) {
-            final BufferedImage bufferedImage = MImageAWTImpl.getBufferedImage(image);
+            final BufferedImage bufferedImage = imageStore.getBufferedImage(image);
 
             final double rads = Math.toRadians(angle);
             final double sin = Math.abs(Math.sin(rads));
@@ -404,6 +505,48 @@ public class ImageServices {
         return res;
     }
 
+    // @formatter:off
+    @Documentation(
+        value = "Sets the format and compression quality used to write the Image in the generated document. The image is encoded once even if it is inserted many times.",
+        params = {
+            @Param(name = "image", value = "The Image"),
+            @Param(name = "format", value = "The output format: JPG, JPEG or PNG"),
+            @Param(name = "quality", value = "The compression quality between 0 and 1. For JPG it is the image quality, for PNG lower values give smaller files but slower encoding"),
+        },
+        result = "the encoded image",
+        examples = {
+            @Example(expression = "myImage.setEncoding('JPG', 0.8)", result = "will write the image as a JPG with a quality of 0.8"),
+        }
+    )
+    // @formatter:on
+    public MImage setEncoding(MImage image, String format, Double quality) throws IOException {
+        final MImage res;
+
+        if (image != null && format != null) {
+            final PictureType type = PictureType.valueOf(format.toUpperCase());
+            if (type != PictureType.JPG && type != PictureType.JPEG && type != PictureType.PNG) {
+                throw new IllegalArgumentException("Unsupported output format: " + format);
+            }
+            final float compressionQuality;
+            if (quality != null) {
+                compressionQuality = (float) Math.max(0, Math.min(1, quality.doubleValue()));
+            } else {
+                compressionQuality = -1;
+            }
+            final BufferedImage bufferedImage = imageStore.getBufferedImage(image);
+            res = new MImageAWTImpl(bufferedImage, image.getURI(), type, compressionQuality);
+            // set both sizes without ratio so a distorted size is kept
+            res.setConserveRatio(false);
+            res.setWidth(image.getWidth());
+            res.setHeight(image.getHeight());
+            res.setConserveRatio(image.conserveRatio());
+        } else {
+            res = null;
+        }
+
+        return res;
+    }
+
     // @formatter:off
     @Documentation(
             value = "Fits all Images of the given MElement in the given rectangle width and height.",
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.services;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.eclipse.acceleo.query.runtime.IReadOnlyQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.IService;
+import org.eclipse.acceleo.query.runtime.ServiceUtils;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
+import org.obeonetwork.m2doc.element.impl.SVGRasterCache;
+import org.obeonetwork.m2doc.services.configurator.IM2DocServicesConfigurator;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+/**
+ * {@link ImageServices} configurator. The image preparation threads of its {@link ImageStore} are shut down when the
+ * generation ends.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ImageServicesConfigurator implements IM2DocServicesConfigurator {
+
+    /**
+     * Mapping from {@link IReadOnlyQueryEnvironment} to its instance of {@link ImageServices}.
+     */
+    private final Map<IReadOnlyQueryEnvironment, ImageServices> instancies = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> getOptions() {
+        return Arrays.asList(M2DocUtils.SVG_TARGET_DPI_OPTION, M2DocUtils.SVG_SPILL_FOLDER_OPTION);
+    }
+
+    @Override
+    public Map<String, String> getInitializedOptions(Map<String, String> options) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, String> getInitializedOptions(Map<String, String> options, EObject eObj) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, List<Diagnostic>> validate(IReadOnlyQueryEnvironment queryEnvironment,
+            Map<String, String> options) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Set<IService<?>> getServices(IReadOnlyQueryEnvironment queryEnvironment, ResourceSet resourceSetForModels,
+            Map<String, String> options, boolean forWorkspace) {
+        final String templateURI = options.get(M2DocUtils.TEMPLATE_URI_OPTION);
+        final ImageStore imageStore = new ImageStore(getSVGRasterCache(options));
+        final ImageServices instance;
+        if (templateURI != null) {
+            instance = new ImageServices(resourceSetForModels.getURIConverter(), URI.createURI(templateURI),
+                    imageStore);
+        } else {
+            instance = new ImageServices(resourceSetForModels.getURIConverter(), null, imageStore);
+        }
+        instancies.put(queryEnvironment, instance);
+
+        return ServiceUtils.getServices(queryEnvironment, instance);
+    }
+
+    /**
+     * Gets the {@link SVGRasterCache} for the given options.
+     * 
+     * @param options
+     *            the {@link Map} of options
+     * @return the {@link SVGRasterCache} for the given options
+     * @see M2DocUtils#SVG_TARGET_DPI_OPTION
+     * @see M2DocUtils#SVG_SPILL_FOLDER_OPTION
+     */
+    private static SVGRasterCache getSVGRasterCache(Map<String, String> options) {
+        float targetDPI = 0;
+        final String dpi = options.get(M2DocUtils.SVG_TARGET_DPI_OPTION);
+        if (dpi != null && !dpi.isEmpty()) {
+            try {
+                targetDPI = Float.parseFloat(dpi);
+            } catch (NumberFormatException e) {
+                // SVG images are rasterized at their intrinsic size
+            }
+        }
+        final File spillFolder;
+        final String folder = options.get(M2DocUtils.SVG_SPILL_FOLDER_OPTION);
+        if (folder != null && !folder.isEmpty()) {
+            spillFolder = new File(folder);
+        } else {
+            spillFolder = null;
+        }
+
+        return new SVGRasterCache(SVGRasterCache.DEFAULT_MEMORY_BUDGET, spillFolder, targetDPI);
+    }
+
+    @Override
+    public void startGeneration(IReadOnlyQueryEnvironment queryEnvironment, XWPFDocument destinationDocument) {
+        // nothing to do here: the image preparation threads are started by the first image
+    }
+
+    @Override
+    public void endGeneration(IReadOnlyQueryEnvironment queryEnvironment) {
+        final ImageServices instance = instancies.get(queryEnvironment);
+        if (instance != null) {
+            instance.endGeneration();
+        }
+    }
+
+    @Override
+    public void cleanServices(IReadOnlyQueryEnvironment queryEnvironment, ResourceSet resourceSetForModels) {
+        final ImageServices instance = instancies.remove(queryEnvironment);
+        if (instance != null) {
+            instance.endGeneration();
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.services;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.generator.GenerationResult;
+import org.obeonetwork.m2doc.util.DigestUtils;
+import org.obeonetwork.m2doc.util.LRUMap;
+
+/**
+ * Bounded cache of {@link MElement} converted from fragments (HTML, markup, ...) for the duration of a generation.
+ * Entries are keyed by the fragment content hash, its base {@link URI}, and the conversion context. Services can
+ * modify their argument (image size, paragraph style, ...), so each insertion gets its own
+ * {@link MElementCopier#copyAll(List) copy} of the cached {@link MElement}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class MElementCache {
+
+    /**
+     * The default maximum number of entries.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The separator between key parts.
+     */
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * The mapping from key to converted {@link MElement} in least recently used order.
+     */
+    private final Map<String, List<MElement>> elements;
+
+    /**
+     * The number of hits.
+     */
+    private long hits;
+
+    /**
+     * The number of misses.
+     */
+    private long misses;
+
+    /**
+     * Constructor.
+     */
+    public MElementCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param capacity
+     *            the maximum number of entries
+     */
+    public MElementCache(int capacity) {
+        elements = new LRUMap<>(capacity);
+    }
+
+    /**
+     * Gets the key for the given fragment.
+     * 
+     * @param baseURI
+     *            the base {@link URI}
+     * @param content
+     *            the fragment content
+     * @param context
+     *            the conversion context (language, style sheets, ...) that can change the conversion result
+     * @return the key for the given fragment
+     */
+    public static String getKey(URI baseURI, String content, String context) {
+        return DigestUtils.getMD5(content) + SEPARATOR + baseURI + SEPARATOR + context;
+    }
+
+    /**
+     * Gets the cached {@link MElement} for the given key.
+     * 
+     * @param key
+     *            the {@link #getKey(URI, String, String) key}
+     * @return a copy of the cached {@link MElement} for the given key if any, <code>null</code> otherwise
+     */
+    public synchronized List<MElement> get(String key) {
+        final List<MElement> res;
+
+        final List<MElement> cached = elements.get(key);
+        if (cached != null) {
+            hits++;
+            res = MElementCopier.copyAll(cached);
+        } else {
+            misses++;
+            res = null;
+        }
+
+        return res;
+    }
+
+    /**
+     * Puts the given converted {@link MElement} for the given key. The given {@link MElement} are kept by the cache
+     * and must not be used afterward, the returned copy must be used instead.
+     * 
+     * @param key
+     *            the {@link #getKey(URI, String, String) key}
+     * @param converted
+     *            the converted {@link MElement}
+     * @return a copy of the given converted {@link MElement}
+     */
+    public synchronized List<MElement> put(String key, List<MElement> converted) {
+        elements.put(key, converted);
+
+        return MElementCopier.copyAll(converted);
+    }
+
+    /**
+     * Gets the number of hits.
+     * 
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of misses.
+     * 
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Adds the hits, misses, and hit ratio of this cache to the {@link GenerationResult#getStatistics() statistics} of
+     * the given {@link GenerationResult}.
+     * 
+     * @param result
+     *            the {@link GenerationResult}
+     * @param name
+     *            the cache name used to prefix statistics
+     */
+    public synchronized void addStatistics(GenerationResult result, String name) {
+        final long currentHits = getHits();
+        final long currentMisses = getMisses();
+        final long total = currentHits + currentMisses;
+        result.getStatistics().put(name + " hits", currentHits);
+        result.getStatistics().put(name + " misses", currentMisses);
+        if (total != 0) {
+            result.getStatistics().put(name + " hit ratio", (double) currentHits / total);
+        }
+    }
+
+}
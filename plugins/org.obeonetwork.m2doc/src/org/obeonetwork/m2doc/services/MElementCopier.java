@@ -0,0 +1,256 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.services;
+
+import java.util.List;
+
+import org.obeonetwork.m2doc.element.MBookmark;
+import org.obeonetwork.m2doc.element.MBookmarkCustomTextRef;
+import org.obeonetwork.m2doc.element.MBookmarkPageRef;
+import org.obeonetwork.m2doc.element.MBookmarkSectionRef;
+import org.obeonetwork.m2doc.element.MBookmarkTextRef;
+import org.obeonetwork.m2doc.element.MBorder;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MElementContainer;
+import org.obeonetwork.m2doc.element.MHyperLink;
+import org.obeonetwork.m2doc.element.MList;
+import org.obeonetwork.m2doc.element.MParagraph;
+import org.obeonetwork.m2doc.element.MStreamedList;
+import org.obeonetwork.m2doc.element.MStreamedTable;
+import org.obeonetwork.m2doc.element.MStyle;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.MTable.MCell;
+import org.obeonetwork.m2doc.element.MTable.MRow;
+import org.obeonetwork.m2doc.element.MText;
+import org.obeonetwork.m2doc.element.impl.MBookmarkCustomTextRefImpl;
+import org.obeonetwork.m2doc.element.impl.MBookmarkImpl;
+import org.obeonetwork.m2doc.element.impl.MBookmarkPageRefImpl;
+import org.obeonetwork.m2doc.element.impl.MBookmarkSectionRefImpl;
+import org.obeonetwork.m2doc.element.impl.MBookmarkTextRefImpl;
+import org.obeonetwork.m2doc.element.impl.MBorderImpl;
+import org.obeonetwork.m2doc.element.impl.MHyperLinkImpl;
+import org.obeonetwork.m2doc.element.impl.MImageImpl;
+import org.obeonetwork.m2doc.element.impl.MListImpl;
+import org.obeonetwork.m2doc.element.impl.MParagraphImpl;
+import org.obeonetwork.m2doc.element.impl.MStyleImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MCellImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MRowImpl;
+import org.obeonetwork.m2doc.element.impl.MTextImpl;
+
+/**
+ * Deep copies {@link MElement} trees, so services modifying their argument (image size, paragraph style, ...) don't
+ * change an other insertion of the same tree. Image contents are shared. Streamed elements, {@link Enum} elements, and
+ * unknown implementations are not copied.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public final class MElementCopier {
+
+    /**
+     * Constructor.
+     */
+    private MElementCopier() {
+        // nothing to do here
+    }
+
+    /**
+     * Copies the given {@link List} of {@link MElement}.
+     * 
+     * @param elements
+     *            the {@link List} of {@link MElement}
+     * @return the copied {@link List} of {@link MElement}
+     */
+    public static List<MElement> copyAll(List<MElement> elements) {
+        return copyList(elements);
+    }
+
+    /**
+     * Copies the given {@link MElement}.
+     * 
+     * @param element
+     *            the {@link MElement}, can be <code>null</code>
+     * @return the copied {@link MElement}, or the given {@link MElement} if it can't be copied
+     */
+    public static MElement copy(MElement element) {
+        final MElement res;
+
+        if (element instanceof MStreamedList || element instanceof MStreamedTable) {
+            res = element;
+        } else if (element instanceof MList) {
+            res = copyList((MList) element);
+        } else if (element instanceof MParagraph) {
+            res = copyParagraph((MParagraph) element);
+        } else if (element instanceof MTable) {
+            res = copyTable((MTable) element);
+        } else if (element instanceof MHyperLink) {
+            final MHyperLink link = (MHyperLink) element;
+            res = new MHyperLinkImpl(link.getText(), copyStyle(link.getStyle()), link.getUrl(), link.getToolTip());
+        } else if (element instanceof MText) {
+            final MText text = (MText) element;
+            res = new MTextImpl(text.getText(), copyStyle(text.getStyle()));
+        } else if (element instanceof MImageImpl) {
+            res = new MImageImpl((MImageImpl) element);
+        } else if (element instanceof MBookmark) {
+            final MBookmark bookmark = (MBookmark) element;
+            res = new MBookmarkImpl(bookmark.getText(), bookmark.getId());
+        } else if (element instanceof MBookmarkCustomTextRef) {
+            final MBookmarkCustomTextRef reference = (MBookmarkCustomTextRef) element;
+            res = new MBookmarkCustomTextRefImpl(reference.getText(), reference.getId(), reference.isOptional());
+        } else if (element instanceof MBookmarkPageRef) {
+            final MBookmarkPageRef reference = (MBookmarkPageRef) element;
+            res = new MBookmarkPageRefImpl(reference.getId(), reference.isOptional());
+        } else if (element instanceof MBookmarkSectionRef) {
+            final MBookmarkSectionRef reference = (MBookmarkSectionRef) element;
+            res = new MBookmarkSectionRefImpl(reference.getId(), reference.isOptional());
+        } else if (element instanceof MBookmarkTextRef) {
+            final MBookmarkTextRef reference = (MBookmarkTextRef) element;
+            res = new MBookmarkTextRefImpl(reference.getId(), reference.isOptional());
+        } else {
+            res = element;
+        }
+
+        return res;
+    }
+
+    /**
+     * Copies the given {@link List} of {@link MElement} to a new {@link MList}.
+     * 
+     * @param elements
+     *            the {@link List} of {@link MElement}
+     * @return the copied {@link MList}
+     */
+    private static MList copyList(List<MElement> elements) {
+        final MList res = new MListImpl();
+
+        for (MElement element : elements) {
+            res.add(copy(element));
+        }
+
+        return res;
+    }
+
+    /**
+     * Copies the given {@link MParagraph}.
+     * 
+     * @param paragraph
+     *            the {@link MParagraph}
+     * @return the copied {@link MParagraph}
+     */
+    private static MParagraph copyParagraph(MParagraph paragraph) {
+        final MParagraph res = new MParagraphImpl(copy(paragraph.getContents()), paragraph.getStyleName());
+
+        copyContainer(paragraph, res);
+        res.setNumberingID(paragraph.getNumberingID());
+        res.setNumberingLevel(paragraph.getNumberingLevel());
+        res.setTextDirection(paragraph.getTextDirection());
+        res.setMarginLeft(paragraph.getMarginLeft());
+        res.setMarginRight(paragraph.getMarginRight());
+        res.setMarginTop(paragraph.getMarginTop());
+        res.setMarginBottom(paragraph.getMarginBottom());
+        res.setLeftBorder(copyBorder(paragraph.getLeftBorder()));
+        res.setRightBorder(copyBorder(paragraph.getRightBorder()));
+        res.setTopBorder(copyBorder(paragraph.getTopBorder()));
+        res.setBottomBorder(copyBorder(paragraph.getBottomBorder()));
+
+        return res;
+    }
+
+    /**
+     * Copies the given {@link MTable}.
+     * 
+     * @param table
+     *            the {@link MTable}
+     * @return the copied {@link MTable}
+     */
+    private static MTable copyTable(MTable table) {
+        final MTable res = new MTableImpl();
+
+        res.setLabel(table.getLabel());
+        res.setStyleID(table.getStyleID());
+        res.setTableAlign(table.getTableAlign());
+        for (MRow row : table.getRows()) {
+            final MRow rowCopy = new MRowImpl();
+            rowCopy.setHeight(row.getHeight());
+            rowCopy.setHeightRule(row.getHeightRule());
+            for (MCell cell : row.getCells()) {
+                final MCell cellCopy = new MCellImpl(copy(cell.getContents()), cell.getBackgroundColor());
+                copyContainer(cell, cellCopy);
+                cellCopy.setVAlignment(cell.getVAlignment());
+                cellCopy.setVMerge(cell.getVMerge());
+                cellCopy.setHMerge(cell.getHMerge());
+                cellCopy.setWidth(cell.getWitdh());
+                cellCopy.setWidthType(cell.getWidthType());
+                rowCopy.getCells().add(cellCopy);
+            }
+            res.getRows().add(rowCopy);
+        }
+
+        return res;
+    }
+
+    /**
+     * Copies the alignment and background of the given {@link MElementContainer}.
+     * 
+     * @param container
+     *            the {@link MElementContainer} to copy
+     * @param copy
+     *            the copy {@link MElementContainer}
+     */
+    private static void copyContainer(MElementContainer container, MElementContainer copy) {
+        copy.setHAlignment(container.getHAlignment());
+        copy.setBackgroundColor(container.getBackgroundColor());
+    }
+
+    /**
+     * Copies the given {@link MStyle}.
+     * 
+     * @param style
+     *            the {@link MStyle}, can be <code>null</code>
+     * @return the copied {@link MStyle} if any, <code>null</code> otherwise
+     */
+    private static MStyle copyStyle(MStyle style) {
+        final MStyle res;
+
+        if (style != null) {
+            res = new MStyleImpl(style.getFontName(), style.getFontSize(), style.getForegroundColor(),
+                    style.getBackgroundColor(), style.getFontModifiers());
+        } else {
+            res = null;
+        }
+
+        return res;
+    }
+
+    /**
+     * Copies the given {@link MBorder}.
+     * 
+     * @param border
+     *            the {@link MBorder}, can be <code>null</code>
+     * @return the copied {@link MBorder} if any, <code>null</code> otherwise
+     */
+    private static MBorder copyBorder(MBorder border) {
+        final MBorder res;
+
+        if (border != null) {
+            res = new MBorderImpl();
+            res.setType(border.getType());
+            res.setColor(border.getColor());
+            res.setSize(border.getSize());
+        } else {
+            res = null;
+        }
+
+        return res;
+    }
+
+}
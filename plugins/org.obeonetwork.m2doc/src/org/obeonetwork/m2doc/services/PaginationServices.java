@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2017 Obeo. 
+ *  Copyright (c) 2017, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -15,22 +15,16 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFNumbering;
-import org.apache.poi.xwpf.usermodel.XWPFStyle;
-import org.apache.poi.xwpf.usermodel.XWPFStyles;
 import org.eclipse.acceleo.annotations.api.documentation.Documentation;
 import org.eclipse.acceleo.annotations.api.documentation.Example;
 import org.eclipse.acceleo.annotations.api.documentation.Param;
 import org.eclipse.acceleo.annotations.api.documentation.ServiceProvider;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIConverter;
-import org.obeonetwork.m2doc.POIServices;
 import org.obeonetwork.m2doc.element.MElement;
 import org.obeonetwork.m2doc.element.MElementContainer.HAlignment;
 import org.obeonetwork.m2doc.element.MPagination;
@@ -42,9 +36,7 @@ import org.obeonetwork.m2doc.element.impl.MTableImpl;
 import org.obeonetwork.m2doc.element.impl.MTableImpl.MCellImpl;
 import org.obeonetwork.m2doc.element.impl.MTableImpl.MRowImpl;
 import org.obeonetwork.m2doc.element.impl.MTextImpl;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumbering;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
 
 /**
  * Pagination services.
@@ -60,19 +52,19 @@ value = "Services available for pagination. See [document examples](https://gith
 public class PaginationServices {
 
     /**
-     * The mapping from the text style identifier to the style name.
+     * The {@link URIConverter uri converter} to use.
      */
-    private final Map<String, String> textStyleIDs = new HashMap<>();
+    private final URIConverter uriConverter;
 
     /**
-     * The mapping from the table style identifier to the style name.
+     * The template {@link URI}.
      */
-    private final Map<String, String> tableStyleIDs = new HashMap<>();
+    private final URI templateURI;
 
     /**
-     * The mapping from numbering ID to its number of level.
+     * The {@link TemplateStyleCatalog}, lazily retrieved.
      */
-    private final Map<BigInteger, BigInteger> numberingIDs = new HashMap<>();
+    private TemplateStyleCatalog catalog;
 
     /**
      * Consturtor.
@@ -83,63 +75,30 @@ public class PaginationServices {
      *            the template {@link URI}
      */
     public PaginationServices(URIConverter uriConverter, URI templateURI) {
-        try (XWPFDocument document = POIServices.getInstance().getXWPFDocument(uriConverter, templateURI);) {
-            final List<XWPFStyle> styles = getStyles(document.getStyles());
-            for (XWPFStyle style : styles) {
-                switch (style.getType().intValue()) {
-                    case STStyleType.INT_PARAGRAPH:
-                        textStyleIDs.put(style.getStyleId(), style.getName());
-                        break;
-
-                    case STStyleType.INT_TABLE:
-                        tableStyleIDs.put(style.getStyleId(), style.getName());
-                        break;
-
-                    default:
-                        break;
-                }
-            }
-            if (document.getNumbering() != null) {
-                final CTNumbering numbering = getCTNumbering(document.getNumbering());
-                for (CTAbstractNum num : numbering.getAbstractNumList()) {
-                    final BigInteger id = num.getAbstractNumId().add(BigInteger.valueOf(1));
-                    final BigInteger maxLevel = BigInteger.valueOf(num.getLvlList().size());
-                    numberingIDs.put(id, maxLevel);
-                }
-            }
-        } catch (IOException e) {
-            // nothing to do here
-        }
+        this.uriConverter = uriConverter;
+        this.templateURI = templateURI;
     }
 
     /**
-     * Gets the {@link List} of {@link XWPFStyle} from the given {@link XWPFStyles}.
+     * Gets the {@link TemplateStyleCatalog} of the template. It is retrieved on first use so instantiating services
+     * doesn't read the template.
      * 
-     * @param styles
-     *            the {@link XWPFStyles}
-     * @return the {@link List} of {@link XWPFStyle} from the given {@link XWPFStyles}
+     * @return the {@link TemplateStyleCatalog} of the template
      */
-    @SuppressWarnings("unchecked")
-    private List<XWPFStyle> getStyles(XWPFStyles styles) {
-        final List<XWPFStyle> res = new ArrayList<>();
-
-        for (Field field : styles.getClass().getDeclaredFields()) {
-            if ("listStyle".equals(field.getName())) {
+    private TemplateStyleCatalog getCatalog() {
+        if (catalog == null) {
+            if (templateURI != null) {
                 try {
-                    field.setAccessible(true);
-                    res.addAll((List<XWPFStyle>) field.get(styles));
-                    break;
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException("can't retreive style names.", e);
-                } catch (IllegalAccessException e) {
-                    throw new IllegalArgumentException("can't retreive style names.", e);
-                } finally {
-                    field.setAccessible(false);
+                    catalog = TemplateStyleCatalog.getCatalog(uriConverter, templateURI);
+                } catch (IOException e) {
+                    catalog = TemplateStyleCatalog.EMPTY;
                 }
+            } else {
+                catalog = TemplateStyleCatalog.EMPTY;
             }
         }
 
-        return res;
+        return catalog;
     }
 
     /**
@@ -200,7 +159,7 @@ public class PaginationServices {
     )
     // @formatter:on
     public MParagraph asStyle(String text, String styleID) {
-        final String styleName = textStyleIDs.get(styleID);
+        final String styleName = getCatalog().getTextStyles().get(styleID);
         if (styleName != null) {
             return new MParagraphImpl(new MTextImpl(text, null), styleID);
         } else {
@@ -224,7 +183,7 @@ public class PaginationServices {
         final List<MParagraph> res = new ArrayList<>();
 
         res.add(new MParagraphImpl(new MTextImpl("List of available text styles:", null), null));
-        for (String styleID : textStyleIDs.keySet()) {
+        for (String styleID : getCatalog().getTextStyles().keySet()) {
             res.add(asStyle(styleID, styleID));
         }
 
@@ -245,7 +204,7 @@ public class PaginationServices {
     )
     // @formatter:on
     public MTable asStyle(MTable table, String styleID) {
-        final String styleName = tableStyleIDs.get(styleID);
+        final String styleName = getCatalog().getTableStyles().get(styleID);
         if (styleName != null) {
             table.setStyleID(styleID);
             return table;
@@ -270,7 +229,7 @@ public class PaginationServices {
         final List<MElement> res = new ArrayList<>();
 
         res.add(new MParagraphImpl(new MTextImpl("List of available table styles:", null), null));
-        for (String styleID : tableStyleIDs.keySet()) {
+        for (String styleID : getCatalog().getTableStyles().keySet()) {
             res.add(asStyle(styledTable(styleID), styleID));
         }
 
@@ -315,7 +274,7 @@ public class PaginationServices {
         final List<MParagraph> res = new ArrayList<>();
 
         res.add(new MParagraphImpl(new MTextImpl("List of available numbering IDs:", null), null));
-        for (Entry<BigInteger, BigInteger> entry : numberingIDs.entrySet()) {
+        for (Entry<BigInteger, BigInteger> entry : getCatalog().getNumberingLevels().entrySet()) {
             for (long level = 0; level < entry.getValue().longValue(); level++) {
                 final MParagraphImpl paragraph = new MParagraphImpl(
                         new MTextImpl(String.valueOf("ID: " + entry.getKey() + " Level: " + level), null), null);
@@ -358,7 +317,7 @@ public class PaginationServices {
     )
     // @formatter:on
     public MParagraph setStyle(MParagraph paragraph, String styleID) {
-        final String styleName = textStyleIDs.get(styleID);
+        final String styleName = getCatalog().getTextStyles().get(styleID);
         if (styleName != null) {
             paragraph.setStyleName(styleID);
             return paragraph;
@@ -401,7 +360,7 @@ public class PaginationServices {
     )
     // @formatter:on
     public MParagraph setNumbering(MParagraph paragraph, Integer numberingID, Integer level) {
-        final BigInteger maxLevel = numberingIDs.get(BigInteger.valueOf(numberingID));
+        final BigInteger maxLevel = getCatalog().getNumberingLevels().get(BigInteger.valueOf(numberingID));
         if (maxLevel != null) {
             if (maxLevel.longValue() > level) {
                 paragraph.setNumberingID(Long.valueOf(numberingID));
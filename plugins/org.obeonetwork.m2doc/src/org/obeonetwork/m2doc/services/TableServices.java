@@ -0,0 +1,332 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.services;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import org.eclipse.acceleo.annotations.api.documentation.Documentation;
+import org.eclipse.acceleo.annotations.api.documentation.Example;
+import org.eclipse.acceleo.annotations.api.documentation.Param;
+import org.eclipse.acceleo.annotations.api.documentation.ServiceProvider;
+import org.eclipse.acceleo.query.runtime.impl.LambdaValue;
+import org.eclipse.acceleo.query.runtime.impl.Nothing;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MStreamedTable;
+import org.obeonetwork.m2doc.element.MTable.MCell;
+import org.obeonetwork.m2doc.element.MTable.MRow;
+import org.obeonetwork.m2doc.element.impl.MStreamedTableImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MCellImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MRowImpl;
+import org.obeonetwork.m2doc.element.impl.MTextImpl;
+
+//@formatter:off
+@ServiceProvider(
+  value = "Services available for tables. Rows of created tables are computed while the table is inserted, so large tables don't need to be kept in memory."
+)
+//@formatter:on
+@SuppressWarnings({"checkstyle:javadocmethod", "checkstyle:javadoctype" })
+public class TableServices {
+
+    /**
+     * Computes {@link MRow} from values using a {@link LambdaValue}, after an optional header row. The first row can be
+     * computed ahead to know the columns count. Computed rows must have the columns count.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class LambdaRowIterator implements Iterator<MRow> {
+
+        /**
+         * The {@link Iterator} over values.
+         */
+        private final Iterator<?> values;
+
+        /**
+         * The {@link LambdaValue} computing the row contents of a value.
+         */
+        private final LambdaValue lambda;
+
+        /**
+         * The columns count, {@link TableServices#UNKNOWN_COLUMNS_COUNT} until the first row is computed if not known.
+         */
+        private int columnsCount;
+
+        /**
+         * The number of computed rows.
+         */
+        private int computedRows;
+
+        /**
+         * The header {@link MRow} or the {@link MRow} computed ahead if any, <code>null</code> otherwise.
+         */
+        private MRow nextRow;
+
+        /**
+         * Constructor.
+         * 
+         * @param values
+         *            the {@link Iterator} over values
+         * @param lambda
+         *            the {@link LambdaValue} computing the row contents of a value
+         * @param headerRow
+         *            the header {@link MRow} if any, <code>null</code> otherwise
+         * @param columnsCount
+         *            the columns count, {@link TableServices#UNKNOWN_COLUMNS_COUNT} to use the first row cells count
+         */
+        private LambdaRowIterator(Iterator<?> values, LambdaValue lambda, MRow headerRow, int columnsCount) {
+            this.values = values;
+            this.lambda = lambda;
+            this.nextRow = headerRow;
+            this.columnsCount = columnsCount;
+        }
+
+        /**
+         * Gets the next {@link MRow} without consuming it.
+         * 
+         * @return the next {@link MRow} if any, <code>null</code> otherwise
+         */
+        private MRow peek() {
+            if (nextRow == null && values.hasNext()) {
+                nextRow = computeRow(values.next());
+            }
+
+            return nextRow;
+        }
+
+        /**
+         * Computes the {@link MRow} of the given value.
+         * 
+         * @param value
+         *            the value
+         * @return the computed {@link MRow}
+         */
+        private MRow computeRow(Object value) {
+            final MRow res = asRow(lambda.eval(new Object[] {value }));
+
+            computedRows++;
+            final int cellsCount = res.getCells().size();
+            if (columnsCount == UNKNOWN_COLUMNS_COUNT) {
+                columnsCount = cellsCount;
+            } else if (cellsCount != columnsCount) {
+                throw new IllegalStateException(String.format(
+                        "The row of the value number %d has %d cells but the table has %d columns.", computedRows,
+                        cellsCount, columnsCount));
+            }
+
+            return res;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextRow != null || values.hasNext();
+        }
+
+        @Override
+        public MRow next() {
+            final MRow res = peek();
+
+            if (res == null) {
+                throw new NoSuchElementException();
+            }
+            nextRow = null;
+
+            return res;
+        }
+
+    }
+
+    /**
+     * Supplies a new {@link LambdaRowIterator} for each insertion of a table. The {@link LambdaRowIterator} used to
+     * compute the columns count ahead is supplied first, so its first row is not computed twice.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class LambdaRows implements Supplier<Iterator<MRow>> {
+
+        /**
+         * The values.
+         */
+        private final Collection<?> values;
+
+        /**
+         * The {@link LambdaValue} computing the row contents of a value.
+         */
+        private final LambdaValue lambda;
+
+        /**
+         * The header {@link MRow} if any, <code>null</code> otherwise.
+         */
+        private final MRow headerRow;
+
+        /**
+         * The columns count.
+         */
+        private final int columnsCount;
+
+        /**
+         * The {@link LambdaRowIterator} used to compute the columns count if not yet supplied, <code>null</code>
+         * otherwise.
+         */
+        private LambdaRowIterator firstIterator;
+
+        /**
+         * Constructor.
+         * 
+         * @param values
+         *            the values
+         * @param lambda
+         *            the {@link LambdaValue} computing the row contents of a value
+         * @param headerRow
+         *            the header {@link MRow} if any, <code>null</code> otherwise
+         * @param columnsCount
+         *            the columns count
+         * @param firstIterator
+         *            the {@link LambdaRowIterator} used to compute the columns count if any, <code>null</code>
+         *            otherwise
+         */
+        private LambdaRows(Collection<?> values, LambdaValue lambda, MRow headerRow, int columnsCount,
+                LambdaRowIterator firstIterator) {
+            this.values = values;
+            this.lambda = lambda;
+            this.headerRow = headerRow;
+            this.columnsCount = columnsCount;
+            this.firstIterator = firstIterator;
+        }
+
+        @Override
+        public Iterator<MRow> get() {
+            final Iterator<MRow> res;
+
+            if (firstIterator != null) {
+                res = firstIterator;
+                firstIterator = null;
+            } else {
+                res = new LambdaRowIterator(values.iterator(), lambda, headerRow, columnsCount);
+            }
+
+            return res;
+        }
+
+    }
+
+    /**
+     * The columns count of a table whose first row has not been computed yet.
+     */
+    private static final int UNKNOWN_COLUMNS_COUNT = -1;
+
+    // @formatter:off
+    @Documentation(
+        value = "Creates a table with a row for each value of the given collection. Rows are computed each time the table is inserted, errors in the lambda are reported where the table is inserted.",
+        params = {
+            @Param(name = "values", value = "The collection of values"),
+            @Param(name = "row", value = "The lambda computing the cells of the row of a value, each element of the resulting collection is a cell"),
+        },
+        result = "A table with a row for each value, the number of columns is the number of cells of the first row. All rows must have the same number of cells.",
+        examples = {
+            @Example(expression = "self.eClassifiers->asTable(c | Sequence{c.name, c.eClass().name})", result = "a table with the name and the kind of each classifier"),
+        }
+    )
+    // @formatter:on
+    public MStreamedTable asTable(Collection<?> values, LambdaValue row) {
+        final LambdaRowIterator firstIterator = new LambdaRowIterator(values.iterator(), row, null,
+                UNKNOWN_COLUMNS_COUNT);
+        final MRow firstRow = firstIterator.peek();
+        final int columnsCount;
+        if (firstRow != null) {
+            columnsCount = firstRow.getCells().size();
+        } else {
+            columnsCount = 0;
+        }
+
+        return new MStreamedTableImpl(columnsCount, new LambdaRows(values, row, null, columnsCount, firstIterator));
+    }
+
+    // @formatter:off
+    @Documentation(
+        value = "Creates a table with a header row and a row for each value of the given collection. Rows are computed each time the table is inserted, errors in the lambda are reported where the table is inserted.",
+        params = {
+            @Param(name = "values", value = "The collection of values"),
+            @Param(name = "headers", value = "The column headers"),
+            @Param(name = "row", value = "The lambda computing the cells of the row of a value, each element of the resulting collection is a cell"),
+        },
+        result = "A table with the given headers and a row for each value. Each row must have a cell for each header.",
+        examples = {
+            @Example(expression = "self.eClassifiers->asTable(Sequence{'Name', 'Kind'}, c | Sequence{c.name, c.eClass().name})", result = "a table with the name and the kind of each classifier"),
+        }
+    )
+    // @formatter:on
+    public MStreamedTable asTable(Collection<?> values, List<String> headers, LambdaValue row) {
+        return new MStreamedTableImpl(headers.size(),
+                new LambdaRows(values, row, asRow(headers), headers.size(), null));
+    }
+
+    /**
+     * Converts the given value to a {@link MRow}.
+     * 
+     * @param value
+     *            the value, a {@link MRow}, a {@link Collection} of cell values, or a single cell value
+     * @return the {@link MRow} for the given value
+     */
+    private static MRow asRow(Object value) {
+        final MRow res;
+
+        if (value instanceof Nothing) {
+            // the lambda is evaluated while the table is inserted, outside of the query diagnostic
+            throw new IllegalStateException(((Nothing) value).getMessage());
+        } else if (value instanceof MRow) {
+            res = (MRow) value;
+        } else {
+            res = new MRowImpl();
+            final Collection<?> cellValues;
+            if (value instanceof Collection) {
+                cellValues = (Collection<?>) value;
+            } else {
+                cellValues = Collections.singletonList(value);
+            }
+            for (Object cellValue : cellValues) {
+                res.getCells().add(asCell(cellValue));
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Converts the given value to a {@link MCell}.
+     * 
+     * @param value
+     *            the value
+     * @return the {@link MCell} for the given value
+     */
+    private static MCell asCell(Object value) {
+        final MCell res;
+
+        if (value instanceof Nothing) {
+            throw new IllegalStateException(((Nothing) value).getMessage());
+        } else if (value instanceof MCell) {
+            res = (MCell) value;
+        } else if (value instanceof MElement) {
+            res = new MCellImpl((MElement) value, null);
+        } else if (value != null) {
+            res = new MCellImpl(new MTextImpl(String.valueOf(value), null), null);
+        } else {
+            res = new MCellImpl(null, null);
+        }
+
+        return res;
+    }
+
+}
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.DigestInputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.xmlbeans.XmlException;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.obeonetwork.m2doc.util.DigestUtils;
+import org.obeonetwork.m2doc.util.LRUMap;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumbering;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+
+/**
+ * Immutable catalog of the text styles, table styles, and numberings of a template. Catalogs are cached by template
+ * {@link URI} and content hash: {@link org.obeonetwork.m2doc.util.M2DocUtils#parse(URIConverter, URI, String,
+ * org.eclipse.emf.common.util.Monitor) parsing} a template registers its catalog, and {@link PaginationServices} reuse
+ * it as long as the template content doesn't change.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public final class TemplateStyleCatalog {
+
+    /**
+     * The empty catalog.
+     */
+    public static final TemplateStyleCatalog EMPTY = new TemplateStyleCatalog(null, Collections.emptyMap(),
+            Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * The maximum number of cached catalogs.
+     */
+    private static final int CAPACITY = 32;
+
+    /**
+     * The buffer size.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The mapping from template {@link URI} to its catalog in least recently used order.
+     */
+    private static final Map<URI, TemplateStyleCatalog> CATALOGS = new LRUMap<>(CAPACITY);
+
+    /**
+     * The template content hash.
+     */
+    private final String hash;
+
+    /**
+     * The mapping from the text style identifier to the style name.
+     */
+    private final Map<String, String> textStyles;
+
+    /**
+     * The mapping from the table style identifier to the style name.
+     */
+    private final Map<String, String> tableStyles;
+
+    /**
+     * The mapping from numbering ID to its number of level.
+     */
+    private final Map<BigInteger, BigInteger> numberingLevels;
+
+    /**
+     * Constructor.
+     * 
+     * @param hash
+     *            the template content hash
+     * @param textStyles
+     *            the mapping from the text style identifier to the style name
+     * @param tableStyles
+     *            the mapping from the table style identifier to the style name
+     * @param numberingLevels
+     *            the mapping from numbering ID to its number of level
+     */
+    private TemplateStyleCatalog(String hash, Map<String, String> textStyles, Map<String, String> tableStyles,
+            Map<BigInteger, BigInteger> numberingLevels) {
+        this.hash = hash;
+        this.textStyles = Collections.unmodifiableMap(textStyles);
+        this.tableStyles = Collections.unmodifiableMap(tableStyles);
+        this.numberingLevels = Collections.unmodifiableMap(numberingLevels);
+    }
+
+    /**
+     * Creates the catalog of the given {@link XWPFDocument}.
+     * 
+     * @param hash
+     *            the template content hash
+     * @param document
+     *            the template {@link XWPFDocument}
+     * @return the created catalog
+     */
+    private static TemplateStyleCatalog create(String hash, XWPFDocument document) {
+        final Map<String, String> textStyles = new HashMap<>();
+        final Map<String, String> tableStyles = new HashMap<>();
+        final Map<BigInteger, BigInteger> numberingLevels = new HashMap<>();
+
+        try {
+            for (CTStyle style : document.getStyle().getStyleList()) {
+                if (style.getType() != null && style.getName() != null) {
+                    switch (style.getType().intValue()) {
+                        case STStyleType.INT_PARAGRAPH:
+                            textStyles.put(style.getStyleId(), style.getName().getVal());
+                            break;
+
+                        case STStyleType.INT_TABLE:
+                            tableStyles.put(style.getStyleId(), style.getName().getVal());
+                            break;
+
+                        default:
+                            break;
+                    }
+                }
+            }
+        } catch (XmlException e) {
+            // nothing to do here: the template has no usable styles
+        } catch (IOException e) {
+            // nothing to do here: the template has no styles
+        }
+        if (document.getNumbering() != null) {
+            final CTNumbering numbering = PaginationServices.getCTNumbering(document.getNumbering());
+            for (CTAbstractNum num : numbering.getAbstractNumList()) {
+                final BigInteger id = num.getAbstractNumId().add(BigInteger.valueOf(1));
+                final BigInteger maxLevel = BigInteger.valueOf(num.getLvlList().size());
+                numberingLevels.put(id, maxLevel);
+            }
+        }
+
+        return new TemplateStyleCatalog(hash, textStyles, tableStyles, numberingLevels);
+    }
+
+    /**
+     * Registers the catalog of the given parsed template.
+     * 
+     * @param templateURI
+     *            the template {@link URI}
+     * @param hash
+     *            the template content hash, <code>null</code> if unknown
+     * @param document
+     *            the template {@link XWPFDocument}
+     * @return the catalog of the given parsed template
+     */
+    public static TemplateStyleCatalog register(URI templateURI, String hash, XWPFDocument document) {
+        TemplateStyleCatalog res = getCached(templateURI, hash);
+
+        if (res == null) {
+            res = create(hash, document);
+            if (hash != null) {
+                putCached(templateURI, res);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the catalog of the template with the given {@link URI}. The template is only loaded if its content changed
+     * since its catalog was computed.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param templateURI
+     *            the template {@link URI}
+     * @return the catalog of the template with the given {@link URI}
+     * @throws IOException
+     *             if the template can't be read
+     */
+    public static TemplateStyleCatalog getCatalog(URIConverter uriConverter, URI templateURI) throws IOException {
+        final TemplateStyleCatalog res;
+
+        final byte[] content;
+        try (InputStream is = uriConverter.createInputStream(templateURI)) {
+            content = IOUtils.toByteArray(is);
+        }
+        final String hash = DigestUtils.getMD5(content);
+        final TemplateStyleCatalog cached = getCached(templateURI, hash);
+        if (cached != null) {
+            res = cached;
+        } else {
+            try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(content))) {
+                res = register(templateURI, hash, document);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the cached catalog for the given template {@link URI} and content hash.
+     * 
+     * @param templateURI
+     *            the template {@link URI}
+     * @param hash
+     *            the template content hash
+     * @return the cached catalog for the given template {@link URI} and content hash if any, <code>null</code>
+     *         otherwise
+     */
+    private static synchronized TemplateStyleCatalog getCached(URI templateURI, String hash) {
+        final TemplateStyleCatalog res;
+
+        final TemplateStyleCatalog cached = CATALOGS.get(templateURI);
+        if (cached != null && hash != null && hash.equals(cached.hash)) {
+            res = cached;
+        } else {
+            res = null;
+        }
+
+        return res;
+    }
+
+    /**
+     * Puts the given catalog in the cache for the given template {@link URI}.
+     * 
+     * @param templateURI
+     *            the template {@link URI}
+     * @param catalog
+     *            the catalog
+     */
+    private static synchronized void putCached(URI templateURI, TemplateStyleCatalog catalog) {
+        CATALOGS.put(templateURI, catalog);
+    }
+
+    /**
+     * Reads the remaining bytes of the given {@link DigestInputStream} and gets the resulting hash.
+     * 
+     * @param is
+     *            the {@link DigestInputStream}
+     * @return the hash of the whole content if it could be read, <code>null</code> otherwise
+     */
+    public static String getHash(DigestInputStream is) {
+        String res;
+
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int nbBytes;
+            do {
+                nbBytes = is.read(buffer);
+            } while (nbBytes != -1);
+            res = DigestUtils.toHexString(is.getMessageDigest().digest());
+        } catch (IOException e) {
+            res = null;
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the mapping from the text style identifier to the style name.
+     * 
+     * @return the mapping from the text style identifier to the style name
+     */
+    public Map<String, String> getTextStyles() {
+        return textStyles;
+    }
+
+    /**
+     * Gets the mapping from the table style identifier to the style name.
+     * 
+     * @return the mapping from the table style identifier to the style name
+     */
+    public Map<String, String> getTableStyles() {
+        return tableStyles;
+    }
+
+    /**
+     * Gets the mapping from numbering ID to its number of level.
+     * 
+     * @return the mapping from numbering ID to its number of level
+     */
+    public Map<BigInteger, BigInteger> getNumberingLevels() {
+        return numberingLevels;
+    }
+
+}
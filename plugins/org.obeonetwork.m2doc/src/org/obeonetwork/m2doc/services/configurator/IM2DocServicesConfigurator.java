@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2025 Obeo. 
+ *  Copyright (c) 2025, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ package org.obeonetwork.m2doc.services.configurator;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.eclipse.acceleo.query.runtime.IReadOnlyQueryEnvironment;
 import org.eclipse.acceleo.query.services.configurator.IServicesConfigurator;
+import org.obeonetwork.m2doc.generator.GenerationResult;
 
 /**
  * An {@link IServicesConfigurator} specific to M2Doc.
@@ -32,4 +33,44 @@ public interface IM2DocServicesConfigurator extends IServicesConfigurator {
      */
     void startGeneration(IReadOnlyQueryEnvironment queryEnvironment, XWPFDocument destinationDocument);
 
+    /**
+     * Adds the {@link GenerationResult#getStatistics() statistics} of the generation for the given
+     * {@link IReadOnlyQueryEnvironment} to the given {@link GenerationResult}. It is called once the generation
+     * succeeded and before {@link #endGeneration(IReadOnlyQueryEnvironment)}.
+     * 
+     * @param queryEnvironment
+     *            the {@link IReadOnlyQueryEnvironment}
+     * @param result
+     *            the {@link GenerationResult}
+     */
+    default void addStatistics(IReadOnlyQueryEnvironment queryEnvironment, GenerationResult result) {
+        // nothing to do here by default
+    }
+
+    /**
+     * Ends the generation for the given {@link IReadOnlyQueryEnvironment}. Implementations can release what they keep
+     * for the destination document given to {@link #startGeneration(IReadOnlyQueryEnvironment, XWPFDocument)}.
+     * 
+     * @param queryEnvironment
+     *            the {@link IReadOnlyQueryEnvironment}
+     */
+    default void endGeneration(IReadOnlyQueryEnvironment queryEnvironment) {
+        // nothing to do here by default
+    }
+
+    /**
+     * Ends the generation for the given {@link IReadOnlyQueryEnvironment} and destination {@link XWPFDocument}. Several
+     * generations can run at the same time for a {@link IReadOnlyQueryEnvironment}, implementations keeping something
+     * per destination document can release it here. By default it calls
+     * {@link #endGeneration(IReadOnlyQueryEnvironment)}.
+     * 
+     * @param queryEnvironment
+     *            the {@link IReadOnlyQueryEnvironment}
+     * @param destinationDocument
+     *            the {@link XWPFDocument} given to {@link #startGeneration(IReadOnlyQueryEnvironment, XWPFDocument)}
+     */
+    default void endGeneration(IReadOnlyQueryEnvironment queryEnvironment, XWPFDocument destinationDocument) {
+        endGeneration(queryEnvironment);
+    }
+
 }
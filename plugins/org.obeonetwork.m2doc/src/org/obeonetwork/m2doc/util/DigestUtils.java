@@ -0,0 +1,105 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * MD5 hashing utilities used to key caches and to share identical parts.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public final class DigestUtils {
+
+    /**
+     * Mask.
+     */
+    private static final int MASK_16 = 16;
+
+    /**
+     * Mask.
+     */
+    private static final int MASK_0X100 = 0x100;
+
+    /**
+     * Mask.
+     */
+    private static final int MASK_0XFF = 0xff;
+
+    /**
+     * Constructor.
+     */
+    private DigestUtils() {
+        // utility class
+    }
+
+    /**
+     * Creates a new MD5 {@link MessageDigest}.
+     * 
+     * @return the created {@link MessageDigest}
+     * @throws IllegalStateException
+     *             if MD5 can't be found, every Java platform is required to support it
+     */
+    public static MessageDigest newMD5() {
+        final MessageDigest res;
+
+        try {
+            res = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 can't be found.", e);
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the MD5 hash of the given bytes.
+     * 
+     * @param bytes
+     *            the bytes
+     * @return the hexadecimal MD5 hash of the given bytes
+     */
+    public static String getMD5(byte[] bytes) {
+        return toHexString(newMD5().digest(bytes));
+    }
+
+    /**
+     * Gets the MD5 hash of the given {@link String} encoded in UTF-8.
+     * 
+     * @param text
+     *            the {@link String}
+     * @return the hexadecimal MD5 hash of the given {@link String}
+     */
+    public static String getMD5(String text) {
+        return getMD5(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the hexadecimal {@link String} representation of the given digest.
+     * 
+     * @param digest
+     *            the digest
+     * @return the hexadecimal {@link String} representation of the given digest
+     */
+    public static String toHexString(byte[] digest) {
+        final StringBuilder res = new StringBuilder();
+
+        for (int i = 0; i < digest.length; i++) {
+            res.append(Integer.toString((digest[i] & MASK_0XFF) + MASK_0X100, MASK_16).substring(1));
+        }
+
+        return res.toString();
+    }
+
+}
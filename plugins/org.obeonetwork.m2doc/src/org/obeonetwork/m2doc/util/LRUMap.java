@@ -0,0 +1,201 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link LinkedHashMap} in least recently used order that evicts its eldest entries when an insertion exceeds its
+ * budget. By default each entry weighs <code>1</code> and the budget is the maximum number of entries. With a weigher
+ * the budget is the maximum total weight (bytes, ...), it is kept up to date by {@link #put(Object, Object) put},
+ * {@link #remove(Object) remove}, and {@link #clear() clear}. This map is not synchronized.
+ * 
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class LRUMap<K, V> extends LinkedHashMap<K, V> {
+
+    /**
+     * The serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The initial capacity of the map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor of the map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The budget.
+     */
+    private final long budget;
+
+    /**
+     * The weigher of values if any, <code>null</code> if each entry weighs <code>1</code>.
+     */
+    private final transient ToLongFunction<? super V> weigher;
+
+    /**
+     * The listener notified of evicted entries if any, <code>null</code> otherwise.
+     */
+    private final transient BiConsumer<? super K, ? super V> evictionListener;
+
+    /**
+     * The current total weight when a {@link #weigher} is given.
+     */
+    private long weight;
+
+    /**
+     * Constructor.
+     * 
+     * @param capacity
+     *            the maximum number of entries
+     */
+    public LRUMap(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param capacity
+     *            the maximum number of entries
+     * @param evictionListener
+     *            the listener notified of evicted entries, <code>null</code> for none
+     */
+    public LRUMap(int capacity, BiConsumer<? super K, ? super V> evictionListener) {
+        this(capacity, null, evictionListener);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param budget
+     *            the maximum total weight
+     * @param weigher
+     *            the weigher of values, <code>null</code> if each entry weighs <code>1</code>
+     * @param evictionListener
+     *            the listener notified of evicted entries, <code>null</code> for none
+     */
+    public LRUMap(long budget, ToLongFunction<? super V> weigher,
+            BiConsumer<? super K, ? super V> evictionListener) {
+        super(INITIAL_CAPACITY, LOAD_FACTOR, true);
+        this.budget = budget;
+        this.weigher = weigher;
+        this.evictionListener = evictionListener;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (weigher != null) {
+            weight += weigher.applyAsLong(value);
+        }
+        final V res = super.put(key, value);
+        if (res != null) {
+            if (weigher != null) {
+                weight -= weigher.applyAsLong(res);
+            }
+            // replacing a value doesn't call removeEldestEntry()
+            evict();
+        }
+
+        return res;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        final V res = super.remove(key);
+
+        if (res != null && weigher != null) {
+            weight -= weigher.applyAsLong(res);
+        }
+
+        return res;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        weight = 0;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Entry<K, V> eldest) {
+        evict();
+
+        // entries are already removed by evict()
+        return false;
+    }
+
+    /**
+     * Gets the current total weight.
+     * 
+     * @return the current total weight, the number of entries if no weigher is given
+     */
+    public long getWeight() {
+        final long res;
+
+        if (weigher != null) {
+            res = weight;
+        } else {
+            res = size();
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the budget.
+     * 
+     * @return the budget
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Evicts the least recently used entries until the {@link #getBudget() budget} is met.
+     */
+    private void evict() {
+        final Iterator<Entry<K, V>> it = entrySet().iterator();
+        while (getWeight() > budget && it.hasNext()) {
+            final Entry<K, V> entry = it.next();
+            it.remove();
+            if (weigher != null) {
+                weight -= weigher.applyAsLong(entry.getValue());
+            }
+            if (evictionListener != null) {
+                evictionListener.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+}
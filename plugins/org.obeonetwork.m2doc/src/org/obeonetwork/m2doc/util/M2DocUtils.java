@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2016, 2025 Obeo. 
+ *  Copyright (c) 2016, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -13,8 +13,10 @@ package org.obeonetwork.m2doc.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -72,11 +74,13 @@ import org.obeonetwork.m2doc.parser.ValidationMessageLevel;
 import org.obeonetwork.m2doc.properties.TemplateCustomProperties;
 import org.obeonetwork.m2doc.services.BooleanServices;
 import org.obeonetwork.m2doc.services.DocumentServiceConfigurator;
-import org.obeonetwork.m2doc.services.ExcelServices;
+import org.obeonetwork.m2doc.services.ExcelServicesConfigurator;
 import org.obeonetwork.m2doc.services.GenerationResultServices;
-import org.obeonetwork.m2doc.services.ImageServices;
+import org.obeonetwork.m2doc.services.ImageServicesConfigurator;
 import org.obeonetwork.m2doc.services.LinkServices;
 import org.obeonetwork.m2doc.services.PaginationServices;
+import org.obeonetwork.m2doc.services.TableServices;
+import org.obeonetwork.m2doc.services.TemplateStyleCatalog;
 import org.obeonetwork.m2doc.services.configurator.IM2DocServicesConfigurator;
 import org.obeonetwork.m2doc.template.Block;
 import org.obeonetwork.m2doc.template.DocumentTemplate;
@@ -176,6 +180,24 @@ public final class M2DocUtils {
      */
     public static final String IGNORE_VERSION_CHECK_OPTION = "IgnoreVersionCheck";
 
+    /**
+     * The incremental generation option: top level repetition iterations with unchanged fingerprints are copied from
+     * the previous generated document.
+     */
+    public static final String INCREMENTAL_OPTION = "Incremental";
+
+    /**
+     * The SVG target DPI option: SVG images are rasterized for their displayed size at this resolution instead of
+     * their intrinsic size.
+     */
+    public static final String SVG_TARGET_DPI_OPTION = "SVGTargetDPI";
+
+    /**
+     * The SVG spill folder option: the folder where rasterized SVG images evicted from memory are written during the
+     * generation.
+     */
+    public static final String SVG_SPILL_FOLDER_OPTION = "SVGSpillFolder";
+
     /**
      * Separator between the text of a M2DOC template element and a corresponding parsing error and between two parsing error.
      */
@@ -237,6 +259,12 @@ public final class M2DocUtils {
      */
     private static final String UNABLE_TO_OPEN = "Unable to open ";
 
+    /**
+     * The options requesting the time stamp of a file.
+     */
+    private static final Map<String, Set<String>> TIME_STAMP_OPTIONS = Collections.singletonMap(
+            URIConverter.OPTION_REQUESTED_ATTRIBUTES, Collections.singleton(URIConverter.ATTRIBUTE_TIME_STAMP));
+
     /**
      * The generate total monitor work.
      */
@@ -248,6 +276,10 @@ public final class M2DocUtils {
         if (!EMFPlugin.IS_ECLIPSE_RUNNING) {
             AQLUtils.registerServicesConfigurator(
                     new ServicesConfiguratorDescriptor(M2DOC_LANGUAGE, new DocumentServiceConfigurator()));
+            AQLUtils.registerServicesConfigurator(
+                    new ServicesConfiguratorDescriptor(M2DOC_LANGUAGE, new ExcelServicesConfigurator()));
+            AQLUtils.registerServicesConfigurator(
+                    new ServicesConfiguratorDescriptor(M2DOC_LANGUAGE, new ImageServicesConfigurator()));
         }
     }
 
@@ -491,21 +523,25 @@ public final class M2DocUtils {
     public static IQualifiedNameQueryEnvironment getQueryEnvironment(IQualifiedNameResolver resolver,
             ResourceSet resourceSetForModels, CrossReferenceProvider crossReferenceProvider,
             IRootEObjectProvider rootProvider, URI templateURI, Map<String, String> options, boolean forWorkspace) {
+        final Map<String, String> environmentOptions;
+        if (templateURI != null && !options.containsKey(TEMPLATE_URI_OPTION)) {
+            // services configurators resolve relative URIs against the template
+            environmentOptions = new LinkedHashMap<>(options);
+            environmentOptions.put(TEMPLATE_URI_OPTION, templateURI.toString());
+        } else {
+            environmentOptions = options;
+        }
         final IQualifiedNameQueryEnvironment queryEnvironment = AQLUtils.newQualifiedNameEnvironmentDefaultServices(
-                M2DOC_LANGUAGE, options, resolver, resourceSetForModels, forWorkspace);
+                M2DOC_LANGUAGE, environmentOptions, resolver, resourceSetForModels, forWorkspace);
 
         Set<IService<?>> services = ServiceUtils.getServices(queryEnvironment, BooleanServices.class);
         ServiceUtils.registerServices(queryEnvironment, services);
         services = ServiceUtils.getServices(queryEnvironment, LinkServices.class);
         ServiceUtils.registerServices(queryEnvironment, services);
-        services = ServiceUtils.getServices(queryEnvironment,
-                new PaginationServices(resourceSetForModels.getURIConverter(), templateURI));
-        ServiceUtils.registerServices(queryEnvironment, services);
-        services = ServiceUtils.getServices(queryEnvironment,
-                new ImageServices(resourceSetForModels.getURIConverter(), templateURI));
+        services = ServiceUtils.getServices(queryEnvironment, TableServices.class);
         ServiceUtils.registerServices(queryEnvironment, services);
         services = ServiceUtils.getServices(queryEnvironment,
-                new ExcelServices(resourceSetForModels.getURIConverter(), templateURI));
+                new PaginationServices(resourceSetForModels.getURIConverter(), templateURI));
         ServiceUtils.registerServices(queryEnvironment, services);
         services = ServiceUtils.getServices(queryEnvironment, new GenerationResultServices());
         ServiceUtils.registerServices(queryEnvironment, services);
@@ -541,9 +577,12 @@ public final class M2DocUtils {
             monitor.beginTask("Parsing " + templateURI, TOTAL_PARSE_MONITOR_WORK);
             monitor.subTask("Loading template");
             // resources are closed in DocumentTemplate.close()
-            final InputStream is = uriConverter.createInputStream(templateURI);
+            final DigestInputStream is = new DigestInputStream(uriConverter.createInputStream(templateURI),
+                    DigestUtils.newMD5());
             final OPCPackage oPackage = OPCPackage.open(is);
             final XWPFDocument document = new XWPFDocument(oPackage);
+            // the style catalog is keyed by the hash of the whole template content
+            TemplateStyleCatalog.register(templateURI, TemplateStyleCatalog.getHash(is), document);
 
             nextSubTask(monitor, LOAD_TEMPLATE_MONITOR_WORK, "Parsing template custom properties");
 
@@ -820,7 +859,22 @@ public final class M2DocUtils {
 
             nextSubTask(monitor, TEMPLATE_SERVICES_MONITOR_WORK, "Generating");
 
-            final GenerationResult result = evaluator.generate(mainDocument, variables, destinationDocument);
+            final GenerationResult result;
+            try {
+                result = evaluator.generate(mainDocument, variables, destinationDocument);
+                for (IServicesConfigurator configurator : AQLUtils.getServicesConfigurators(M2DOC_LANGUAGE)) {
+                    if (configurator instanceof IM2DocServicesConfigurator) {
+                        ((IM2DocServicesConfigurator) configurator).addStatistics(queryEnvironment, result);
+                    }
+                }
+            } finally {
+                for (IServicesConfigurator configurator : AQLUtils.getServicesConfigurators(M2DOC_LANGUAGE)) {
+                    if (configurator instanceof IM2DocServicesConfigurator) {
+                        ((IM2DocServicesConfigurator) configurator).endGeneration(queryEnvironment,
+                                destinationDocument);
+                    }
+                }
+            }
 
             nextSubTask(monitor, 0, "Saving lost files");
             // monitor.subTask("Saving lost files");
@@ -924,6 +978,7 @@ public final class M2DocUtils {
 
         res.add(UPDATE_FIELDS_OPTION);
         res.add(IGNORE_VERSION_CHECK_OPTION);
+        res.add(INCREMENTAL_OPTION);
 
         return res;
     }
@@ -1072,4 +1127,18 @@ public final class M2DocUtils {
         return result;
     }
 
+    /**
+     * Gets the time stamp of the file at the given {@link URI}. Caches use it to know if a file changed since it was
+     * read.
+     * 
+     * @param uriConverter
+     *            the {@link URIConverter}
+     * @param uri
+     *            the file {@link URI}
+     * @return the time stamp of the file at the given {@link URI} if known, <code>null</code> otherwise
+     */
+    public static Long getTimeStamp(URIConverter uriConverter, URI uri) {
+        return (Long) uriConverter.getAttributes(uri, TIME_STAMP_OPTIONS).get(URIConverter.ATTRIBUTE_TIME_STAMP);
+    }
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2018, 2021 Obeo. 
+ *  Copyright (c) 2018, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -14,8 +14,14 @@ package org.obeonetwork.m2doc.html.tests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
+import org.obeonetwork.m2doc.html.tests.services.CSSCascadeTests;
 import org.obeonetwork.m2doc.html.tests.services.CSSTests;
+import org.obeonetwork.m2doc.html.tests.services.HTMLCacheStatisticsTests;
+import org.obeonetwork.m2doc.html.tests.services.HTMLBlockReaderTests;
+import org.obeonetwork.m2doc.html.tests.services.HTMLResourceCacheTests;
+import org.obeonetwork.m2doc.html.tests.services.HTMLStreamedGenerationTests;
 import org.obeonetwork.m2doc.html.tests.services.HTMLTests;
+import org.obeonetwork.m2doc.html.tests.services.M2DocHTMLParserSVGTests;
 import org.obeonetwork.m2doc.html.tests.services.M2DocHTMLServicesTests;
 
 /**
@@ -24,7 +30,10 @@ import org.obeonetwork.m2doc.html.tests.services.M2DocHTMLServicesTests;
  * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
  */
 @RunWith(Suite.class)
-@SuiteClasses(value = {M2DocHTMLServicesTests.class, HTMLTests.class, CSSTests.class, })
+@SuiteClasses(value = {M2DocHTMLServicesTests.class, HTMLTests.class, CSSTests.class,
+    HTMLBlockReaderTests.class, CSSCascadeTests.class, HTMLResourceCacheTests.class,
+    HTMLStreamedGenerationTests.class, M2DocHTMLParserSVGTests.class,
+    HTMLCacheStatisticsTests.class, })
 public class AllTests {
 
 }
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.tests.services;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+import org.obeonetwork.m2doc.html.services.CSSCascade;
+import org.obeonetwork.m2doc.html.services.M2DocCSSParser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@link CSSCascade} and the comment removal of {@link M2DocCSSParser#parseClasses(String)}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class CSSCascadeTests {
+
+    /**
+     * The color property.
+     */
+    private static final String COLOR = "color";
+
+    /**
+     * The style sheet used by tests.
+     */
+    private static final String STYLE_SHEET = "p { color: red; font-size: 10px; } .c { color: blue; }";
+
+    /**
+     * The {@link M2DocCSSParser}.
+     */
+    private final M2DocCSSParser parser = new M2DocCSSParser();
+
+    /**
+     * Gets the first {@link Element} with the given tag name in the given HTML.
+     * 
+     * @param html
+     *            the HTML
+     * @param tagName
+     *            the tag name
+     * @return the first {@link Element} with the given tag name in the given HTML
+     */
+    private Element getElement(String html, String tagName) {
+        return Jsoup.parse(html).getElementsByTag(tagName).get(0);
+    }
+
+    @Test
+    public void getCSSProperties() {
+        final CSSCascade cascade = new CSSCascade(parser);
+        cascade.merge(parser.parseClasses(STYLE_SHEET));
+
+        final Map<String, List<String>> tagProperties = cascade.getCSSProperties(getElement("<p>x</p>", "p"));
+        final Map<String, List<String>> classProperties = cascade
+                .getCSSProperties(getElement("<p class=\"c\">x</p>", "p"));
+        final Map<String, List<String>> styleProperties = cascade
+                .getCSSProperties(getElement("<p class=\"c\" style=\"color: green\">x</p>", "p"));
+
+        assertEquals(Collections.singletonList("red"), tagProperties.get(COLOR));
+        assertEquals(Collections.singletonList("10px"), tagProperties.get("font-size"));
+        assertEquals(Collections.singletonList("blue"), classProperties.get(COLOR));
+        assertEquals(Collections.singletonList("10px"), classProperties.get("font-size"));
+        assertEquals(Collections.singletonList("green"), styleProperties.get(COLOR));
+    }
+
+    @Test
+    public void getCSSPropertiesMemoized() {
+        final CSSCascade cascade = new CSSCascade(parser);
+        cascade.merge(parser.parseClasses(STYLE_SHEET));
+
+        final Map<String, List<String>> first = cascade.getCSSProperties(getElement("<p class=\"c\">x</p>", "p"));
+        final Map<String, List<String>> second = cascade.getCSSProperties(getElement("<p class=\"c\">y</p>", "p"));
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void mergeChanged() {
+        final CSSCascade cascade = new CSSCascade(parser);
+        cascade.merge(parser.parseClasses(STYLE_SHEET));
+        final int version = cascade.getVersion();
+        final Element element = getElement("<p>x</p>", "p");
+        final Map<String, List<String>> before = cascade.getCSSProperties(element);
+
+        cascade.merge(parser.parseClasses("p { color: black; }"));
+
+        assertEquals(version + 1, cascade.getVersion());
+        final Map<String, List<String>> after = cascade.getCSSProperties(element);
+        assertNotSame(before, after);
+        assertEquals(Collections.singletonList("black"), after.get(COLOR));
+        assertEquals(Collections.singletonList("10px"), after.get("font-size"));
+    }
+
+    @Test
+    public void mergeUnchanged() {
+        final CSSCascade cascade = new CSSCascade(parser);
+        final Map<String, Map<String, List<String>>> cssClasses = parser.parseClasses(STYLE_SHEET);
+        cascade.merge(cssClasses);
+        final int version = cascade.getVersion();
+
+        cascade.merge(cssClasses);
+        cascade.merge(parser.parseClasses(STYLE_SHEET));
+        cascade.merge(parser.parseClasses("p { color: red; }"));
+
+        assertEquals(version, cascade.getVersion());
+    }
+
+    @Test
+    public void parseClassesComments() {
+        final Map<String, Map<String, List<String>>> cssClasses = parser
+                .parseClasses("/* p { color: black; } */ p /* first */ { color: red; } /* h1 */ h1 { color: blue; }");
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("p", "h1")), cssClasses.keySet());
+        assertEquals(Collections.singletonList("red"), cssClasses.get("p").get(COLOR));
+    }
+
+    @Test
+    public void parseClassesMultiLineComment() {
+        final Map<String, Map<String, List<String>>> cssClasses = parser
+                .parseClasses("p { color: red; } /* h1 {\ncolor: blue; } */");
+
+        // comments spanning several lines are not removed
+        assertEquals(new LinkedHashSet<>(Arrays.asList("p", "* h1")), cssClasses.keySet());
+    }
+
+    @Test
+    public void parseClassesUnterminatedComment() {
+        final Map<String, Map<String, List<String>>> cssClasses = parser
+                .parseClasses("p { color: red; } /* h1 { color: blue; }");
+
+        // unterminated comments are not removed
+        assertEquals(new LinkedHashSet<>(Arrays.asList("p", "* h1")), cssClasses.keySet());
+    }
+
+}
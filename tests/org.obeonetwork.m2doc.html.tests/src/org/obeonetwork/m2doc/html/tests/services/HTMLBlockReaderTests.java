@@ -0,0 +1,123 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.tests.services;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.obeonetwork.m2doc.html.services.HTMLBlockReader;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link HTMLBlockReader}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class HTMLBlockReaderTests {
+
+    /**
+     * The start of documents following the first one.
+     */
+    private static final String START = "<html><head></head><body>";
+
+    /**
+     * The end of documents.
+     */
+    private static final String END = "</body></html>";
+
+    @Test
+    public void blocks() throws IOException {
+        final List<String> documents = readDocuments(
+                "<html><head><title>t</title></head><body>text <b>b</b><p>one</p><div><div>x</div></div>tail"
+                    + "</body></html>");
+
+        assertEquals(3, documents.size());
+        assertEquals("<html><head><title>t</title></head><body>text <b>b</b><p>one</p>" + END, documents.get(0));
+        assertEquals(START + "<div><div>x</div></div>" + END, documents.get(1));
+        assertEquals(START + "tail" + END, documents.get(2));
+    }
+
+    @Test
+    public void rawText() throws IOException {
+        final List<String> documents = readDocuments(
+                "<html><head><script>if (a<b) { s = '<body>'; }</script></head><body><style>p {}</style><p>one</p>"
+                    + "</body></html>");
+
+        assertEquals(1, documents.size());
+        assertEquals("<html><head><script>if (a<b) { s = '<body>'; }</script></head><body><style>p {}</style><p>one</p>"
+            + END, documents.get(0));
+    }
+
+    @Test
+    public void comment() throws IOException {
+        final List<String> documents = readDocuments("<body><!-- <p> --><p>one</p><p>two</p></body>");
+
+        assertEquals(2, documents.size());
+        assertEquals("<body><!-- <p> --><p>one</p>" + END, documents.get(0));
+        assertEquals(START + "<p>two</p>" + END, documents.get(1));
+    }
+
+    @Test
+    public void implicitlyClosedTags() throws IOException {
+        final List<String> documents = readDocuments("<body><ul><li>a<li>b</ul><p>one<p>two<hr></body>");
+
+        assertEquals(4, documents.size());
+        assertEquals("<body><ul><li>a<li>b</ul>" + END, documents.get(0));
+        assertEquals(START + "<p>one" + END, documents.get(1));
+        assertEquals(START + "<p>two" + END, documents.get(2));
+        assertEquals(START + "<hr>" + END, documents.get(3));
+    }
+
+    @Test
+    public void bodyAttributes() throws IOException {
+        final List<String> documents = readDocuments("<body bgcolor=\"red\"><p>one</p><p>two</p></body>");
+
+        assertEquals(2, documents.size());
+        assertEquals("<html><head></head><body bgcolor=\"red\"><p>two</p>" + END, documents.get(1));
+    }
+
+    @Test
+    public void noBody() throws IOException {
+        final List<String> documents = readDocuments("<p>one</p><p>two</p>");
+
+        assertEquals(1, documents.size());
+        assertEquals("<p>one</p><p>two</p>", documents.get(0));
+    }
+
+    /**
+     * Reads all documents from the given HTML.
+     * 
+     * @param html
+     *            the HTML
+     * @return the {@link List} of read documents
+     * @throws IOException
+     *             if the HTML can't be read
+     */
+    private List<String> readDocuments(String html) throws IOException {
+        final List<String> res = new ArrayList<>();
+
+        try (HTMLBlockReader reader = new HTMLBlockReader(new StringReader(html))) {
+            String document = reader.nextDocument();
+            while (document != null) {
+                res.add(document);
+                document = reader.nextDocument();
+            }
+        }
+
+        return res;
+    }
+
+}
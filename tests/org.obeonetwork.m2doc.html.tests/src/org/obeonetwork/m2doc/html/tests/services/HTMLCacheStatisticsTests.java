@@ -0,0 +1,200 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.tests.services;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.eclipse.acceleo.query.AQLUtils;
+import org.eclipse.acceleo.query.runtime.impl.namespace.ClassLoaderQualifiedNameResolver;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameResolver;
+import org.eclipse.acceleo.query.services.configurator.IServicesConfiguratorDescriptor;
+import org.eclipse.acceleo.query.services.configurator.ServicesConfiguratorDescriptor;
+import org.eclipse.emf.common.EMFPlugin;
+import org.eclipse.emf.common.util.BasicMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.obeonetwork.m2doc.generator.GenerationResult;
+import org.obeonetwork.m2doc.generator.M2DocEvaluationEnvironment;
+import org.obeonetwork.m2doc.html.services.HTMLServicesConfigurator;
+import org.obeonetwork.m2doc.properties.TemplateCustomProperties;
+import org.obeonetwork.m2doc.template.DocumentTemplate;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link GenerationResult#getStatistics() statistics} of the HTML fragment cache.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class HTMLCacheStatisticsTests {
+
+    /**
+     * The {@link HTMLServicesConfigurator}.
+     */
+    private static final IServicesConfiguratorDescriptor CONFIGURATOR_DESCRIPTOR = new ServicesConfiguratorDescriptor(
+            M2DocUtils.M2DOC_LANGUAGE, new HTMLServicesConfigurator());
+
+    /**
+     * The template qualified name.
+     */
+    private static final String TEMPLATE_NAME = "htmlCacheStatistics";
+
+    /**
+     * The template instruction inserting the HTML fragment.
+     */
+    private static final String INSTRUCTION = "'<p>shared disclaimer</p>'.fromHTMLBodyString()";
+
+    /**
+     * The folder containing the template and the generated document.
+     */
+    private File folder;
+
+    /**
+     * The template {@link File}.
+     */
+    private File templateFile;
+
+    /**
+     * The generated {@link File}.
+     */
+    private File outputFile;
+
+    /**
+     * Register the {@link HTMLServicesConfigurator} if needed.
+     */
+    @BeforeClass
+    public static void beforeClass() {
+        if (!EMFPlugin.IS_ECLIPSE_RUNNING) {
+            AQLUtils.registerServicesConfigurator(CONFIGURATOR_DESCRIPTOR);
+        }
+    }
+
+    /**
+     * Unregister the {@link HTMLServicesConfigurator} if needed.
+     */
+    @AfterClass
+    public static void afterClass() {
+        if (!EMFPlugin.IS_ECLIPSE_RUNNING) {
+            AQLUtils.unregisterServicesConfigurator(CONFIGURATOR_DESCRIPTOR);
+        }
+    }
+
+    @Before
+    public void before() throws IOException {
+        folder = Files.createTempDirectory(TEMPLATE_NAME).toFile();
+        templateFile = new File(folder, TEMPLATE_NAME + ".docx");
+        outputFile = new File(folder, TEMPLATE_NAME + "-generation.docx");
+    }
+
+    @After
+    public void after() {
+        templateFile.delete();
+        outputFile.delete();
+        folder.delete();
+    }
+
+    @Test
+    public void insertedTwice() throws Exception {
+        createTemplate(INSTRUCTION, INSTRUCTION);
+
+        final GenerationResult result = generate();
+
+        assertTrue(result.getMessages().isEmpty());
+        assertEquals(1L, result.getStatistics().get("HTML fragment cache hits"));
+        assertEquals(1L, result.getStatistics().get("HTML fragment cache misses"));
+        assertEquals(0.5d, result.getStatistics().get("HTML fragment cache hit ratio"));
+    }
+
+    @Test
+    public void insertedOnce() throws Exception {
+        createTemplate(INSTRUCTION);
+
+        final GenerationResult result = generate();
+
+        assertTrue(result.getMessages().isEmpty());
+        assertEquals(0L, result.getStatistics().get("HTML fragment cache hits"));
+        assertEquals(1L, result.getStatistics().get("HTML fragment cache misses"));
+        assertEquals(0d, result.getStatistics().get("HTML fragment cache hit ratio"));
+    }
+
+    /**
+     * Creates a template with a paragraph for each of the given field instructions.
+     * 
+     * @param instructions
+     *            the field instructions without the <code>m:</code> prefix
+     * @throws IOException
+     *             if the template can't be written
+     */
+    private void createTemplate(String... instructions) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+                OutputStream os = new FileOutputStream(templateFile)) {
+            for (String instruction : instructions) {
+                document.createParagraph().createRun().setText(M2DocUtils.M_FIELD_START + instruction
+                    + M2DocUtils.FIELD_END);
+            }
+            final TemplateCustomProperties properties = new TemplateCustomProperties(document);
+            properties.setM2DocVersion(M2DocUtils.VERSION);
+            properties.save();
+            document.write(os);
+        }
+    }
+
+    /**
+     * Generates the template.
+     * 
+     * @return the {@link GenerationResult}
+     * @throws Exception
+     *             if the generation fails
+     */
+    private GenerationResult generate() throws Exception {
+        final GenerationResult res;
+
+        final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+        final URI outputURI = URI.createFileURI(outputFile.getAbsolutePath());
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        final IQualifiedNameResolver resolver = new ClassLoaderQualifiedNameResolver(getClass().getClassLoader(),
+                EPackage.Registry.INSTANCE, M2DocUtils.QUALIFIER_SEPARATOR);
+        final IQualifiedNameQueryEnvironment queryEnvironment = M2DocUtils.getQueryEnvironment(resolver,
+                resourceSet, templateURI, Collections.emptyMap(), false);
+        final M2DocEvaluationEnvironment m2docEnv = new M2DocEvaluationEnvironment(resolver, resourceSet,
+                templateURI, outputURI);
+        try (DocumentTemplate documentTemplate = M2DocUtils.parse(resourceSet.getURIConverter(), templateURI,
+                TEMPLATE_NAME, new BasicMonitor())) {
+            resolver.register(TEMPLATE_NAME, documentTemplate);
+            M2DocUtils.prepareEnvironment(queryEnvironment, EPackage.Registry.INSTANCE, documentTemplate);
+            res = M2DocUtils.generate(m2docEnv, documentTemplate, Collections.emptyMap(), false,
+                    new BasicMonitor());
+        } finally {
+            AQLUtils.cleanServices(M2DocUtils.M2DOC_LANGUAGE, queryEnvironment, resourceSet);
+            resolver.dispose();
+        }
+
+        return res;
+    }
+
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.tests.services;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
+import org.obeonetwork.m2doc.html.services.HTMLResourceCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@link HTMLResourceCache}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class HTMLResourceCacheTests {
+
+    /**
+     * The time stamp shift used to simulate a modification of the file.
+     */
+    private static final long TIME_STAMP_SHIFT = 2000L;
+
+    /**
+     * The color property.
+     */
+    private static final String COLOR = "color";
+
+    /**
+     * The style sheet {@link File}.
+     */
+    private File cssFile;
+
+    /**
+     * The {@link HTMLResourceCache} to test.
+     */
+    private HTMLResourceCache cache;
+
+    @Before
+    public void before() throws IOException {
+        cssFile = File.createTempFile("htmlResourceCache", ".css");
+        cache = new HTMLResourceCache(new ExtensibleURIConverterImpl(), new ImageStore(0, 0));
+    }
+
+    @After
+    public void after() {
+        cssFile.delete();
+    }
+
+    /**
+     * Writes the given CSS to the style sheet {@link File}.
+     * 
+     * @param css
+     *            the CSS
+     * @throws IOException
+     *             if the file can't be written
+     */
+    private void writeCSS(String css) throws IOException {
+        try (OutputStream os = new FileOutputStream(cssFile)) {
+            os.write(css.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Gets the {@link URI} of the style sheet {@link File}.
+     * 
+     * @return the {@link URI} of the style sheet {@link File}
+     */
+    private URI getCSSURI() {
+        return URI.createFileURI(cssFile.getAbsolutePath());
+    }
+
+    @Test
+    public void getStylesheet() throws IOException {
+        writeCSS("p { color: red; }");
+
+        final Map<String, Map<String, List<String>>> first = cache.getStylesheet(getCSSURI());
+        final Map<String, Map<String, List<String>>> second = cache.getStylesheet(getCSSURI());
+
+        assertEquals(Collections.singletonList("red"), first.get("p").get(COLOR));
+        assertSame(first, second);
+    }
+
+    @Test
+    public void getStylesheetChanged() throws IOException {
+        writeCSS("p { color: red; }");
+        final Map<String, Map<String, List<String>>> first = cache.getStylesheet(getCSSURI());
+
+        final long timeStamp = cssFile.lastModified();
+        writeCSS("p { color: blue; }");
+        cssFile.setLastModified(timeStamp + TIME_STAMP_SHIFT);
+        final Map<String, Map<String, List<String>>> second = cache.getStylesheet(getCSSURI());
+
+        assertNotSame(first, second);
+        assertEquals(Collections.singletonList("blue"), second.get("p").get(COLOR));
+        assertSame(second, cache.getStylesheet(getCSSURI()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getStylesheetUnmodifiable() throws IOException {
+        writeCSS("p { color: red; }");
+
+        cache.getStylesheet(getCSSURI()).clear();
+    }
+
+    @Test(expected = IOException.class)
+    public void getStylesheetMissing() throws IOException {
+        cssFile.delete();
+
+        cache.getStylesheet(getCSSURI());
+    }
+
+    @Test
+    public void getImageMissing() {
+        final URI uri = URI.createFileURI(cssFile.getAbsolutePath() + ".png");
+
+        assertEquals(uri, cache.getImage(uri, PictureType.PNG).getURI());
+    }
+
+}
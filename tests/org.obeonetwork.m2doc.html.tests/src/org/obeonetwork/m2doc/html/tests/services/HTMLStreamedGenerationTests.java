@@ -0,0 +1,333 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.tests.services;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.eclipse.acceleo.query.AQLUtils;
+import org.eclipse.acceleo.query.runtime.impl.namespace.ClassLoaderQualifiedNameResolver;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameResolver;
+import org.eclipse.acceleo.query.services.configurator.IServicesConfiguratorDescriptor;
+import org.eclipse.acceleo.query.services.configurator.ServicesConfiguratorDescriptor;
+import org.eclipse.emf.common.EMFPlugin;
+import org.eclipse.emf.common.util.BasicMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MStreamedList;
+import org.obeonetwork.m2doc.element.impl.MStreamedListImpl;
+import org.obeonetwork.m2doc.generator.GenerationResult;
+import org.obeonetwork.m2doc.generator.M2DocEvaluationEnvironment;
+import org.obeonetwork.m2doc.html.services.HTMLElementIterator;
+import org.obeonetwork.m2doc.html.services.HTMLServicesConfigurator;
+import org.obeonetwork.m2doc.html.services.M2DocHTMLParser;
+import org.obeonetwork.m2doc.html.services.M2DocHTMLServices;
+import org.obeonetwork.m2doc.parser.TemplateValidationMessage;
+import org.obeonetwork.m2doc.parser.ValidationMessageLevel;
+import org.obeonetwork.m2doc.properties.TemplateCustomProperties;
+import org.obeonetwork.m2doc.template.DocumentTemplate;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the insertion of {@link M2DocHTMLServices#fromHTMLURIStreamed(String)}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class HTMLStreamedGenerationTests {
+
+    /**
+     * The {@link HTMLServicesConfigurator}.
+     */
+    private static final IServicesConfiguratorDescriptor CONFIGURATOR_DESCRIPTOR = new ServicesConfiguratorDescriptor(
+            M2DocUtils.M2DOC_LANGUAGE, new HTMLServicesConfigurator());
+
+    /**
+     * The template qualified name.
+     */
+    private static final String TEMPLATE_NAME = "htmlStreamed";
+
+    /**
+     * The HTML file name.
+     */
+    private static final String HTML_FILE_NAME = "streamed.html";
+
+    /**
+     * The template instruction inserting the HTML file.
+     */
+    private static final String INSTRUCTION = "'" + HTML_FILE_NAME + "'.fromHTMLURIStreamed()";
+
+    /**
+     * The folder containing the template, the HTML file, and the generated document.
+     */
+    private File folder;
+
+    /**
+     * The template {@link File}.
+     */
+    private File templateFile;
+
+    /**
+     * The HTML {@link File}.
+     */
+    private File htmlFile;
+
+    /**
+     * The generated {@link File}.
+     */
+    private File outputFile;
+
+    /**
+     * Register the {@link HTMLServicesConfigurator} if needed.
+     */
+    @BeforeClass
+    public static void beforeClass() {
+        if (!EMFPlugin.IS_ECLIPSE_RUNNING) {
+            AQLUtils.registerServicesConfigurator(CONFIGURATOR_DESCRIPTOR);
+        }
+    }
+
+    /**
+     * Unregister the {@link HTMLServicesConfigurator} if needed.
+     */
+    @AfterClass
+    public static void afterClass() {
+        if (!EMFPlugin.IS_ECLIPSE_RUNNING) {
+            AQLUtils.unregisterServicesConfigurator(CONFIGURATOR_DESCRIPTOR);
+        }
+    }
+
+    @Before
+    public void before() throws IOException {
+        folder = Files.createTempDirectory(TEMPLATE_NAME).toFile();
+        templateFile = new File(folder, TEMPLATE_NAME + ".docx");
+        htmlFile = new File(folder, HTML_FILE_NAME);
+        outputFile = new File(folder, TEMPLATE_NAME + "-generation.docx");
+    }
+
+    @After
+    public void after() {
+        templateFile.delete();
+        htmlFile.delete();
+        outputFile.delete();
+        folder.delete();
+    }
+
+    @Test
+    public void insert() throws Exception {
+        createTemplate(INSTRUCTION);
+        writeHTMLFile();
+
+        final GenerationResult result = generate();
+
+        assertTrue(result.getMessages().isEmpty());
+        final String text = getText();
+        assertTrue(text, text.contains("premi\u00e8re"));
+        assertTrue(text, text.contains("second"));
+        assertTrue(text, text.contains("troisi\u00e8me"));
+        assertTrue(text, text.indexOf("premi\u00e8re") < text.indexOf("troisi\u00e8me"));
+    }
+
+    @Test
+    public void insertTwice() throws Exception {
+        createTemplate("let html = " + INSTRUCTION, "html", "html", "endlet");
+        writeHTMLFile();
+
+        final GenerationResult result = generate();
+
+        assertTrue(result.getMessages().isEmpty());
+        final String text = getText();
+        assertTrue(text, text.contains("second"));
+        assertTrue(text, text.indexOf("second") < text.lastIndexOf("premi\u00e8re"));
+        assertTrue(text, text.indexOf("troisi\u00e8me") < text.lastIndexOf("second"));
+    }
+
+    @Test
+    public void listMethodsAfterIteration() throws IOException {
+        writeHTMLFile();
+        final URIConverter uriConverter = new ExtensibleURIConverterImpl();
+        final URI uri = URI.createFileURI(htmlFile.getAbsolutePath());
+        try (XWPFDocument document = new XWPFDocument()) {
+            final M2DocHTMLParser parser = new M2DocHTMLParser(uriConverter, document);
+            final MStreamedList list = new MStreamedListImpl(() -> new HTMLElementIterator(uriConverter, uri, parser));
+            int expectedSize = 0;
+            try (HTMLElementIterator it = (HTMLElementIterator) list.elementIterator()) {
+                while (it.hasNext()) {
+                    it.next();
+                    expectedSize++;
+                }
+            }
+            final Iterator<MElement> it = list.elementIterator();
+            it.next();
+            ((Closeable) it).close();
+
+            assertTrue(expectedSize > 1);
+            assertEquals(expectedSize, list.size());
+        }
+    }
+
+    @Test
+    public void repetition() throws Exception {
+        createTemplate("for element | " + INSTRUCTION, "element", "endfor");
+        writeHTMLFile();
+
+        final GenerationResult result = generate();
+
+        assertTrue(result.getMessages().isEmpty());
+        final String text = getText();
+        assertTrue(text, text.contains("premi\u00e8re"));
+        assertTrue(text, text.contains("second"));
+        assertTrue(text, text.contains("troisi\u00e8me"));
+        assertTrue(text, text.indexOf("premi\u00e8re") < text.indexOf("troisi\u00e8me"));
+    }
+
+    @Test
+    public void repetitionReadError() throws Exception {
+        createTemplate("for element | " + INSTRUCTION, "element", "endfor");
+        // a folder exists but can't be read as a file
+        htmlFile.mkdir();
+
+        final GenerationResult result = generate();
+
+        assertEquals(1, result.getMessages().size());
+        final TemplateValidationMessage message = result.getMessages().get(0);
+        assertEquals(ValidationMessageLevel.ERROR, message.getLevel());
+        assertTrue(message.getMessage(), message.getMessage().startsWith("Can't read "));
+    }
+
+    @Test
+    public void insertReadError() throws Exception {
+        createTemplate(INSTRUCTION);
+        // a folder exists but can't be read as a file
+        htmlFile.mkdir();
+
+        final GenerationResult result = generate();
+
+        assertEquals(1, result.getMessages().size());
+        final TemplateValidationMessage message = result.getMessages().get(0);
+        assertEquals(ValidationMessageLevel.ERROR, message.getLevel());
+        assertTrue(message.getMessage(), message.getMessage().startsWith("Can't read "));
+    }
+
+    /**
+     * Creates a template with a paragraph for each of the given field instructions.
+     * 
+     * @param instructions
+     *            the field instructions without the <code>m:</code> prefix
+     * @throws IOException
+     *             if the template can't be written
+     */
+    private void createTemplate(String... instructions) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+                OutputStream os = new FileOutputStream(templateFile)) {
+            for (String instruction : instructions) {
+                document.createParagraph().createRun().setText(M2DocUtils.M_FIELD_START + instruction
+                    + M2DocUtils.FIELD_END);
+            }
+            final TemplateCustomProperties properties = new TemplateCustomProperties(document);
+            properties.setM2DocVersion(M2DocUtils.VERSION);
+            properties.save();
+            document.write(os);
+        }
+    }
+
+    /**
+     * Writes the {@link #htmlFile HTML file} with three top level blocks encoded in ISO-8859-1.
+     * 
+     * @throws IOException
+     *             if the HTML file can't be written
+     */
+    private void writeHTMLFile() throws IOException {
+        try (OutputStream os = new FileOutputStream(htmlFile)) {
+            os.write(("<html><head><meta charset=\"ISO-8859-1\"></head><body><p>premi\u00e8re</p><div>second</div>"
+                + "<p>troisi\u00e8me</p></body></html>").getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    /**
+     * Gets the text of the generated document, one line per paragraph.
+     * 
+     * @return the text of the generated document
+     * @throws IOException
+     *             if the generated document can't be read
+     */
+    private String getText() throws IOException {
+        final StringBuilder res = new StringBuilder();
+
+        try (InputStream is = new FileInputStream(outputFile);
+                XWPFDocument document = new XWPFDocument(is)) {
+            for (XWPFParagraph paragraph : document.getParagraphs()) {
+                res.append(paragraph.getText()).append('\n');
+            }
+        }
+
+        return res.toString();
+    }
+
+    /**
+     * Generates the template.
+     * 
+     * @return the {@link GenerationResult}
+     * @throws Exception
+     *             if the generation fails
+     */
+    private GenerationResult generate() throws Exception {
+        final GenerationResult res;
+
+        final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+        final URI outputURI = URI.createFileURI(outputFile.getAbsolutePath());
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        final IQualifiedNameResolver resolver = new ClassLoaderQualifiedNameResolver(getClass().getClassLoader(),
+                EPackage.Registry.INSTANCE, M2DocUtils.QUALIFIER_SEPARATOR);
+        final IQualifiedNameQueryEnvironment queryEnvironment = M2DocUtils.getQueryEnvironment(resolver,
+                resourceSet, templateURI, Collections.emptyMap(), false);
+        final M2DocEvaluationEnvironment m2docEnv = new M2DocEvaluationEnvironment(resolver, resourceSet,
+                templateURI, outputURI);
+        try (DocumentTemplate documentTemplate = M2DocUtils.parse(resourceSet.getURIConverter(), templateURI,
+                TEMPLATE_NAME, new BasicMonitor())) {
+            resolver.register(TEMPLATE_NAME, documentTemplate);
+            M2DocUtils.prepareEnvironment(queryEnvironment, EPackage.Registry.INSTANCE, documentTemplate);
+            res = M2DocUtils.generate(m2docEnv, documentTemplate, Collections.emptyMap(), false,
+                    new BasicMonitor());
+        } finally {
+            AQLUtils.cleanServices(M2DocUtils.M2DOC_LANGUAGE, queryEnvironment, resourceSet);
+            resolver.dispose();
+        }
+
+        return res;
+    }
+
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.tests.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.MList;
+import org.obeonetwork.m2doc.element.MParagraph;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.MTable.MCell;
+import org.obeonetwork.m2doc.element.MTable.MRow;
+import org.obeonetwork.m2doc.html.services.M2DocHTMLParser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures {@link M2DocHTMLParser#parse(URI, String)} over a corpus of typical rich-text fragments. This class is not
+ * part of {@link org.obeonetwork.m2doc.html.tests.AllTests AllTests} since it is meant to be run on demand.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class M2DocHTMLParserBenchmarkTests {
+
+    /**
+     * The base {@link URI}.
+     */
+    private static final URI BASE_URI = URI.createURI("http://www.obeo.fr/");
+
+    /**
+     * The SVG fragment.
+     */
+    private static final String SVG = "<svg viewBox=\"0 0 10 10\" xmlns=\"http://www.w3.org/2000/svg\">"
+        + "<linearGradient id=\"g\"><stop offset=\"0\"/></linearGradient>"
+        + "<rect width=\"10\" height=\"10\" fill=\"url(#g)\"/></svg>";
+
+    /**
+     * The corpus of HTML fragments.
+     */
+    private static final String[] CORPUS = {"<p></p>",
+        "<p>The <b>component</b> shall <i>provide</i> the <a href=\"http://www.obeo.fr\">service</a>.</p>",
+        "<ul><li>first</li><li>second<br/></li><li><span style=\"color: red;\">third</span></li></ul>",
+        "<ol><li>step one</li><li>step two<ol><li>sub step</li></ol></li></ol>",
+        "<table><tbody><tr><th>Name</th><th>Value</th></tr><tr><td>a</td><td style=\"background-color: #ff0000\">1"
+            + "</td></tr><tr><td>b</td><td>2</td></tr></tbody></table>",
+        "<div style=\"display: none\">hidden</div><p>visible text<br/><br/></p>",
+        "<div hidden=\"\">" + SVG.replace("\"g\"", "\"hidden\"") + "</div><p>" + SVG + "</p>", };
+
+    /**
+     * The number of warm up iterations.
+     */
+    private static final int WARM_UP = 1000;
+
+    /**
+     * The number of measured iterations.
+     */
+    private static final int ITERATIONS = 10000;
+
+    /**
+     * The number of nano seconds in a micro second.
+     */
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    @Test
+    public void parseCorpus() throws IOException {
+        try (XWPFDocument destinationDocument = new XWPFDocument()) {
+            final M2DocHTMLParser parser = new M2DocHTMLParser(new ExtensibleURIConverterImpl(),
+                    destinationDocument);
+
+            for (int i = 0; i < WARM_UP; i++) {
+                parseAll(parser);
+            }
+            final long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                parseAll(parser);
+            }
+            final long duration = System.nanoTime() - start;
+            System.out.println(ITERATIONS * CORPUS.length + " fragments: "
+                + duration / NANOS_PER_MICRO / (ITERATIONS * CORPUS.length) + " micro seconds per fragment");
+
+            final List<MImage> images = new ArrayList<>();
+            collectAllImages(parser.parse(BASE_URI, CORPUS[CORPUS.length - 1]), images);
+            assertEquals(1, images.size());
+            try (InputStream is = images.get(0).getInputStream()) {
+                final String svg = new String(IOUtils.toByteArray(is), StandardCharsets.UTF_8);
+                assertTrue(svg.contains("viewBox"));
+                assertTrue(svg.contains("linearGradient id=\"g\""));
+            }
+        }
+    }
+
+    /**
+     * Parses all fragments of the corpus.
+     * 
+     * @param parser
+     *            the {@link M2DocHTMLParser}
+     */
+    private void parseAll(M2DocHTMLParser parser) {
+        for (String fragment : CORPUS) {
+            parser.parse(BASE_URI, fragment);
+        }
+    }
+
+    /**
+     * Collects {@link MImage} from the given {@link List} of {@link MElement}.
+     * 
+     * @param elements
+     *            the {@link MElement}
+     * @param images
+     *            the collected {@link MImage}
+     */
+    private void collectAllImages(List<MElement> elements, List<MImage> images) {
+        for (MElement element : elements) {
+            collectImages(element, images);
+        }
+    }
+
+    /**
+     * Collects {@link MImage} from the given {@link MElement}.
+     * 
+     * @param element
+     *            the {@link MElement}
+     * @param images
+     *            the collected {@link MImage}
+     */
+    private void collectImages(MElement element, List<MImage> images) {
+        if (element instanceof MImage) {
+            images.add((MImage) element);
+        } else if (element instanceof MParagraph) {
+            collectImages(((MParagraph) element).getContents(), images);
+        } else if (element instanceof MList) {
+            collectAllImages((MList) element, images);
+        } else if (element instanceof MTable) {
+            for (MRow row : ((MTable) element).getRows()) {
+                for (MCell cell : row.getCells()) {
+                    collectImages(cell.getContents(), images);
+                }
+            }
+        }
+    }
+
+}
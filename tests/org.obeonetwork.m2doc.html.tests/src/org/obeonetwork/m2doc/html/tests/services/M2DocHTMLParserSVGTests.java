@@ -0,0 +1,234 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.html.tests.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.MList;
+import org.obeonetwork.m2doc.element.MParagraph;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.MTable.MCell;
+import org.obeonetwork.m2doc.element.MTable.MRow;
+import org.obeonetwork.m2doc.html.services.M2DocHTMLParser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the binding of inline SVG to their source by {@link M2DocHTMLParser#parse(URI, String)}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class M2DocHTMLParserSVGTests {
+
+    /**
+     * The base {@link URI}.
+     */
+    private static final URI BASE_URI = URI.createURI("http://www.obeo.fr/");
+
+    /**
+     * The SVG with a rectangle.
+     */
+    private static final String RECT_SVG = "<svg viewBox=\"0 0 10 10\" xmlns=\"http://www.w3.org/2000/svg\">"
+        + "<rect width=\"10\" height=\"10\"/></svg>";
+
+    /**
+     * The SVG with a circle.
+     */
+    private static final String CIRCLE_SVG = "<svg viewBox=\"0 0 10 10\" xmlns=\"http://www.w3.org/2000/svg\">"
+        + "<circle r=\"5\"/></svg>";
+
+    /**
+     * The destination {@link XWPFDocument}.
+     */
+    private XWPFDocument destinationDocument;
+
+    /**
+     * The {@link M2DocHTMLParser} to test.
+     */
+    private M2DocHTMLParser parser;
+
+    @Before
+    public void before() {
+        destinationDocument = new XWPFDocument();
+        parser = new M2DocHTMLParser(new ExtensibleURIConverterImpl(), destinationDocument);
+    }
+
+    @After
+    public void after() throws IOException {
+        destinationDocument.close();
+    }
+
+    @Test
+    public void svgInAttribute() throws IOException {
+        final List<String> svgs = parseSVGs("<p title=\"<svg><circle/></svg>\">text</p>" + RECT_SVG);
+
+        assertEquals(1, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("<rect"));
+    }
+
+    @Test
+    public void svgInScript() throws IOException {
+        final List<String> svgs = parseSVGs("<script>var svg = '<svg><circle/></svg>';</script>" + RECT_SVG);
+
+        assertEquals(1, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("<rect"));
+    }
+
+    @Test
+    public void svgInStyle() throws IOException {
+        final List<String> svgs = parseSVGs("<style>/* <svg> */ p { color: red; }</style>" + RECT_SVG);
+
+        assertEquals(1, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("<rect"));
+    }
+
+    @Test
+    public void svgInTextarea() throws IOException {
+        final List<String> svgs = parseSVGs("<textarea><svg><circle/></svg></textarea>" + RECT_SVG);
+
+        assertEquals(1, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("<rect"));
+    }
+
+    @Test
+    public void svgInCDATA() throws IOException {
+        final List<String> svgs = parseSVGs("<p><![CDATA[<svg><circle/>]]></p>" + RECT_SVG);
+
+        assertEquals(1, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("<rect"));
+    }
+
+    @Test
+    public void svgInComment() throws IOException {
+        final List<String> svgs = parseSVGs("<!-- " + CIRCLE_SVG + " -->" + RECT_SVG);
+
+        assertEquals(1, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("<rect"));
+    }
+
+    @Test
+    public void svgInHidden() throws IOException {
+        final List<String> svgs = parseSVGs("<div hidden=\"\">" + CIRCLE_SVG + "</div>" + RECT_SVG);
+
+        assertEquals(1, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("<rect"));
+    }
+
+    @Test
+    public void svgFosterParented() throws IOException {
+        // the SVG after the row is moved before the table by the HTML parser
+        final List<String> svgs = parseSVGs(
+                "<table><tbody><tr><td>" + CIRCLE_SVG + "</td></tr>" + RECT_SVG + "</tbody></table>");
+
+        assertEquals(2, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("<rect"));
+        assertTrue(svgs.get(1), svgs.get(1).contains("<circle"));
+    }
+
+    @Test
+    public void svgCase() throws IOException {
+        final List<String> svgs = parseSVGs("<p>" + RECT_SVG.replace("<rect", "<linearGradient id=\"g\"/><rect")
+            + "</p>");
+
+        assertEquals(1, svgs.size());
+        assertTrue(svgs.get(0), svgs.get(0).contains("viewBox"));
+        assertTrue(svgs.get(0), svgs.get(0).contains("<linearGradient"));
+        assertFalse(svgs.get(0), svgs.get(0).contains("data-m2doc"));
+    }
+
+    @Test
+    public void svgEntities() throws IOException {
+        final List<String> svgs = parseSVGs("<p>" + RECT_SVG.replace("</svg>", "<text>a&nbsp;b&amp;c</text></svg>")
+            + "</p>");
+
+        assertEquals(1, svgs.size());
+        assertFalse(svgs.get(0), svgs.get(0).contains("&nbsp;"));
+        assertTrue(svgs.get(0), svgs.get(0).contains("&amp;c"));
+    }
+
+    /**
+     * Parses the given HTML and gets the source of its SVG images in document order.
+     * 
+     * @param html
+     *            the HTML
+     * @return the source of SVG images in document order
+     * @throws IOException
+     *             if an image can't be read
+     */
+    private List<String> parseSVGs(String html) throws IOException {
+        final List<String> res = new ArrayList<>();
+
+        final List<MImage> images = new ArrayList<>();
+        collectAllImages(parser.parse(BASE_URI, html), images);
+        for (MImage image : images) {
+            try (InputStream is = image.getInputStream()) {
+                res.add(new String(IOUtils.toByteArray(is), StandardCharsets.UTF_8));
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Collects {@link MImage} from the given {@link List} of {@link MElement}.
+     * 
+     * @param elements
+     *            the {@link MElement}
+     * @param images
+     *            the collected {@link MImage}
+     */
+    private void collectAllImages(List<MElement> elements, List<MImage> images) {
+        for (MElement element : elements) {
+            collectImages(element, images);
+        }
+    }
+
+    /**
+     * Collects {@link MImage} from the given {@link MElement}.
+     * 
+     * @param element
+     *            the {@link MElement}
+     * @param images
+     *            the collected {@link MImage}
+     */
+    private void collectImages(MElement element, List<MImage> images) {
+        if (element instanceof MImage) {
+            images.add((MImage) element);
+        } else if (element instanceof MParagraph) {
+            collectImages(((MParagraph) element).getContents(), images);
+        } else if (element instanceof MList) {
+            collectAllImages((MList) element, images);
+        } else if (element instanceof MTable) {
+            for (MRow row : ((MTable) element).getRows()) {
+                for (MCell cell : row.getCells()) {
+                    collectImages(cell.getContents(), images);
+                }
+            }
+        }
+    }
+
+}
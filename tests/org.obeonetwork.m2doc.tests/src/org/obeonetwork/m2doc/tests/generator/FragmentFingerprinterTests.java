@@ -0,0 +1,413 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.eclipse.acceleo.query.AQLUtils;
+import org.eclipse.acceleo.query.runtime.impl.namespace.ClassLoaderQualifiedNameResolver;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameResolver;
+import org.eclipse.emf.common.util.BasicMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.obeonetwork.m2doc.generator.FragmentFingerprinter;
+import org.obeonetwork.m2doc.generator.M2DocEvaluationEnvironment;
+import org.obeonetwork.m2doc.generator.M2DocValidator;
+import org.obeonetwork.m2doc.parser.DocumentParserException;
+import org.obeonetwork.m2doc.properties.TemplateCustomProperties;
+import org.obeonetwork.m2doc.template.DocumentTemplate;
+import org.obeonetwork.m2doc.template.Repetition;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@link FragmentFingerprinter} and {@link M2DocUtils#INCREMENTAL_OPTION incremental} generation.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class FragmentFingerprinterTests {
+
+    /**
+     * The template qualified name.
+     */
+    private static final String TEMPLATE_NAME = "fragmentFingerprinter";
+
+    /**
+     * The package variable name.
+     */
+    private static final String PACKAGE_VARIABLE = "pkg";
+
+    /**
+     * The iteration variable name.
+     */
+    private static final String ITERATION_VARIABLE = "c";
+
+    /**
+     * The text replacing a generated value in the generated document.
+     */
+    private static final String EDITED = "edited";
+
+    /**
+     * The template {@link File}.
+     */
+    private File templateFile;
+
+    /**
+     * The generated {@link File}.
+     */
+    private File outputFile;
+
+    /**
+     * The models {@link ResourceSet}.
+     */
+    private ResourceSet resourceSet;
+
+    /**
+     * The model {@link EPackage}.
+     */
+    private EPackage ePackage;
+
+    /**
+     * The super {@link EClass}.
+     */
+    private EClass superEClass;
+
+    /**
+     * The sub {@link EClass}.
+     */
+    private EClass subEClass;
+
+    @Before
+    public void before() throws IOException {
+        templateFile = File.createTempFile(TEMPLATE_NAME, ".docx");
+        outputFile = File.createTempFile(TEMPLATE_NAME + "-generation", ".docx");
+        outputFile.delete();
+        createTemplate(templateFile);
+
+        resourceSet = new ResourceSetImpl();
+        final Resource resource = new ResourceImpl(URI.createURI("test:/model.ecore"));
+        resourceSet.getResources().add(resource);
+        ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("pkg");
+        superEClass = EcoreFactory.eINSTANCE.createEClass();
+        superEClass.setName("Super");
+        ePackage.getEClassifiers().add(superEClass);
+        subEClass = EcoreFactory.eINSTANCE.createEClass();
+        subEClass.setName("Sub");
+        subEClass.getESuperTypes().add(superEClass);
+        ePackage.getEClassifiers().add(subEClass);
+        resource.getContents().add(ePackage);
+    }
+
+    @After
+    public void after() {
+        templateFile.delete();
+        outputFile.delete();
+    }
+
+    @Test
+    public void sameInputs() throws Exception {
+        final String fingerprint = getFingerprint(subEClass, 1);
+
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, getFingerprint(subEClass, 1));
+    }
+
+    @Test
+    public void otherIterationValue() throws Exception {
+        assertNotEquals(getFingerprint(subEClass, 1), getFingerprint(superEClass, 1));
+    }
+
+    @Test
+    public void unreadIndex() throws Exception {
+        assertEquals(getFingerprint(subEClass, 1), getFingerprint(subEClass, 2));
+    }
+
+    @Test
+    public void referencedElementChanged() throws Exception {
+        final String fingerprint = getFingerprint(subEClass, 1);
+
+        superEClass.setName("OtherSuper");
+
+        assertNotEquals(fingerprint, getFingerprint(subEClass, 1));
+    }
+
+    @Test
+    public void containerChanged() throws Exception {
+        final String fingerprint = getFingerprint(subEClass, 1);
+
+        ePackage.setNsURI("http://other");
+
+        assertNotEquals(fingerprint, getFingerprint(subEClass, 1));
+    }
+
+    @Test
+    public void unrelatedResourceChanged() throws Exception {
+        final EPackage otherPackage = createOtherPackage();
+        final String fingerprint = getFingerprint(subEClass, 1);
+
+        otherPackage.setName("changed");
+
+        assertEquals(fingerprint, getFingerprint(subEClass, 1));
+    }
+
+    @Test
+    public void referencedResourceChanged() throws Exception {
+        final EPackage otherPackage = createOtherPackage();
+        final EClass external = EcoreFactory.eINSTANCE.createEClass();
+        external.setName("External");
+        otherPackage.getEClassifiers().add(external);
+        subEClass.getESuperTypes().add(external);
+        final String fingerprint = getFingerprint(subEClass, 1);
+
+        external.setName("OtherExternal");
+
+        assertNotEquals(fingerprint, getFingerprint(subEClass, 1));
+    }
+
+    @Test
+    public void objectValue() throws Exception {
+        assertNull(getFingerprint(new Object(), 1));
+    }
+
+    @Test
+    public void eObjectOutsideResourceSet() throws Exception {
+        assertNull(getFingerprint(EcoreFactory.eINSTANCE.createEClass(), 1));
+    }
+
+    @Test
+    public void incrementalReusesUnchangedFragments() throws Exception {
+        generate();
+        edit(subEClass.getName());
+
+        generate();
+
+        assertEquals(Collections.singletonList(superEClass.getName()), getTexts(superEClass.getName()));
+        assertEquals(Collections.singletonList(EDITED), getTexts(EDITED));
+        assertEquals(Collections.emptyList(), getTexts(subEClass.getName()));
+    }
+
+    @Test
+    public void incrementalRegeneratesChangedModel() throws Exception {
+        generate();
+        edit(subEClass.getName());
+        superEClass.setName("OtherSuper");
+
+        generate();
+
+        assertEquals(Collections.singletonList(superEClass.getName()), getTexts(superEClass.getName()));
+        assertEquals(Collections.singletonList(subEClass.getName()), getTexts(subEClass.getName()));
+        assertEquals(Collections.emptyList(), getTexts(EDITED));
+    }
+
+    @Test
+    public void incrementalReusesWithUnrelatedChange() throws Exception {
+        final EPackage otherPackage = createOtherPackage();
+        generate();
+        edit(subEClass.getName());
+        otherPackage.setName("changed");
+
+        generate();
+
+        assertEquals(Collections.singletonList(EDITED), getTexts(EDITED));
+        assertEquals(Collections.emptyList(), getTexts(subEClass.getName()));
+    }
+
+    /**
+     * Creates an {@link EPackage} in a new {@link Resource} of the models {@link ResourceSet}, not referenced by the
+     * model {@link EPackage}.
+     * 
+     * @return the created {@link EPackage}
+     */
+    private EPackage createOtherPackage() {
+        final Resource resource = new ResourceImpl(URI.createURI("test:/other.ecore"));
+        resourceSet.getResources().add(resource);
+        final EPackage res = EcoreFactory.eINSTANCE.createEPackage();
+        res.setName("other");
+        resource.getContents().add(res);
+
+        return res;
+    }
+
+    /**
+     * Gets the fingerprint of the template {@link Repetition} with a new {@link FragmentFingerprinter}.
+     * 
+     * @param value
+     *            the iteration value
+     * @param index
+     *            the iteration index
+     * @return the fingerprint of the template {@link Repetition}
+     * @throws DocumentParserException
+     *             if the template can't be parsed
+     * @throws IOException
+     *             if the template can't be read
+     */
+    private String getFingerprint(Object value, int index) throws DocumentParserException, IOException {
+        final String res;
+
+        final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+        try (DocumentTemplate documentTemplate = M2DocUtils.parse(resourceSet.getURIConverter(), templateURI,
+                TEMPLATE_NAME, new BasicMonitor())) {
+            Repetition repetition = null;
+            final Iterator<EObject> it = documentTemplate.eAllContents();
+            while (it.hasNext() && repetition == null) {
+                final EObject eObj = it.next();
+                if (eObj instanceof Repetition) {
+                    repetition = (Repetition) eObj;
+                }
+            }
+            final Map<String, Object> variables = new HashMap<>();
+            variables.put(PACKAGE_VARIABLE, ePackage);
+            variables.put(ITERATION_VARIABLE, value);
+            variables.put(ITERATION_VARIABLE + M2DocValidator.INDEX_SUFFIX, index);
+            final FragmentFingerprinter fingerprinter = new FragmentFingerprinter(resourceSet.getURIConverter(),
+                    templateURI, resourceSet);
+            res = fingerprinter.getFingerprint(repetition, variables);
+        }
+
+        return res;
+    }
+
+    /**
+     * Generates the template with the {@link M2DocUtils#INCREMENTAL_OPTION incremental} option.
+     * 
+     * @throws Exception
+     *             if the generation fails
+     */
+    private void generate() throws Exception {
+        final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+        final URI outputURI = URI.createFileURI(outputFile.getAbsolutePath());
+        final IQualifiedNameResolver resolver = new ClassLoaderQualifiedNameResolver(getClass().getClassLoader(),
+                EPackage.Registry.INSTANCE, M2DocUtils.QUALIFIER_SEPARATOR);
+        final IQualifiedNameQueryEnvironment queryEnvironment = M2DocUtils.getQueryEnvironment(resolver,
+                resourceSet, templateURI, Collections.emptyMap(), false);
+        final M2DocEvaluationEnvironment m2docEnv = new M2DocEvaluationEnvironment(resolver, resourceSet,
+                templateURI, outputURI);
+        m2docEnv.setIncremental(true);
+        try (DocumentTemplate documentTemplate = M2DocUtils.parse(resourceSet.getURIConverter(), templateURI,
+                TEMPLATE_NAME, new BasicMonitor())) {
+            resolver.register(TEMPLATE_NAME, documentTemplate);
+            M2DocUtils.prepareEnvironment(queryEnvironment, EPackage.Registry.INSTANCE, documentTemplate);
+            M2DocUtils.generate(m2docEnv, documentTemplate,
+                    Collections.singletonMap(PACKAGE_VARIABLE, (Object) ePackage), false, new BasicMonitor());
+        } finally {
+            AQLUtils.cleanServices(M2DocUtils.M2DOC_LANGUAGE, queryEnvironment, resourceSet);
+            resolver.dispose();
+        }
+    }
+
+    /**
+     * Replaces the given generated text by {@link #EDITED} in the generated document, like a user would.
+     * 
+     * @param text
+     *            the generated text
+     * @throws IOException
+     *             if the generated document can't be read or written
+     */
+    private void edit(String text) throws IOException {
+        final XWPFDocument document;
+        try (InputStream is = new FileInputStream(outputFile)) {
+            document = new XWPFDocument(is);
+        }
+        try (OutputStream os = new FileOutputStream(outputFile)) {
+            for (XWPFParagraph paragraph : document.getParagraphs()) {
+                for (XWPFRun run : paragraph.getRuns()) {
+                    if (text.equals(run.getText(0))) {
+                        run.setText(EDITED, 0);
+                    }
+                }
+            }
+            document.write(os);
+        } finally {
+            document.close();
+        }
+    }
+
+    /**
+     * Gets the texts of runs in the generated document equal to the given text.
+     * 
+     * @param text
+     *            the text
+     * @return the texts of runs in the generated document equal to the given text
+     * @throws IOException
+     *             if the generated document can't be read
+     */
+    private List<String> getTexts(String text) throws IOException {
+        final List<String> res = new ArrayList<>();
+
+        try (InputStream is = new FileInputStream(outputFile);
+                XWPFDocument document = new XWPFDocument(is)) {
+            for (XWPFParagraph paragraph : document.getParagraphs()) {
+                for (XWPFRun run : paragraph.getRuns()) {
+                    if (text.equals(run.getText(0))) {
+                        res.add(run.getText(0));
+                    }
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Creates a template inserting the name of each classifier of the package variable.
+     * 
+     * @param file
+     *            the template {@link File}
+     * @throws IOException
+     *             if the template can't be written
+     */
+    private void createTemplate(File file) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+                OutputStream os = new FileOutputStream(file)) {
+            document.createParagraph().createRun().setText(M2DocUtils.M_FIELD_START + "for " + ITERATION_VARIABLE
+                + " | " + PACKAGE_VARIABLE + ".eClassifiers" + M2DocUtils.FIELD_END);
+            document.createParagraph().createRun()
+                    .setText(M2DocUtils.M_FIELD_START + ITERATION_VARIABLE + ".name" + M2DocUtils.FIELD_END);
+            document.createParagraph().createRun().setText(M2DocUtils.M_FIELD_START + "endfor" + M2DocUtils.FIELD_END);
+            final TemplateCustomProperties properties = new TemplateCustomProperties(document);
+            properties.setM2DocVersion(M2DocUtils.VERSION);
+            properties.save();
+            document.write(os);
+        }
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2017 Obeo. 
+ *  Copyright (c) 2017, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -22,7 +22,10 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses(
-    value = {DocumentGeneratorTests.class, TemplateValidationGeneratorTests.class, M2DocValidatorTests.class, })
+    value = {DocumentGeneratorTests.class, TemplateValidationGeneratorTests.class, M2DocValidatorTests.class,
+        PartNameAllocatorTests.class, StyleIndexTests.class, PartHashIndexTests.class,
+        UserContentExtractorTests.class, FragmentFingerprinterTests.class, MStreamedTableGenerationTests.class,
+        RawCopierTests.class, MTableRowCloneTests.class, })
 public class GeneratorTests {
 
 }
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.eclipse.acceleo.query.AQLUtils;
+import org.eclipse.acceleo.query.runtime.impl.namespace.ClassLoaderQualifiedNameResolver;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameResolver;
+import org.eclipse.emf.common.util.BasicMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MStreamedTable;
+import org.obeonetwork.m2doc.generator.GenerationResult;
+import org.obeonetwork.m2doc.generator.M2DocEvaluationEnvironment;
+import org.obeonetwork.m2doc.parser.TemplateValidationMessage;
+import org.obeonetwork.m2doc.parser.ValidationMessageLevel;
+import org.obeonetwork.m2doc.properties.TemplateCustomProperties;
+import org.obeonetwork.m2doc.template.DocumentTemplate;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the insertion of {@link MStreamedTable}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class MStreamedTableGenerationTests {
+
+    /**
+     * The template qualified name.
+     */
+    private static final String TEMPLATE_NAME = "mStreamedTable";
+
+    /**
+     * The values variable name.
+     */
+    private static final String VALUES_VARIABLE = "values";
+
+    /**
+     * The template {@link File}.
+     */
+    private File templateFile;
+
+    /**
+     * The generated {@link File}.
+     */
+    private File outputFile;
+
+    @Before
+    public void before() throws IOException {
+        templateFile = File.createTempFile(TEMPLATE_NAME, ".docx");
+        outputFile = File.createTempFile(TEMPLATE_NAME + "-generation", ".docx");
+    }
+
+    @After
+    public void after() {
+        templateFile.delete();
+        outputFile.delete();
+    }
+
+    @Test
+    public void insertTwice() throws Exception {
+        createTemplate("let table = values->asTable(Sequence{'Name', 'Size'}, v | Sequence{v, v.size()})", "table",
+                "table", "endlet");
+
+        final GenerationResult result = generate();
+
+        assertTrue(result.getMessages().isEmpty());
+        try (InputStream is = new FileInputStream(outputFile);
+                XWPFDocument document = new XWPFDocument(is)) {
+            assertEquals(2, document.getTables().size());
+            for (XWPFTable table : document.getTables()) {
+                assertEquals(3, table.getNumberOfRows());
+                assertEquals("Name", table.getRow(0).getCell(0).getText());
+                assertEquals("a", table.getRow(1).getCell(0).getText());
+                assertEquals("2", table.getRow(2).getCell(1).getText());
+            }
+        }
+    }
+
+    @Test
+    public void insertWrongCellsCount() throws Exception {
+        createTemplate("values->asTable(Sequence{'Name', 'Size'}, v | Sequence{v})");
+
+        final GenerationResult result = generate();
+
+        assertEquals(1, result.getMessages().size());
+        final TemplateValidationMessage message = result.getMessages().get(0);
+        assertEquals(ValidationMessageLevel.ERROR, message.getLevel());
+        assertEquals("The row of the value number 1 has 1 cells but the table has 2 columns.",
+                message.getMessage());
+    }
+
+    @Test
+    public void insertLambdaError() throws Exception {
+        createTemplate("values->asTable(Sequence{'Name'}, v | v.notExistingService())");
+
+        final GenerationResult result = generate();
+
+        assertEquals(1, result.getMessages().size());
+        final TemplateValidationMessage message = result.getMessages().get(0);
+        assertEquals(ValidationMessageLevel.ERROR, message.getLevel());
+        assertTrue(message.getMessage().contains("notExistingService"));
+    }
+
+    /**
+     * Creates a template with a paragraph for each of the given field instructions.
+     * 
+     * @param instructions
+     *            the field instructions without the <code>m:</code> prefix
+     * @throws IOException
+     *             if the template can't be written
+     */
+    private void createTemplate(String... instructions) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+                OutputStream os = new FileOutputStream(templateFile)) {
+            for (String instruction : instructions) {
+                document.createParagraph().createRun().setText(M2DocUtils.M_FIELD_START + instruction
+                    + M2DocUtils.FIELD_END);
+            }
+            final TemplateCustomProperties properties = new TemplateCustomProperties(document);
+            properties.setM2DocVersion(M2DocUtils.VERSION);
+            properties.save();
+            document.write(os);
+        }
+    }
+
+    /**
+     * Generates the template with the values <code>'a'</code> and <code>'bb'</code>.
+     * 
+     * @return the {@link GenerationResult}
+     * @throws Exception
+     *             if the generation fails
+     */
+    private GenerationResult generate() throws Exception {
+        final GenerationResult res;
+
+        final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+        final URI outputURI = URI.createFileURI(outputFile.getAbsolutePath());
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put(VALUES_VARIABLE, Arrays.asList("a", "bb"));
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        final IQualifiedNameResolver resolver = new ClassLoaderQualifiedNameResolver(getClass().getClassLoader(),
+                EPackage.Registry.INSTANCE, M2DocUtils.QUALIFIER_SEPARATOR);
+        final IQualifiedNameQueryEnvironment queryEnvironment = M2DocUtils.getQueryEnvironment(resolver,
+                resourceSet, templateURI, Collections.emptyMap(), false);
+        final M2DocEvaluationEnvironment m2docEnv = new M2DocEvaluationEnvironment(resolver, resourceSet,
+                templateURI, outputURI);
+        try (DocumentTemplate documentTemplate = M2DocUtils.parse(resourceSet.getURIConverter(), templateURI,
+                TEMPLATE_NAME, new BasicMonitor())) {
+            resolver.register(TEMPLATE_NAME, documentTemplate);
+            M2DocUtils.prepareEnvironment(queryEnvironment, EPackage.Registry.INSTANCE, documentTemplate);
+            res = M2DocUtils.generate(m2docEnv, documentTemplate, variables, false, new BasicMonitor());
+        } finally {
+            AQLUtils.cleanServices(M2DocUtils.M2DOC_LANGUAGE, queryEnvironment, resourceSet);
+            resolver.dispose();
+        }
+
+        return res;
+    }
+
+}
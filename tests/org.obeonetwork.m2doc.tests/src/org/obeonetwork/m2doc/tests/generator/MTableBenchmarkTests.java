@@ -0,0 +1,225 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.eclipse.acceleo.query.AQLUtils;
+import org.eclipse.acceleo.query.runtime.impl.namespace.ClassLoaderQualifiedNameResolver;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameResolver;
+import org.eclipse.emf.common.util.BasicMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MStyle;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.MTable.MRow;
+import org.obeonetwork.m2doc.element.impl.MStyleImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MCellImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MRowImpl;
+import org.obeonetwork.m2doc.element.impl.MTextImpl;
+import org.obeonetwork.m2doc.generator.M2DocEvaluationEnvironment;
+import org.obeonetwork.m2doc.properties.TemplateCustomProperties;
+import org.obeonetwork.m2doc.template.DocumentTemplate;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the insertion of large {@link MTable}. This class is not part of {@link GeneratorTests} since it is meant
+ * to be run on demand.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class MTableBenchmarkTests {
+
+    /**
+     * The template qualified name.
+     */
+    private static final String TEMPLATE_NAME = "mTableBenchmark";
+
+    /**
+     * The table variable name.
+     */
+    private static final String TABLE_VARIABLE = "table";
+
+    /**
+     * The number of columns.
+     */
+    private static final int NB_COLUMNS = 4;
+
+    /**
+     * The number of nano seconds in a milli second.
+     */
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    @Test
+    public void rows10k() throws Exception {
+        benchmark(10000);
+    }
+
+    @Test
+    public void rows50k() throws Exception {
+        benchmark(50000);
+    }
+
+    @Test
+    public void rows100k() throws Exception {
+        benchmark(100000);
+    }
+
+    /**
+     * Generates a table with the given number of rows, checks the result, and prints the generation time.
+     * 
+     * @param nbRows
+     *            the number of data rows
+     * @throws Exception
+     *             if the generation fails
+     */
+    private void benchmark(int nbRows) throws Exception {
+        final File templateFile = File.createTempFile(TEMPLATE_NAME, ".docx");
+        final File outputFile = File.createTempFile(TEMPLATE_NAME + "-generation", ".docx");
+        try {
+            createTemplate(templateFile);
+            final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+            final URI outputURI = URI.createFileURI(outputFile.getAbsolutePath());
+            final Map<String, Object> variables = new HashMap<>();
+            variables.put(TABLE_VARIABLE, createTable(nbRows));
+
+            final long duration = generate(templateURI, outputURI, variables);
+            System.out.println(nbRows + " rows: " + duration / NANOS_PER_MILLI + " ms");
+
+            try (InputStream is = new FileInputStream(outputFile);
+                    XWPFDocument document = new XWPFDocument(is)) {
+                final XWPFTable table = document.getTables().get(0);
+                assertEquals(nbRows + 1, table.getNumberOfRows());
+                assertEquals("Requirement", table.getRow(0).getCell(0).getText());
+                assertEquals("REQ-1", table.getRow(1).getCell(0).getText());
+                assertEquals("REQ-" + nbRows, table.getRow(nbRows).getCell(0).getText());
+                assertEquals(" covered ", table.getRow(4).getCell(3).getText());
+                assertEquals("not covered", table.getRow(nbRows - 1).getCell(3).getText());
+                assertEquals("FF0000", table.getRow(nbRows - 1).getCell(3).getColor());
+            }
+        } finally {
+            templateFile.delete();
+            outputFile.delete();
+        }
+    }
+
+    /**
+     * Generates the given template.
+     * 
+     * @param templateURI
+     *            the template {@link URI}
+     * @param outputURI
+     *            the output {@link URI}
+     * @param variables
+     *            the variables
+     * @return the generation duration in nano seconds
+     * @throws Exception
+     *             if the generation fails
+     */
+    private long generate(URI templateURI, URI outputURI, Map<String, Object> variables) throws Exception {
+        final long res;
+
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        final IQualifiedNameResolver resolver = new ClassLoaderQualifiedNameResolver(getClass().getClassLoader(),
+                EPackage.Registry.INSTANCE, M2DocUtils.QUALIFIER_SEPARATOR);
+        final IQualifiedNameQueryEnvironment queryEnvironment = M2DocUtils.getQueryEnvironment(resolver,
+                resourceSet, templateURI, Collections.emptyMap(), false);
+        final M2DocEvaluationEnvironment m2docEnv = new M2DocEvaluationEnvironment(resolver, resourceSet,
+                templateURI, outputURI);
+        try (DocumentTemplate documentTemplate = M2DocUtils.parse(resourceSet.getURIConverter(), templateURI,
+                TEMPLATE_NAME, new BasicMonitor())) {
+            resolver.register(TEMPLATE_NAME, documentTemplate);
+            M2DocUtils.prepareEnvironment(queryEnvironment, EPackage.Registry.INSTANCE, documentTemplate);
+            final long start = System.nanoTime();
+            M2DocUtils.generate(m2docEnv, documentTemplate, variables, false, new BasicMonitor());
+            res = System.nanoTime() - start;
+        } finally {
+            AQLUtils.cleanServices(M2DocUtils.M2DOC_LANGUAGE, queryEnvironment, resourceSet);
+            resolver.dispose();
+        }
+
+        return res;
+    }
+
+    /**
+     * Creates a template inserting the table variable.
+     * 
+     * @param templateFile
+     *            the template {@link File}
+     * @throws IOException
+     *             if the template can't be written
+     */
+    private void createTemplate(File templateFile) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+                OutputStream os = new FileOutputStream(templateFile)) {
+            document.createParagraph().createRun().setText(M2DocUtils.M_FIELD_START + TABLE_VARIABLE
+                + M2DocUtils.FIELD_END);
+            final TemplateCustomProperties properties = new TemplateCustomProperties(document);
+            properties.setM2DocVersion(M2DocUtils.VERSION);
+            properties.save();
+            document.write(os);
+        }
+    }
+
+    /**
+     * Creates a traceability matrix like {@link MTable} with the given number of data rows.
+     * 
+     * @param nbRows
+     *            the number of data rows
+     * @return the created {@link MTable}
+     */
+    private MTable createTable(int nbRows) {
+        final MTable res = new MTableImpl();
+
+        final MStyle headerStyle = new MStyleImpl(null, 10, Color.WHITE, null, MStyle.FONT_BOLD);
+        final MStyle style = new MStyleImpl(null, 10, Color.BLACK, null, -1);
+        final MRow headerRow = new MRowImpl();
+        res.getRows().add(headerRow);
+        for (String label : new String[] {"Requirement", "Component", "Test", "Status" }) {
+            headerRow.getCells().add(new MCellImpl(new MTextImpl(label, headerStyle), Color.DARK_GRAY));
+        }
+        for (int index = 1; index <= nbRows; index++) {
+            final MRow row = new MRowImpl();
+            res.getRows().add(row);
+            row.getCells().add(new MCellImpl(new MTextImpl("REQ-" + index, style), null));
+            row.getCells().add(new MCellImpl(new MTextImpl("Component " + index % 100, style), null));
+            row.getCells().add(new MCellImpl(new MTextImpl("TEST-" + index, style), null));
+            if (index % 2 == 0) {
+                row.getCells().add(new MCellImpl(new MTextImpl(" covered ", style), Color.GREEN));
+            } else {
+                row.getCells().add(new MCellImpl(new MTextImpl("not covered", style), Color.RED));
+            }
+        }
+        assertEquals(NB_COLUMNS, res.getColumnsCount());
+
+        return res;
+    }
+
+}
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.eclipse.acceleo.query.AQLUtils;
+import org.eclipse.acceleo.query.runtime.impl.namespace.ClassLoaderQualifiedNameResolver;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameResolver;
+import org.eclipse.emf.common.util.BasicMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MRow;
+import org.obeonetwork.m2doc.element.MStyle;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.impl.MStyleImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MCellImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MRowImpl;
+import org.obeonetwork.m2doc.element.impl.MTextImpl;
+import org.obeonetwork.m2doc.generator.GenerationResult;
+import org.obeonetwork.m2doc.generator.M2DocEvaluationEnvironment;
+import org.obeonetwork.m2doc.properties.TemplateCustomProperties;
+import org.obeonetwork.m2doc.template.DocumentTemplate;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that rows of a {@link MTable} cloned from a previous row with the same layout and styles are generated as if
+ * they were filled from scratch.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class MTableRowCloneTests {
+
+    /**
+     * The template qualified name.
+     */
+    private static final String TEMPLATE_NAME = "mTableRowClone";
+
+    /**
+     * The variable name of the table where the row is cloned from the prototype row.
+     */
+    private static final String CLONED_VARIABLE = "cloned";
+
+    /**
+     * The variable name of the table where the row is filled from scratch.
+     */
+    private static final String FILLED_VARIABLE = "filled";
+
+    /**
+     * The font size.
+     */
+    private static final int FONT_SIZE = 12;
+
+    /**
+     * The template {@link File}.
+     */
+    private File templateFile;
+
+    /**
+     * The generated {@link File}.
+     */
+    private File outputFile;
+
+    @Before
+    public void before() throws IOException {
+        templateFile = File.createTempFile(TEMPLATE_NAME, ".docx");
+        outputFile = File.createTempFile(TEMPLATE_NAME + "-generation", ".docx");
+        createTemplate();
+    }
+
+    @After
+    public void after() {
+        templateFile.delete();
+        outputFile.delete();
+    }
+
+    @Test
+    public void leadingAndTrailingSpaces() throws Exception {
+        assertClonedRow(row(text("a", null)), row(text(" b ", null)));
+        assertClonedRow(row(text(" a", null)), row(text("b", null)));
+        assertClonedRow(row(text("a ", null)), row(text(" b", null)));
+    }
+
+    @Test
+    public void emptyText() throws Exception {
+        assertClonedRow(row(text("a", null)), row(text("", null)));
+        assertClonedRow(row(text("", null)), row(text("b", null)));
+        assertClonedRow(row(text(" a ", null)), row(text("", null)));
+    }
+
+    @Test
+    public void emptyAndNullText() throws Exception {
+        assertClonedRow(row(text("", null)), row(text(null, null)));
+        assertClonedRow(row(text(null, null)), row(text("", null)));
+        assertClonedRow(row(text("a", style(MStyle.FONT_BOLD))), row(text(null, style(MStyle.FONT_BOLD))));
+    }
+
+    @Test
+    public void emptyAndNullCell() throws Exception {
+        assertClonedRow(row(text("a", null), null), row(text("b", null), text("", null)));
+        assertClonedRow(row(text("a", null), text("", null)), row(text("b", null), null));
+    }
+
+    @Test
+    public void styleChange() throws Exception {
+        assertClonedRow(row(text("a", style(MStyle.FONT_BOLD))), row(text("b", style(MStyle.FONT_ITALIC))));
+        assertClonedRow(row(text("a", style(MStyle.FONT_BOLD))), row(text("b", null)));
+        assertClonedRow(row(text("a", null)), row(text("b", style(MStyle.FONT_BOLD))));
+        assertClonedRow(row(text("", style(MStyle.FONT_BOLD))), row(text("", style(MStyle.FONT_ITALIC))));
+    }
+
+    /**
+     * Creates a {@link MTextImpl}.
+     * 
+     * @param text
+     *            the text
+     * @param style
+     *            the {@link MStyle} if any, <code>null</code> otherwise
+     * @return the created {@link MTextImpl}
+     */
+    private MElement text(String text, MStyle style) {
+        return new MTextImpl(text, style);
+    }
+
+    /**
+     * Creates a {@link MStyle} with the given font modifiers.
+     * 
+     * @param modifiers
+     *            the font modifiers
+     * @return the created {@link MStyle}
+     */
+    private MStyle style(int modifiers) {
+        return new MStyleImpl("Arial", FONT_SIZE, null, null, modifiers);
+    }
+
+    /**
+     * Creates a {@link MRow} with a cell for each of the given contents.
+     * 
+     * @param contents
+     *            the cell contents, <code>null</code> for a cell without contents
+     * @return the created {@link MRow}
+     */
+    private MRow row(MElement... contents) {
+        final MRow res = new MRowImpl();
+
+        for (MElement content : contents) {
+            res.getCells().add(new MCellImpl(content, null));
+        }
+
+        return res;
+    }
+
+    /**
+     * Creates a {@link MTable} with the given rows.
+     * 
+     * @param rows
+     *            the {@link MRow}
+     * @return the created {@link MTable}
+     */
+    private MTable table(MRow... rows) {
+        final MTable res = new MTableImpl();
+
+        for (MRow row : rows) {
+            res.getRows().add(row);
+        }
+
+        return res;
+    }
+
+    /**
+     * Asserts the given row cloned from the given prototype row is the same as the given row filled from scratch.
+     * 
+     * @param prototype
+     *            the prototype {@link MRow}
+     * @param row
+     *            the {@link MRow} to check
+     * @throws Exception
+     *             if the generation fails
+     */
+    private void assertClonedRow(MRow prototype, MRow row) throws Exception {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put(CLONED_VARIABLE, table(prototype, row));
+        variables.put(FILLED_VARIABLE, table(row));
+
+        final GenerationResult result = generate(variables);
+
+        assertTrue(result.getMessages().isEmpty());
+        try (InputStream is = new FileInputStream(outputFile);
+                XWPFDocument document = new XWPFDocument(is)) {
+            final List<XWPFTable> tables = document.getTables();
+            assertEquals(2, tables.size());
+            assertEquals(2, tables.get(0).getNumberOfRows());
+            assertEquals(1, tables.get(1).getNumberOfRows());
+            assertEquals(tables.get(1).getRow(0).getCtRow().xmlText(), tables.get(0).getRow(1).getCtRow().xmlText());
+        }
+    }
+
+    /**
+     * Creates a template inserting the {@link #CLONED_VARIABLE cloned} table and the {@link #FILLED_VARIABLE filled}
+     * table.
+     * 
+     * @throws IOException
+     *             if the template can't be written
+     */
+    private void createTemplate() throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+                OutputStream os = new FileOutputStream(templateFile)) {
+            for (String instruction : new String[] {CLONED_VARIABLE, FILLED_VARIABLE }) {
+                document.createParagraph().createRun().setText(M2DocUtils.M_FIELD_START + instruction
+                    + M2DocUtils.FIELD_END);
+            }
+            final TemplateCustomProperties properties = new TemplateCustomProperties(document);
+            properties.setM2DocVersion(M2DocUtils.VERSION);
+            properties.save();
+            document.write(os);
+        }
+    }
+
+    /**
+     * Generates the template with the given variables.
+     * 
+     * @param variables
+     *            the variables
+     * @return the {@link GenerationResult}
+     * @throws Exception
+     *             if the generation fails
+     */
+    private GenerationResult generate(Map<String, Object> variables) throws Exception {
+        final GenerationResult res;
+
+        final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+        final URI outputURI = URI.createFileURI(outputFile.getAbsolutePath());
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        final IQualifiedNameResolver resolver = new ClassLoaderQualifiedNameResolver(getClass().getClassLoader(),
+                EPackage.Registry.INSTANCE, M2DocUtils.QUALIFIER_SEPARATOR);
+        final IQualifiedNameQueryEnvironment queryEnvironment = M2DocUtils.getQueryEnvironment(resolver,
+                resourceSet, templateURI, Collections.emptyMap(), false);
+        final M2DocEvaluationEnvironment m2docEnv = new M2DocEvaluationEnvironment(resolver, resourceSet,
+                templateURI, outputURI);
+        try (DocumentTemplate documentTemplate = M2DocUtils.parse(resourceSet.getURIConverter(), templateURI,
+                TEMPLATE_NAME, new BasicMonitor())) {
+            resolver.register(TEMPLATE_NAME, documentTemplate);
+            M2DocUtils.prepareEnvironment(queryEnvironment, EPackage.Registry.INSTANCE, documentTemplate);
+            res = M2DocUtils.generate(m2docEnv, documentTemplate, variables, false, new BasicMonitor());
+        } finally {
+            AQLUtils.cleanServices(M2DocUtils.M2DOC_LANGUAGE, queryEnvironment, resourceSet);
+            resolver.dispose();
+        }
+
+        return res;
+    }
+
+}
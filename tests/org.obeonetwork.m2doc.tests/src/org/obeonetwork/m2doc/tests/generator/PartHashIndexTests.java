@@ -0,0 +1,131 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.Test;
+import org.obeonetwork.m2doc.generator.PartHashIndex;
+import org.obeonetwork.m2doc.util.DigestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@link PartHashIndex}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class PartHashIndexTests {
+
+    /**
+     * The first content.
+     */
+    private static final byte[] FIRST_CONTENT = {1, 2, 3, 4 };
+
+    /**
+     * The second content with the same size as the first content.
+     */
+    private static final byte[] SECOND_CONTENT = {4, 3, 2, 1 };
+
+    /**
+     * A content with a different size.
+     */
+    private static final byte[] OTHER_SIZE_CONTENT = {1, 2, 3, 4, 5 };
+
+    @Test
+    public void getExistingPart() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final URI partName = addPart(document, FIRST_CONTENT);
+            final PartHashIndex index = new PartHashIndex(document);
+
+            assertEquals(partName, index.get(DigestUtils.getMD5(FIRST_CONTENT), FIRST_CONTENT.length));
+        }
+    }
+
+    @Test
+    public void getDifferentParts() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final URI firstPartName = addPart(document, FIRST_CONTENT);
+            final URI secondPartName = addPart(document, SECOND_CONTENT);
+            assertNotEquals(firstPartName, secondPartName);
+            final PartHashIndex index = new PartHashIndex(document);
+
+            assertEquals(firstPartName, index.get(DigestUtils.getMD5(FIRST_CONTENT), FIRST_CONTENT.length));
+            assertEquals(secondPartName, index.get(DigestUtils.getMD5(SECOND_CONTENT), SECOND_CONTENT.length));
+            assertNull(index.get(DigestUtils.getMD5(OTHER_SIZE_CONTENT), OTHER_SIZE_CONTENT.length));
+        }
+    }
+
+    @Test
+    public void getSameHashOtherSize() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            addPart(document, FIRST_CONTENT);
+            final PartHashIndex index = new PartHashIndex(document);
+
+            assertNull(index.get(DigestUtils.getMD5(FIRST_CONTENT), OTHER_SIZE_CONTENT.length));
+        }
+    }
+
+    @Test
+    public void putSharesFirstPart() throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final PartHashIndex index = new PartHashIndex(document);
+            final String md5 = DigestUtils.getMD5(FIRST_CONTENT);
+            assertNull(index.get(md5, FIRST_CONTENT.length));
+
+            final URI firstPartName = URI.create("/word/media/image1.png");
+            index.put(md5, FIRST_CONTENT.length, firstPartName);
+            index.put(md5, FIRST_CONTENT.length, URI.create("/word/media/image2.png"));
+
+            assertEquals(firstPartName, index.get(md5, FIRST_CONTENT.length));
+        }
+    }
+
+    @Test
+    public void putKeepsDifferentParts() throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final PartHashIndex index = new PartHashIndex(document);
+            final URI firstPartName = URI.create("/word/media/image1.png");
+            final URI secondPartName = URI.create("/word/media/image2.png");
+
+            index.put(DigestUtils.getMD5(FIRST_CONTENT), FIRST_CONTENT.length, firstPartName);
+            index.put(DigestUtils.getMD5(SECOND_CONTENT), SECOND_CONTENT.length, secondPartName);
+
+            assertEquals(firstPartName, index.get(DigestUtils.getMD5(FIRST_CONTENT), FIRST_CONTENT.length));
+            assertEquals(secondPartName, index.get(DigestUtils.getMD5(SECOND_CONTENT), SECOND_CONTENT.length));
+        }
+    }
+
+    /**
+     * Adds a picture part with the given content to the given {@link XWPFDocument}.
+     * 
+     * @param document
+     *            the {@link XWPFDocument}
+     * @param content
+     *            the part content
+     * @return the added part name
+     * @throws InvalidFormatException
+     *             if the part can't be added
+     */
+    private URI addPart(XWPFDocument document, byte[] content) throws InvalidFormatException {
+        final String id = document.addPictureData(content, Document.PICTURE_TYPE_PNG);
+
+        return document.getPictureDataByID(id).getPackagePart().getPartName().getURI();
+    }
+
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.io.IOException;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.Test;
+import org.obeonetwork.m2doc.generator.PartNameAllocator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link PartNameAllocator}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class PartNameAllocatorTests {
+
+    /**
+     * The PNG content type.
+     */
+    private static final String PNG_CONTENT_TYPE = "image/png";
+
+    @Test
+    public void allocateFree() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final PartNameAllocator allocator = new PartNameAllocator(document.getPackage());
+
+            final PackagePartName name = PackagingURIHelper.createPartName("/word/media/image1.png");
+            assertEquals(name, allocator.allocate(name));
+        }
+    }
+
+    @Test
+    public void allocateUsed() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final OPCPackage pkg = document.getPackage();
+            final PartNameAllocator allocator = new PartNameAllocator(pkg);
+
+            final PackagePartName name = PackagingURIHelper.createPartName("/word/media/image1.png");
+            pkg.createPart(allocator.allocate(name), PNG_CONTENT_TYPE);
+            final PackagePartName secondName = allocator.allocate(name);
+            assertEquals("/word/media/image2.png", secondName.getName());
+            pkg.createPart(secondName, PNG_CONTENT_TYPE);
+            assertEquals("/word/media/image3.png", allocator.allocate(name).getName());
+        }
+    }
+
+    @Test
+    public void allocateUsedNoIndex() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final OPCPackage pkg = document.getPackage();
+            final PartNameAllocator allocator = new PartNameAllocator(pkg);
+
+            final PackagePartName name = PackagingURIHelper.createPartName("/word/media/image.png");
+            pkg.createPart(allocator.allocate(name), PNG_CONTENT_TYPE);
+            assertEquals("/word/media/image1.png", allocator.allocate(name).getName());
+        }
+    }
+
+    @Test
+    public void allocateProbesUsedByOthers() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final OPCPackage pkg = document.getPackage();
+            final PartNameAllocator allocator = new PartNameAllocator(pkg);
+
+            final PackagePartName name = PackagingURIHelper.createPartName("/word/media/image1.png");
+            pkg.createPart(name, PNG_CONTENT_TYPE);
+            pkg.createPart(PackagingURIHelper.createPartName("/word/media/image2.png"), PNG_CONTENT_TYPE);
+            pkg.createPart(PackagingURIHelper.createPartName("/word/media/image3.png"), PNG_CONTENT_TYPE);
+
+            assertEquals("/word/media/image4.png", allocator.allocate(name).getName());
+        }
+    }
+
+    @Test
+    public void allocateSkipsReserved() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final OPCPackage pkg = document.getPackage();
+            final PartNameAllocator allocator = new PartNameAllocator(pkg);
+
+            final PackagePartName name = PackagingURIHelper.createPartName("/word/media/image.png");
+            pkg.createPart(name, PNG_CONTENT_TYPE);
+            // reserved names are not created in the package yet, only the reservation skips them
+            allocator.reserve(PackagingURIHelper.createPartName("/word/media/image1.png"));
+            allocator.reserve(PackagingURIHelper.createPartName("/word/media/image2.png"));
+
+            assertEquals("/word/media/image3.png", allocator.allocate(name).getName());
+        }
+    }
+
+    @Test
+    public void allocateWithoutReservation() throws InvalidFormatException, IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final OPCPackage pkg = document.getPackage();
+            final PartNameAllocator allocator = new PartNameAllocator(pkg);
+
+            final PackagePartName name = PackagingURIHelper.createPartName("/word/media/image.png");
+            pkg.createPart(name, PNG_CONTENT_TYPE);
+            // reserving an index other than the next one doesn't change the allocation
+            allocator.reserve(PackagingURIHelper.createPartName("/word/media/image2.png"));
+
+            assertEquals("/word/media/image1.png", allocator.allocate(name).getName());
+        }
+    }
+
+}
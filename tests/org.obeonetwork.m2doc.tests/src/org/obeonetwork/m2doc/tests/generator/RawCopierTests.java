@@ -0,0 +1,49 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.util.Collections;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.Test;
+import org.obeonetwork.m2doc.generator.RawCopier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link RawCopier}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class RawCopierTests {
+
+    @Test
+    public void copyBodyMissingStyle() throws Exception {
+        try (XWPFDocument input = new XWPFDocument(); XWPFDocument output = new XWPFDocument()) {
+            final XWPFParagraph inputParagraph = input.createParagraph();
+            inputParagraph.setStyle("NotDefined");
+            inputParagraph.createRun().setText("text");
+            output.createStyles();
+            final XWPFParagraph outputParagraph = output.createParagraph();
+            outputParagraph.createRun().setText("");
+            final RawCopier copier = new RawCopier();
+
+            copier.copyBody(outputParagraph, input, null);
+
+            assertEquals(Collections.singleton("NotDefined"), copier.consumeMissingStyleIDs());
+            assertTrue(copier.consumeMissingStyleIDs().isEmpty());
+        }
+    }
+
+}
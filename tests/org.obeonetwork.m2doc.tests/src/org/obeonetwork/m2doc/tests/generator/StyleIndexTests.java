@@ -0,0 +1,195 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.junit.Test;
+import org.obeonetwork.m2doc.generator.StyleIndex;
+import org.obeonetwork.m2doc.services.PaginationServices;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLvl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@link StyleIndex}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class StyleIndexTests {
+
+    /**
+     * The indentation step.
+     */
+    private static final int INDENTATION = 720;
+
+    @Test
+    public void getStyle() throws IOException {
+        try (XWPFDocument document = createDocumentWithStyle("Heading1")) {
+            final StyleIndex index = new StyleIndex(document);
+
+            assertEquals("Heading1", index.getStyle("Heading1").getStyleId());
+            assertNull(index.getStyle("Heading2"));
+        }
+    }
+
+    @Test
+    public void addStyle() throws IOException {
+        try (XWPFDocument document = createDocumentWithStyle("Heading1")) {
+            final StyleIndex index = new StyleIndex(document);
+            assertNull(index.getStyle("Heading2"));
+
+            final CTStyle style = createStyle("Heading2");
+            document.getStyles().addStyle(new XWPFStyle(style));
+            index.addStyle(style);
+
+            assertEquals(style, index.getStyle("Heading2"));
+        }
+    }
+
+    @Test
+    public void getIndentationLeftNoNumbering() throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final StyleIndex index = new StyleIndex(document);
+
+            assertEquals(0, index.getIndentationLeft(BigInteger.ONE, BigInteger.ZERO));
+        }
+    }
+
+    @Test
+    public void getIndentationLeft() throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final BigInteger numID = addNumbering(document.createNumbering(), BigInteger.ZERO);
+            final StyleIndex index = new StyleIndex(document);
+
+            assertEquals(INDENTATION, index.getIndentationLeft(numID, BigInteger.ZERO));
+            assertEquals(2 * INDENTATION, index.getIndentationLeft(numID, BigInteger.ONE));
+            assertEquals(0, index.getIndentationLeft(numID, BigInteger.TEN));
+        }
+    }
+
+    @Test
+    public void getIndentationLeftAddedAfterIndexing() throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final XWPFNumbering numbering = document.createNumbering();
+            final BigInteger firstNumID = addNumbering(numbering, BigInteger.ZERO);
+            final StyleIndex index = new StyleIndex(document);
+            assertEquals(INDENTATION, index.getIndentationLeft(firstNumID, BigInteger.ZERO));
+
+            final BigInteger secondNumID = addNumbering(numbering, BigInteger.ONE);
+
+            assertEquals(2 * INDENTATION, index.getIndentationLeft(secondNumID, BigInteger.ONE));
+        }
+    }
+
+    @Test
+    public void getIndentationLeftLevelAddedAfterIndexing() throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final XWPFNumbering numbering = document.createNumbering();
+            final BigInteger numID = addNumbering(numbering, BigInteger.ZERO);
+            final StyleIndex index = new StyleIndex(document);
+            assertEquals(0, index.getIndentationLeft(numID, BigInteger.TWO));
+
+            final CTLvl lvl = PaginationServices.getCTNumbering(numbering).getAbstractNumArray(0).addNewLvl();
+            lvl.setIlvl(BigInteger.TWO);
+            lvl.addNewPPr().addNewInd().setLeft(BigInteger.valueOf(3 * INDENTATION));
+
+            assertEquals(3 * INDENTATION, index.getIndentationLeft(numID, BigInteger.TWO));
+        }
+    }
+
+    @Test
+    public void getIndentationLeftMissingNotIndexedAgain() throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            final XWPFNumbering numbering = document.createNumbering();
+            final BigInteger numID = addNumbering(numbering, BigInteger.ZERO);
+            final StyleIndex index = new StyleIndex(document);
+            assertEquals(0, index.getIndentationLeft(BigInteger.TEN, BigInteger.ZERO));
+            assertEquals(0, index.getIndentationLeft(numID, BigInteger.TEN));
+
+            // changed without adding numberings nor levels: only visible if the numberings are indexed again
+            PaginationServices.getCTNumbering(numbering).getAbstractNumArray(0).getLvlArray(0).getPPr().getInd()
+                    .setLeft(BigInteger.ONE);
+
+            assertEquals(0, index.getIndentationLeft(BigInteger.TEN, BigInteger.ZERO));
+            assertEquals(0, index.getIndentationLeft(numID, BigInteger.TEN));
+            assertEquals(INDENTATION, index.getIndentationLeft(numID, BigInteger.ZERO));
+        }
+    }
+
+    /**
+     * Creates a {@link XWPFDocument} containing a style with the given ID. The document is saved and loaded again since
+     * styles are read from the package part.
+     * 
+     * @param styleID
+     *            the style ID
+     * @return the created {@link XWPFDocument}
+     * @throws IOException
+     *             if the document can't be saved or loaded
+     */
+    private XWPFDocument createDocumentWithStyle(String styleID) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createStyles().addStyle(new XWPFStyle(createStyle(styleID)));
+            document.write(output);
+        }
+
+        return new XWPFDocument(new ByteArrayInputStream(output.toByteArray()));
+    }
+
+    /**
+     * Creates a {@link CTStyle} with the given ID.
+     * 
+     * @param styleID
+     *            the style ID
+     * @return the created {@link CTStyle}
+     */
+    private CTStyle createStyle(String styleID) {
+        final CTStyle res = CTStyle.Factory.newInstance();
+
+        res.setStyleId(styleID);
+
+        return res;
+    }
+
+    /**
+     * Adds a numbering with two levels to the given {@link XWPFNumbering}.
+     * 
+     * @param numbering
+     *            the {@link XWPFNumbering}
+     * @param abstractNumID
+     *            the abstract numbering ID
+     * @return the added numbering ID
+     */
+    private BigInteger addNumbering(XWPFNumbering numbering, BigInteger abstractNumID) {
+        final CTAbstractNum abstractNum = CTAbstractNum.Factory.newInstance();
+        abstractNum.setAbstractNumId(abstractNumID);
+        for (int level = 0; level < 2; level++) {
+            final CTLvl lvl = abstractNum.addNewLvl();
+            lvl.setIlvl(BigInteger.valueOf(level));
+            lvl.addNewPPr().addNewInd().setLeft(BigInteger.valueOf((level + 1) * INDENTATION));
+        }
+
+        return numbering.addNum(numbering.addAbstractNum(new XWPFAbstractNum(abstractNum)));
+    }
+
+}
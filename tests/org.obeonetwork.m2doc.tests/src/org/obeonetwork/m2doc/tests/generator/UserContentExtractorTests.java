@@ -0,0 +1,258 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.Collections;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPictureData;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.obeonetwork.m2doc.generator.UserContentExtractor;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STFldCharType;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link UserContentExtractor}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class UserContentExtractorTests {
+
+    /**
+     * The content of the image inside the user content.
+     */
+    private static final byte[] INSIDE_IMAGE = {1, 2, 3, 4 };
+
+    /**
+     * The content of the image outside the user content.
+     */
+    private static final byte[] OUTSIDE_IMAGE = {5, 6, 7, 8 };
+
+    /**
+     * The hyperlink inside the user content.
+     */
+    private static final String INSIDE_LINK = "https://www.m2doc.org/";
+
+    /**
+     * The hyperlink outside the user content.
+     */
+    private static final String OUTSIDE_LINK = "https://www.obeo.fr/";
+
+    /**
+     * The image size in EMU.
+     */
+    private static final int IMAGE_SIZE = 9525;
+
+    /**
+     * The previously generated document.
+     */
+    private File documentFile;
+
+    /**
+     * The reduced document.
+     */
+    private File reducedFile;
+
+    @Before
+    public void before() throws IOException {
+        documentFile = File.createTempFile("userContentExtractor", ".docx");
+        reducedFile = File.createTempFile("userContentExtractor-reduced", ".docx");
+        reducedFile.delete();
+    }
+
+    @After
+    public void after() {
+        documentFile.delete();
+        reducedFile.delete();
+    }
+
+    @Test
+    public void extract() throws IOException, XMLStreamException, InvalidFormatException {
+        final String insideLinkID;
+        final String outsideLinkID;
+        final BigInteger numID;
+        try (XWPFDocument document = new XWPFDocument()) {
+            addOutsideParagraph(document);
+            outsideLinkID = document.createParagraph().createHyperlinkRun(OUTSIDE_LINK).getHyperlinkId();
+
+            addField(document.createParagraph(), "m:usercontent zone1");
+            final XWPFParagraph imageParagraph = document.createParagraph();
+            imageParagraph.createRun().setText("inside");
+            try (InputStream is = new ByteArrayInputStream(INSIDE_IMAGE)) {
+                imageParagraph.createRun().addPicture(is, Document.PICTURE_TYPE_PNG, "inside.png", IMAGE_SIZE,
+                        IMAGE_SIZE);
+            }
+            insideLinkID = document.createParagraph().createHyperlinkRun(INSIDE_LINK).getHyperlinkId();
+            numID = addNumbering(document.createNumbering());
+            final XWPFParagraph numberedParagraph = document.createParagraph();
+            numberedParagraph.setNumID(numID);
+            numberedParagraph.createRun().setText("inside numbered");
+            addField(document.createParagraph(), "m:endusercontent");
+
+            addOutsideParagraph(document);
+            write(document);
+        }
+
+        final UserContentExtractor extractor = extract();
+
+        assertEquals(Collections.singleton("zone1"), extractor.getUserContentIDs());
+        assertFalse(extractor.hasError());
+        try (InputStream is = new FileInputStream(reducedFile);
+                XWPFDocument reduced = new XWPFDocument(is)) {
+            for (XWPFParagraph paragraph : reduced.getParagraphs()) {
+                assertFalse(paragraph.getText().contains("outside"));
+            }
+            assertEquals(1, reduced.getAllPackagePictures().size());
+            final XWPFPictureData picture = reduced.getAllPackagePictures().get(0);
+            assertArrayEquals(INSIDE_IMAGE, picture.getData());
+            assertNotNull(reduced.getHyperlinkByID(insideLinkID));
+            assertEquals(INSIDE_LINK, reduced.getHyperlinkByID(insideLinkID).getURL());
+            assertNull(reduced.getHyperlinkByID(outsideLinkID));
+            assertNotNull(reduced.getNumbering());
+            assertTrue(reduced.getNumbering().numExist(numID));
+        }
+    }
+
+    @Test
+    public void extractNoUserContent() throws IOException, XMLStreamException, InvalidFormatException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            addOutsideParagraph(document);
+            write(document);
+        }
+
+        final UserContentExtractor extractor = extract();
+
+        assertTrue(extractor.getUserContentIDs().isEmpty());
+        assertFalse(extractor.hasError());
+        assertFalse(reducedFile.exists());
+    }
+
+    @Test
+    public void extractMissingUserContent() throws IOException, XMLStreamException, InvalidFormatException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            addOutsideParagraph(document);
+            addField(document.createParagraph(), "m:endusercontent");
+            write(document);
+        }
+
+        final UserContentExtractor extractor = extract();
+
+        assertTrue(extractor.getUserContentIDs().isEmpty());
+        assertTrue(extractor.hasError());
+    }
+
+    /**
+     * Extracts user contents from the {@link #documentFile} to the {@link #reducedFile}.
+     * 
+     * @return the {@link UserContentExtractor}
+     * @throws IOException
+     *             if the document can't be read or the reduced document can't be written
+     * @throws XMLStreamException
+     *             if an XML part can't be parsed
+     */
+    private UserContentExtractor extract() throws IOException, XMLStreamException {
+        final UserContentExtractor res = new UserContentExtractor(new ExtensibleURIConverterImpl());
+
+        res.extract(URI.createFileURI(documentFile.getAbsolutePath()),
+                URI.createFileURI(reducedFile.getAbsolutePath()));
+
+        return res;
+    }
+
+    /**
+     * Writes the given {@link XWPFDocument} to the {@link #documentFile}.
+     * 
+     * @param document
+     *            the {@link XWPFDocument}
+     * @throws IOException
+     *             if the document can't be written
+     */
+    private void write(XWPFDocument document) throws IOException {
+        try (OutputStream os = new FileOutputStream(documentFile)) {
+            document.write(os);
+        }
+    }
+
+    /**
+     * Adds a paragraph with an image outside of any user content.
+     * 
+     * @param document
+     *            the {@link XWPFDocument}
+     * @throws IOException
+     *             if the image can't be added
+     * @throws InvalidFormatException
+     *             if the image can't be added
+     */
+    private void addOutsideParagraph(XWPFDocument document) throws IOException, InvalidFormatException {
+        final XWPFParagraph paragraph = document.createParagraph();
+        paragraph.createRun().setText("outside");
+        try (InputStream is = new ByteArrayInputStream(OUTSIDE_IMAGE)) {
+            paragraph.createRun().addPicture(is, Document.PICTURE_TYPE_PNG, "outside.png", IMAGE_SIZE, IMAGE_SIZE);
+        }
+    }
+
+    /**
+     * Adds a field with the given instruction to the given {@link XWPFParagraph}.
+     * 
+     * @param paragraph
+     *            the {@link XWPFParagraph}
+     * @param instruction
+     *            the field instruction
+     */
+    private void addField(XWPFParagraph paragraph, String instruction) {
+        paragraph.createRun().getCTR().addNewFldChar().setFldCharType(STFldCharType.BEGIN);
+        paragraph.createRun().getCTR().addNewInstrText().setStringValue(instruction);
+        paragraph.createRun().getCTR().addNewFldChar().setFldCharType(STFldCharType.END);
+    }
+
+    /**
+     * Adds a numbering to the given {@link XWPFNumbering}.
+     * 
+     * @param numbering
+     *            the {@link XWPFNumbering}
+     * @return the added numbering ID
+     */
+    private BigInteger addNumbering(XWPFNumbering numbering) {
+        final CTAbstractNum abstractNum = CTAbstractNum.Factory.newInstance();
+        abstractNum.setAbstractNumId(BigInteger.ZERO);
+        abstractNum.addNewLvl().setIlvl(BigInteger.ZERO);
+
+        return numbering.addNum(numbering.addAbstractNum(new XWPFAbstractNum(abstractNum)));
+    }
+
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFFormulaEvaluator;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MStyle;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.MTable.MCell;
+import org.obeonetwork.m2doc.element.MText;
+import org.obeonetwork.m2doc.services.ExcelRangeReader;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ExcelRangeReader}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ExcelRangeReaderTests {
+
+    /**
+     * The sheet name.
+     */
+    private static final String SHEET_NAME = "Sheet1";
+
+    /**
+     * An ISO 8601 date.
+     */
+    private static final String ISO_DATE = "2024-03-15T00:00:00";
+
+    /**
+     * The workbook {@link URI}.
+     */
+    private static final URI WORKBOOK_URI = URI.createURI("test.xlsx");
+
+    /**
+     * Creates a workbook with a bold header row, an empty row, a row of values, and a formula.
+     * 
+     * @param evaluate
+     *            tells if formulas are evaluated before saving
+     * @return the workbook content
+     * @throws IOException
+     *             if the workbook can't be written
+     */
+    private byte[] createWorkbook(boolean evaluate) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            final XSSFSheet sheet = workbook.createSheet(SHEET_NAME);
+            final XSSFCellStyle boldStyle = workbook.createCellStyle();
+            final XSSFFont boldFont = workbook.createFont();
+            boldFont.setBold(true);
+            boldStyle.setFont(boldFont);
+            final XSSFCellStyle numberStyle = workbook.createCellStyle();
+            numberStyle.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+
+            final XSSFRow header = sheet.createRow(1);
+            header.createCell(1).setCellValue("Name");
+            header.getCell(1).setCellStyle(boldStyle);
+            header.createCell(2).setCellValue("Value");
+            header.getCell(2).setCellStyle(boldStyle);
+
+            final XSSFRow values = sheet.createRow(3);
+            values.createCell(1).setCellValue(true);
+            values.createCell(2).setCellValue(1.5);
+            values.getCell(2).setCellStyle(numberStyle);
+            values.createCell(3).setCellFormula("C4*2");
+
+            sheet.createRow(10).createCell(1).setCellValue("after the range");
+
+            if (evaluate) {
+                XSSFFormulaEvaluator.evaluateAllFormulaCells(workbook);
+            }
+            workbook.write(output);
+
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Creates a workbook with an ISO 8601 date cell in A1.
+     * 
+     * @return the workbook content
+     * @throws IOException
+     *             if the workbook can't be written
+     */
+    private byte[] createISODateWorkbook() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            final XSSFSheet sheet = workbook.createSheet(SHEET_NAME);
+            final XSSFCellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+
+            final XSSFCell cell = sheet.createRow(0).createCell(0);
+            cell.setCellStyle(dateStyle);
+            cell.getCTCell().setT(STCellType.D);
+            cell.getCTCell().setV(ISO_DATE);
+            workbook.write(output);
+
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Reads the given range from the given workbook content.
+     * 
+     * @param content
+     *            the workbook content
+     * @param start
+     *            the top left cell address
+     * @param end
+     *            the bottom right cell address
+     * @return the read {@link MTable} if any, <code>null</code> otherwise
+     * @throws IOException
+     *             if the workbook can't be read
+     * @throws InvalidFormatException
+     *             if the workbook is not valid
+     */
+    private MTable read(byte[] content, String start, String end) throws IOException, InvalidFormatException {
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(content))) {
+            return new ExcelRangeReader(pkg, WORKBOOK_URI, Locale.ENGLISH).read(SHEET_NAME, new CellAddress(start),
+                    new CellAddress(end));
+        }
+    }
+
+    /**
+     * Gets the text of the given {@link MCell}.
+     * 
+     * @param cell
+     *            the {@link MCell}
+     * @return the text of the given {@link MCell}
+     */
+    private String getText(MCell cell) {
+        return ((MText) cell.getContents()).getText();
+    }
+
+    @Test
+    public void read() throws IOException, InvalidFormatException {
+        final MTable table = read(createWorkbook(true), "B2", "D5");
+
+        assertEquals(4, table.getRows().size());
+        for (int i = 0; i < table.getRows().size(); i++) {
+            assertEquals(3, table.getRows().get(i).getCells().size());
+        }
+        assertEquals("Name", getText(table.getRows().get(0).getCells().get(0)));
+        assertEquals("Value", getText(table.getRows().get(0).getCells().get(1)));
+        assertEquals("", getText(table.getRows().get(0).getCells().get(2)));
+        assertEquals("", getText(table.getRows().get(1).getCells().get(0)));
+        assertEquals("TRUE", getText(table.getRows().get(2).getCells().get(0)));
+        assertEquals("1.50", getText(table.getRows().get(2).getCells().get(1)));
+        assertEquals("3", getText(table.getRows().get(2).getCells().get(2)));
+        assertEquals("", getText(table.getRows().get(3).getCells().get(0)));
+    }
+
+    @Test
+    public void readStyle() throws IOException, InvalidFormatException {
+        final MTable table = read(createWorkbook(true), "B2", "C2");
+
+        final MStyle style = ((MText) table.getRows().get(0).getCells().get(0).getContents()).getStyle();
+        assertTrue((style.getFontModifiers() & MStyle.FONT_BOLD) != 0);
+    }
+
+    @Test
+    public void readInternedStyle() throws IOException, InvalidFormatException {
+        final MTable table = read(createWorkbook(true), "B2", "C2");
+
+        final MStyle nameStyle = ((MText) table.getRows().get(0).getCells().get(0).getContents()).getStyle();
+        final MStyle valueStyle = ((MText) table.getRows().get(0).getCells().get(1).getContents()).getStyle();
+        assertSame(nameStyle, valueStyle);
+    }
+
+    @Test
+    public void readFormulaWithoutCachedValue() throws IOException, InvalidFormatException {
+        assertNull(read(createWorkbook(false), "B2", "D5"));
+    }
+
+    @Test
+    public void readFormulaOutOfRange() throws IOException, InvalidFormatException {
+        final MTable table = read(createWorkbook(false), "B2", "C4");
+
+        assertEquals(3, table.getRows().size());
+        assertEquals("1.50", getText(table.getRows().get(2).getCells().get(1)));
+    }
+
+    @Test
+    public void readISODate() throws IOException, InvalidFormatException {
+        final byte[] content = createISODateWorkbook();
+        final String expected;
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(content))) {
+            expected = new DataFormatter(Locale.ENGLISH).formatCellValue(workbook.getSheet(SHEET_NAME).getRow(0)
+                    .getCell(0));
+        }
+
+        final MTable table = read(content, "A1", "A1");
+
+        assertEquals("2024-03-15", expected);
+        assertEquals(expected, getText(table.getRows().get(0).getCells().get(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readNotExistingSheet() throws IOException, InvalidFormatException {
+        try (OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(createWorkbook(true)))) {
+            new ExcelRangeReader(pkg, WORKBOOK_URI, Locale.ENGLISH).read("NotExistingSheet", new CellAddress("A1"),
+                    new CellAddress("B2"));
+        }
+    }
+
+}
@@ -0,0 +1,298 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.eclipse.acceleo.query.AQLUtils;
+import org.eclipse.acceleo.query.runtime.IReadOnlyQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.IService;
+import org.eclipse.acceleo.query.runtime.impl.JavaMethodService;
+import org.eclipse.acceleo.query.runtime.impl.namespace.ClassLoaderQualifiedNameResolver;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameQueryEnvironment;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameResolver;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.MText;
+import org.obeonetwork.m2doc.services.ExcelServices;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the workbook cache of {@link ExcelServices}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ExcelServicesCacheTests {
+
+    /**
+     * The sheet name.
+     */
+    private static final String SHEET_NAME = "Sheet1";
+
+    /**
+     * The number of rows.
+     */
+    private static final int ROWS = 2;
+
+    /**
+     * The number of columns.
+     */
+    private static final int COLUMNS = 3;
+
+    /**
+     * The time stamp shift used to simulate a modification of the file.
+     */
+    private static final long TIME_STAMP_SHIFT = 2000L;
+
+    /**
+     * The Excel file.
+     */
+    private File excelFile;
+
+    @Before
+    public void before() throws IOException {
+        excelFile = File.createTempFile("excelServicesCache", ".xlsx");
+    }
+
+    @After
+    public void after() {
+        excelFile.delete();
+    }
+
+    /**
+     * Writes a workbook where each cell contains the given prefix followed by its row and column.
+     * 
+     * @param prefix
+     *            the cell value prefix
+     * @param formula
+     *            tells if the last cell value is given by a formula without cached result, so the range can't be read
+     *            without loading the workbook
+     * @throws IOException
+     *             if the workbook can't be written
+     */
+    private void writeWorkbook(String prefix, boolean formula) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream output = new FileOutputStream(excelFile)) {
+            final XSSFSheet sheet = workbook.createSheet(SHEET_NAME);
+            for (int rowIndex = 0; rowIndex < ROWS; rowIndex++) {
+                final XSSFRow row = sheet.createRow(rowIndex);
+                for (int columnIndex = 0; columnIndex < COLUMNS; columnIndex++) {
+                    final String value = prefix + rowIndex + columnIndex;
+                    if (formula && rowIndex == ROWS - 1 && columnIndex == COLUMNS - 1) {
+                        row.createCell(columnIndex).setCellFormula("\"" + value + "\"");
+                    } else {
+                        row.createCell(columnIndex).setCellValue(value);
+                    }
+                }
+            }
+            workbook.write(output);
+        }
+    }
+
+    /**
+     * Gets the {@link ExcelServices#estimateMemorySize(XSSFWorkbook) estimated memory size} of the {@link #excelFile}.
+     * 
+     * @return the estimated memory size of the {@link #excelFile}
+     * @throws IOException
+     *             if the workbook can't be read
+     */
+    private long getEstimatedMemorySize() throws IOException {
+        try (InputStream input = new FileInputStream(excelFile); XSSFWorkbook workbook = new XSSFWorkbook(input)) {
+            return ExcelServices.estimateMemorySize(workbook);
+        }
+    }
+
+    /**
+     * Reads the whole range of the {@link #excelFile}.
+     * 
+     * @param services
+     *            the {@link ExcelServices}
+     * @return the read {@link MTable}
+     * @throws IOException
+     *             if the workbook can't be read
+     */
+    private MTable read(ExcelServices services) throws IOException {
+        return services.asTable(URI.createFileURI(excelFile.getAbsolutePath()).toString(), SHEET_NAME, "A1", "C2");
+    }
+
+    /**
+     * Gets the text of the given cell.
+     * 
+     * @param table
+     *            the {@link MTable}
+     * @param rowIndex
+     *            the row index
+     * @param columnIndex
+     *            the column index
+     * @return the text of the given cell
+     */
+    private String getText(MTable table, int rowIndex, int columnIndex) {
+        return ((MText) table.getRows().get(rowIndex).getCells().get(columnIndex).getContents()).getText();
+    }
+
+    /**
+     * Gets the {@link ExcelServices} registered in the given {@link IReadOnlyQueryEnvironment}.
+     * 
+     * @param queryEnvironment
+     *            the {@link IReadOnlyQueryEnvironment}
+     * @return the {@link ExcelServices} registered in the given {@link IReadOnlyQueryEnvironment} if any,
+     *         <code>null</code> otherwise
+     */
+    private ExcelServices getExcelServices(IReadOnlyQueryEnvironment queryEnvironment) {
+        ExcelServices res = null;
+
+        for (IService<?> service : queryEnvironment.getLookupEngine().getRegisteredServices()) {
+            if (service instanceof JavaMethodService
+                && ((JavaMethodService) service).getInstance() instanceof ExcelServices) {
+                res = (ExcelServices) ((JavaMethodService) service).getInstance();
+                break;
+            }
+        }
+
+        return res;
+    }
+
+    @Test
+    public void estimateMemorySize() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final XSSFSheet sheet = workbook.createSheet(SHEET_NAME);
+            sheet.createRow(0).createCell(0).setCellValue("shared");
+            sheet.createRow(1).createCell(0).setCellValue("shared");
+            sheet.createRow(2).createCell(0).setCellValue(1);
+
+            assertEquals(3 * ExcelServices.CELL_MEMORY_SIZE + ExcelServices.SHARED_STRING_MEMORY_SIZE,
+                    ExcelServices.estimateMemorySize(workbook));
+        }
+    }
+
+    @Test
+    public void cachedWithinBudget() throws IOException {
+        writeWorkbook("a", true);
+        final ExcelServices services = new ExcelServices(new ExtensibleURIConverterImpl(), null);
+
+        final MTable table = read(services);
+
+        assertEquals("a12", getText(table, 1, 2));
+        assertEquals(getEstimatedMemorySize(), services.getWorkbooksSize());
+        assertEquals("a00", getText(read(services), 0, 0));
+        assertEquals(getEstimatedMemorySize(), services.getWorkbooksSize());
+
+        services.clean();
+
+        assertEquals(0, services.getWorkbooksSize());
+    }
+
+    @Test
+    public void notCachedOverBudget() throws IOException {
+        writeWorkbook("a", true);
+        // the file fits in the budget but not its parsed workbook
+        final long budget = excelFile.length();
+        assertTrue(budget < getEstimatedMemorySize());
+        final ExcelServices services = new ExcelServices(new ExtensibleURIConverterImpl(), null, budget);
+
+        assertEquals("a12", getText(read(services), 1, 2));
+        assertEquals(0, services.getWorkbooksSize());
+        assertEquals("a12", getText(read(services), 1, 2));
+        assertEquals(0, services.getWorkbooksSize());
+    }
+
+    @Test
+    public void notCachedWithoutBudget() throws IOException {
+        writeWorkbook("a", true);
+        final ExcelServices services = new ExcelServices(new ExtensibleURIConverterImpl(), null, 0);
+
+        assertEquals("a12", getText(read(services), 1, 2));
+        assertEquals(0, services.getWorkbooksSize());
+    }
+
+    @Test
+    public void streamedWithoutFormula() throws IOException {
+        writeWorkbook("a", false);
+        final ExcelServices services = new ExcelServices(new ExtensibleURIConverterImpl(), null);
+
+        assertEquals("a12", getText(read(services), 1, 2));
+        assertEquals(0, services.getWorkbooksSize());
+    }
+
+    @Test
+    public void streamedWhenChangedWithoutFormula() throws IOException {
+        writeWorkbook("a", true);
+        final ExcelServices services = new ExcelServices(new ExtensibleURIConverterImpl(), null);
+        assertEquals("a00", getText(read(services), 0, 0));
+        assertEquals(getEstimatedMemorySize(), services.getWorkbooksSize());
+
+        final long timeStamp = excelFile.lastModified();
+        writeWorkbook("b", false);
+        excelFile.setLastModified(timeStamp + TIME_STAMP_SHIFT);
+
+        assertEquals("b12", getText(read(services), 1, 2));
+        assertEquals(0, services.getWorkbooksSize());
+    }
+
+    @Test
+    public void reloadedWhenChanged() throws IOException {
+        writeWorkbook("a", true);
+        final ExcelServices services = new ExcelServices(new ExtensibleURIConverterImpl(), null);
+        assertEquals("a00", getText(read(services), 0, 0));
+
+        final long timeStamp = excelFile.lastModified();
+        writeWorkbook("b", true);
+        excelFile.setLastModified(timeStamp + TIME_STAMP_SHIFT);
+
+        assertEquals("b00", getText(read(services), 0, 0));
+        assertEquals(getEstimatedMemorySize(), services.getWorkbooksSize());
+        services.clean();
+    }
+
+    @Test
+    public void cleanedWithServices() throws IOException {
+        writeWorkbook("a", true);
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        final IQualifiedNameResolver resolver = new ClassLoaderQualifiedNameResolver(getClass().getClassLoader(),
+                EPackage.Registry.INSTANCE, M2DocUtils.QUALIFIER_SEPARATOR);
+        final IQualifiedNameQueryEnvironment queryEnvironment = M2DocUtils.getQueryEnvironment(resolver,
+                resourceSet, URI.createFileURI(excelFile.getAbsolutePath()), Collections.emptyMap(), false);
+        try {
+            // provided by the Excel services configurator
+            final ExcelServices services = getExcelServices(queryEnvironment);
+            assertNotNull(services);
+            assertEquals("a12", getText(services.asTable(excelFile.getName(), SHEET_NAME, "A1", "C2"), 1, 2));
+            assertEquals(getEstimatedMemorySize(), services.getWorkbooksSize());
+
+            AQLUtils.cleanServices(M2DocUtils.M2DOC_LANGUAGE, queryEnvironment, resourceSet);
+
+            assertEquals(0, services.getWorkbooksSize());
+        } finally {
+            resolver.dispose();
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.impl.MImageAWTImpl;
+import org.obeonetwork.m2doc.services.ImageServices;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures {@link ImageServices#resize(MImage, Double)} on large images. This class is not part of
+ * {@link ServicesTests} since it is meant to be run on demand.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ImageServicesBenchmarkTests {
+
+    /**
+     * The image width in pixels.
+     */
+    private static final int WIDTH = 6000;
+
+    /**
+     * The image height in pixels.
+     */
+    private static final int HEIGHT = 4000;
+
+    /**
+     * The number of measured iterations.
+     */
+    private static final int ITERATIONS = 10;
+
+    /**
+     * The number of nano seconds in a milli second.
+     */
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    @Test
+    public void resizeTenth() throws IOException {
+        benchmark(0.1);
+    }
+
+    @Test
+    public void resizeQuarter() throws IOException {
+        benchmark(0.25);
+    }
+
+    @Test
+    public void resizeHalf() throws IOException {
+        benchmark(0.5);
+    }
+
+    /**
+     * Resizes a large PNG file by the given factor, checks the result, and prints the average resize time.
+     * 
+     * @param factor
+     *            the resize factor
+     * @throws IOException
+     *             if the image can't be written or read
+     */
+    private void benchmark(double factor) throws IOException {
+        final File imageFile = File.createTempFile("imageServicesBenchmark", ".png");
+        try {
+            createImage(imageFile);
+            final ImageServices services = new ImageServices(new ExtensibleURIConverterImpl(),
+                    URI.createFileURI(imageFile.getAbsolutePath()));
+            final String imageURI = URI.createFileURI(imageFile.getAbsolutePath()).toString();
+
+            long duration = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                final MImage image = services.asImage(imageURI);
+                final long start = System.nanoTime();
+                final MImage resized = services.resize(image, factor);
+                duration += System.nanoTime() - start;
+
+                final BufferedImage bufferedImage = MImageAWTImpl.getBufferedImage(resized);
+                assertEquals((int) (WIDTH * factor), bufferedImage.getWidth());
+                assertEquals((int) (HEIGHT * factor), bufferedImage.getHeight());
+            }
+            System.out.println(WIDTH + "x" + HEIGHT + " resized by " + factor + ": "
+                + duration / ITERATIONS / NANOS_PER_MILLI + " ms");
+        } finally {
+            imageFile.delete();
+        }
+    }
+
+    /**
+     * Writes a gradient PNG image to the given {@link File}.
+     * 
+     * @param file
+     *            the {@link File}
+     * @throws IOException
+     *             if the image can't be written
+     */
+    private void createImage(File file) throws IOException {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(0, 0, Color.BLUE, WIDTH, HEIGHT, Color.ORANGE));
+            graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        } finally {
+            graphics.dispose();
+        }
+        ImageIO.write(image, "png", file);
+    }
+
+}
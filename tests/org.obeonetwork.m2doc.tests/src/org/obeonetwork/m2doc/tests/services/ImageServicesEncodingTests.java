@@ -0,0 +1,176 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.apache.poi.util.IOUtils;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.MImageAWTImpl;
+import org.obeonetwork.m2doc.services.ImageServices;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ImageServices#setEncoding(MImage, String, Double)}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ImageServicesEncodingTests {
+
+    /**
+     * The image {@link URI}.
+     */
+    private static final URI IMAGE_URI = URI.createURI("image.png");
+
+    /**
+     * The image size in pixels.
+     */
+    private static final int SIZE = 64;
+
+    /**
+     * The JPEG start of image marker.
+     */
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8 };
+
+    /**
+     * The PNG signature start.
+     */
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G' };
+
+    /**
+     * The {@link ImageServices}.
+     */
+    private final ImageServices services = new ImageServices(new ExtensibleURIConverterImpl(),
+            URI.createURI("template.docx"));
+
+    @Test
+    public void setEncodingJPG() throws IOException {
+        final MImage encoded = services.setEncoding(createImage(), "jpg", 0.8);
+
+        assertSame(PictureType.JPG, encoded.getType());
+        assertTrue(startsWith(read(encoded), JPEG_MAGIC));
+    }
+
+    @Test
+    public void setEncodingPNG() throws IOException {
+        final MImage encoded = services.setEncoding(createImage(), "PNG", null);
+
+        assertSame(PictureType.PNG, encoded.getType());
+        assertTrue(startsWith(read(encoded), PNG_MAGIC));
+    }
+
+    @Test
+    public void setEncodingQuality() throws IOException {
+        final MImage image = createImage();
+
+        final byte[] low = read(services.setEncoding(image, "JPG", 0.1));
+        final byte[] high = read(services.setEncoding(image, "JPG", 0.9));
+
+        assertTrue(low.length < high.length);
+        // out of range qualities are clamped
+        assertTrue(read(services.setEncoding(image, "JPG", -1.0)).length <= low.length);
+        assertTrue(read(services.setEncoding(image, "JPG", 2.0)).length >= high.length);
+    }
+
+    @Test
+    public void setEncodingKeepsSize() throws IOException {
+        final MImage image = createImage();
+        image.setConserveRatio(false);
+        image.setWidth(SIZE * 2);
+        image.setHeight(SIZE / 2);
+
+        final MImage encoded = services.setEncoding(image, "JPG", 0.8);
+
+        assertEquals(SIZE * 2, encoded.getWidth());
+        assertEquals(SIZE / 2, encoded.getHeight());
+        assertFalse(encoded.conserveRatio());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setEncodingUnsupportedFormat() throws IOException {
+        services.setEncoding(createImage(), "GIF", 0.8);
+    }
+
+    @Test
+    public void setEncodingNull() throws IOException {
+        assertNull(services.setEncoding(null, "JPG", 0.8));
+        assertNull(services.setEncoding(createImage(), null, 0.8));
+    }
+
+    /**
+     * Creates an {@link MImage} with random pixels, so its compressed size depends on the quality.
+     * 
+     * @return the created {@link MImage}
+     */
+    private MImage createImage() {
+        final BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        final Random random = new Random(SIZE);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        return new MImageAWTImpl(image, IMAGE_URI);
+    }
+
+    /**
+     * Reads the content of the given {@link MImage}.
+     * 
+     * @param image
+     *            the {@link MImage}
+     * @return the content of the given {@link MImage}
+     * @throws IOException
+     *             if the image can't be read
+     */
+    private byte[] read(MImage image) throws IOException {
+        final byte[] res;
+
+        try (InputStream is = image.getInputStream()) {
+            res = IOUtils.toByteArray(is);
+        }
+
+        return res;
+    }
+
+    /**
+     * Tells if the given content starts with the given magic bytes.
+     * 
+     * @param content
+     *            the content
+     * @param magic
+     *            the magic bytes
+     * @return <code>true</code> if the given content starts with the given magic bytes, <code>false</code> otherwise
+     */
+    private boolean startsWith(byte[] content, byte[] magic) {
+        boolean res = content.length >= magic.length;
+
+        for (int i = 0; res && i < magic.length; i++) {
+            res = content[i] == magic[i];
+        }
+
+        return res;
+    }
+
+}
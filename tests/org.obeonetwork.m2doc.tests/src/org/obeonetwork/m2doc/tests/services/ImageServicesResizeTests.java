@@ -0,0 +1,93 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.impl.MImageAWTImpl;
+import org.obeonetwork.m2doc.services.ImageServices;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link ImageServices#resize(MImage, Double)} on images created by services.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ImageServicesResizeTests {
+
+    /**
+     * The image {@link URI}.
+     */
+    private static final URI IMAGE_URI = URI.createURI("image.png");
+
+    /**
+     * The image size in pixels.
+     */
+    private static final int SIZE = 10;
+
+    /**
+     * The {@link ImageServices}.
+     */
+    private final ImageServices services = new ImageServices(new ExtensibleURIConverterImpl(),
+            URI.createURI("template.docx"));
+
+    @Test
+    public void resizeKeepsType() throws IOException {
+        final MImage image = new MImageAWTImpl(new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB), IMAGE_URI);
+
+        final BufferedImage resized = MImageAWTImpl.getBufferedImage(services.resize(image, 0.5));
+
+        assertEquals(BufferedImage.TYPE_INT_RGB, resized.getType());
+        assertEquals(SIZE / 2, resized.getWidth());
+        assertEquals(SIZE / 2, resized.getHeight());
+    }
+
+    @Test
+    public void resizeCustomType() throws IOException {
+        final WritableRaster raster = Raster.createInterleavedRaster(DataBuffer.TYPE_BYTE, SIZE, SIZE, SIZE * 3, 3,
+                new int[] {0, 1, 2 }, null);
+        final ComponentColorModel colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB),
+                false, false, Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+        final BufferedImage customImage = new BufferedImage(colorModel, raster, false, null);
+        assertEquals(BufferedImage.TYPE_CUSTOM, customImage.getType());
+        final MImage image = new MImageAWTImpl(customImage, IMAGE_URI);
+
+        final BufferedImage resized = MImageAWTImpl.getBufferedImage(services.resize(image, 0.5));
+
+        assertEquals(BufferedImage.TYPE_INT_ARGB, resized.getType());
+        assertEquals(SIZE / 2, resized.getWidth());
+        assertEquals(SIZE / 2, resized.getHeight());
+    }
+
+    @Test
+    public void resizeToZero() throws IOException {
+        final MImage image = new MImageAWTImpl(new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB), IMAGE_URI);
+
+        final BufferedImage resized = MImageAWTImpl.getBufferedImage(services.resize(image, 0.01));
+
+        assertEquals(1, resized.getWidth());
+        assertEquals(1, resized.getHeight());
+    }
+
+}
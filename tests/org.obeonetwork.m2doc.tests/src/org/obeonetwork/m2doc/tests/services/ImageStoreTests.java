@@ -0,0 +1,230 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+
+import org.apache.poi.util.IOUtils;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
+import org.obeonetwork.m2doc.element.impl.MImageImpl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests {@link ImageStore}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class ImageStoreTests {
+
+    /**
+     * The image width in pixels.
+     */
+    private static final int WIDTH = 4;
+
+    /**
+     * The image height in pixels.
+     */
+    private static final int HEIGHT = 2;
+
+    /**
+     * The contents budget in bytes.
+     */
+    private static final long BUDGET = 1024L * 1024L;
+
+    /**
+     * The decoded image capacity.
+     */
+    private static final int DECODED_CAPACITY = 2;
+
+    /**
+     * A {@link ExtensibleURIConverterImpl} recording threads opening streams.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class RecordingURIConverter extends ExtensibleURIConverterImpl {
+
+        /**
+         * The threads that opened streams.
+         */
+        private final Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+
+        /**
+         * The number of opened streams.
+         */
+        private volatile int nbOpened;
+
+        @Override
+        public InputStream createInputStream(URI uri, Map<?, ?> options) throws IOException {
+            threads.add(Thread.currentThread());
+            synchronized (this) {
+                nbOpened++;
+            }
+            return super.createInputStream(uri, options);
+        }
+
+    }
+
+    /**
+     * The image {@link File}.
+     */
+    private File imageFile;
+
+    /**
+     * The image {@link URI}.
+     */
+    private URI imageURI;
+
+    /**
+     * The {@link RecordingURIConverter}.
+     */
+    private RecordingURIConverter uriConverter;
+
+    /**
+     * The image preparation {@link ExecutorService}.
+     */
+    private ExecutorService executor;
+
+    @Before
+    public void before() throws IOException {
+        imageFile = File.createTempFile("imageStore", ".png");
+        ImageIO.write(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), "png", imageFile);
+        imageURI = URI.createFileURI(imageFile.getAbsolutePath());
+        uriConverter = new RecordingURIConverter();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+        imageFile.delete();
+    }
+
+    @Test
+    public void getImageOpensInPreparation() throws IOException {
+        final ImageStore store = new ImageStore(BUDGET, DECODED_CAPACITY, executor);
+
+        final MImage image = store.getImage(uriConverter, imageURI, PictureType.PNG);
+
+        assertEquals(WIDTH, image.getWidth());
+        assertEquals(HEIGHT, image.getHeight());
+        assertArrayEquals(Files.readAllBytes(imageFile.toPath()), read(image));
+        assertEquals(1, uriConverter.threads.size());
+        assertFalse(uriConverter.threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void getImageDoesntOpenBeforePreparation() throws Exception {
+        final ImageStore store = new ImageStore(BUDGET, DECODED_CAPACITY, executor);
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.submit(() -> {
+            latch.await();
+            return null;
+        });
+
+        final MImage image = store.getImage(uriConverter, imageURI, PictureType.PNG);
+        assertEquals(0, uriConverter.nbOpened);
+        latch.countDown();
+
+        assertEquals(WIDTH, image.getWidth());
+        assertEquals(1, uriConverter.nbOpened);
+    }
+
+    @Test
+    public void getImageReadsOnce() throws IOException {
+        final ImageStore store = new ImageStore(BUDGET, DECODED_CAPACITY, executor);
+
+        final MImage first = store.getImage(uriConverter, imageURI, PictureType.PNG);
+        assertEquals(WIDTH, first.getWidth());
+        final MImage second = store.getImage(uriConverter, imageURI, PictureType.PNG);
+        assertEquals(WIDTH, second.getWidth());
+
+        assertArrayEquals(read(first), read(second));
+        assertEquals(1, uriConverter.nbOpened);
+    }
+
+    @Test
+    public void getImageMissingFile() throws IOException {
+        final ImageStore store = new ImageStore(BUDGET, DECODED_CAPACITY, executor);
+        final URI missingURI = URI.createFileURI(new File(imageFile.getParentFile(), "missing.png").getAbsolutePath());
+
+        final MImage image = store.getImage(uriConverter, missingURI, PictureType.PNG);
+
+        assertEquals(-1, image.getRatio(), 0);
+    }
+
+    @Test
+    public void getImageAfterEndGeneration() throws IOException {
+        final ImageStore store = new ImageStore();
+
+        final MImage first = store.getImage(uriConverter, imageURI, PictureType.PNG);
+        assertEquals(WIDTH, first.getWidth());
+        store.endGeneration();
+        final MImage second = store.getImage(uriConverter, imageURI, PictureType.PNG);
+        assertEquals(WIDTH, second.getWidth());
+        store.endGeneration();
+
+        assertArrayEquals(read(first), read(second));
+    }
+
+    @Test
+    public void executorConstructorOpensInPreparation() throws IOException {
+        final MImage image = new MImageImpl(executor, uriConverter, imageURI, PictureType.PNG);
+
+        assertEquals(WIDTH, image.getWidth());
+        assertEquals(HEIGHT, image.getHeight());
+        assertEquals(1, uriConverter.threads.size());
+        assertFalse(uriConverter.threads.contains(Thread.currentThread()));
+    }
+
+    /**
+     * Reads the content of the given {@link MImage}.
+     * 
+     * @param image
+     *            the {@link MImage}
+     * @return the content of the given {@link MImage}
+     * @throws IOException
+     *             if the image can't be read
+     */
+    private byte[] read(MImage image) throws IOException {
+        final byte[] res;
+
+        try (InputStream is = image.getInputStream()) {
+            res = IOUtils.toByteArray(is);
+        }
+
+        return res;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.obeonetwork.m2doc.util.LRUMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link LRUMap}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class LRUMapTests {
+
+    @Test
+    public void capacity() {
+        final LRUMap<String, String> map = new LRUMap<>(2);
+        map.put("a", "A");
+        map.put("b", "B");
+        map.get("a");
+        map.put("c", "C");
+
+        assertEquals(2, map.size());
+        assertEquals(2L, map.getWeight());
+        assertTrue(map.containsKey("a"));
+        assertFalse(map.containsKey("b"));
+        assertTrue(map.containsKey("c"));
+    }
+
+    @Test
+    public void budget() {
+        final List<String> evicted = new ArrayList<>();
+        final LRUMap<String, String> map = new LRUMap<>(5L, value -> value.length(),
+                (key, value) -> evicted.add(key));
+        map.put("a", "AA");
+        map.put("b", "BB");
+        assertEquals(4L, map.getWeight());
+        assertTrue(evicted.isEmpty());
+
+        map.put("c", "CC");
+
+        assertEquals(4L, map.getWeight());
+        assertEquals(Arrays.asList("a"), evicted);
+        assertFalse(map.containsKey("a"));
+    }
+
+    @Test
+    public void budgetReplace() {
+        final List<String> evicted = new ArrayList<>();
+        final LRUMap<String, String> map = new LRUMap<>(5L, value -> value.length(),
+                (key, value) -> evicted.add(key));
+        map.put("a", "AA");
+        map.put("b", "BB");
+        map.put("b", "BBBB");
+
+        assertEquals(4L, map.getWeight());
+        assertEquals(Arrays.asList("a"), evicted);
+        assertEquals("BBBB", map.get("b"));
+    }
+
+    @Test
+    public void removeAndClear() {
+        final LRUMap<String, String> map = new LRUMap<>(5L, value -> value.length(), null);
+        map.put("a", "AA");
+        map.put("b", "BB");
+        map.remove("a");
+
+        assertEquals(2L, map.getWeight());
+
+        map.clear();
+
+        assertEquals(0L, map.getWeight());
+        assertTrue(map.isEmpty());
+    }
+
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MElementContainer.HAlignment;
+import org.obeonetwork.m2doc.element.MImage;
+import org.obeonetwork.m2doc.element.MList;
+import org.obeonetwork.m2doc.element.MParagraph;
+import org.obeonetwork.m2doc.element.MTable;
+import org.obeonetwork.m2doc.element.MText;
+import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.MImageImpl;
+import org.obeonetwork.m2doc.element.impl.MListImpl;
+import org.obeonetwork.m2doc.element.impl.MParagraphImpl;
+import org.obeonetwork.m2doc.element.impl.MStyleImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MCellImpl;
+import org.obeonetwork.m2doc.element.impl.MTableImpl.MRowImpl;
+import org.obeonetwork.m2doc.element.impl.MTextImpl;
+import org.obeonetwork.m2doc.services.MElementCache;
+import org.obeonetwork.m2doc.services.MElementCopier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests {@link MElementCache}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class MElementCacheTests {
+
+    /**
+     * The base {@link URI}.
+     */
+    private static final URI BASE_URI = URI.createURI("http://www.obeo.fr/");
+
+    /**
+     * The image width and height.
+     */
+    private static final int IMAGE_SIZE = 10;
+
+    @Test
+    public void getKey() {
+        final String key = MElementCache.getKey(BASE_URI, "<p>text</p>", "0");
+
+        assertEquals(key, MElementCache.getKey(BASE_URI, "<p>text</p>", "0"));
+        assertNotEquals(key, MElementCache.getKey(BASE_URI, "<p>other text</p>", "0"));
+        assertNotEquals(key, MElementCache.getKey(URI.createURI("http://www.m2doc.org/"), "<p>text</p>", "0"));
+        assertNotEquals(key, MElementCache.getKey(BASE_URI, "<p>text</p>", "1"));
+    }
+
+    @Test
+    public void getPut() {
+        final MElementCache cache = new MElementCache();
+        final String key = MElementCache.getKey(BASE_URI, "text", "Markdown");
+        assertNull(cache.get(key));
+
+        final List<MElement> elements = createElements();
+        final List<MElement> put = cache.put(key, elements);
+        final List<MElement> got = cache.get(key);
+
+        assertNotSame(elements, put);
+        assertNotSame(elements, got);
+        assertNotSame(put, got);
+        assertEquals("text", getText(got));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void getModifiedCopy() {
+        final MElementCache cache = new MElementCache();
+        final String key = MElementCache.getKey(BASE_URI, "text", "Markdown");
+        final List<MElement> put = cache.put(key, createElements());
+
+        final MParagraph paragraph = (MParagraph) put.get(0);
+        paragraph.setStyleName("Title");
+        paragraph.setHAlignment(HAlignment.CENTER);
+        ((MText) paragraph.getContents()).getStyle().setFontSize(42);
+        ((MTable) put.get(1)).setStyleID("TableGrid");
+        ((MTable) put.get(1)).getRows().get(0).getCells().get(0).setContents(null);
+
+        final List<MElement> got = cache.get(key);
+        final MParagraph gotParagraph = (MParagraph) got.get(0);
+        assertNull(gotParagraph.getStyleName());
+        assertNull(gotParagraph.getHAlignment());
+        assertEquals(-1, ((MText) gotParagraph.getContents()).getStyle().getFontSize());
+        assertNull(((MTable) got.get(1)).getStyleID());
+        assertEquals("cell", ((MText) ((MTable) got.get(1)).getRows().get(0).getCells().get(0).getContents())
+                .getText());
+    }
+
+    @Test
+    public void getResizedImageCopy() throws IOException {
+        final MElementCache cache = new MElementCache();
+        final MList elements = new MListImpl();
+        elements.add(new MImageImpl(createPNG(), PictureType.PNG));
+        final List<MElement> put = cache.put("image", elements);
+
+        ((MImage) put.get(0)).setWidth(IMAGE_SIZE * 2);
+
+        final MImage image = (MImage) cache.get("image").get(0);
+        assertEquals(IMAGE_SIZE, image.getWidth());
+        assertEquals(IMAGE_SIZE, image.getHeight());
+        assertEquals(IMAGE_SIZE * 2, ((MImage) put.get(0)).getWidth());
+        assertEquals(IMAGE_SIZE * 2, ((MImage) put.get(0)).getHeight());
+    }
+
+    @Test
+    public void copyTable() {
+        final MTable table = new MTableImpl();
+        table.setLabel("label");
+        final MRowImpl row = new MRowImpl();
+        row.setHeight(2);
+        final MCellImpl cell = new MCellImpl(new MTextImpl("cell", null), null);
+        cell.setWidth(3);
+        row.getCells().add(cell);
+        table.getRows().add(row);
+
+        final MTable copy = (MTable) MElementCopier.copy(table);
+
+        assertNotSame(table, copy);
+        assertEquals("label", copy.getLabel());
+        assertEquals(1, copy.getRows().size());
+        assertEquals(2, copy.getRows().get(0).getHeight());
+        assertEquals(3, copy.getRows().get(0).getCells().get(0).getWitdh());
+        assertNotSame(cell.getContents(), copy.getRows().get(0).getCells().get(0).getContents());
+    }
+
+    @Test
+    public void eviction() {
+        final MElementCache cache = new MElementCache(2);
+        cache.put("first", createElements());
+        cache.put("second", createElements());
+        cache.get("first");
+        cache.put("third", createElements());
+
+        assertNull(cache.get("second"));
+        assertEquals(createElements().size(), cache.get("first").size());
+        assertEquals(createElements().size(), cache.get("third").size());
+    }
+
+    /**
+     * Creates a {@link List} of {@link MElement}.
+     * 
+     * @return the created {@link List} of {@link MElement}
+     */
+    private List<MElement> createElements() {
+        final MList res = new MListImpl();
+
+        res.add(new MParagraphImpl(new MTextImpl("text", new MStyleImpl(null, -1, null, null, -1)), null));
+        final MTable table = new MTableImpl();
+        final MRowImpl row = new MRowImpl();
+        row.getCells().add(new MCellImpl(new MTextImpl("cell", null), null));
+        table.getRows().add(row);
+        res.add(table);
+
+        return res;
+    }
+
+    /**
+     * Creates a square PNG image.
+     * 
+     * @return the PNG image content
+     * @throws IOException
+     *             if the image can't be written
+     */
+    private byte[] createPNG() throws IOException {
+        try (ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            ImageIO.write(new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_RGB), "png", output);
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Gets the text of the first paragraph of the given {@link List} of {@link MElement}.
+     * 
+     * @param elements
+     *            the {@link List} of {@link MElement}
+     * @return the text of the first paragraph of the given {@link List} of {@link MElement}
+     */
+    private String getText(List<MElement> elements) {
+        return ((MText) ((MParagraph) elements.get(0)).getContents()).getText();
+    }
+
+}
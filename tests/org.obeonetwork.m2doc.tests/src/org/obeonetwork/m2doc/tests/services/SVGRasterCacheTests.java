@@ -0,0 +1,222 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.PictureType;
+import org.obeonetwork.m2doc.element.impl.ImageStore;
+import org.obeonetwork.m2doc.element.impl.MImageImpl;
+import org.obeonetwork.m2doc.element.impl.SVGRasterCache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link SVGRasterCache}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class SVGRasterCacheTests {
+
+    /**
+     * The SVG {@link URI}.
+     */
+    private static final URI SVG_URI = URI.createURI("resources/imageServices/asImageSVG/music.svg");
+
+    /**
+     * The SVG content.
+     */
+    private static final byte[] SVG = {'<', 's', 'v', 'g', '/', '>' };
+
+    /**
+     * An other SVG content.
+     */
+    private static final byte[] OTHER_SVG = {'<', 's', 'v', 'g', ' ', '/', '>' };
+
+    /**
+     * The memory budget fitting two {@link #RASTER}.
+     */
+    private static final long BUDGET = 8L;
+
+    /**
+     * A rasterized image.
+     */
+    private static final byte[] RASTER = {1, 2, 3, 4 };
+
+    /**
+     * A target DPI twice the points per inch.
+     */
+    private static final float DOUBLE_DPI = 144f;
+
+    /**
+     * A size in pixels.
+     */
+    private static final int SIZE = 100;
+
+    @Test
+    public void getKey() {
+        final SVGRasterCache cache = new SVGRasterCache();
+        final String key = cache.getKey(SVG_URI, SVG, 0, 0);
+
+        assertEquals(key, cache.getKey(SVG_URI, SVG, 0, 0));
+        assertNotEquals(key, cache.getKey(SVG_URI, OTHER_SVG, 0, 0));
+        assertNotEquals(key, cache.getKey(URI.createURI("other.svg"), SVG, 0, 0));
+    }
+
+    @Test
+    public void getKeySize() {
+        final SVGRasterCache cache = new SVGRasterCache();
+        final String key = cache.getKey(SVG_URI, SVG, SIZE, SIZE);
+
+        assertEquals(key, cache.getKey(SVG_URI, SVG, SIZE, SIZE));
+        assertNotEquals(key, cache.getKey(SVG_URI, SVG, 0, 0));
+        assertNotEquals(key, cache.getKey(SVG_URI, SVG, SIZE, SIZE + 1));
+    }
+
+    @Test
+    public void toPixels() {
+        final SVGRasterCache cache = new SVGRasterCache(BUDGET, null, DOUBLE_DPI);
+
+        assertEquals(SIZE * 2, cache.toPixels(SIZE));
+    }
+
+    @Test
+    public void toPixelsWithoutTargetDPI() {
+        assertEquals(0, new SVGRasterCache().toPixels(SIZE));
+    }
+
+    @Test
+    public void getPut() {
+        final SVGRasterCache cache = new SVGRasterCache();
+        final String key = cache.getKey(SVG_URI, SVG, 0, 0);
+        assertNull(cache.get(key));
+
+        cache.put(key, RASTER);
+
+        assertSame(RASTER, cache.get(key));
+        assertEquals(RASTER.length, cache.getMemorySize());
+    }
+
+    @Test
+    public void putSameKey() {
+        final SVGRasterCache cache = new SVGRasterCache(BUDGET);
+        final byte[] other = {5, 6, 7, 8 };
+
+        cache.put("key", RASTER);
+        cache.put("key", other);
+
+        assertSame(other, cache.get("key"));
+        assertEquals(other.length, cache.getMemorySize());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        final SVGRasterCache cache = new SVGRasterCache(BUDGET);
+        cache.put("first", RASTER);
+        cache.put("second", RASTER);
+        cache.get("first");
+
+        cache.put("third", RASTER);
+
+        assertSame(RASTER, cache.get("first"));
+        assertNull(cache.get("second"));
+        assertSame(RASTER, cache.get("third"));
+        assertEquals(BUDGET, cache.getMemorySize());
+    }
+
+    @Test
+    public void overBudget() {
+        final SVGRasterCache cache = new SVGRasterCache(RASTER.length - 1);
+
+        cache.put("key", RASTER);
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.getMemorySize());
+    }
+
+    @Test
+    public void spill() throws IOException {
+        final File folder = Files.createTempDirectory("svgRasterCache").toFile();
+        try {
+            final SVGRasterCache cache = new SVGRasterCache(RASTER.length, folder, 0);
+            cache.put("first", RASTER);
+            cache.put("second", RASTER);
+            assertEquals(1, folder.listFiles().length);
+
+            assertArrayEquals(RASTER, cache.get("first"));
+            assertEquals(RASTER.length, cache.getMemorySize());
+
+            cache.clear();
+            assertEquals(0, folder.listFiles().length);
+            assertNull(cache.get("first"));
+        } finally {
+            for (File file : folder.listFiles()) {
+                file.delete();
+            }
+            folder.delete();
+        }
+    }
+
+    @Test
+    public void getRasterTargetDPI() throws IOException {
+        final URI uri = URI.createFileURI(new File(SVG_URI.toString()).getAbsolutePath());
+        final ImageStore store = new ImageStore(0, 0, null, new SVGRasterCache(BUDGET, null, DOUBLE_DPI));
+        final MImageImpl image = (MImageImpl) store.getImage(new ExtensibleURIConverterImpl(), uri,
+                PictureType.SVG);
+        assertTrue(image.getWidth() > 0);
+
+        final BufferedImage raster = ImageIO
+                .read(new ByteArrayInputStream(image.getRaster(image.getWidth(), image.getHeight())));
+
+        assertEquals(image.getWidth() * 2, raster.getWidth());
+        assertEquals(image.getHeight() * 2, raster.getHeight());
+    }
+
+    @Test
+    public void getRasterWithoutTargetDPI() throws IOException {
+        final URI uri = URI.createFileURI(new File(SVG_URI.toString()).getAbsolutePath());
+        final ImageStore store = new ImageStore(0, 0);
+        final MImageImpl image = (MImageImpl) store.getImage(new ExtensibleURIConverterImpl(), uri,
+                PictureType.SVG);
+
+        final BufferedImage raster = ImageIO
+                .read(new ByteArrayInputStream(image.getRaster(image.getWidth() * 2, image.getHeight() * 2)));
+
+        assertEquals(image.getWidth(), raster.getWidth());
+    }
+
+    @Test
+    public void clear() {
+        final SVGRasterCache cache = new SVGRasterCache();
+        cache.put("key", RASTER);
+
+        cache.clear();
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.getMemorySize());
+    }
+
+}
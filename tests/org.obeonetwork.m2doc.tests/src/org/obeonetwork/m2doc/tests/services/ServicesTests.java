@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2017, 2025 Obeo. 
+ *  Copyright (c) 2017, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -23,7 +23,10 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses(value = {BooleanServicesTests.class, DocumentServicesTests.class, ImageServicesTests.class,
     LinkServicesTests.class, PaginationServicesTests.class, ExcelServicesTests.class, TokenRegistryTests.class,
-    GenerationResultServicesTests.class, })
+    GenerationResultServicesTests.class, ExcelRangeReaderTests.class, TableServicesTests.class,
+    TemplateStyleCatalogTests.class, MElementCacheTests.class, SVGRasterCacheTests.class,
+    ImageServicesResizeTests.class, ImageServicesEncodingTests.class, ImageStoreTests.class,
+    ExcelServicesCacheTests.class, LRUMapTests.class, })
 public class ServicesTests {
 
 }
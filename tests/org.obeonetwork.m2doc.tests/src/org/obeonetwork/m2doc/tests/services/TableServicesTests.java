@@ -0,0 +1,269 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.acceleo.query.runtime.Query;
+import org.eclipse.acceleo.query.runtime.QueryParsing;
+import org.eclipse.acceleo.query.runtime.ServiceUtils;
+import org.eclipse.acceleo.query.runtime.impl.QueryEvaluationEngine;
+import org.eclipse.acceleo.query.runtime.impl.namespace.ClassLoaderQualifiedNameResolver;
+import org.eclipse.acceleo.query.runtime.namespace.IQualifiedNameQueryEnvironment;
+import org.eclipse.emf.ecore.EPackage;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MStreamedTable;
+import org.obeonetwork.m2doc.element.MTable.MRow;
+import org.obeonetwork.m2doc.element.MText;
+import org.obeonetwork.m2doc.services.TableServices;
+import org.obeonetwork.m2doc.util.M2DocUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link TableServices}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class TableServicesTests {
+
+    /**
+     * A {@link List} counting accesses to its elements.
+     * 
+     * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+     */
+    private static final class CountingList extends AbstractList<String> {
+
+        /**
+         * The elements.
+         */
+        private final List<String> elements;
+
+        /**
+         * The number of accesses to elements.
+         */
+        private int accesses;
+
+        /**
+         * Constructor.
+         * 
+         * @param elements
+         *            the elements
+         */
+        private CountingList(String... elements) {
+            this.elements = Arrays.asList(elements);
+        }
+
+        @Override
+        public String get(int index) {
+            accesses++;
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+    }
+
+    /**
+     * Evaluates the given expression with {@link TableServices} registered.
+     * 
+     * @param expression
+     *            the expression
+     * @param variables
+     *            the variables
+     * @return the evaluation result
+     */
+    private Object eval(String expression, Map<String, Object> variables) {
+        final IQualifiedNameQueryEnvironment queryEnvironment = Query
+                .newQualifiedNameEnvironment(new ClassLoaderQualifiedNameResolver(getClass().getClassLoader(),
+                        EPackage.Registry.INSTANCE, M2DocUtils.QUALIFIER_SEPARATOR));
+        ServiceUtils.registerServices(queryEnvironment,
+                ServiceUtils.getServices(queryEnvironment, TableServices.class));
+
+        return new QueryEvaluationEngine(queryEnvironment).eval(QueryParsing.newBuilder().build(expression), variables)
+                .getResult();
+    }
+
+    /**
+     * Gets the text of the given cell.
+     * 
+     * @param row
+     *            the {@link MRow}
+     * @param column
+     *            the column index
+     * @return the text of the given cell
+     */
+    private String getText(MRow row, int column) {
+        return ((MText) row.getCells().get(column).getContents()).getText();
+    }
+
+    @Test
+    public void asTable() {
+        final CountingList values = new CountingList("a", "b", "c");
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", values);
+
+        final MStreamedTable table = (MStreamedTable) eval("values->asTable(v | Sequence{v, 'x'})", variables);
+
+        assertEquals(2, table.getColumnsCount());
+        // only the first row is computed to know the columns count
+        assertEquals(1, values.accesses);
+        final Iterator<MRow> rows = table.rowIterator();
+        MRow row = rows.next();
+        assertEquals("a", getText(row, 0));
+        assertEquals("x", getText(row, 1));
+        assertEquals(1, values.accesses);
+        row = rows.next();
+        assertEquals("b", getText(row, 0));
+        assertEquals(2, values.accesses);
+        row = rows.next();
+        assertEquals("c", getText(row, 0));
+        assertFalse(rows.hasNext());
+    }
+
+    @Test
+    public void asTableEmpty() {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", new CountingList());
+
+        final MStreamedTable table = (MStreamedTable) eval("values->asTable(v | Sequence{v, v})", variables);
+
+        assertEquals(0, table.getColumnsCount());
+        assertFalse(table.rowIterator().hasNext());
+    }
+
+    @Test
+    public void asTableWithHeaders() {
+        final CountingList values = new CountingList("a", "b");
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", values);
+
+        final MStreamedTable table = (MStreamedTable) eval(
+                "values->asTable(Sequence{'Name', 'Kind'}, v | Sequence{v, 'letter'})", variables);
+
+        assertEquals(2, table.getColumnsCount());
+        assertEquals(0, values.accesses);
+        final Iterator<MRow> rows = table.rowIterator();
+        MRow row = rows.next();
+        assertEquals("Name", getText(row, 0));
+        assertEquals("Kind", getText(row, 1));
+        assertEquals(0, values.accesses);
+        row = rows.next();
+        assertEquals("a", getText(row, 0));
+        assertEquals("letter", getText(row, 1));
+        assertEquals(1, values.accesses);
+    }
+
+    @Test
+    public void asTableGetRows() {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", new CountingList("a", "b", "c"));
+
+        final MStreamedTable table = (MStreamedTable) eval("values->asTable(v | v)", variables);
+
+        assertEquals(1, table.getColumnsCount());
+        assertEquals(3, table.getRows().size());
+        assertEquals("c", getText(table.getRows().get(2), 0));
+        // rows can be iterated again once computed
+        assertEquals("a", getText(table.rowIterator().next(), 0));
+    }
+
+    @Test
+    public void asTableIteratedTwice() {
+        final CountingList values = new CountingList("a", "b");
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", values);
+
+        final MStreamedTable table = (MStreamedTable) eval("values->asTable(v | Sequence{v, 'x'})", variables);
+
+        for (int i = 0; i < 2; i++) {
+            final Iterator<MRow> rows = table.rowIterator();
+            assertEquals("a", getText(rows.next(), 0));
+            assertEquals("b", getText(rows.next(), 0));
+            assertFalse(rows.hasNext());
+        }
+        // the first row computed ahead is not computed again by the first iteration
+        assertEquals(4, values.accesses);
+    }
+
+    @Test
+    public void asTableWithHeadersIteratedTwice() {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", new CountingList("a"));
+
+        final MStreamedTable table = (MStreamedTable) eval("values->asTable(Sequence{'Name'}, v | Sequence{v})",
+                variables);
+
+        for (int i = 0; i < 2; i++) {
+            final Iterator<MRow> rows = table.rowIterator();
+            assertEquals("Name", getText(rows.next(), 0));
+            assertEquals("a", getText(rows.next(), 0));
+            assertFalse(rows.hasNext());
+        }
+    }
+
+    @Test
+    public void asTableWrongCellsCount() {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", new CountingList("a", "b"));
+
+        final MStreamedTable table = (MStreamedTable) eval(
+                "values->asTable(v | if v = 'a' then Sequence{v, v} else Sequence{v} endif)", variables);
+
+        assertEquals(2, table.getColumnsCount());
+        final Iterator<MRow> rows = table.rowIterator();
+        rows.next();
+        try {
+            rows.next();
+            fail("The row with a wrong cells count should be rejected.");
+        } catch (IllegalStateException e) {
+            assertEquals("The row of the value number 2 has 1 cells but the table has 2 columns.", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void asTableWithHeadersWrongCellsCount() {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", new CountingList("a"));
+
+        final MStreamedTable table = (MStreamedTable) eval(
+                "values->asTable(Sequence{'Name', 'Kind'}, v | Sequence{v})", variables);
+
+        final Iterator<MRow> rows = table.rowIterator();
+        rows.next();
+        rows.next();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void asTableWithHeadersLambdaError() {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("values", new CountingList("a"));
+
+        final MStreamedTable table = (MStreamedTable) eval(
+                "values->asTable(Sequence{'Name'}, v | v.notExistingService())", variables);
+
+        final Iterator<MRow> rows = table.rowIterator();
+        rows.next();
+        rows.next();
+    }
+
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.tests.services;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.Test;
+import org.obeonetwork.m2doc.services.TemplateStyleCatalog;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests {@link TemplateStyleCatalog}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class TemplateStyleCatalogTests {
+
+    @Test
+    public void getCatalog() throws IOException {
+        final File templateFile = File.createTempFile("templateStyleCatalog", ".docx");
+        try {
+            createTemplate(templateFile, "Heading1");
+            final URIConverter uriConverter = new ExtensibleURIConverterImpl();
+            final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+
+            final TemplateStyleCatalog catalog = TemplateStyleCatalog.getCatalog(uriConverter, templateURI);
+
+            assertEquals("Heading1 name", catalog.getTextStyles().get("Heading1"));
+            assertEquals(1, catalog.getTextStyles().size());
+            assertEquals(0, catalog.getTableStyles().size());
+            assertSame(catalog, TemplateStyleCatalog.getCatalog(uriConverter, templateURI));
+        } finally {
+            templateFile.delete();
+        }
+    }
+
+    @Test
+    public void getCatalogChangedContent() throws IOException {
+        final File templateFile = File.createTempFile("templateStyleCatalog", ".docx");
+        try {
+            createTemplate(templateFile, "Heading1");
+            final URIConverter uriConverter = new ExtensibleURIConverterImpl();
+            final URI templateURI = URI.createFileURI(templateFile.getAbsolutePath());
+            final TemplateStyleCatalog catalog = TemplateStyleCatalog.getCatalog(uriConverter, templateURI);
+
+            createTemplate(templateFile, "Heading2");
+            final TemplateStyleCatalog changedCatalog = TemplateStyleCatalog.getCatalog(uriConverter, templateURI);
+
+            assertNotSame(catalog, changedCatalog);
+            assertEquals("Heading2 name", changedCatalog.getTextStyles().get("Heading2"));
+            assertEquals(1, changedCatalog.getTextStyles().size());
+        } finally {
+            templateFile.delete();
+        }
+    }
+
+    /**
+     * Creates a template with a paragraph style with the given ID.
+     * 
+     * @param templateFile
+     *            the template {@link File}
+     * @param styleID
+     *            the style ID
+     * @throws IOException
+     *             if the template can't be written
+     */
+    private void createTemplate(File templateFile, String styleID) throws IOException {
+        try (XWPFDocument document = new XWPFDocument();
+                OutputStream os = new FileOutputStream(templateFile)) {
+            final CTStyle style = CTStyle.Factory.newInstance();
+            style.setStyleId(styleID);
+            style.setType(STStyleType.PARAGRAPH);
+            style.addNewName().setVal(styleID + " name");
+            document.createStyles().addStyle(new XWPFStyle(style));
+            document.createParagraph().createRun().setText(styleID);
+            document.write(os);
+        }
+    }
+
+}
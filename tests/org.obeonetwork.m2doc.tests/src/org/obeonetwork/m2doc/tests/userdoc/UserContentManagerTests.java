@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2016 Obeo. 
+ *  Copyright (c) 2016, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -11,15 +11,29 @@
  *******************************************************************************/
 package org.obeonetwork.m2doc.tests.userdoc;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIConverter;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
+import org.obeonetwork.m2doc.generator.GenerationResult;
+import org.obeonetwork.m2doc.generator.RawCopier;
 import org.obeonetwork.m2doc.generator.UserContentManager;
 import org.obeonetwork.m2doc.parser.DocumentParserException;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STFldCharType;
 
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests the {@link UserContentManager} class.
@@ -28,6 +42,55 @@ import static org.junit.Assert.assertNull;
  */
 public class UserContentManagerTests {
 
+    /**
+     * The user content start instruction.
+     */
+    private static final String USER_CONTENT = "m:usercontent zone1";
+
+    /**
+     * The user content end instruction.
+     */
+    private static final String END_USER_CONTENT = "m:endusercontent";
+
+    /**
+     * The template {@link File}.
+     */
+    private File templateFile;
+
+    /**
+     * The previously generated {@link File}.
+     */
+    private File destinationFile;
+
+    /**
+     * The {@link GenerationResult} of {@link #generateLostFiles()} if any, <code>null</code> otherwise.
+     */
+    private GenerationResult result;
+
+    @Before
+    public void before() throws IOException {
+        templateFile = File.createTempFile("userContentManager", ".docx");
+        destinationFile = File.createTempFile("userContentManager-generation", ".docx");
+        try (XWPFDocument document = new XWPFDocument(); OutputStream os = new FileOutputStream(templateFile)) {
+            document.createParagraph().createRun().setText("template");
+            document.write(os);
+        }
+    }
+
+    @After
+    public void after() {
+        templateFile.delete();
+        destinationFile.delete();
+        if (result != null) {
+            if (result.getLostDocumentURI() != null) {
+                new File(result.getLostDocumentURI().toFileString()).delete();
+            }
+            for (URI lostUserContentURI : result.getLostUserContents().values()) {
+                new File(lostUserContentURI.toFileString()).delete();
+            }
+        }
+    }
+
     /**
      * Test With No Exist Last Destination File.
      * 
@@ -63,4 +126,116 @@ public class UserContentManagerTests {
         userContentManager.dispose();
     }
 
+    @Test
+    public void backupNotCreatedWithoutError() throws IOException, InvalidFormatException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("outside");
+            addField(document.createParagraph(), USER_CONTENT);
+            document.createParagraph().createRun().setText("inside");
+            addField(document.createParagraph(), END_USER_CONTENT);
+            write(document);
+        }
+
+        assertNull(generateLostFiles().getLostDocumentURI());
+    }
+
+    @Test
+    public void backupCreatedForErrorOutsideUserContent() throws IOException, InvalidFormatException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            addField(document.createParagraph(), USER_CONTENT);
+            document.createParagraph().createRun().setText("inside");
+            addField(document.createParagraph(), END_USER_CONTENT);
+            document.createParagraph().createRun().setText("outside");
+            addField(document.createParagraph(), END_USER_CONTENT);
+            write(document);
+        }
+
+        final URI backupURI = generateLostFiles().getLostDocumentURI();
+
+        assertNotNull(backupURI);
+        assertTrue(new File(backupURI.toFileString()).exists());
+    }
+
+    @Test
+    public void backupCreatedForErrorInTableOutsideUserContent() throws IOException, InvalidFormatException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            addField(document.createParagraph(), USER_CONTENT);
+            document.createParagraph().createRun().setText("inside");
+            addField(document.createParagraph(), END_USER_CONTENT);
+            final XWPFTable table = document.createTable();
+            addField(table.getRow(0).getCell(0).getParagraphs().get(0), END_USER_CONTENT);
+            write(document);
+        }
+
+        assertNotNull(generateLostFiles().getLostDocumentURI());
+    }
+
+    @Test
+    public void backupCreatedForUnclosedUserContent() throws IOException, InvalidFormatException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("outside");
+            addField(document.createParagraph(), USER_CONTENT);
+            document.createParagraph().createRun().setText("inside");
+            write(document);
+        }
+
+        assertNotNull(generateLostFiles().getLostDocumentURI());
+    }
+
+    /**
+     * Generates the lost files for the {@link #destinationFile}.
+     * 
+     * @return the {@link GenerationResult}
+     * @throws IOException
+     *             if a lost file can't be written
+     * @throws InvalidFormatException
+     *             if the template can't be read
+     */
+    private GenerationResult generateLostFiles() throws IOException, InvalidFormatException {
+        final GenerationResult res;
+
+        try (XWPFDocument generatedDocument = new XWPFDocument()) {
+            res = new GenerationResult(generatedDocument);
+            final UserContentManager userContentManager = new UserContentManager(URIConverter.INSTANCE,
+                    URI.createFileURI(templateFile.getAbsolutePath()),
+                    URI.createFileURI(destinationFile.getAbsolutePath()));
+            try {
+                userContentManager.generateLostFiles(res, new RawCopier());
+            } finally {
+                userContentManager.dispose();
+            }
+        }
+        result = res;
+
+        return res;
+    }
+
+    /**
+     * Writes the given {@link XWPFDocument} to the {@link #destinationFile}.
+     * 
+     * @param document
+     *            the {@link XWPFDocument}
+     * @throws IOException
+     *             if the document can't be written
+     */
+    private void write(XWPFDocument document) throws IOException {
+        try (OutputStream os = new FileOutputStream(destinationFile)) {
+            document.write(os);
+        }
+    }
+
+    /**
+     * Adds a field with the given instruction to the given {@link XWPFParagraph}.
+     * 
+     * @param paragraph
+     *            the {@link XWPFParagraph}
+     * @param instruction
+     *            the field instruction
+     */
+    private void addField(XWPFParagraph paragraph, String instruction) {
+        paragraph.createRun().getCTR().addNewFldChar().setFldCharType(STFldCharType.BEGIN);
+        paragraph.createRun().getCTR().addNewInstrText().setStringValue(instruction);
+        paragraph.createRun().getCTR().addNewFldChar().setFldCharType(STFldCharType.END);
+    }
+
 }
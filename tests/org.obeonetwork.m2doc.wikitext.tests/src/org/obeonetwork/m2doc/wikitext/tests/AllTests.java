@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2019 Obeo. 
+ *  Copyright (c) 2019, 2026 Obeo. 
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v2.0
  *  which accompanies this distribution, and is available at
@@ -15,6 +15,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 import org.obeonetwork.m2doc.wikitext.tests.services.M2DocWikiTextServicesTests;
+import org.obeonetwork.m2doc.wikitext.tests.services.MarkupReadersTests;
+import org.obeonetwork.m2doc.wikitext.tests.services.WikiTextConverterPoolTests;
 
 /**
  * Aggregates tests for the org.obeonetwork.m2doc.wikitext plug-in.
@@ -22,7 +24,8 @@ import org.obeonetwork.m2doc.wikitext.tests.services.M2DocWikiTextServicesTests;
  * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
  */
 @RunWith(Suite.class)
-@SuiteClasses(value = {M2DocWikiTextServicesTests.class, })
+@SuiteClasses(value = {M2DocWikiTextServicesTests.class, WikiTextConverterPoolTests.class,
+    MarkupReadersTests.class, })
 public class AllTests {
 
 }
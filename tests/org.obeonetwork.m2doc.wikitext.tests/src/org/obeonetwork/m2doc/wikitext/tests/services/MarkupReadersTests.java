@@ -0,0 +1,104 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.wikitext.tests.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.obeonetwork.m2doc.wikitext.services.MarkupReaders;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link MarkupReaders}.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class MarkupReadersTests {
+
+    /**
+     * The markup text.
+     */
+    private static final String TEXT = "# Caf\u00e9";
+
+    @Test
+    public void noBOM() throws IOException {
+        assertEquals(TEXT, read(TEXT.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    public void empty() throws IOException {
+        assertEquals("", read(new byte[0]));
+    }
+
+    @Test
+    public void utf8BOM() throws IOException {
+        assertEquals(TEXT, read(concat(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF },
+                TEXT.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void utf16BigEndianBOM() throws IOException {
+        assertEquals(TEXT,
+                read(concat(new byte[] {(byte) 0xFE, (byte) 0xFF }, TEXT.getBytes(StandardCharsets.UTF_16BE))));
+    }
+
+    @Test
+    public void utf16LittleEndianBOM() throws IOException {
+        assertEquals(TEXT,
+                read(concat(new byte[] {(byte) 0xFF, (byte) 0xFE }, TEXT.getBytes(StandardCharsets.UTF_16LE))));
+    }
+
+    /**
+     * Reads the given bytes with a {@link MarkupReaders#createReader(java.io.InputStream, java.nio.charset.Charset)
+     * markup reader} defaulting to ISO-8859-1.
+     * 
+     * @param bytes
+     *            the bytes
+     * @return the read text
+     * @throws IOException
+     *             if the bytes can't be read
+     */
+    private String read(byte[] bytes) throws IOException {
+        final StringWriter res = new StringWriter();
+
+        try (Reader reader = MarkupReaders.createReader(new ByteArrayInputStream(bytes),
+                StandardCharsets.ISO_8859_1)) {
+            reader.transferTo(res);
+        }
+
+        return res.toString();
+    }
+
+    /**
+     * Concatenates the given byte arrays.
+     * 
+     * @param first
+     *            the first bytes
+     * @param second
+     *            the second bytes
+     * @return the concatenated bytes
+     */
+    private byte[] concat(byte[] first, byte[] second) {
+        final byte[] res = new byte[first.length + second.length];
+
+        System.arraycopy(first, 0, res, 0, first.length);
+        System.arraycopy(second, 0, res, first.length, second.length);
+
+        return res;
+    }
+
+}
@@ -0,0 +1,357 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Obeo. 
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v2.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v20.html
+ *   
+ *   Contributors:
+ *       Obeo - initial API and implementation
+ *  
+ *******************************************************************************/
+package org.obeonetwork.m2doc.wikitext.tests.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.junit.Test;
+import org.obeonetwork.m2doc.element.MElement;
+import org.obeonetwork.m2doc.element.MList;
+import org.obeonetwork.m2doc.element.MParagraph;
+import org.obeonetwork.m2doc.element.MText;
+import org.obeonetwork.m2doc.services.PaginationServices;
+import org.obeonetwork.m2doc.wikitext.services.M2DocWikiTextServices;
+import org.obeonetwork.m2doc.wikitext.services.WikiTextConverterPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link WikiTextConverterPool} and {@link M2DocWikiTextServices} from several threads.
+ * 
+ * @author <a href="mailto:yvan.lussaud@obeo.fr">Yvan Lussaud</a>
+ */
+public class WikiTextConverterPoolTests {
+
+    /**
+     * The base {@link URI}.
+     */
+    private static final URI BASE_URI = URI.createURI("http://www.obeo.fr/");
+
+    /**
+     * The number of threads.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * The number of converted fragments.
+     */
+    private static final int FRAGMENTS = 3000;
+
+    /**
+     * The number of languages used in {@link #parseTwoGenerationsConcurrently()}.
+     */
+    private static final int LANGUAGES = 3;
+
+    /**
+     * The number of lists converted by each generation in {@link #parseTwoGenerationsOnOneEnvironment()}.
+     */
+    private static final int GENERATION_LISTS = 500;
+
+    /**
+     * The timeout in seconds for each conversion.
+     */
+    private static final long TIMEOUT = 60;
+
+    @Test
+    public void parseTwoGenerationsConcurrently()
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        try (XWPFDocument firstDocument = new XWPFDocument(); XWPFDocument secondDocument = new XWPFDocument()) {
+            // the services configurator creates an instance for each generation query environment
+            final M2DocWikiTextServices firstServices = new M2DocWikiTextServices(new ExtensibleURIConverterImpl(),
+                    BASE_URI);
+            final M2DocWikiTextServices secondServices = new M2DocWikiTextServices(new ExtensibleURIConverterImpl(),
+                    BASE_URI);
+            firstServices.setDestinationDocument(firstDocument);
+            secondServices.setDestinationDocument(secondDocument);
+            final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                final List<Future<List<MElement>>> results = new ArrayList<>();
+                final List<Future<List<MElement>>> listResults = new ArrayList<>();
+                for (int i = 0; i < FRAGMENTS; i++) {
+                    final int index = i;
+                    final M2DocWikiTextServices services = getServices(index, firstServices, secondServices);
+                    results.add(executor.submit(() -> parse(services, index)));
+                    listResults.add(executor.submit(() -> services.fromMarkdownString("* item " + index)));
+                }
+                final Set<Long> firstNumberingIDs = new HashSet<>();
+                final Set<Long> secondNumberingIDs = new HashSet<>();
+                for (int i = 0; i < FRAGMENTS; i++) {
+                    assertEquals("fragment " + i % (FRAGMENTS / 2),
+                            getText(results.get(i).get(TIMEOUT, TimeUnit.SECONDS)));
+                    final List<MElement> elements = listResults.get(i).get(TIMEOUT, TimeUnit.SECONDS);
+                    assertEquals("item " + i, getText(elements));
+                    if (getServices(i, firstServices, secondServices) == firstServices) {
+                        collectNumberingIDs(elements, firstNumberingIDs);
+                    } else {
+                        collectNumberingIDs(elements, secondNumberingIDs);
+                    }
+                }
+
+                // each generation creates the numberings of its lists in its own destination document
+                assertEquals(FRAGMENTS / 2, firstNumberingIDs.size());
+                assertEquals(FRAGMENTS / 2, secondNumberingIDs.size());
+                assertEquals(FRAGMENTS / 2, PaginationServices.getCTNumbering(firstDocument.getNumbering())
+                        .sizeOfAbstractNumArray());
+                assertEquals(FRAGMENTS / 2, PaginationServices.getCTNumbering(secondDocument.getNumbering())
+                        .sizeOfAbstractNumArray());
+            } finally {
+                executor.shutdownNow();
+            }
+            firstServices.endGeneration(firstDocument);
+            secondServices.endGeneration(secondDocument);
+        }
+    }
+
+    @Test
+    public void parseTwoGenerationsOnOneEnvironment()
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        try (XWPFDocument firstDocument = new XWPFDocument(); XWPFDocument secondDocument = new XWPFDocument()) {
+            // the services configurator creates one instance for the query environment shared by both generations
+            final M2DocWikiTextServices services = new M2DocWikiTextServices(new ExtensibleURIConverterImpl(),
+                    BASE_URI);
+            final CountDownLatch started = new CountDownLatch(2);
+            final CountDownLatch firstEnded = new CountDownLatch(1);
+            final ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                final Future<Set<Long>> firstResult = executor.submit(() -> {
+                    services.setDestinationDocument(firstDocument);
+                    try {
+                        started.countDown();
+                        started.await(TIMEOUT, TimeUnit.SECONDS);
+                        return parseLists(services, "first");
+                    } finally {
+                        services.endGeneration(firstDocument);
+                        firstEnded.countDown();
+                    }
+                });
+                final Future<Set<Long>> secondResult = executor.submit(() -> {
+                    services.setDestinationDocument(secondDocument);
+                    try {
+                        started.countDown();
+                        started.await(TIMEOUT, TimeUnit.SECONDS);
+                        final Set<Long> res = parseLists(services, "second");
+                        // the end of the first generation doesn't end this one
+                        firstEnded.await(TIMEOUT, TimeUnit.SECONDS);
+                        res.addAll(parseLists(services, "third"));
+                        return res;
+                    } finally {
+                        services.endGeneration(secondDocument);
+                    }
+                });
+
+                // each generation creates the numberings of its lists in its own destination document
+                assertEquals(GENERATION_LISTS, firstResult.get(TIMEOUT, TimeUnit.SECONDS).size());
+                assertEquals(2 * GENERATION_LISTS, secondResult.get(TIMEOUT, TimeUnit.SECONDS).size());
+                assertEquals(GENERATION_LISTS, PaginationServices.getCTNumbering(firstDocument.getNumbering())
+                        .sizeOfAbstractNumArray());
+                assertEquals(2 * GENERATION_LISTS, PaginationServices.getCTNumbering(secondDocument.getNumbering())
+                        .sizeOfAbstractNumArray());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void parseAfterEndGeneration() throws IOException {
+        try (XWPFDocument destinationDocument = new XWPFDocument()) {
+            final M2DocWikiTextServices services = new M2DocWikiTextServices(new ExtensibleURIConverterImpl(),
+                    BASE_URI);
+            services.setDestinationDocument(destinationDocument);
+            services.endGeneration(destinationDocument);
+
+            services.fromMarkdownString("fragment");
+        }
+    }
+
+    @Test
+    public void parseListsConcurrently()
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        try (XWPFDocument destinationDocument = new XWPFDocument()) {
+            final WikiTextConverterPool pool = new WikiTextConverterPool(new ExtensibleURIConverterImpl(),
+                    destinationDocument);
+            final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            final Set<Long> numberingIDs = new HashSet<>();
+            try {
+                final List<Future<List<MElement>>> results = new ArrayList<>();
+                for (int i = 0; i < FRAGMENTS; i++) {
+                    final String markup = "* item " + i;
+                    results.add(executor.submit(() -> pool.parse(WikiTextConverterPool.MARKDOWN, BASE_URI, markup)));
+                }
+                for (int i = 0; i < FRAGMENTS; i++) {
+                    final List<MElement> elements = results.get(i).get(TIMEOUT, TimeUnit.SECONDS);
+                    assertEquals("item " + i, getText(elements));
+                    collectNumberingIDs(elements, numberingIDs);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(FRAGMENTS, numberingIDs.size());
+            assertEquals(FRAGMENTS, PaginationServices.getCTNumbering(destinationDocument.getNumbering())
+                    .sizeOfAbstractNumArray());
+            assertEquals(0, pool.getCache().getHits());
+        }
+    }
+
+    /**
+     * Parses {@link #GENERATION_LISTS} Markdown lists with the given prefix and checks their text.
+     * 
+     * @param services
+     *            the {@link M2DocWikiTextServices}
+     * @param prefix
+     *            the prefix of list items
+     * @return the numbering IDs of parsed lists
+     */
+    private Set<Long> parseLists(M2DocWikiTextServices services, String prefix) {
+        final Set<Long> res = new HashSet<>();
+
+        for (int i = 0; i < GENERATION_LISTS; i++) {
+            final List<MElement> elements = services.fromMarkdownString("* " + prefix + " " + i);
+            assertEquals(prefix + " " + i, getText(elements));
+            collectNumberingIDs(elements, res);
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the {@link M2DocWikiTextServices} of the generation converting the fragment with the given index.
+     * 
+     * @param index
+     *            the fragment index
+     * @param firstServices
+     *            the {@link M2DocWikiTextServices} of the first generation, used for even indices
+     * @param secondServices
+     *            the {@link M2DocWikiTextServices} of the second generation, used for odd indices
+     * @return the {@link M2DocWikiTextServices} of the generation converting the fragment with the given index
+     */
+    private M2DocWikiTextServices getServices(int index, M2DocWikiTextServices firstServices,
+            M2DocWikiTextServices secondServices) {
+        final M2DocWikiTextServices res;
+
+        if (index % 2 == 0) {
+            res = firstServices;
+        } else {
+            res = secondServices;
+        }
+
+        return res;
+    }
+
+    /**
+     * Parses the fragment with the given index using one of the Markdown, AsciiDoc, or Textile services. Each fragment
+     * text is used twice so some conversions come from the cache.
+     * 
+     * @param services
+     *            the {@link M2DocWikiTextServices}
+     * @param index
+     *            the fragment index
+     * @return the parsed {@link List} of {@link MElement}
+     */
+    private List<MElement> parse(M2DocWikiTextServices services, int index) {
+        final List<MElement> res;
+
+        final int textIndex = index % (FRAGMENTS / 2);
+        switch (textIndex % LANGUAGES) {
+            case 0:
+                res = services.fromMarkdownString("fragment **" + textIndex + "**");
+                break;
+
+            case 1:
+                res = services.fromAsciiDocString("fragment " + textIndex);
+                break;
+
+            default:
+                res = services.fromTextileString("fragment " + textIndex);
+                break;
+        }
+
+        return res;
+    }
+
+    /**
+     * Gets the concatenated text of the given {@link List} of {@link MElement}.
+     * 
+     * @param elements
+     *            the {@link List} of {@link MElement}
+     * @return the concatenated text of the given {@link List} of {@link MElement}
+     */
+    private String getText(List<MElement> elements) {
+        final StringBuilder res = new StringBuilder();
+
+        for (MElement element : elements) {
+            appendText(element, res);
+        }
+
+        return res.toString().trim();
+    }
+
+    /**
+     * Appends the text of the given {@link MElement} to the given {@link StringBuilder}.
+     * 
+     * @param element
+     *            the {@link MElement}
+     * @param builder
+     *            the {@link StringBuilder}
+     */
+    private void appendText(MElement element, StringBuilder builder) {
+        if (element instanceof MText) {
+            builder.append(((MText) element).getText());
+        } else if (element instanceof MParagraph) {
+            appendText(((MParagraph) element).getContents(), builder);
+        } else if (element instanceof MList) {
+            for (MElement child : (MList) element) {
+                appendText(child, builder);
+            }
+        }
+    }
+
+    /**
+     * Collects the numbering IDs of the given {@link List} of {@link MElement}.
+     * 
+     * @param elements
+     *            the {@link List} of {@link MElement}
+     * @param numberingIDs
+     *            the collected numbering IDs
+     */
+    private void collectNumberingIDs(List<MElement> elements, Set<Long> numberingIDs) {
+        for (MElement element : elements) {
+            if (element instanceof MParagraph) {
+                final MParagraph paragraph = (MParagraph) element;
+                if (paragraph.getNumberingID() != null) {
+                    numberingIDs.add(paragraph.getNumberingID());
+                }
+                if (paragraph.getContents() instanceof MList) {
+                    collectNumberingIDs((MList) paragraph.getContents(), numberingIDs);
+                }
+            } else if (element instanceof MList) {
+                collectNumberingIDs((MList) element, numberingIDs);
+            }
+        }
+    }
+
+}